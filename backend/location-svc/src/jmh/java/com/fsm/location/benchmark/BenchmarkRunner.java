@@ -0,0 +1,62 @@
+package com.fsm.location.benchmark;
+
+import org.openjdk.jmh.results.format.ResultFormatType;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.ChainedOptionsBuilder;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+
+/**
+ * Runs the location-svc JMH benchmarks and stores the results as JSON, so that runs
+ * can be compared with each other (e.g. with a JMH result visualizer or a diff script).
+ * 
+ * Accepts the usual JMH command line options. Without a benchmark pattern all
+ * benchmarks are run; without {@code -rf}/{@code -rff} the results are written to
+ * {@value #DEFAULT_RESULT_FILE}.
+ */
+public final class BenchmarkRunner {
+    
+    /**
+     * Result file used unless one is given with {@code -rff}
+     */
+    static final String DEFAULT_RESULT_FILE = "target/jmh-result.json";
+    
+    private BenchmarkRunner() {
+    }
+    
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        run(new CommandLineOptions(args));
+    }
+    
+    /**
+     * Runs the benchmarks of one class, with additional JMH command line options.
+     * 
+     * @param benchmark the benchmark class
+     * @param args JMH command line options
+     */
+    public static void run(Class<?> benchmark, String... args) throws RunnerException, CommandLineOptionException {
+        CommandLineOptions options = new CommandLineOptions(args);
+        if (options.getIncludes().isEmpty()) {
+            run(new OptionsBuilder().parent(options).include(benchmark.getName()).build());
+        } else {
+            run(options);
+        }
+    }
+    
+    private static void run(Options options) throws RunnerException {
+        ChainedOptionsBuilder builder = new OptionsBuilder().parent(options);
+        if (!options.getResultFormat().hasValue()) {
+            builder.resultFormat(ResultFormatType.JSON);
+        }
+        if (!options.getResult().hasValue()) {
+            new File(DEFAULT_RESULT_FILE).getParentFile().mkdirs();
+            builder.result(DEFAULT_RESULT_FILE);
+        }
+        new Runner(builder.build()).run();
+    }
+}
@@ -0,0 +1,171 @@
+package com.fsm.location.benchmark;
+
+import org.flywaydb.core.Flyway;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the insert throughput of the location history with the full PostgreSQL schema
+ * (B-tree indexes on timestamp and (technician_id, timestamp), GIST on location) and with the
+ * lean history schema of the {@code lean-history} profile (BRIN on timestamp and the
+ * (technician_id, timestamp) index only).
+ * 
+ * Each variant is migrated with the service's own Flyway migrations into a scratch schema
+ * ({@code ingest_benchmark_full} / {@code ingest_benchmark_lean}, dropped afterwards) and
+ * filled with {@code historyRows} rows a millisecond apart, which fall into the partitions
+ * created by the migrations, so that index maintenance works on realistically sized indexes.
+ * The benchmark then inserts fixes of 1000 technicians in JDBC batches of 50 rows, as
+ * Hibernate does; the score is rows per second.
+ * 
+ * Requires a PostgreSQL database with PostGIS, by default the one of the postgresql profile.
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.fsm.location.benchmark.HistoryIngestBenchmark}; set
+ * {@code -Dbenchmark.jdbc.url}, {@code -Dbenchmark.jdbc.username} and
+ * {@code -Dbenchmark.jdbc.password} for another database.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+public class HistoryIngestBenchmark {
+    
+    private static final int BATCH_SIZE = 50;
+    
+    private static final int FLEET_SIZE = 1000;
+    
+    private static final String JDBC_URL = System.getProperty("benchmark.jdbc.url",
+            "jdbc:postgresql://localhost:5432/locationdb?reWriteBatchedInserts=true");
+    private static final String JDBC_USERNAME = System.getProperty("benchmark.jdbc.username", "postgres");
+    private static final String JDBC_PASSWORD = System.getProperty("benchmark.jdbc.password", "postgres");
+    
+    private static final String PREFILL_SQL =
+            "INSERT INTO technician_locations " +
+            "(technician_id, latitude, longitude, accuracy, timestamp, battery_level, location, created_at) " +
+            "SELECT g % " + FLEET_SIZE + " + 1, 39.78 + (g % 100) * 1.0e-3, -89.65 + (g % 97) * 1.0e-3, 10, " +
+            "LOCALTIMESTAMP + g * INTERVAL '1 millisecond', (g % 101)::int, " +
+            "CAST(ST_SetSRID(ST_MakePoint(-89.65 + (g % 97) * 1.0e-3, 39.78 + (g % 100) * 1.0e-3), 4326) AS geography), " +
+            "LOCALTIMESTAMP " +
+            "FROM generate_series(1, ?) g";
+    
+    private static final String INSERT_SQL =
+            "INSERT INTO technician_locations " +
+            "(technician_id, latitude, longitude, accuracy, timestamp, battery_level, location, created_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, CAST(ST_SetSRID(ST_MakePoint(?, ?), 4326) AS geography), ?)";
+    
+    /**
+     * full = db/migration/postgresql, lean = db/migration/postgresql plus db/migration/postgresql-lean
+     */
+    @Param({"full", "lean"})
+    public String schema;
+    
+    @Param({"1000000"})
+    public int historyRows;
+    
+    private String schemaName;
+    private Connection connection;
+    private PreparedStatement insert;
+    
+    private long nextRow;
+    private LocalDateTime nextTimestamp;
+    
+    @Setup(Level.Trial)
+    public void createSchema() throws SQLException {
+        schemaName = "ingest_benchmark_" + schema;
+        connection = DriverManager.getConnection(JDBC_URL, JDBC_USERNAME, JDBC_PASSWORD);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP SCHEMA IF EXISTS " + schemaName + " CASCADE");
+        }
+        
+        String[] locations = "lean".equals(schema)
+                ? new String[] {"classpath:db/migration/postgresql", "classpath:db/migration/postgresql-lean"}
+                : new String[] {"classpath:db/migration/postgresql"};
+        Flyway.configure()
+                .dataSource(JDBC_URL, JDBC_USERNAME, JDBC_PASSWORD)
+                .schemas(schemaName)
+                .locations(locations)
+                .load()
+                .migrate();
+        
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SET search_path TO " + schemaName + ", public");
+        }
+        try (PreparedStatement prefill = connection.prepareStatement(PREFILL_SQL)) {
+            prefill.setLong(1, historyRows);
+            prefill.executeUpdate();
+        }
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("VACUUM ANALYZE technician_locations");
+        }
+        
+        connection.setAutoCommit(false);
+        insert = connection.prepareStatement(INSERT_SQL);
+        nextTimestamp = LocalDateTime.now().plusNanos((historyRows + 1000L) * 1_000_000);
+    }
+    
+    @TearDown(Level.Trial)
+    public void dropSchema() throws SQLException {
+        insert.close();
+        connection.setAutoCommit(true);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("DROP SCHEMA " + schemaName + " CASCADE");
+        }
+        connection.close();
+    }
+    
+    /**
+     * Inserts one batch of fixes of consecutive technicians, a millisecond apart.
+     */
+    @Benchmark
+    @OperationsPerInvocation(BATCH_SIZE)
+    public int[] insertBatch() throws SQLException {
+        Timestamp createdAt = Timestamp.valueOf(LocalDateTime.now());
+        for (int i = 0; i < BATCH_SIZE; i++) {
+            long row = nextRow++;
+            double latitude = 39.78 + (row % 100) * 1.0e-3;
+            double longitude = -89.65 + (row % 97) * 1.0e-3;
+            nextTimestamp = nextTimestamp.plusNanos(1_000_000);
+            insert.setLong(1, row % FLEET_SIZE + 1);
+            insert.setDouble(2, latitude);
+            insert.setDouble(3, longitude);
+            insert.setDouble(4, 5.0 + row % 20);
+            insert.setTimestamp(5, Timestamp.valueOf(nextTimestamp));
+            insert.setInt(6, (int) (row % 101));
+            insert.setDouble(7, longitude);
+            insert.setDouble(8, latitude);
+            insert.setTimestamp(9, createdAt);
+            insert.addBatch();
+        }
+        int[] counts = insert.executeBatch();
+        connection.commit();
+        return counts;
+    }
+    
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        BenchmarkRunner.run(HistoryIngestBenchmark.class, args);
+    }
+}
@@ -0,0 +1,107 @@
+package com.fsm.location.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.fsm.location.api.dto.BufferedLocationFix;
+import com.fsm.location.api.dto.LocationBatchRequest;
+import com.fsm.location.api.dto.LocationUpdateRequest;
+import com.fsm.location.api.wire.LocationWireFormat;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares decoding a location update (and a 100-fix batch) from JSON, including bean
+ * validation as done by the controller, with decoding the binary wire format.
+ * 
+ * Run with {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.fsm.location.benchmark.LocationWireFormatBenchmark}; add
+ * {@code -Dexec.args="-prof gc"} to compare allocation rates.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class LocationWireFormatBenchmark {
+    
+    private ObjectMapper objectMapper;
+    private Validator validator;
+    
+    private byte[] updateJson;
+    private byte[] updateBinary;
+    private byte[] batchJson;
+    private byte[] batchBinary;
+    
+    @Setup
+    public void setUp() throws Exception {
+        objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+        validator = Validation.buildDefaultValidatorFactory().getValidator();
+        
+        LocationUpdateRequest update = LocationUpdateRequest.builder()
+                .latitude(39.7817234)
+                .longitude(-89.6501432)
+                .accuracy(5.0)
+                .batteryLevel(85)
+                .build();
+        updateJson = objectMapper.writeValueAsBytes(update);
+        updateBinary = LocationWireFormat.encodeUpdate(update);
+        
+        LocalDateTime start = LocalDateTime.now().minusHours(1).withNano(0);
+        List<BufferedLocationFix> fixes = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            fixes.add(BufferedLocationFix.builder()
+                    .latitude(39.7817234 + i * 1.3e-4)
+                    .longitude(-89.6501432 + i * 0.9e-4)
+                    .accuracy(5.0)
+                    .batteryLevel(85 - i / 10)
+                    .recordedAt(start.plusSeconds(i * 30L))
+                    .build());
+        }
+        batchJson = objectMapper.writeValueAsBytes(new LocationBatchRequest(fixes));
+        batchBinary = LocationWireFormat.encodeBatch(fixes);
+    }
+    
+    @Benchmark
+    public Set<ConstraintViolation<LocationUpdateRequest>> updateJson() throws Exception {
+        return validator.validate(objectMapper.readValue(updateJson, LocationUpdateRequest.class));
+    }
+    
+    @Benchmark
+    public LocationUpdateRequest updateBinary() {
+        return LocationWireFormat.decodeUpdate(updateBinary);
+    }
+    
+    @Benchmark
+    public Set<ConstraintViolation<LocationBatchRequest>> batchJson() throws Exception {
+        return validator.validate(objectMapper.readValue(batchJson, LocationBatchRequest.class));
+    }
+    
+    @Benchmark
+    public List<BufferedLocationFix> batchBinary() {
+        return LocationWireFormat.decodeBatch(batchBinary);
+    }
+    
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        BenchmarkRunner.run(LocationWireFormatBenchmark.class, args);
+    }
+}
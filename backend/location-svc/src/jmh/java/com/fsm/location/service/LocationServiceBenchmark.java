@@ -0,0 +1,154 @@
+package com.fsm.location.service;
+
+import com.fsm.location.LocationServiceApplication;
+import com.fsm.location.api.dto.LocationUpdateRequest;
+import com.fsm.location.api.dto.TechnicianLocationDTO;
+import com.fsm.location.benchmark.BenchmarkRunner;
+import com.fsm.location.domain.model.TechnicianLocation;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Measures the location-svc hot paths against an in-memory H2 database holding a
+ * synthetic fleet of {@code fleetSize} technicians:
+ * - ingest: the rate limit check plus {@link LocationService#updateLocation}, and a
+ *   rejected rate limit check on its own
+ * - map reads: {@link LocationService#getAllActiveTechnicianLocations} on a cache miss
+ *   (query plus encoding, as done when the snapshot is rebuilt) and on a cache hit
+ * - {@code convertToDTO} and {@link TechnicianLocation} point creation
+ * 
+ * The application runs with the "test" profile and a rate limit refilling every
+ * millisecond, so that cycling through the fleet is never rate limited. Run with
+ * {@code mvn test-compile exec:java -Dexec.classpathScope=test
+ * -Dexec.mainClass=com.fsm.location.service.LocationServiceBenchmark}; add
+ * {@code -Dexec.args="-p fleetSize=5000"} for another fleet size.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LocationServiceBenchmark {
+    
+    /**
+     * ID of the technician whose rate limit bucket is kept empty
+     */
+    private static final long RATE_LIMITED_TECHNICIAN_ID = 0L;
+    
+    @Param({"100", "1000"})
+    public int fleetSize;
+    
+    private ConfigurableApplicationContext context;
+    private LocationService locationService;
+    
+    private LocationUpdateRequest update;
+    private TechnicianLocation location;
+    private long nextTechnicianId;
+    
+    @Setup(Level.Trial)
+    public void startApplication() {
+        context = new SpringApplicationBuilder(LocationServiceApplication.class)
+                .web(WebApplicationType.NONE)
+                .profiles("test")
+                .run("--spring.datasource.url=jdbc:h2:mem:benchmark;MODE=PostgreSQL",
+                     "--spring.jpa.show-sql=false",
+                     "--location.rate-limit.refill-interval=1ms",
+                     "--logging.level.com.fsm.location=WARN");
+        locationService = context.getBean(LocationService.class);
+        
+        update = LocationUpdateRequest.builder()
+                .latitude(39.7817234)
+                .longitude(-89.6501432)
+                .accuracy(5.0)
+                .batteryLevel(85)
+                .build();
+        seedFleet(context.getBean(TransactionTemplate.class));
+        location = locationService.updateLocation(1L, update);
+        locationService.getActiveLocationsSnapshot();
+        locationService.acquireUpdatePermit(RATE_LIMITED_TECHNICIAN_ID);
+    }
+    
+    /**
+     * Reports one fix for every technician of the fleet, spread around Springfield.
+     */
+    private void seedFleet(TransactionTemplate transactionTemplate) {
+        transactionTemplate.executeWithoutResult(status -> {
+            for (long technicianId = 1; technicianId <= fleetSize; technicianId++) {
+                locationService.updateLocation(technicianId, LocationUpdateRequest.builder()
+                        .latitude(39.7817234 + (technicianId % 100) * 1.0e-3)
+                        .longitude(-89.6501432 + (technicianId / 100) * 1.0e-3)
+                        .accuracy(5.0 + technicianId % 20)
+                        .batteryLevel((int) (technicianId % 101))
+                        .build());
+            }
+        });
+    }
+    
+    @TearDown(Level.Trial)
+    public void stopApplication() {
+        context.close();
+    }
+    
+    @Benchmark
+    public TechnicianLocation updateLocation() {
+        long technicianId = nextTechnicianId++ % fleetSize + 1;
+        if (locationService.acquireUpdatePermit(technicianId) != 0) {
+            return null;
+        }
+        return locationService.updateLocation(technicianId, update);
+    }
+    
+    @Benchmark
+    public long updateLocationRateLimited() {
+        return locationService.acquireUpdatePermit(RATE_LIMITED_TECHNICIAN_ID);
+    }
+    
+    @Benchmark
+    public ActiveLocationsSnapshot activeLocationsCacheMiss() {
+        return locationService.buildActiveLocationsSnapshot();
+    }
+    
+    @Benchmark
+    public ActiveLocationsSnapshot activeLocationsCacheHit() {
+        return locationService.getActiveLocationsSnapshot();
+    }
+    
+    @Benchmark
+    public TechnicianLocationDTO convertToDTO() {
+        return locationService.convertToDTO(location, "Technician 1");
+    }
+    
+    @Benchmark
+    public TechnicianLocation createPoint() {
+        TechnicianLocation created = new TechnicianLocation();
+        created.setLongitude(update.getLongitude());
+        created.setLatitude(update.getLatitude());
+        created.setTimestamp(LocalDateTime.now());
+        return created;
+    }
+    
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        BenchmarkRunner.run(LocationServiceBenchmark.class, args);
+    }
+}
@@ -0,0 +1,111 @@
+package com.fsm.location.api.controller;
+
+import com.fsm.location.api.dto.GeofenceTimeResponse;
+import com.fsm.location.api.dto.LocationRollupDTO;
+import com.fsm.location.service.FleetAnalyticsService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * REST Controller for historical fleet analytics, answered from per-minute location rollups.
+ */
+@RestController
+@RequestMapping("/api/analytics")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Analytics", description = "Fleet Analytics APIs")
+public class AnalyticsController {
+    
+    private final FleetAnalyticsService fleetAnalyticsService;
+    
+    /**
+     * Gets a technician's per-minute location rollups.
+     * 
+     * @param technicianId the ID of the technician
+     * @param from the start of the time range (inclusive, default: 24 hours before {@code to})
+     * @param to the end of the time range (exclusive, default: now)
+     * @return the rollups, oldest first
+     */
+    @GetMapping("/technicians/{technicianId}/rollups")
+    // TODO: Re-enable role check after implementing JWT authentication
+    // @RequireRole({Role.DISPATCHER, Role.SUPERVISOR, Role.ADMIN})
+    @Operation(
+        summary = "Get technician location rollups",
+        description = "Retrieves a technician's per-minute location aggregates (centroid, fix count, " +
+                     "max speed, min battery level) in a time range of at most 92 days.",
+        security = @SecurityRequirement(name = "bearer-jwt")
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved the rollups"),
+        @ApiResponse(responseCode = "400", description = "Invalid time range"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized - authentication required")
+    })
+    public ResponseEntity<List<LocationRollupDTO>> getRollups(
+            @Parameter(description = "Technician ID", required = true)
+            @PathVariable Long technicianId,
+            @Parameter(description = "Start of the time range (inclusive, ISO date-time)", example = "2024-01-15T00:00:00")
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            LocalDateTime from,
+            @Parameter(description = "End of the time range (exclusive, ISO date-time)", example = "2024-01-16T00:00:00")
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            LocalDateTime to) {
+        
+        List<LocationRollupDTO> rollups = fleetAnalyticsService.getRollups(technicianId, from, to);
+        
+        log.debug("Returning {} rollups for technician {}", rollups.size(), technicianId);
+        
+        return ResponseEntity.ok(rollups);
+    }
+    
+    /**
+     * Gets the time technicians spent inside a geofence.
+     * 
+     * @param geofenceId the ID of the geofence
+     * @param from the start of the time range (inclusive, default: 24 hours before {@code to})
+     * @param to the end of the time range (exclusive, default: now)
+     * @return the time inside the geofence per technician
+     */
+    @GetMapping("/geofences/{geofenceId}/time")
+    // TODO: Re-enable role check after implementing JWT authentication
+    // @RequireRole({Role.DISPATCHER, Role.SUPERVISOR, Role.ADMIN})
+    @Operation(
+        summary = "Get time spent in a geofence",
+        description = "Retrieves the minutes each technician spent inside a geofence in a time range " +
+                     "of at most 92 days, measured on per-minute location rollups.",
+        security = @SecurityRequirement(name = "bearer-jwt")
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved the time in the geofence"),
+        @ApiResponse(responseCode = "400", description = "Invalid time range"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized - authentication required"),
+        @ApiResponse(responseCode = "404", description = "Geofence not found")
+    })
+    public ResponseEntity<GeofenceTimeResponse> getTimeInGeofence(
+            @Parameter(description = "Geofence ID", required = true)
+            @PathVariable String geofenceId,
+            @Parameter(description = "Start of the time range (inclusive, ISO date-time)", example = "2024-01-01T00:00:00")
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            LocalDateTime from,
+            @Parameter(description = "End of the time range (exclusive, ISO date-time)", example = "2024-02-01T00:00:00")
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            LocalDateTime to) {
+        
+        return ResponseEntity.ok(fleetAnalyticsService.getTimeInGeofence(geofenceId, from, to));
+    }
+}
@@ -0,0 +1,148 @@
+package com.fsm.location.api.controller;
+
+import com.fsm.location.api.dto.GeofenceDTO;
+import com.fsm.location.api.dto.GeofenceRequest;
+import com.fsm.location.service.GeofenceService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Pattern;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * REST Controller for managing geofences around job sites.
+ * Technicians entering, staying at and leaving a geofence are detected from their
+ * location updates by the geofence engine.
+ */
+@RestController
+@RequestMapping("/api/geofences")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Geofence", description = "Geofence Management APIs")
+public class GeofenceController {
+    
+    private static final String ID_PATTERN = "[A-Za-z0-9._:-]{1,64}";
+    
+    private final GeofenceService geofenceService;
+    
+    /**
+     * Registers or replaces a geofence.
+     * 
+     * @param id the ID of the geofence (e.g. the ID of the job)
+     * @param request the circle or polygon definition
+     * @return the registered geofence
+     */
+    @PutMapping("/{id}")
+    // TODO: Re-enable role check after implementing JWT authentication
+    // @RequireRole({Role.DISPATCHER, Role.ADMIN})
+    @Operation(
+        summary = "Register geofence",
+        description = "Registers a circular (center and radius) or polygon geofence under the given ID, " +
+                     "replacing any existing geofence with that ID. Takes effect immediately for new location updates.",
+        security = @SecurityRequirement(name = "bearer-jwt")
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Geofence registered"),
+        @ApiResponse(responseCode = "400", description = "Invalid geofence ID or definition"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized - authentication required")
+    })
+    public ResponseEntity<GeofenceDTO> registerGeofence(
+            @Parameter(description = "Geofence ID", example = "job-42", required = true)
+            @PathVariable
+            @Pattern(regexp = ID_PATTERN, message = "Geofence ID must be 1-64 letters, digits or . _ : -")
+            String id,
+            @Valid @RequestBody GeofenceRequest request) {
+        
+        GeofenceDTO geofence = geofenceService.registerGeofence(id, request);
+        
+        return ResponseEntity.ok(geofence);
+    }
+    
+    /**
+     * Gets a geofence.
+     * 
+     * @param id the ID of the geofence
+     * @return the geofence
+     */
+    @GetMapping("/{id}")
+    // TODO: Re-enable role check after implementing JWT authentication
+    // @RequireRole({Role.DISPATCHER, Role.SUPERVISOR, Role.ADMIN})
+    @Operation(
+        summary = "Get geofence",
+        description = "Retrieves a registered geofence.",
+        security = @SecurityRequirement(name = "bearer-jwt")
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved the geofence"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized - authentication required"),
+        @ApiResponse(responseCode = "404", description = "Geofence not found")
+    })
+    public ResponseEntity<GeofenceDTO> getGeofence(
+            @Parameter(description = "Geofence ID", required = true)
+            @PathVariable String id) {
+        
+        return ResponseEntity.ok(geofenceService.getGeofence(id));
+    }
+    
+    /**
+     * Gets all geofences.
+     * 
+     * @return all registered geofences
+     */
+    @GetMapping
+    // TODO: Re-enable role check after implementing JWT authentication
+    // @RequireRole({Role.DISPATCHER, Role.SUPERVISOR, Role.ADMIN})
+    @Operation(
+        summary = "Get all geofences",
+        description = "Retrieves all registered geofences.",
+        security = @SecurityRequirement(name = "bearer-jwt")
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved the geofences"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized - authentication required")
+    })
+    public ResponseEntity<List<GeofenceDTO>> getAllGeofences() {
+        List<GeofenceDTO> geofences = geofenceService.getAllGeofences();
+        
+        log.debug("Returning {} geofences", geofences.size());
+        
+        return ResponseEntity.ok(geofences);
+    }
+    
+    /**
+     * Deletes a geofence.
+     * 
+     * @param id the ID of the geofence
+     * @return no content
+     */
+    @DeleteMapping("/{id}")
+    // TODO: Re-enable role check after implementing JWT authentication
+    // @RequireRole({Role.DISPATCHER, Role.ADMIN})
+    @Operation(
+        summary = "Delete geofence",
+        description = "Deletes a geofence. Technicians inside it do not receive exit events.",
+        security = @SecurityRequirement(name = "bearer-jwt")
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "204", description = "Geofence deleted"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized - authentication required"),
+        @ApiResponse(responseCode = "404", description = "Geofence not found")
+    })
+    public ResponseEntity<Void> deleteGeofence(
+            @Parameter(description = "Geofence ID", required = true)
+            @PathVariable String id) {
+        
+        geofenceService.deleteGeofence(id);
+        
+        return ResponseEntity.noContent().build();
+    }
+}
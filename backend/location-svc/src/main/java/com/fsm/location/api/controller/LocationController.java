@@ -1,14 +1,23 @@
 package com.fsm.location.api.controller;
 
+import com.fsm.location.api.dto.LocationBatchRequest;
+import com.fsm.location.api.dto.LocationBatchResponse;
+import com.fsm.location.api.dto.LocationDeltaResponse;
 import com.fsm.location.api.dto.LocationUpdateRequest;
 import com.fsm.location.api.dto.LocationUpdateResponse;
 import com.fsm.location.api.dto.TechnicianLocationDTO;
+import com.fsm.location.api.wire.LocationWireFormat;
+import com.fsm.location.domain.model.LocationFix;
 import com.fsm.location.domain.model.TechnicianLocation;
 import com.fsm.location.infrastructure.security.RequireRole;
 import com.fsm.location.infrastructure.security.Role;
+import com.fsm.location.service.ActiveLocationsSnapshot;
 import com.fsm.location.service.LocationService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
@@ -16,11 +25,13 @@ import io.swagger.v3.oas.annotations.tags.Tag;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
-import java.util.List;
+import java.util.Optional;
 
 /**
  * REST Controller for technician location operations.
@@ -37,11 +48,17 @@ public class LocationController {
     
     /**
      * Updates the authenticated technician's location.
-     * Rate limited to once per 30 seconds per technician.
+     * Rate limited per technician by a token bucket (by default one update per 30 seconds);
+     * rejected updates receive 429 Too Many Requests with a Retry-After header.
+     * An update from a technician who has not moved since their last persisted fix only
+     * refreshes their heartbeat and is answered with 200 OK and the persisted location.
+     * When write-behind ingestion is enabled, the location is queued for asynchronous
+     * persistence and 202 Accepted is returned instead of 201 Created.
+     * Every accepted update is answered with the recommended interval until the next one.
      * 
      * @param technicianId the technician ID (from authentication)
      * @param request the location update request
-     * @return the updated location response with 201 Created status
+     * @return the updated location response with 201 Created (or 202 Accepted, or 200 OK if unchanged) status
      */
     @PostMapping("/me/location")
     @Operation(
@@ -50,8 +67,11 @@ public class LocationController {
     )
     @ApiResponses(value = {
         @ApiResponse(responseCode = "201", description = "Location successfully updated"),
+        @ApiResponse(responseCode = "202", description = "Location accepted for asynchronous persistence"),
+        @ApiResponse(responseCode = "200", description = "Technician has not moved, location not stored again"),
         @ApiResponse(responseCode = "400", description = "Invalid request data"),
-        @ApiResponse(responseCode = "429", description = "Rate limit exceeded")
+        @ApiResponse(responseCode = "429", description = "Rate limit exceeded (see Retry-After)"),
+        @ApiResponse(responseCode = "503", description = "Ingestion buffer full")
     })
     public ResponseEntity<LocationUpdateResponse> updateMyLocation(
             @Parameter(description = "Technician ID from authenticated user", required = true)
@@ -60,31 +80,164 @@ public class LocationController {
         
         log.info("Received location update request for technician {}", technicianId);
         
-        try {
-            TechnicianLocation location = locationService.updateLocation(technicianId, request);
+        long secondsToWait = locationService.acquireUpdatePermit(technicianId);
+        if (secondsToWait > 0) {
+            LocationUpdateResponse errorResponse = LocationUpdateResponse.builder()
+                    .technicianId(technicianId)
+                    .message(String.format(
+                            "Rate limit exceeded. Please wait %d seconds before updating location again.",
+                            secondsToWait))
+                    .build();
+            
+            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                    .header(HttpHeaders.RETRY_AFTER, Long.toString(secondsToWait))
+                    .body(errorResponse);
+        }
+        
+        // Recommended before the update is recorded, while the previous fix is still known
+        long recommendedIntervalSeconds = locationService.recommendReportingInterval(technicianId, request);
+        
+        Optional<LocationFix> heartbeat = locationService.recordStationaryHeartbeat(technicianId, request);
+        if (heartbeat.isPresent()) {
+            LocationFix fix = heartbeat.get();
             
             LocationUpdateResponse response = LocationUpdateResponse.builder()
-                    .locationId(location.getId())
-                    .technicianId(location.getTechnicianId())
-                    .latitude(location.getLatitude())
-                    .longitude(location.getLongitude())
-                    .timestamp(location.getTimestamp())
-                    .message("Location updated successfully")
+                    .locationId(fix.getLocationId())
+                    .technicianId(fix.getTechnicianId())
+                    .latitude(fix.getLatitude())
+                    .longitude(fix.getLongitude())
+                    .timestamp(fix.getTimestamp())
+                    .message("Location unchanged")
+                    .recommendedIntervalSeconds(recommendedIntervalSeconds)
                     .build();
             
-            return ResponseEntity.status(HttpStatus.CREATED).body(response);
-            
-        } catch (IllegalStateException e) {
-            // Rate limit exceeded
-            log.warn("Rate limit exceeded for technician {}: {}", technicianId, e.getMessage());
+            return ResponseEntity.ok(response);
+        }
+        
+        if (locationService.isWriteBehindEnabled()) {
+            LocationFix fix = locationService.enqueueLocation(technicianId, request);
             
-            LocationUpdateResponse errorResponse = LocationUpdateResponse.builder()
-                    .technicianId(technicianId)
-                    .message(e.getMessage())
+            LocationUpdateResponse response = LocationUpdateResponse.builder()
+                    .technicianId(fix.getTechnicianId())
+                    .latitude(fix.getLatitude())
+                    .longitude(fix.getLongitude())
+                    .timestamp(fix.getTimestamp())
+                    .message("Location accepted for processing")
+                    .recommendedIntervalSeconds(recommendedIntervalSeconds)
                     .build();
             
-            return ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS).body(errorResponse);
+            return ResponseEntity.status(HttpStatus.ACCEPTED).body(response);
+        }
+        
+        TechnicianLocation location = locationService.updateLocation(technicianId, request);
+        
+        LocationUpdateResponse response = LocationUpdateResponse.builder()
+                .locationId(location.getId())
+                .technicianId(location.getTechnicianId())
+                .latitude(location.getLatitude())
+                .longitude(location.getLongitude())
+                .timestamp(location.getTimestamp())
+                .message("Location updated successfully")
+                .recommendedIntervalSeconds(recommendedIntervalSeconds)
+                .build();
+        
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+    
+    /**
+     * Updates the authenticated technician's location from a binary payload
+     * (see {@link LocationWireFormat}). Behaves exactly like the JSON variant; the
+     * payload is validated while it is decoded.
+     * 
+     * @param technicianId the technician ID (from authentication)
+     * @param payload the encoded location update
+     * @return the updated location response with 201 Created (or 202 Accepted, or 200 OK if unchanged) status
+     */
+    @PostMapping(value = "/me/location", consumes = LocationWireFormat.MEDIA_TYPE)
+    @Operation(
+        summary = "Update technician location (binary)",
+        description = "Same as the JSON variant, with a compact 12-byte " + LocationWireFormat.MEDIA_TYPE + " payload."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "201", description = "Location successfully updated"),
+        @ApiResponse(responseCode = "202", description = "Location accepted for asynchronous persistence"),
+        @ApiResponse(responseCode = "200", description = "Technician has not moved, location not stored again"),
+        @ApiResponse(responseCode = "400", description = "Malformed payload or invalid values"),
+        @ApiResponse(responseCode = "429", description = "Rate limit exceeded (see Retry-After)"),
+        @ApiResponse(responseCode = "503", description = "Ingestion buffer full")
+    })
+    public ResponseEntity<LocationUpdateResponse> updateMyLocationBinary(
+            @Parameter(description = "Technician ID from authenticated user", required = true)
+            @RequestHeader(value = "X-Technician-Id") Long technicianId,
+            @RequestBody byte[] payload) {
+        
+        return updateMyLocation(technicianId, LocationWireFormat.decodeUpdate(payload));
+    }
+    
+    /**
+     * Uploads GPS fixes buffered on the authenticated technician's device while offline.
+     * The rate limit is applied on device timestamps, so fixes spaced at least 30 seconds
+     * apart are all persisted instead of being rejected on arrival.
+     * 
+     * @param technicianId the technician ID (from authentication)
+     * @param request the buffered fixes
+     * @return the batch result with 201 Created status if any fix was persisted
+     */
+    @PostMapping("/me/location/batch")
+    @Operation(
+        summary = "Upload buffered technician locations",
+        description = "Stores up to " + LocationBatchRequest.MAX_BATCH_SIZE + " device-timestamped fixes " +
+                     "recorded while offline. Fixes closer than 30 seconds to another fix are skipped."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "201", description = "Fixes successfully stored"),
+        @ApiResponse(responseCode = "200", description = "No fix needed to be stored"),
+        @ApiResponse(responseCode = "400", description = "Invalid request data")
+    })
+    public ResponseEntity<LocationBatchResponse> updateMyLocations(
+            @Parameter(description = "Technician ID from authenticated user", required = true)
+            @RequestHeader(value = "X-Technician-Id") Long technicianId,
+            @Valid @RequestBody LocationBatchRequest request) {
+        
+        log.info("Received batch of {} locations for technician {}", request.getFixes().size(), technicianId);
+        
+        LocationBatchResponse response = locationService.updateLocations(technicianId, request.getFixes());
+        
+        if (response.getAccepted() == 0) {
+            response.setMessage("No new locations stored");
+            return ResponseEntity.ok(response);
         }
+        
+        response.setMessage("Locations updated successfully");
+        return ResponseEntity.status(HttpStatus.CREATED).body(response);
+    }
+    
+    /**
+     * Uploads buffered GPS fixes from a binary payload (see {@link LocationWireFormat}).
+     * Behaves exactly like the JSON variant; the payload is validated while it is decoded.
+     * 
+     * @param technicianId the technician ID (from authentication)
+     * @param payload the encoded batch of fixes
+     * @return the batch result with 201 Created status if any fix was persisted
+     */
+    @PostMapping(value = "/me/location/batch", consumes = LocationWireFormat.MEDIA_TYPE)
+    @Operation(
+        summary = "Upload buffered technician locations (binary)",
+        description = "Same as the JSON variant, with a delta- and varint-encoded " +
+                     LocationWireFormat.MEDIA_TYPE + " payload."
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "201", description = "Fixes successfully stored"),
+        @ApiResponse(responseCode = "200", description = "No fix needed to be stored"),
+        @ApiResponse(responseCode = "400", description = "Malformed payload or invalid values")
+    })
+    public ResponseEntity<LocationBatchResponse> updateMyLocationsBinary(
+            @Parameter(description = "Technician ID from authenticated user", required = true)
+            @RequestHeader(value = "X-Technician-Id") Long technicianId,
+            @RequestBody byte[] payload) {
+        
+        LocationBatchRequest request = new LocationBatchRequest(LocationWireFormat.decodeBatch(payload));
+        return updateMyLocations(technicianId, request);
     }
     
     /**
@@ -111,7 +264,7 @@ public class LocationController {
         return locationService.getLatestLocation(technicianId)
                 .map(location -> {
                     LocationUpdateResponse response = LocationUpdateResponse.builder()
-                            .locationId(location.getId())
+                            .locationId(location.getLocationId())
                             .technicianId(location.getTechnicianId())
                             .latitude(location.getLatitude())
                             .longitude(location.getLongitude())
@@ -127,9 +280,18 @@ public class LocationController {
      * Gets all active technician locations for map display.
      * Returns the latest location for each technician, filtering out stale locations (older than 15 minutes).
      * Protected with RBAC - only DISPATCHER, SUPERVISOR, and ADMIN roles can access.
-     * Results are cached for 30 seconds to reduce database load.
+     * Results are served from a cached snapshot that is refreshed in the background.
      * 
-     * @return list of active technician locations
+     * The JSON body is encoded (and gzip-compressed) once per snapshot and written as-is;
+     * clients sending Accept-Encoding: gzip receive the compressed bytes. The response
+     * carries an ETag derived from its content; a request whose If-None-Match
+     * matches it is answered with 304 Not Modified and no body. Clients that pass
+     * {@code sinceVersion} instead receive only the technicians that changed since that
+     * fleet version (see {@link LocationDeltaResponse}).
+     * 
+     * @param sinceVersion the fleet version of the client's previous delta, if polling incrementally
+     * @param acceptEncoding the Accept-Encoding request header, if any
+     * @return list of active technician locations, or the delta since the given version
      */
     @GetMapping("/locations")
     // TODO: Re-enable role check after implementing JWT authentication
@@ -138,21 +300,73 @@ public class LocationController {
         summary = "Get all technician locations",
         description = "Retrieves the latest location for each active technician for map display. " +
                      "Filters out stale locations (older than 15 minutes). " +
+                     "With sinceVersion, returns only the technicians changed since that fleet version. " +
                      "Only accessible by DISPATCHER, SUPERVISOR, and ADMIN roles.",
         security = @SecurityRequirement(name = "bearer-jwt")
     )
     @ApiResponses(value = {
-        @ApiResponse(responseCode = "200", description = "Successfully retrieved technician locations"),
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved technician locations",
+                content = @Content(mediaType = "application/json",
+                        array = @ArraySchema(schema = @Schema(implementation = TechnicianLocationDTO.class)))),
+        @ApiResponse(responseCode = "304", description = "Technician locations unchanged since the given ETag"),
         @ApiResponse(responseCode = "401", description = "Unauthorized - authentication required"),
         @ApiResponse(responseCode = "403", description = "Forbidden - insufficient permissions")
     })
-    public ResponseEntity<List<TechnicianLocationDTO>> getAllTechnicianLocations() {
-        log.info("Fetching all active technician locations");
+    public ResponseEntity<?> getAllTechnicianLocations(
+            @Parameter(description = "Fleet version returned by the previous delta poll")
+            @RequestParam(required = false) Long sinceVersion,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding) {
         
-        List<TechnicianLocationDTO> locations = locationService.getAllActiveTechnicianLocations();
+        if (sinceVersion != null) {
+            log.debug("Fetching technician location changes since version {}", sinceVersion);
+            LocationDeltaResponse delta = locationService.getLocationChangesSince(sinceVersion);
+            return ResponseEntity.ok(delta);
+        }
         
-        log.debug("Returning {} active technician locations", locations.size());
+        ActiveLocationsSnapshot snapshot = locationService.getActiveLocationsSnapshot();
         
-        return ResponseEntity.ok(locations);
+        // Write the pre-encoded body; Spring answers 304 Not Modified without it if If-None-Match matches
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .varyBy(HttpHeaders.ACCEPT_ENCODING);
+        if (snapshot.isGzipSmaller() && acceptsGzip(acceptEncoding)) {
+            return response.eTag(snapshot.getGzipETag())
+                    .header(HttpHeaders.CONTENT_ENCODING, "gzip")
+                    .body(snapshot.getGzipBody());
+        }
+        return response.eTag(snapshot.getIdentityETag()).body(snapshot.getIdentityBody());
+    }
+    
+    /**
+     * Checks whether an Accept-Encoding header allows a gzip response,
+     * i.e. lists gzip (or *) without a zero quality value.
+     * 
+     * @param acceptEncoding the Accept-Encoding header value (may be null)
+     * @return true if the client accepts gzip
+     */
+    static boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.split(";");
+            String name = parts[0].trim();
+            if (!name.equalsIgnoreCase("gzip") && !name.equals("*")) {
+                continue;
+            }
+            boolean rejected = false;
+            for (int i = 1; i < parts.length; i++) {
+                String parameter = parts[i].trim();
+                if (parameter.startsWith("q=")) {
+                    try {
+                        rejected = Double.parseDouble(parameter.substring(2)) <= 0;
+                    } catch (NumberFormatException e) {
+                        rejected = true;
+                    }
+                }
+            }
+            return !rejected;
+        }
+        return false;
     }
 }
@@ -0,0 +1,56 @@
+package com.fsm.location.api.controller;
+
+import com.fsm.location.service.LocationStreamService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+/**
+ * REST Controller for the live technician location stream.
+ * Pushes position and status changes to the dispatcher map instead of having it poll
+ * GET /api/technicians/locations.
+ */
+@RestController
+@RequestMapping("/api/technicians")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Location Stream", description = "Live Technician Location Stream APIs")
+public class LocationStreamController {
+    
+    private final LocationStreamService locationStreamService;
+    
+    /**
+     * Opens a server-sent event stream of technician locations.
+     * The first event ({@code snapshot}) contains every active technician; each following
+     * {@code location} event contains one technician whose position or status changed.
+     * 
+     * @return the event stream
+     */
+    @GetMapping(value = "/locations/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    // TODO: Re-enable role check after implementing JWT authentication
+    // @RequireRole({Role.DISPATCHER, Role.SUPERVISOR, Role.ADMIN})
+    @Operation(
+        summary = "Stream technician locations",
+        description = "Server-sent event stream: a 'snapshot' event with all active technicians, then 'location' " +
+                     "events for each technician whose position or status (available, busy, offline) changes.",
+        security = @SecurityRequirement(name = "bearer-jwt")
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Stream opened"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized - authentication required"),
+        @ApiResponse(responseCode = "503", description = "Too many open streams")
+    })
+    public SseEmitter streamTechnicianLocations() {
+        log.info("Opening live technician location stream");
+        return locationStreamService.subscribe();
+    }
+}
@@ -0,0 +1,79 @@
+package com.fsm.location.api.controller;
+
+import com.fsm.location.api.dto.MapViewResponse;
+import com.fsm.location.service.MapViewService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * REST Controller for viewport-bounded dispatcher map queries.
+ * Shares the GET /api/technicians/locations path with {@link LocationController}
+ * and handles the requests that carry a {@code bbox} parameter.
+ */
+@RestController
+@RequestMapping("/api/technicians")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Map", description = "Dispatcher Map Viewport APIs")
+public class MapViewController {
+    
+    private final MapViewService mapViewService;
+    
+    /**
+     * Gets the active technicians inside a map viewport. At low zoom, or when the viewport
+     * holds too many technicians, nearby technicians are returned as clusters with a
+     * count and centroid instead.
+     * 
+     * @param bbox the viewport as minLon,minLat,maxLon,maxLat
+     * @param zoom the map zoom level (0-22)
+     * @return the technicians and clusters to draw
+     */
+    @GetMapping(value = "/locations", params = "bbox")
+    // TODO: Re-enable role check after implementing JWT authentication
+    // @RequireRole({Role.DISPATCHER, Role.SUPERVISOR, Role.ADMIN})
+    @Operation(
+        summary = "Get technician locations in a map viewport",
+        description = "Retrieves the active technicians (location not older than 15 minutes) inside the bounding box. " +
+                     "At low zoom levels technicians are aggregated into grid clusters with counts and centroids. " +
+                     "A bounding box with minLon greater than maxLon crosses the antimeridian.",
+        security = @SecurityRequirement(name = "bearer-jwt")
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved the map viewport"),
+        @ApiResponse(responseCode = "400", description = "Invalid bounding box or zoom level"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized - authentication required")
+    })
+    public ResponseEntity<MapViewResponse> getMapView(
+            @Parameter(description = "Viewport as minLon,minLat,maxLon,maxLat", example = "-90.0,39.5,-89.3,40.0",
+                       required = true)
+            @RequestParam
+            @Size(min = 4, max = 4, message = "bbox must be minLon,minLat,maxLon,maxLat")
+            List<@NotNull(message = "bbox must be minLon,minLat,maxLon,maxLat") Double> bbox,
+            @Parameter(description = "Map zoom level (0-22)", example = "12", required = true)
+            @RequestParam
+            @Min(value = 0, message = "Zoom must be at least 0")
+            @Max(value = 22, message = "Zoom must be at most 22")
+            int zoom) {
+        
+        MapViewResponse view = mapViewService.getMapView(bbox.get(0), bbox.get(1), bbox.get(2), bbox.get(3), zoom);
+        
+        log.debug("Returning {} technicians and {} clusters for viewport {} at zoom {}",
+                  view.getTechnicians().size(), view.getClusters().size(), bbox, zoom);
+        
+        return ResponseEntity.ok(view);
+    }
+}
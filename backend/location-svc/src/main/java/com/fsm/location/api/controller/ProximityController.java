@@ -0,0 +1,129 @@
+package com.fsm.location.api.controller;
+
+import com.fsm.location.api.dto.NearbyTechnicianDTO;
+import com.fsm.location.service.ProximityService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.Positive;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * REST Controller for proximity searches over current technician positions.
+ * Used by dispatchers to find technicians close to a job site, either within
+ * a radius or as the k nearest.
+ */
+@RestController
+@RequestMapping("/api/technicians")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Proximity", description = "Technician Proximity Search APIs")
+public class ProximityController {
+    
+    private final ProximityService proximityService;
+    
+    /**
+     * Finds active technicians within a radius of a point.
+     * Answered from the in-memory spatial index without a database round-trip.
+     * 
+     * @param lat the latitude of the search point
+     * @param lon the longitude of the search point
+     * @param radius the search radius in meters
+     * @return active technicians within the radius, closest first
+     */
+    @GetMapping("/nearby")
+    // TODO: Re-enable role check after implementing JWT authentication
+    // @RequireRole({Role.DISPATCHER, Role.SUPERVISOR, Role.ADMIN})
+    @Operation(
+        summary = "Find nearby technicians",
+        description = "Retrieves active technicians (location not older than 15 minutes) within the given radius " +
+                     "of a point, ordered by distance.",
+        security = @SecurityRequirement(name = "bearer-jwt")
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved nearby technicians"),
+        @ApiResponse(responseCode = "400", description = "Invalid coordinates or radius"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized - authentication required")
+    })
+    public ResponseEntity<List<NearbyTechnicianDTO>> getNearbyTechnicians(
+            @Parameter(description = "Latitude of the search point", example = "39.7817", required = true)
+            @RequestParam
+            @DecimalMin(value = "-90.0", message = "Latitude must be at least -90")
+            @DecimalMax(value = "90.0", message = "Latitude must be at most 90")
+            double lat,
+            @Parameter(description = "Longitude of the search point", example = "-89.6501", required = true)
+            @RequestParam
+            @DecimalMin(value = "-180.0", message = "Longitude must be at least -180")
+            @DecimalMax(value = "180.0", message = "Longitude must be at most 180")
+            double lon,
+            @Parameter(description = "Search radius in meters (max 100000)", example = "5000", required = true)
+            @RequestParam
+            @Positive(message = "Radius must be positive")
+            @DecimalMax(value = "100000", message = "Radius must be at most 100000 meters")
+            double radius) {
+        
+        List<NearbyTechnicianDTO> technicians = proximityService.findNearbyTechnicians(lat, lon, radius);
+        
+        log.debug("Returning {} technicians within {}m of ({}, {})", technicians.size(), radius, lat, lon);
+        
+        return ResponseEntity.ok(technicians);
+    }
+    
+    /**
+     * Finds the k active technicians closest to a point, e.g. "the 5 closest technicians to this job".
+     * 
+     * @param lat the latitude of the search point
+     * @param lon the longitude of the search point
+     * @param k the number of technicians to return (default 5, max 100)
+     * @return up to k active technicians, closest first
+     */
+    @GetMapping("/nearest")
+    // TODO: Re-enable role check after implementing JWT authentication
+    // @RequireRole({Role.DISPATCHER, Role.SUPERVISOR, Role.ADMIN})
+    @Operation(
+        summary = "Find nearest technicians",
+        description = "Retrieves the k active technicians (location not older than 15 minutes) closest to a point, " +
+                     "ordered by distance.",
+        security = @SecurityRequirement(name = "bearer-jwt")
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved nearest technicians"),
+        @ApiResponse(responseCode = "400", description = "Invalid coordinates or k"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized - authentication required")
+    })
+    public ResponseEntity<List<NearbyTechnicianDTO>> getNearestTechnicians(
+            @Parameter(description = "Latitude of the search point", example = "39.7817", required = true)
+            @RequestParam
+            @DecimalMin(value = "-90.0", message = "Latitude must be at least -90")
+            @DecimalMax(value = "90.0", message = "Latitude must be at most 90")
+            double lat,
+            @Parameter(description = "Longitude of the search point", example = "-89.6501", required = true)
+            @RequestParam
+            @DecimalMin(value = "-180.0", message = "Longitude must be at least -180")
+            @DecimalMax(value = "180.0", message = "Longitude must be at most 180")
+            double lon,
+            @Parameter(description = "Number of technicians to return (max 100)", example = "5")
+            @RequestParam(defaultValue = "5")
+            @Min(value = 1, message = "k must be at least 1")
+            @Max(value = 100, message = "k must be at most 100")
+            int k) {
+        
+        List<NearbyTechnicianDTO> technicians = proximityService.findNearestTechnicians(lat, lon, k);
+        
+        log.debug("Returning {} nearest technicians to ({}, {})", technicians.size(), lat, lon);
+        
+        return ResponseEntity.ok(technicians);
+    }
+}
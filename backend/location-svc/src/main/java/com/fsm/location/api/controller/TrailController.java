@@ -0,0 +1,79 @@
+package com.fsm.location.api.controller;
+
+import com.fsm.location.api.dto.TrailResponse;
+import com.fsm.location.service.TrailService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.PositiveOrZero;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+
+import java.time.LocalDateTime;
+
+/**
+ * REST Controller for replaying technician trails (location history as a path).
+ */
+@RestController
+@RequestMapping("/api/technicians")
+@RequiredArgsConstructor
+@Slf4j
+@Tag(name = "Trail", description = "Technician Trail APIs")
+public class TrailController {
+    
+    private final TrailService trailService;
+    
+    /**
+     * Gets the path a technician travelled in a time range as an encoded polyline.
+     * 
+     * @param technicianId the ID of the technician
+     * @param from the start of the time range (inclusive, default: 24 hours before {@code to})
+     * @param to the end of the time range (exclusive, default: now)
+     * @param tolerance the Douglas-Peucker simplification tolerance in meters (default 0: no simplification)
+     * @return the technician's trail
+     */
+    @GetMapping("/{technicianId}/trail")
+    // TODO: Re-enable role check after implementing JWT authentication
+    // @RequireRole({Role.DISPATCHER, Role.SUPERVISOR, Role.ADMIN})
+    @Operation(
+        summary = "Get technician trail",
+        description = "Retrieves the path a technician travelled in a time range (at most 7 days) as a " +
+                     "Google encoded polyline with per-point time offsets, optionally simplified.",
+        security = @SecurityRequirement(name = "bearer-jwt")
+    )
+    @ApiResponses(value = {
+        @ApiResponse(responseCode = "200", description = "Successfully retrieved the trail"),
+        @ApiResponse(responseCode = "400", description = "Invalid time range or tolerance"),
+        @ApiResponse(responseCode = "401", description = "Unauthorized - authentication required")
+    })
+    public ResponseEntity<TrailResponse> getTrail(
+            @Parameter(description = "Technician ID", required = true)
+            @PathVariable Long technicianId,
+            @Parameter(description = "Start of the time range (inclusive, ISO date-time)", example = "2024-01-15T00:00:00")
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            LocalDateTime from,
+            @Parameter(description = "End of the time range (exclusive, ISO date-time)", example = "2024-01-16T00:00:00")
+            @RequestParam(required = false)
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME)
+            LocalDateTime to,
+            @Parameter(description = "Simplification tolerance in meters (max 1000, 0 = none)", example = "10")
+            @RequestParam(defaultValue = "0")
+            @PositiveOrZero(message = "Tolerance must not be negative")
+            @DecimalMax(value = "1000", message = "Tolerance must be at most 1000 meters")
+            double tolerance) {
+        
+        TrailResponse trail = trailService.getTrail(technicianId, from, to, tolerance);
+        
+        log.debug("Returning trail of {} points for technician {}", trail.getPoints(), technicianId);
+        
+        return ResponseEntity.ok(trail);
+    }
+}
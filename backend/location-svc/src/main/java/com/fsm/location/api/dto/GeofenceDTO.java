@@ -0,0 +1,75 @@
+package com.fsm.location.api.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import com.fsm.location.domain.model.Geofence;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.locationtech.jts.geom.Coordinate;
+
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * DTO for a registered geofence.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+@JsonInclude(JsonInclude.Include.NON_NULL)
+public class GeofenceDTO {
+    
+    private String id;
+    
+    private String name;
+    
+    private Geofence.Shape shape;
+    
+    private Double latitude;
+    
+    private Double longitude;
+    
+    private Double radiusMeters;
+    
+    /**
+     * Polygon vertices, without repeating the first vertex at the end
+     */
+    private List<GeoPointDTO> polygon;
+    
+    private Integer dwellSeconds;
+    
+    private LocalDateTime createdAt;
+    
+    private LocalDateTime updatedAt;
+    
+    /**
+     * Creates a DTO from a geofence entity.
+     * 
+     * @param geofence the geofence entity
+     * @return the corresponding DTO
+     */
+    public static GeofenceDTO from(Geofence geofence) {
+        GeofenceDTOBuilder builder = GeofenceDTO.builder()
+                .id(geofence.getId())
+                .name(geofence.getName())
+                .shape(geofence.getShape())
+                .dwellSeconds(geofence.getDwellSeconds())
+                .createdAt(geofence.getCreatedAt())
+                .updatedAt(geofence.getUpdatedAt());
+        if (geofence.getShape() == Geofence.Shape.POLYGON) {
+            Coordinate[] ring = geofence.toPolygon().getExteriorRing().getCoordinates();
+            builder.polygon(Arrays.stream(ring, 0, ring.length - 1)
+                    .map(coordinate -> new GeoPointDTO(coordinate.getY(), coordinate.getX()))
+                    .collect(Collectors.toList()));
+        } else {
+            builder.latitude(geofence.getCenterLatitude())
+                    .longitude(geofence.getCenterLongitude())
+                    .radiusMeters(geofence.getRadiusMeters());
+        }
+        return builder.build();
+    }
+}
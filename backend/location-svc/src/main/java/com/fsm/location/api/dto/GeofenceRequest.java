@@ -0,0 +1,58 @@
+package com.fsm.location.api.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.*;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Request DTO for registering a geofence.
+ * Either a circle ({@code latitude}, {@code longitude} and {@code radiusMeters})
+ * or a {@code polygon} must be given, but not both.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GeofenceRequest {
+    
+    @Size(max = 255, message = "Name must be at most 255 characters")
+    private String name;
+    
+    /**
+     * Latitude of the circle center
+     */
+    @DecimalMin(value = "-90.0", message = "Latitude must be at least -90")
+    @DecimalMax(value = "90.0", message = "Latitude must be at most 90")
+    private Double latitude;
+    
+    /**
+     * Longitude of the circle center
+     */
+    @DecimalMin(value = "-180.0", message = "Longitude must be at least -180")
+    @DecimalMax(value = "180.0", message = "Longitude must be at most 180")
+    private Double longitude;
+    
+    /**
+     * Circle radius in meters
+     */
+    @Positive(message = "Radius must be positive")
+    @DecimalMax(value = "50000", message = "Radius must be at most 50000 meters")
+    private Double radiusMeters;
+    
+    /**
+     * Polygon vertices in order; the ring is closed automatically
+     */
+    private List<@Valid @NotNull GeoPointDTO> polygon;
+    
+    /**
+     * Seconds a technician must stay inside before a dwell event is emitted (default: configured)
+     */
+    @PositiveOrZero(message = "Dwell time must not be negative")
+    @Max(value = 86400, message = "Dwell time must be at most 86400 seconds")
+    private Integer dwellSeconds;
+}
@@ -0,0 +1,42 @@
+package com.fsm.location.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+/**
+ * DTO for the time technicians spent inside a geofence
+ * (GET /api/analytics/geofences/{geofenceId}/time).
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class GeofenceTimeResponse {
+    
+    private String geofenceId;
+    
+    /**
+     * Start of the requested time range (inclusive)
+     */
+    private LocalDateTime from;
+    
+    /**
+     * End of the requested time range (exclusive)
+     */
+    private LocalDateTime to;
+    
+    /**
+     * Minutes spent inside the geofence by all technicians together
+     */
+    private long totalMinutes;
+    
+    /**
+     * Technicians that were inside the geofence, longest time first
+     */
+    private List<TechnicianGeofenceTimeDTO> technicians;
+}
@@ -0,0 +1,30 @@
+package com.fsm.location.api.dto;
+
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.NotEmpty;
+import jakarta.validation.constraints.Size;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Request DTO for uploading GPS fixes buffered on the device while offline.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LocationBatchRequest {
+    
+    /**
+     * Maximum number of fixes accepted in one batch
+     */
+    public static final int MAX_BATCH_SIZE = 500;
+    
+    @NotEmpty(message = "At least one fix is required")
+    @Size(max = MAX_BATCH_SIZE, message = "At most " + MAX_BATCH_SIZE + " fixes are allowed per batch")
+    private List<@Valid BufferedLocationFix> fixes;
+}
@@ -0,0 +1,48 @@
+package com.fsm.location.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Response DTO for a batch location upload.
+ * Reports how many of the buffered fixes were persisted.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LocationBatchResponse {
+    
+    private Long technicianId;
+    
+    /**
+     * Number of fixes received in the batch
+     */
+    private int received;
+    
+    /**
+     * Number of fixes persisted
+     */
+    private int accepted;
+    
+    /**
+     * Number of fixes dropped by the rate limit (closer than 30 seconds to another fix)
+     */
+    private int skipped;
+    
+    /**
+     * Number of fixes rejected because their device timestamp is in the future
+     */
+    private int rejected;
+    
+    /**
+     * Device timestamp of the newest persisted fix
+     */
+    private LocalDateTime latestTimestamp;
+    
+    private String message;
+}
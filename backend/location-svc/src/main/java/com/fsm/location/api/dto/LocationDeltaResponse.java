@@ -0,0 +1,41 @@
+package com.fsm.location.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * DTO for the delta response of GET /api/technicians/locations?sinceVersion=N.
+ * Contains the technicians that changed since fleet version N; clients apply it to
+ * their previous state and pass {@code version} as the next {@code sinceVersion}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LocationDeltaResponse {
+    
+    /**
+     * Fleet version this response is current to
+     */
+    private long version;
+    
+    /**
+     * True if the requested version is unknown (e.g. after a service restart) and
+     * {@code changed} is a full snapshot that replaces the client's state
+     */
+    private boolean full;
+    
+    /**
+     * Active technicians whose position or derived status changed since the requested version
+     */
+    private List<TechnicianLocationDTO> changed;
+    
+    /**
+     * IDs of technicians that became stale (offline) since the requested version
+     */
+    private List<Long> removed;
+}
@@ -0,0 +1,63 @@
+package com.fsm.location.api.dto;
+
+import com.fsm.location.domain.model.TechnicianLocationRollup;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO for the aggregate of one technician's fixes within one minute.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class LocationRollupDTO {
+    
+    /**
+     * Start of the minute
+     */
+    private LocalDateTime minute;
+    
+    /**
+     * Latitude of the centroid of the minute's fixes
+     */
+    private Double latitude;
+    
+    /**
+     * Longitude of the centroid of the minute's fixes
+     */
+    private Double longitude;
+    
+    private Integer fixCount;
+    
+    /**
+     * Highest speed between consecutive fixes, in meters per second, or null if unknown
+     */
+    private Float maxSpeedMetersPerSecond;
+    
+    /**
+     * Lowest reported battery level, or null if none was reported
+     */
+    private Integer minBatteryLevel;
+    
+    /**
+     * Creates the DTO of a stored rollup.
+     * 
+     * @param rollup the rollup
+     * @return the corresponding DTO
+     */
+    public static LocationRollupDTO from(TechnicianLocationRollup rollup) {
+        return LocationRollupDTO.builder()
+                .minute(rollup.getMinute())
+                .latitude(rollup.getLatitude())
+                .longitude(rollup.getLongitude())
+                .fixCount(rollup.getFixCount())
+                .maxSpeedMetersPerSecond(rollup.getMaxSpeedMetersPerSecond())
+                .minBatteryLevel(rollup.getMinBatteryLevel() != null ? rollup.getMinBatteryLevel().intValue() : null)
+                .build();
+    }
+}
@@ -9,7 +9,8 @@ import java.time.LocalDateTime;
 
 /**
  * Response DTO for location update operation.
- * Confirms successful location update with timestamp.
+ * Confirms successful location update with timestamp, and tells the device
+ * when to report its next location.
  */
 @Data
 @NoArgsConstructor
@@ -23,4 +24,10 @@ public class LocationUpdateResponse {
     private Double longitude;
     private LocalDateTime timestamp;
     private String message;
+    
+    /**
+     * Seconds until the device should report its next location
+     * (only set in responses to location updates)
+     */
+    private Long recommendedIntervalSeconds;
 }
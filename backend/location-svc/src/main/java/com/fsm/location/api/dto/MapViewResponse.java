@@ -0,0 +1,47 @@
+package com.fsm.location.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+/**
+ * Response for a map viewport query (GET /api/technicians/locations with bbox and zoom).
+ * 
+ * When {@code clustered} is false, {@code technicians} holds every active technician in
+ * the viewport. When it is true, technicians sharing a grid cell are aggregated into
+ * {@code clusters}, and {@code technicians} only holds those alone in their cell.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class MapViewResponse {
+    
+    /**
+     * The zoom level the response was computed for
+     */
+    private Integer zoom;
+    
+    /**
+     * Whether technicians were aggregated into clusters
+     */
+    private Boolean clustered;
+    
+    /**
+     * Number of active technicians in the viewport
+     */
+    private Integer total;
+    
+    /**
+     * Individual technicians
+     */
+    private List<TechnicianLocationDTO> technicians;
+    
+    /**
+     * Clusters of at least two technicians
+     */
+    private List<TechnicianClusterDTO> clusters;
+}
@@ -0,0 +1,64 @@
+package com.fsm.location.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO for a technician returned by proximity searches (GET /api/technicians/nearby).
+ * Contains the technician's current location, derived status and distance from the search point.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class NearbyTechnicianDTO {
+    
+    /**
+     * The technician's unique identifier
+     */
+    private Long technicianId;
+    
+    /**
+     * The technician's name (currently placeholder, will be fetched from identity-svc in future)
+     */
+    private String name;
+    
+    /**
+     * The technician's current status (available, busy), derived from location freshness
+     */
+    private String status;
+    
+    /**
+     * Current latitude
+     */
+    private Double latitude;
+    
+    /**
+     * Current longitude
+     */
+    private Double longitude;
+    
+    /**
+     * Location accuracy in meters
+     */
+    private Double accuracy;
+    
+    /**
+     * Timestamp when location was recorded
+     */
+    private LocalDateTime timestamp;
+    
+    /**
+     * Battery level percentage (0-100)
+     */
+    private Integer batteryLevel;
+    
+    /**
+     * Great-circle distance from the search point in meters
+     */
+    private Double distanceMeters;
+}
@@ -0,0 +1,36 @@
+package com.fsm.location.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+/**
+ * DTO for a group of nearby technicians shown as a single marker on a zoomed-out map.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TechnicianClusterDTO {
+    
+    /**
+     * Latitude of the centroid of the clustered technicians
+     */
+    private Double latitude;
+    
+    /**
+     * Longitude of the centroid of the clustered technicians
+     */
+    private Double longitude;
+    
+    /**
+     * Number of technicians in the cluster
+     */
+    private Integer count;
+    
+    /**
+     * Number of clustered technicians whose status is available
+     */
+    private Integer availableCount;
+}
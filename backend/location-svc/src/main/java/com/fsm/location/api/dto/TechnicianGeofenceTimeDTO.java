@@ -0,0 +1,32 @@
+package com.fsm.location.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO for the time one technician spent inside a geofence.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TechnicianGeofenceTimeDTO {
+    
+    private Long technicianId;
+    
+    private long minutesInside;
+    
+    /**
+     * First minute the technician was seen inside
+     */
+    private LocalDateTime firstSeen;
+    
+    /**
+     * Last minute the technician was seen inside
+     */
+    private LocalDateTime lastSeen;
+}
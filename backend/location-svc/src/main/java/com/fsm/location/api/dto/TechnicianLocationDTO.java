@@ -1,5 +1,7 @@
 package com.fsm.location.api.dto;
 
+import com.fsm.location.domain.model.LocationFix;
+import com.fsm.location.domain.model.PresenceStatus;
 import lombok.AllArgsConstructor;
 import lombok.Builder;
 import lombok.Data;
@@ -23,7 +25,8 @@ public class TechnicianLocationDTO {
     private Long technicianId;
     
     /**
-     * The technician's name (currently placeholder, will be fetched from identity-svc in future)
+     * The technician's name from the {@link com.fsm.location.service.TechnicianProfileCache};
+     * "Technician {id}" while the profile is not known yet
      */
     private String name;
     
@@ -57,4 +60,25 @@ public class TechnicianLocationDTO {
      * Battery level percentage (0-100)
      */
     private Integer batteryLevel;
+    
+    /**
+     * Creates a DTO from an in-memory fix.
+     * 
+     * @param fix the technician's latest fix
+     * @param status the technician's presence status
+     * @param name the technician's display name, as resolved by the technician profile cache
+     * @return the DTO
+     */
+    public static TechnicianLocationDTO from(LocationFix fix, PresenceStatus status, String name) {
+        return TechnicianLocationDTO.builder()
+                .technicianId(fix.getTechnicianId())
+                .name(name)
+                .status(status.getValue())
+                .latitude(fix.getLatitude())
+                .longitude(fix.getLongitude())
+                .accuracy(fix.getAccuracy())
+                .timestamp(fix.getTimestamp())
+                .batteryLevel(fix.getBatteryLevel())
+                .build();
+    }
 }
@@ -0,0 +1,62 @@
+package com.fsm.location.api.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * DTO for a technician's trail (GET /api/technicians/{technicianId}/trail).
+ * The path is an encoded polyline; point i was recorded {@code timeOffsets[i]}
+ * seconds after {@code startTime}.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TrailResponse {
+    
+    private Long technicianId;
+    
+    /**
+     * Start of the requested time range (inclusive)
+     */
+    private LocalDateTime from;
+    
+    /**
+     * End of the requested time range (exclusive)
+     */
+    private LocalDateTime to;
+    
+    /**
+     * Number of fixes recorded in the time range
+     */
+    private int recordedPoints;
+    
+    /**
+     * Number of points in the polyline after simplification
+     */
+    private int points;
+    
+    /**
+     * Douglas-Peucker tolerance applied, in meters (0 = not simplified)
+     */
+    private double toleranceMeters;
+    
+    /**
+     * Path in the Google encoded polyline format (precision 5), oldest point first
+     */
+    private String polyline;
+    
+    /**
+     * Time of the first point, or null if no fix was recorded in the time range
+     */
+    private LocalDateTime startTime;
+    
+    /**
+     * Seconds between the first point and each point of the polyline
+     */
+    private int[] timeOffsets;
+}
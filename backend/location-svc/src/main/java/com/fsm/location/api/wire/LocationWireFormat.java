@@ -0,0 +1,294 @@
+package com.fsm.location.api.wire;
+
+import com.fsm.location.api.dto.BufferedLocationFix;
+import com.fsm.location.api.dto.LocationBatchRequest;
+import com.fsm.location.api.dto.LocationUpdateRequest;
+import com.fsm.location.service.exception.InvalidWireFormatException;
+
+import java.io.ByteArrayOutputStream;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Compact binary encoding of location updates for the mobile app, accepted by the
+ * ingest endpoints as an alternative to JSON (content type {@value #MEDIA_TYPE}).
+ * 
+ * Coordinates are sent as integers in units of 1e-7 degrees (about 1 cm), accuracy in
+ * decimeters and battery as a single byte (255 = not reported). Multi-byte integers are
+ * big-endian.
+ * 
+ * Single update (POST /me/location), 12 bytes:
+ * <pre>
+ * version:u8 (1) | latitude:i32 | longitude:i32 | accuracy:u16 | battery:u8
+ * </pre>
+ * 
+ * Batch of buffered fixes (POST /me/location/batch), oldest first:
+ * <pre>
+ * version:u8 (1) | count:varint | count x (dLatitude:zigzag | dLongitude:zigzag | accuracy:varint
+ *                                          | battery:u8 | dRecordedAt:zigzag)
+ * </pre>
+ * Each batch field prefixed with "d" is the difference to the previous fix (to 0 for the first fix);
+ * {@code recordedAt} is in Unix epoch seconds. Varints are unsigned LEB128, as in Protocol Buffers,
+ * and signed values are zigzag-encoded, so consecutive fixes typically take 8-10 bytes each.
+ * 
+ * Decoding validates the same constraints as the bean validation annotations of the JSON DTOs,
+ * so decoded requests are passed to the service without another validation pass.
+ */
+public final class LocationWireFormat {
+    
+    /**
+     * Content type of binary location payloads
+     */
+    public static final String MEDIA_TYPE = "application/vnd.fsm.location";
+    
+    public static final int VERSION = 1;
+    
+    /**
+     * Encoded size of a single update
+     */
+    public static final int UPDATE_SIZE = 12;
+    
+    private static final double COORDINATE_SCALE = 1e7;
+    private static final double ACCURACY_SCALE = 10.0;
+    private static final int BATTERY_NOT_REPORTED = 0xFF;
+    private static final int MAX_LATITUDE = 900_000_000;
+    private static final int MAX_LONGITUDE = 1_800_000_000;
+    private static final int MAX_ACCURACY = 0xFFFF;
+    
+    private LocationWireFormat() {
+    }
+    
+    /**
+     * Decodes a single location update.
+     * 
+     * @param payload the encoded update
+     * @return the validated update request
+     * @throws InvalidWireFormatException if the payload is malformed or a value is out of range
+     */
+    public static LocationUpdateRequest decodeUpdate(byte[] payload) {
+        if (payload.length != UPDATE_SIZE) {
+            throw new InvalidWireFormatException(
+                    "Location update must be " + UPDATE_SIZE + " bytes, got " + payload.length);
+        }
+        checkVersion(payload[0]);
+        int latitude = readInt(payload, 1);
+        int longitude = readInt(payload, 5);
+        int accuracy = ((payload[9] & 0xFF) << 8) | (payload[10] & 0xFF);
+        int battery = payload[11] & 0xFF;
+        
+        return LocationUpdateRequest.builder()
+                .latitude(toLatitude(latitude))
+                .longitude(toLongitude(longitude))
+                .accuracy(toAccuracy(accuracy))
+                .batteryLevel(toBatteryLevel(battery))
+                .build();
+    }
+    
+    /**
+     * Decodes a batch of buffered fixes.
+     * 
+     * @param payload the encoded batch
+     * @return the validated fixes, in payload order
+     * @throws InvalidWireFormatException if the payload is malformed, holds no fixes or too many,
+     *         or a value is out of range
+     */
+    public static List<BufferedLocationFix> decodeBatch(byte[] payload) {
+        Reader reader = new Reader(payload);
+        checkVersion((byte) reader.readByte());
+        long count = reader.readVarint();
+        if (count < 1 || count > LocationBatchRequest.MAX_BATCH_SIZE) {
+            throw new InvalidWireFormatException(
+                    "Batch must contain 1 to " + LocationBatchRequest.MAX_BATCH_SIZE + " fixes, got " + count);
+        }
+        
+        ZoneId zone = ZoneId.systemDefault();
+        List<BufferedLocationFix> fixes = new ArrayList<>((int) count);
+        long latitude = 0;
+        long longitude = 0;
+        long recordedAt = 0;
+        for (int i = 0; i < count; i++) {
+            latitude += reader.readZigzag();
+            longitude += reader.readZigzag();
+            long accuracy = reader.readVarint();
+            int battery = reader.readByte();
+            recordedAt += reader.readZigzag();
+            if (accuracy > Integer.MAX_VALUE || Math.abs(latitude) > MAX_LATITUDE || Math.abs(longitude) > MAX_LONGITUDE) {
+                throw new InvalidWireFormatException("Fix " + i + " is out of range");
+            }
+            fixes.add(BufferedLocationFix.builder()
+                    .latitude(toLatitude((int) latitude))
+                    .longitude(toLongitude((int) longitude))
+                    .accuracy(toAccuracy((int) accuracy))
+                    .batteryLevel(toBatteryLevel(battery))
+                    .recordedAt(toLocalDateTime(recordedAt, zone))
+                    .build());
+        }
+        if (reader.hasRemaining()) {
+            throw new InvalidWireFormatException("Unexpected bytes after " + count + " fixes");
+        }
+        return fixes;
+    }
+    
+    /**
+     * Encodes a single location update (the inverse of {@link #decodeUpdate}).
+     * 
+     * @param request the update to encode
+     * @return the encoded update
+     */
+    public static byte[] encodeUpdate(LocationUpdateRequest request) {
+        byte[] payload = new byte[UPDATE_SIZE];
+        payload[0] = VERSION;
+        writeInt(payload, 1, (int) Math.round(request.getLatitude() * COORDINATE_SCALE));
+        writeInt(payload, 5, (int) Math.round(request.getLongitude() * COORDINATE_SCALE));
+        int accuracy = (int) Math.min(MAX_ACCURACY, Math.max(1, Math.round(request.getAccuracy() * ACCURACY_SCALE)));
+        payload[9] = (byte) (accuracy >>> 8);
+        payload[10] = (byte) accuracy;
+        payload[11] = (byte) (request.getBatteryLevel() != null ? request.getBatteryLevel() : BATTERY_NOT_REPORTED);
+        return payload;
+    }
+    
+    /**
+     * Encodes a batch of buffered fixes (the inverse of {@link #decodeBatch}).
+     * 
+     * @param fixes the fixes to encode, oldest first
+     * @return the encoded batch
+     */
+    public static byte[] encodeBatch(List<BufferedLocationFix> fixes) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(2 + fixes.size() * 12);
+        ZoneId zone = ZoneId.systemDefault();
+        out.write(VERSION);
+        writeVarint(out, fixes.size());
+        long previousLatitude = 0;
+        long previousLongitude = 0;
+        long previousRecordedAt = 0;
+        for (BufferedLocationFix fix : fixes) {
+            long latitude = Math.round(fix.getLatitude() * COORDINATE_SCALE);
+            long longitude = Math.round(fix.getLongitude() * COORDINATE_SCALE);
+            long recordedAt = fix.getRecordedAt().atZone(zone).toEpochSecond();
+            writeZigzag(out, latitude - previousLatitude);
+            writeZigzag(out, longitude - previousLongitude);
+            writeVarint(out, Math.max(1, Math.round(fix.getAccuracy() * ACCURACY_SCALE)));
+            out.write(fix.getBatteryLevel() != null ? fix.getBatteryLevel() : BATTERY_NOT_REPORTED);
+            writeZigzag(out, recordedAt - previousRecordedAt);
+            previousLatitude = latitude;
+            previousLongitude = longitude;
+            previousRecordedAt = recordedAt;
+        }
+        return out.toByteArray();
+    }
+    
+    private static void checkVersion(byte version) {
+        if (version != VERSION) {
+            throw new InvalidWireFormatException("Unsupported location format version " + version);
+        }
+    }
+    
+    private static double toLatitude(int value) {
+        if (value < -MAX_LATITUDE || value > MAX_LATITUDE) {
+            throw new InvalidWireFormatException("Latitude must be between -90 and 90");
+        }
+        return value / COORDINATE_SCALE;
+    }
+    
+    private static double toLongitude(int value) {
+        if (value < -MAX_LONGITUDE || value > MAX_LONGITUDE) {
+            throw new InvalidWireFormatException("Longitude must be between -180 and 180");
+        }
+        return value / COORDINATE_SCALE;
+    }
+    
+    private static double toAccuracy(int decimeters) {
+        if (decimeters <= 0) {
+            throw new InvalidWireFormatException("Accuracy must be positive");
+        }
+        return decimeters / ACCURACY_SCALE;
+    }
+    
+    private static Integer toBatteryLevel(int value) {
+        if (value == BATTERY_NOT_REPORTED) {
+            return null;
+        }
+        if (value > 100) {
+            throw new InvalidWireFormatException("Battery level must be between 0 and 100");
+        }
+        return value;
+    }
+    
+    private static LocalDateTime toLocalDateTime(long epochSecond, ZoneId zone) {
+        try {
+            return LocalDateTime.ofInstant(Instant.ofEpochSecond(epochSecond), zone);
+        } catch (RuntimeException e) {
+            throw new InvalidWireFormatException("Recorded time is out of range");
+        }
+    }
+    
+    private static int readInt(byte[] payload, int offset) {
+        return ((payload[offset] & 0xFF) << 24)
+                | ((payload[offset + 1] & 0xFF) << 16)
+                | ((payload[offset + 2] & 0xFF) << 8)
+                | (payload[offset + 3] & 0xFF);
+    }
+    
+    private static void writeInt(byte[] payload, int offset, int value) {
+        payload[offset] = (byte) (value >>> 24);
+        payload[offset + 1] = (byte) (value >>> 16);
+        payload[offset + 2] = (byte) (value >>> 8);
+        payload[offset + 3] = (byte) value;
+    }
+    
+    private static void writeVarint(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+    
+    private static void writeZigzag(ByteArrayOutputStream out, long value) {
+        writeVarint(out, (value << 1) ^ (value >> 63));
+    }
+    
+    /**
+     * Cursor over a payload; reports truncation as an invalid format instead of an index error.
+     */
+    private static final class Reader {
+        
+        private final byte[] payload;
+        private int position;
+        
+        Reader(byte[] payload) {
+            this.payload = payload;
+        }
+        
+        int readByte() {
+            if (position >= payload.length) {
+                throw new InvalidWireFormatException("Truncated location payload");
+            }
+            return payload[position++] & 0xFF;
+        }
+        
+        long readVarint() {
+            long value = 0;
+            for (int shift = 0; shift < 64; shift += 7) {
+                int b = readByte();
+                value |= (long) (b & 0x7F) << shift;
+                if ((b & 0x80) == 0) {
+                    return value;
+                }
+            }
+            throw new InvalidWireFormatException("Malformed varint in location payload");
+        }
+        
+        long readZigzag() {
+            long value = readVarint();
+            return (value >>> 1) ^ -(value & 1);
+        }
+        
+        boolean hasRemaining() {
+            return position < payload.length;
+        }
+    }
+}
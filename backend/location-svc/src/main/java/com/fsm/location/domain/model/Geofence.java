@@ -0,0 +1,94 @@
+package com.fsm.location.domain.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.locationtech.jts.geom.Polygon;
+import org.locationtech.jts.io.ParseException;
+import org.locationtech.jts.io.WKTReader;
+
+import java.time.LocalDateTime;
+
+/**
+ * A named area around a job site, either a circle (center and radius) or a polygon.
+ * Technicians entering, leaving or staying inside a geofence produce
+ * {@link GeofenceEvent}s.
+ * 
+ * Polygon boundaries are stored as WKT with longitude/latitude coordinates (SRID 4326);
+ * geofences are only evaluated in memory, so no spatial column is needed.
+ * 
+ * Domain Invariants:
+ * - A circle has a center and a positive radius; a polygon has a valid boundary
+ * - The ID is chosen by the caller (e.g. the ID of the job), so re-registering replaces the fence
+ */
+@Entity
+@Table(name = "geofences")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class Geofence {
+    
+    /**
+     * Geometry of a geofence
+     */
+    public enum Shape {
+        CIRCLE,
+        POLYGON
+    }
+    
+    @Id
+    @Column(length = 64)
+    private String id;
+    
+    @Column
+    private String name;
+    
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false, length = 16)
+    private Shape shape;
+    
+    @Column(name = "center_latitude")
+    private Double centerLatitude;
+    
+    @Column(name = "center_longitude")
+    private Double centerLongitude;
+    
+    @Column(name = "radius_meters")
+    private Double radiusMeters;
+    
+    /**
+     * Polygon boundary as WKT, e.g. POLYGON ((lon lat, lon lat, ...))
+     */
+    @Column(length = 40000)
+    private String boundary;
+    
+    /**
+     * Time a technician must stay inside before a dwell event is emitted,
+     * or null to use the configured default
+     */
+    @Column(name = "dwell_seconds")
+    private Integer dwellSeconds;
+    
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+    
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+    
+    /**
+     * Parses the polygon boundary.
+     * 
+     * @return the boundary polygon
+     * @throws IllegalStateException if this is not a polygon geofence or the boundary is malformed
+     */
+    public Polygon toPolygon() {
+        if (shape != Shape.POLYGON || boundary == null) {
+            throw new IllegalStateException("Geofence " + id + " has no polygon boundary");
+        }
+        try {
+            return (Polygon) new WKTReader().read(boundary);
+        } catch (ParseException | ClassCastException e) {
+            throw new IllegalStateException("Geofence " + id + " has a malformed boundary", e);
+        }
+    }
+}
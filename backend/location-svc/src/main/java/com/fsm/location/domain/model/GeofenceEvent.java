@@ -0,0 +1,61 @@
+package com.fsm.location.domain.model;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * A technician crossing or staying inside a geofence, detected from their location fixes.
+ * 
+ * Domain Invariants:
+ * - Events for the same technician and geofence always follow the order ENTER, [DWELL], EXIT
+ * - DWELL is emitted at most once per visit
+ */
+@Value
+@Builder
+public class GeofenceEvent {
+    
+    /**
+     * Kind of geofence transition
+     */
+    public enum Type {
+        /** The technician's first fix inside the geofence */
+        ENTER,
+        /** The technician has stayed inside the geofence for its dwell time */
+        DWELL,
+        /** The technician's first fix clearly outside the geofence after a visit */
+        EXIT
+    }
+    
+    Type type;
+    
+    String geofenceId;
+    
+    long technicianId;
+    
+    /**
+     * Position of the fix that triggered the event
+     */
+    double latitude;
+    
+    double longitude;
+    
+    /**
+     * Time the triggering fix was recorded
+     */
+    LocalDateTime timestamp;
+    
+    /**
+     * Time the technician entered the geofence
+     */
+    LocalDateTime enteredAt;
+    
+    /**
+     * @return how long the technician had been inside when this event occurred
+     */
+    public Duration getTimeInside() {
+        return Duration.between(enteredAt, timestamp);
+    }
+}
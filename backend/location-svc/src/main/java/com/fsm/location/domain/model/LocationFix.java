@@ -0,0 +1,163 @@
+package com.fsm.location.domain.model;
+
+import lombok.Builder;
+import lombok.Value;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Immutable snapshot of a single accepted GPS fix for a technician.
+ * Used by the in-memory structures of the Location Services bounded context
+ * (latest-position registry, spatial index, streams) so that hot paths never
+ * share or mutate JPA entities.
+ * 
+ * Domain Invariants:
+ * - A fix always belongs to exactly one technician
+ * - A fix is never modified after creation; newer fixes replace older ones
+ */
+@Value
+@Builder(toBuilder = true)
+public class LocationFix {
+    
+    /**
+     * Mean Earth radius in meters, as used by the Haversine formula
+     */
+    public static final double EARTH_RADIUS_METERS = 6_371_000.0;
+    
+    /**
+     * Age after which a fix is no longer recent (technician no longer available)
+     */
+    public static final Duration RECENT_THRESHOLD = Duration.ofMinutes(5);
+    
+    /**
+     * Age after which a fix is stale (technician offline)
+     */
+    public static final Duration STALE_THRESHOLD = Duration.ofMinutes(15);
+    
+    /**
+     * ID of the persisted technician_locations row, or null if not yet persisted
+     */
+    Long locationId;
+    
+    long technicianId;
+    
+    double latitude;
+    
+    double longitude;
+    
+    /**
+     * Location accuracy in meters
+     */
+    double accuracy;
+    
+    /**
+     * Battery level percentage (0-100), or null if not reported
+     */
+    Integer batteryLevel;
+    
+    /**
+     * Time when the location was recorded
+     */
+    LocalDateTime timestamp;
+    
+    /**
+     * Creates a fix from a technician location entity.
+     * 
+     * @param location the technician location entity
+     * @return the corresponding immutable fix
+     */
+    public static LocationFix from(TechnicianLocation location) {
+        return LocationFix.builder()
+                .locationId(location.getId())
+                .technicianId(location.getTechnicianId())
+                .latitude(location.getLatitude())
+                .longitude(location.getLongitude())
+                .accuracy(location.getAccuracy())
+                .batteryLevel(location.getBatteryLevel())
+                .timestamp(location.getTimestamp())
+                .build();
+    }
+    
+    /**
+     * Creates a fix from a technician's current location.
+     * 
+     * @param location the technician current location entity
+     * @return the corresponding immutable fix
+     */
+    public static LocationFix from(TechnicianCurrentLocation location) {
+        return LocationFix.builder()
+                .locationId(location.getLocationId())
+                .technicianId(location.getTechnicianId())
+                .latitude(location.getLatitude())
+                .longitude(location.getLongitude())
+                .accuracy(location.getAccuracy())
+                .batteryLevel(location.getBatteryLevel())
+                .timestamp(location.getTimestamp())
+                .build();
+    }
+    
+    /**
+     * Checks whether this fix was recorded after another fix.
+     * 
+     * @param other the fix to compare with (may be null)
+     * @return true if other is null or this fix has a later timestamp
+     */
+    public boolean isNewerThan(LocationFix other) {
+        return other == null || timestamp.isAfter(other.getTimestamp());
+    }
+    
+    /**
+     * Checks if this fix is recent (within the last 5 minutes)
+     * @return true if the fix was recorded within the last 5 minutes
+     */
+    public boolean isRecent() {
+        return timestamp.isAfter(LocalDateTime.now().minus(RECENT_THRESHOLD));
+    }
+    
+    /**
+     * Checks if this fix is stale (older than 15 minutes)
+     * @return true if the fix is older than 15 minutes
+     */
+    public boolean isStale() {
+        return timestamp.isBefore(LocalDateTime.now().minus(STALE_THRESHOLD));
+    }
+    
+    /**
+     * Derives the technician's status from the freshness of this fix.
+     * @return "available" within 5 minutes, "busy" within 15 minutes, otherwise "offline"
+     */
+    public String deriveStatus() {
+        return derivePresence().getValue();
+    }
+    
+    /**
+     * Derives the technician's presence from the freshness of this fix.
+     * @return AVAILABLE within 5 minutes, BUSY within 15 minutes, otherwise OFFLINE
+     */
+    public PresenceStatus derivePresence() {
+        if (isStale()) {
+            return PresenceStatus.OFFLINE;
+        }
+        return isRecent() ? PresenceStatus.AVAILABLE : PresenceStatus.BUSY;
+    }
+    
+    /**
+     * Calculates the great-circle distance in meters to a point using the Haversine formula.
+     * 
+     * @param latitude the latitude of the point
+     * @param longitude the longitude of the point
+     * @return distance in meters
+     */
+    public double distanceMetersTo(double latitude, double longitude) {
+        double lat1Rad = Math.toRadians(this.latitude);
+        double lat2Rad = Math.toRadians(latitude);
+        double deltaLat = Math.toRadians(latitude - this.latitude);
+        double deltaLon = Math.toRadians(longitude - this.longitude);
+        
+        double a = Math.sin(deltaLat / 2) * Math.sin(deltaLat / 2) +
+                   Math.cos(lat1Rad) * Math.cos(lat2Rad) *
+                   Math.sin(deltaLon / 2) * Math.sin(deltaLon / 2);
+        return EARTH_RADIUS_METERS * 2 * Math.atan2(Math.sqrt(a), Math.sqrt(1 - a));
+    }
+}
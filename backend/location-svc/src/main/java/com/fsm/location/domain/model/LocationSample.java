@@ -0,0 +1,36 @@
+package com.fsm.location.domain.model;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * Technician, position, time and battery level of one recorded fix, read from the location
+ * history as a projection so that the rollup stage does not load full (geometry-carrying) entities.
+ */
+@Value
+public class LocationSample {
+    
+    long technicianId;
+    
+    double latitude;
+    
+    double longitude;
+    
+    LocalDateTime timestamp;
+    
+    Integer batteryLevel;
+    
+    /**
+     * @return the sample as a location fix (without location ID and accuracy)
+     */
+    public LocationFix toFix() {
+        return LocationFix.builder()
+                .technicianId(technicianId)
+                .latitude(latitude)
+                .longitude(longitude)
+                .timestamp(timestamp)
+                .batteryLevel(batteryLevel)
+                .build();
+    }
+}
@@ -0,0 +1,18 @@
+package com.fsm.location.domain.model;
+
+import lombok.Value;
+
+/**
+ * A technician's latest fix together with its distance from a search point.
+ * Result element of proximity searches (radius and nearest-neighbour).
+ */
+@Value
+public class NearbyTechnician {
+    
+    LocationFix fix;
+    
+    /**
+     * Great-circle distance from the search point in meters
+     */
+    double distanceMeters;
+}
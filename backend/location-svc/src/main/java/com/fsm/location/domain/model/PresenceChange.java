@@ -0,0 +1,27 @@
+package com.fsm.location.domain.model;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * A technician's presence status changing, either because a new fix arrived
+ * or because the latest fix aged past a freshness threshold.
+ */
+@Value
+@Builder
+public class PresenceChange {
+    
+    long technicianId;
+    
+    /**
+     * The technician's latest fix at the time of the change
+     */
+    LocationFix fix;
+    
+    /**
+     * Status before the change; OFFLINE for a technician reporting for the first time
+     */
+    PresenceStatus previous;
+    
+    PresenceStatus current;
+}
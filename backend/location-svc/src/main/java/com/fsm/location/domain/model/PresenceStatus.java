@@ -0,0 +1,27 @@
+package com.fsm.location.domain.model;
+
+/**
+ * Presence of a technician, derived from the age of their latest fix.
+ */
+public enum PresenceStatus {
+    
+    /** Latest fix is less than 5 minutes old */
+    AVAILABLE("available"),
+    /** Latest fix is between 5 and 15 minutes old */
+    BUSY("busy"),
+    /** Latest fix is older than 15 minutes, or the technician never reported */
+    OFFLINE("offline");
+    
+    private final String value;
+    
+    PresenceStatus(String value) {
+        this.value = value;
+    }
+    
+    /**
+     * @return the status as exposed by the API ("available", "busy" or "offline")
+     */
+    public String getValue() {
+        return value;
+    }
+}
@@ -0,0 +1,21 @@
+package com.fsm.location.domain.model;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * Technician, minute and centroid of one location rollup, read as a projection so that
+ * fleet-wide analytics do not attach every rollup they scan to the persistence context.
+ */
+@Value
+public class RollupCentroid {
+    
+    long technicianId;
+    
+    LocalDateTime minute;
+    
+    double latitude;
+    
+    double longitude;
+}
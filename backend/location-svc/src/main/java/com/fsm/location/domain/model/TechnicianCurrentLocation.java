@@ -0,0 +1,83 @@
+package com.fsm.location.domain.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.locationtech.jts.geom.Point;
+
+import java.time.LocalDateTime;
+
+/**
+ * Current position of a technician: a copy of the technician's newest
+ * technician_locations row, kept in technician_current_location.
+ * 
+ * "Latest location" queries read this table instead of searching the whole
+ * location history for each technician's maximum timestamp, so their cost
+ * grows with the size of the fleet rather than with the size of the history.
+ * 
+ * Domain Invariants:
+ * - There is at most one current location per technician
+ * - The current location is never replaced by an older fix
+ * - locationId references the technician_locations row it was copied from
+ */
+@Entity
+@Table(name = "technician_current_location", indexes = {
+    @Index(name = "idx_technician_current_location_timestamp", columnList = "timestamp")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TechnicianCurrentLocation {
+    
+    @Id
+    @Column(name = "technician_id")
+    private Long technicianId;
+    
+    @Column(name = "location_id", nullable = false)
+    private Long locationId;
+    
+    @Column(nullable = false)
+    private Double latitude;
+    
+    @Column(nullable = false)
+    private Double longitude;
+    
+    @Column(nullable = false)
+    private Double accuracy;
+    
+    @Column(nullable = false)
+    private LocalDateTime timestamp;
+    
+    @Column(name = "battery_level")
+    private Integer batteryLevel;
+    
+    /**
+     * PostGIS Point geometry (SRID 4326), copied from the source location
+     * so that proximity searches only scan one row per technician.
+     */
+    @Column(name = "location", columnDefinition = "geography(Point, 4326)")
+    private Point location;
+    
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+    
+    /**
+     * Creates the current location of a technician from a persisted location.
+     * 
+     * @param location the persisted technician location
+     * @return the corresponding current location
+     */
+    public static TechnicianCurrentLocation from(TechnicianLocation location) {
+        return TechnicianCurrentLocation.builder()
+                .technicianId(location.getTechnicianId())
+                .locationId(location.getId())
+                .latitude(location.getLatitude())
+                .longitude(location.getLongitude())
+                .accuracy(location.getAccuracy())
+                .timestamp(location.getTimestamp())
+                .batteryLevel(location.getBatteryLevel())
+                .location(location.getLocation())
+                .updatedAt(LocalDateTime.now())
+                .build();
+    }
+}
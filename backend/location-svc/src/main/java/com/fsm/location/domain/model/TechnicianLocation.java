@@ -36,8 +36,14 @@ public class TechnicianLocation {
     private static final GeometryFactory GEOMETRY_FACTORY = 
         new GeometryFactory(new PrecisionModel(), 4326);
     
+    /**
+     * Pooled sequence (allocation size 50) instead of IDENTITY, so Hibernate can
+     * assign IDs without a round-trip per row and group inserts into JDBC batches.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "technician_locations_id_seq")
+    @SequenceGenerator(name = "technician_locations_id_seq", sequenceName = "technician_locations_id_seq",
+                       allocationSize = 50)
     private Long id;
     
     @NotNull(message = "Technician ID is required")
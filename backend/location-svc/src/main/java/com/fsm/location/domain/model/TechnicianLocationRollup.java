@@ -0,0 +1,147 @@
+package com.fsm.location.domain.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import org.springframework.data.domain.Persistable;
+
+import java.io.Serializable;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Aggregate of the fixes one technician recorded within one minute, kept in
+ * technician_location_rollups for fleet analytics.
+ * 
+ * A rollup row is a few dozen bytes however many fixes it summarizes, so analytics
+ * over weeks of history read one row per technician and active minute instead of
+ * scanning raw fixes, and raw history partitions can expire long before the rollups.
+ * 
+ * Domain Invariants:
+ * - There is at most one rollup per technician and minute
+ * - latitude/longitude are the centroid of all fixCount fixes folded into the rollup
+ * - Folding fixes in several steps gives the same rollup as folding them at once
+ */
+@Entity
+@Table(name = "technician_location_rollups", indexes = {
+    @Index(name = "idx_technician_location_rollups_minute", columnList = "minute_start")
+})
+@IdClass(TechnicianLocationRollup.Key.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class TechnicianLocationRollup implements Persistable<TechnicianLocationRollup.Key> {
+    
+    @Id
+    @Column(name = "technician_id")
+    private Long technicianId;
+    
+    /**
+     * Start of the minute (seconds and below truncated)
+     */
+    @Id
+    @Column(name = "minute_start")
+    private LocalDateTime minute;
+    
+    /**
+     * Latitude of the centroid of the minute's fixes
+     */
+    @Column(nullable = false)
+    private Double latitude;
+    
+    /**
+     * Longitude of the centroid of the minute's fixes
+     */
+    @Column(nullable = false)
+    private Double longitude;
+    
+    @Column(name = "fix_count", nullable = false)
+    private Integer fixCount;
+    
+    /**
+     * Highest speed between consecutive fixes ending in this minute, in meters per second,
+     * or null if no speed could be derived (e.g. the technician's first fix)
+     */
+    @Column(name = "max_speed_mps")
+    private Float maxSpeedMetersPerSecond;
+    
+    @Column(name = "min_battery_level")
+    private Short minBatteryLevel;
+    
+    /**
+     * Whether the rollup has not been stored yet, so that saving it inserts without
+     * first looking up its (assigned) key
+     */
+    @Builder.Default
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    private transient boolean created = true;
+    
+    /**
+     * Creates the rollup of a single fix.
+     * 
+     * @param fix the recorded fix
+     * @param speedMetersPerSecond the speed from the technician's previous fix, or null if unknown
+     * @return a rollup of one fix for the minute of the fix
+     */
+    public static TechnicianLocationRollup of(LocationFix fix, Float speedMetersPerSecond) {
+        return TechnicianLocationRollup.builder()
+                .technicianId(fix.getTechnicianId())
+                .minute(fix.getTimestamp().truncatedTo(ChronoUnit.MINUTES))
+                .latitude(fix.getLatitude())
+                .longitude(fix.getLongitude())
+                .fixCount(1)
+                .maxSpeedMetersPerSecond(speedMetersPerSecond)
+                .minBatteryLevel(fix.getBatteryLevel() != null ? fix.getBatteryLevel().shortValue() : null)
+                .build();
+    }
+    
+    /**
+     * Folds another rollup of the same technician and minute into this one.
+     * 
+     * @param other the rollup of further fixes
+     */
+    public void merge(TechnicianLocationRollup other) {
+        int total = fixCount + other.fixCount;
+        latitude = (latitude * fixCount + other.latitude * other.fixCount) / total;
+        longitude = (longitude * fixCount + other.longitude * other.fixCount) / total;
+        fixCount = total;
+        if (other.maxSpeedMetersPerSecond != null
+                && (maxSpeedMetersPerSecond == null || other.maxSpeedMetersPerSecond > maxSpeedMetersPerSecond)) {
+            maxSpeedMetersPerSecond = other.maxSpeedMetersPerSecond;
+        }
+        if (other.minBatteryLevel != null
+                && (minBatteryLevel == null || other.minBatteryLevel < minBatteryLevel)) {
+            minBatteryLevel = other.minBatteryLevel;
+        }
+    }
+    
+    @Override
+    public Key getId() {
+        return new Key(technicianId, minute);
+    }
+    
+    @Override
+    public boolean isNew() {
+        return created;
+    }
+    
+    @PostLoad
+    @PostPersist
+    void markStored() {
+        created = false;
+    }
+    
+    /**
+     * Primary key of a rollup: technician and minute.
+     */
+    @Data
+    @NoArgsConstructor
+    @AllArgsConstructor
+    public static class Key implements Serializable {
+        
+        private Long technicianId;
+        
+        private LocalDateTime minute;
+    }
+}
@@ -0,0 +1,27 @@
+package com.fsm.location.domain.model;
+
+import lombok.Builder;
+import lombok.Value;
+
+/**
+ * Display data of a technician, owned by the Identity bounded context and
+ * cached by the Location Services bounded context to enrich location DTOs.
+ */
+@Value
+@Builder
+public class TechnicianProfile {
+    
+    long technicianId;
+    
+    String name;
+    
+    /**
+     * Creates the profile shown for a technician whose identity is unknown.
+     * 
+     * @param technicianId the ID of the technician
+     * @return a profile named "Technician {id}"
+     */
+    public static TechnicianProfile placeholder(long technicianId) {
+        return new TechnicianProfile(technicianId, "Technician " + technicianId);
+    }
+}
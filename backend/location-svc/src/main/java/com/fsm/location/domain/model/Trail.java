@@ -0,0 +1,238 @@
+package com.fsm.location.domain.model;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Arrays;
+
+/**
+ * Chronological path of a technician, stored in primitive arrays so that a full day
+ * of fixes costs a few bytes per point instead of one object graph per fix.
+ * 
+ * Timestamps are kept with second precision. A trail can be simplified with the
+ * Douglas-Peucker algorithm and encoded in the Google encoded polyline format.
+ * 
+ * Domain Invariants:
+ * - Points are kept in the order they were added (the caller adds them oldest first)
+ * - Simplification always keeps the first and the last point
+ */
+public class Trail {
+    
+    /**
+     * Meters per degree of latitude (and of longitude at the equator)
+     */
+    private static final double METERS_PER_DEGREE = Math.toRadians(LocationFix.EARTH_RADIUS_METERS);
+    
+    /**
+     * Encoded polyline precision: coordinates are rounded to 5 decimals (about 1 meter)
+     */
+    private static final double POLYLINE_FACTOR = 1e5;
+    
+    private double[] latitudes;
+    private double[] longitudes;
+    private long[] epochSeconds;
+    private int size;
+    
+    public Trail() {
+        this(256);
+    }
+    
+    public Trail(int initialCapacity) {
+        int capacity = Math.max(initialCapacity, 2);
+        latitudes = new double[capacity];
+        longitudes = new double[capacity];
+        epochSeconds = new long[capacity];
+    }
+    
+    /**
+     * Appends a point to the end of the trail.
+     * 
+     * @param latitude the latitude of the point
+     * @param longitude the longitude of the point
+     * @param timestamp the time the point was recorded
+     */
+    public void add(double latitude, double longitude, LocalDateTime timestamp) {
+        add(latitude, longitude, timestamp.toEpochSecond(ZoneOffset.UTC));
+    }
+    
+    /**
+     * Appends a point to the end of the trail.
+     * 
+     * @param latitude the latitude of the point
+     * @param longitude the longitude of the point
+     * @param epochSecond the time the point was recorded, in seconds since the epoch (UTC)
+     */
+    public void add(double latitude, double longitude, long epochSecond) {
+        if (size == latitudes.length) {
+            int capacity = size + (size >> 1);
+            latitudes = Arrays.copyOf(latitudes, capacity);
+            longitudes = Arrays.copyOf(longitudes, capacity);
+            epochSeconds = Arrays.copyOf(epochSeconds, capacity);
+        }
+        latitudes[size] = latitude;
+        longitudes[size] = longitude;
+        epochSeconds[size] = epochSecond;
+        size++;
+    }
+    
+    /**
+     * @return the number of points
+     */
+    public int size() {
+        return size;
+    }
+    
+    public boolean isEmpty() {
+        return size == 0;
+    }
+    
+    public double getLatitude(int index) {
+        return latitudes[checkIndex(index)];
+    }
+    
+    public double getLongitude(int index) {
+        return longitudes[checkIndex(index)];
+    }
+    
+    public LocalDateTime getTimestamp(int index) {
+        return LocalDateTime.ofEpochSecond(epochSeconds[checkIndex(index)], 0, ZoneOffset.UTC);
+    }
+    
+    private int checkIndex(int index) {
+        if (index < 0 || index >= size) {
+            throw new IndexOutOfBoundsException("Index " + index + " out of bounds for trail of " + size + " points");
+        }
+        return index;
+    }
+    
+    /**
+     * Gets the time of every point as seconds after the first point, for replaying the trail.
+     * 
+     * @return the offset in seconds of each point from the first point
+     */
+    public int[] getTimeOffsets() {
+        int[] offsets = new int[size];
+        for (int i = 1; i < size; i++) {
+            offsets[i] = (int) (epochSeconds[i] - epochSeconds[0]);
+        }
+        return offsets;
+    }
+    
+    /**
+     * Simplifies the trail with the Douglas-Peucker algorithm: drops every point that lies
+     * within {@code toleranceMeters} of the simplified path through its neighbours.
+     * Distances are measured on a local equirectangular projection, which is accurate
+     * for the short segments of a technician's path.
+     * 
+     * @param toleranceMeters the maximum deviation of a dropped point from the simplified path
+     * @return the simplified trail, or this trail if nothing can be dropped
+     */
+    public Trail simplify(double toleranceMeters) {
+        if (size <= 2 || toleranceMeters <= 0) {
+            return this;
+        }
+        boolean[] keep = new boolean[size];
+        keep[0] = true;
+        keep[size - 1] = true;
+        double toleranceSquared = toleranceMeters * toleranceMeters;
+        
+        // Iterative to avoid deep recursion on long, noisy trails: pairs of (first, last) indexes
+        int[] stack = new int[64];
+        int top = 0;
+        stack[top++] = 0;
+        stack[top++] = size - 1;
+        while (top > 0) {
+            int last = stack[--top];
+            int first = stack[--top];
+            double maxDistanceSquared = 0;
+            int farthest = -1;
+            for (int i = first + 1; i < last; i++) {
+                double distanceSquared = segmentDistanceSquared(i, first, last);
+                if (distanceSquared > maxDistanceSquared) {
+                    maxDistanceSquared = distanceSquared;
+                    farthest = i;
+                }
+            }
+            if (farthest >= 0 && maxDistanceSquared > toleranceSquared) {
+                keep[farthest] = true;
+                if (top + 4 > stack.length) {
+                    stack = Arrays.copyOf(stack, stack.length * 2);
+                }
+                stack[top++] = first;
+                stack[top++] = farthest;
+                stack[top++] = farthest;
+                stack[top++] = last;
+            }
+        }
+        
+        Trail simplified = new Trail(size);
+        for (int i = 0; i < size; i++) {
+            if (keep[i]) {
+                simplified.add(latitudes[i], longitudes[i], epochSeconds[i]);
+            }
+        }
+        return simplified;
+    }
+    
+    /**
+     * Squared distance in meters from a point to the segment between two other points,
+     * projected onto a plane tangent at the segment start.
+     */
+    private double segmentDistanceSquared(int point, int start, int end) {
+        double metersPerDegreeLon = METERS_PER_DEGREE * Math.cos(Math.toRadians(latitudes[start]));
+        double segmentX = longitudeDelta(longitudes[start], longitudes[end]) * metersPerDegreeLon;
+        double segmentY = (latitudes[end] - latitudes[start]) * METERS_PER_DEGREE;
+        double pointX = longitudeDelta(longitudes[start], longitudes[point]) * metersPerDegreeLon;
+        double pointY = (latitudes[point] - latitudes[start]) * METERS_PER_DEGREE;
+        
+        double segmentLengthSquared = segmentX * segmentX + segmentY * segmentY;
+        double t = segmentLengthSquared == 0 ? 0
+                : Math.max(0, Math.min(1, (pointX * segmentX + pointY * segmentY) / segmentLengthSquared));
+        double dx = pointX - t * segmentX;
+        double dy = pointY - t * segmentY;
+        return dx * dx + dy * dy;
+    }
+    
+    /**
+     * @return the signed longitude difference, taking the short way across the antimeridian
+     */
+    private static double longitudeDelta(double from, double to) {
+        double delta = to - from;
+        if (delta > 180) {
+            return delta - 360;
+        }
+        if (delta < -180) {
+            return delta + 360;
+        }
+        return delta;
+    }
+    
+    /**
+     * Encodes the trail in the Google encoded polyline format (precision 5),
+     * as understood by Google Maps, Leaflet and Mapbox polyline decoders.
+     * 
+     * @return the encoded polyline, empty for an empty trail
+     */
+    public String encodePolyline() {
+        StringBuilder encoded = new StringBuilder(size * 8);
+        long previousLat = 0;
+        long previousLon = 0;
+        for (int i = 0; i < size; i++) {
+            long lat = Math.round(latitudes[i] * POLYLINE_FACTOR);
+            long lon = Math.round(longitudes[i] * POLYLINE_FACTOR);
+            encodeValue(lat - previousLat, encoded);
+            encodeValue(lon - previousLon, encoded);
+            previousLat = lat;
+            previousLon = lon;
+        }
+        return encoded.toString();
+    }
+    
+    private static void encodeValue(long value, StringBuilder encoded) {
+        long remaining = value < 0 ? ~(value << 1) : value << 1;
+        while (remaining >= 0x20) {
+            encoded.append((char) ((0x20 | (remaining & 0x1f)) + 63));
+            remaining >>= 5;
+        }
+        encoded.append((char) (remaining + 63));
+    }
+}
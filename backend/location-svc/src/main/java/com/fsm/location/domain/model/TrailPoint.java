@@ -0,0 +1,19 @@
+package com.fsm.location.domain.model;
+
+import lombok.Value;
+
+import java.time.LocalDateTime;
+
+/**
+ * Position and time of one recorded fix, read from the location history as a
+ * projection so that trail queries do not load full (geometry-carrying) entities.
+ */
+@Value
+public class TrailPoint {
+    
+    double latitude;
+    
+    double longitude;
+    
+    LocalDateTime timestamp;
+}
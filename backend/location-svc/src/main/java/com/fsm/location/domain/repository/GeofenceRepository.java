@@ -0,0 +1,13 @@
+package com.fsm.location.domain.repository;
+
+import com.fsm.location.domain.model.Geofence;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+/**
+ * Repository for geofences around job sites.
+ * Only read when the in-memory geofence index is built; fixes are never evaluated here.
+ */
+@Repository
+public interface GeofenceRepository extends JpaRepository<Geofence, String> {
+}
@@ -1,9 +1,14 @@
 package com.fsm.location.domain.repository;
 
+import com.fsm.location.domain.model.LocationSample;
 import com.fsm.location.domain.model.TechnicianLocation;
+import com.fsm.location.domain.model.TrailPoint;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.locationtech.jts.geom.Point;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
@@ -11,6 +16,7 @@ import java.time.LocalDateTime;
 import java.util.Arrays;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 /**
  * Spring Data JPA repository for TechnicianLocation entity.
@@ -52,25 +58,90 @@ public interface LocationRepository extends JpaRepository<TechnicianLocation, Lo
     List<TechnicianLocation> findByTechnicianIdAndTimestampBetweenOrderByTimestampDesc(
             Long technicianId, LocalDateTime startTime, LocalDateTime endTime);
     
+    /**
+     * Find the timestamps of a technician's stored fixes in the closed range [from, to], oldest first.
+     * Used to skip fixes of a re-sent offline batch that are already stored.
+     * 
+     * @param technicianId the ID of the technician
+     * @param from the start of the time range (inclusive)
+     * @param to the end of the time range (inclusive)
+     * @return the timestamps of the stored fixes
+     */
+    @Query("SELECT tl.timestamp FROM TechnicianLocation tl WHERE tl.technicianId = :technicianId " +
+           "AND tl.timestamp >= :from AND tl.timestamp <= :to ORDER BY tl.timestamp ASC")
+    List<LocalDateTime> findTimestamps(
+            @Param("technicianId") Long technicianId,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to);
+    
+    /**
+     * Stream the positions a technician recorded in the half-open range [from, to), oldest first.
+     * Rows are fetched from the database in chunks and read as {@link TrailPoint} projections, so
+     * long trails are neither materialized as a list nor attached to the persistence context.
+     * Must be called within a transaction and the stream must be closed.
+     * 
+     * @param technicianId the ID of the technician
+     * @param from the start of the time range (inclusive)
+     * @param to the end of the time range (exclusive)
+     * @return stream of recorded positions
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.fsm.location.domain.model.TrailPoint(tl.latitude, tl.longitude, tl.timestamp) " +
+           "FROM TechnicianLocation tl WHERE tl.technicianId = :technicianId " +
+           "AND tl.timestamp >= :from AND tl.timestamp < :to ORDER BY tl.timestamp ASC")
+    Stream<TrailPoint> streamTrail(
+            @Param("technicianId") Long technicianId,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to);
+    
+    /**
+     * Stream the fixes inserted in the half-open range (after, upTo] of insertion time, ordered by
+     * technician and then by timestamp, for the rollup stage. Selecting by insertion time rather
+     * than by timestamp also picks up offline batches recorded long before they were uploaded.
+     * Must be called within a transaction and the stream must be closed.
+     * 
+     * @param after the end of the previously read range (exclusive)
+     * @param upTo the end of the range (inclusive)
+     * @return stream of inserted fixes
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.fsm.location.domain.model.LocationSample(" +
+           "tl.technicianId, tl.latitude, tl.longitude, tl.timestamp, tl.batteryLevel) " +
+           "FROM TechnicianLocation tl WHERE tl.createdAt > :after AND tl.createdAt <= :upTo " +
+           "ORDER BY tl.technicianId ASC, tl.timestamp ASC")
+    Stream<LocationSample> streamInsertedBetween(
+            @Param("after") LocalDateTime after,
+            @Param("upTo") LocalDateTime upTo);
+    
     /**
      * Get the latest location for each technician (for map display).
-     * This query retrieves only the most recent location record for each technician.
+     * This query retrieves only the most recent location record for each technician,
+     * as referenced by the technician_current_location table.
      * 
      * @return list of the latest locations for all technicians
      */
-    @Query("SELECT tl FROM TechnicianLocation tl WHERE tl.timestamp = " +
-           "(SELECT MAX(tl2.timestamp) FROM TechnicianLocation tl2 WHERE tl2.technicianId = tl.technicianId)")
+    @Query("SELECT tl FROM TechnicianCurrentLocation c " +
+           "JOIN TechnicianLocation tl ON tl.id = c.locationId AND tl.timestamp = c.timestamp")
     List<TechnicianLocation> findLatestLocationsForAllTechnicians();
     
     /**
      * Find all technicians with recent locations (within the last N minutes).
      * Useful for determining which technicians are currently active.
+     * Filters the technician_current_location table, so the cost depends on the
+     * number of technicians rather than the length of the location history.
      * 
      * @param since the timestamp to check from
      * @return list of recent locations
      */
-    @Query("SELECT tl FROM TechnicianLocation tl WHERE tl.timestamp >= :since AND tl.timestamp = " +
-           "(SELECT MAX(tl2.timestamp) FROM TechnicianLocation tl2 WHERE tl2.technicianId = tl.technicianId)")
+    @Query("SELECT tl FROM TechnicianCurrentLocation c " +
+           "JOIN TechnicianLocation tl ON tl.id = c.locationId AND tl.timestamp = c.timestamp " +
+           "WHERE c.timestamp >= :since")
     List<TechnicianLocation> findRecentLocations(@Param("since") LocalDateTime since);
     
     /**
@@ -92,6 +163,7 @@ public interface LocationRepository extends JpaRepository<TechnicianLocation, Lo
     /**
      * Find all technicians within a specified radius (in meters) of a given point.
      * Uses PostGIS ST_DWithin function for efficient geospatial queries.
+     * Searches the current position of each technician (technician_current_location).
      * This is a key query for technician assignment based on proximity.
      * 
      * Note: For geography type, ST_DWithin distance is in meters by default.
@@ -100,12 +172,11 @@ public interface LocationRepository extends JpaRepository<TechnicianLocation, Lo
      * @param radiusMeters the search radius in meters
      * @return list of technician locations within the radius, ordered by distance (closest first)
      */
-    @Query(value = "SELECT tl.* FROM technician_locations tl " +
-           "WHERE tl.location IS NOT NULL " +
-           "AND ST_DWithin(tl.location, CAST(:point AS geography), :radiusMeters) " +
-           "AND tl.timestamp = (SELECT MAX(tl2.timestamp) FROM technician_locations tl2 " +
-           "                    WHERE tl2.technician_id = tl.technician_id) " +
-           "ORDER BY ST_Distance(tl.location, CAST(:point AS geography))",
+    @Query(value = "SELECT tl.* FROM technician_current_location c " +
+           "JOIN technician_locations tl ON tl.id = c.location_id AND tl.timestamp = c.timestamp " +
+           "WHERE c.location IS NOT NULL " +
+           "AND ST_DWithin(c.location, CAST(:point AS geography), :radiusMeters) " +
+           "ORDER BY ST_Distance(c.location, CAST(:point AS geography))",
            nativeQuery = true)
     List<TechnicianLocation> findTechniciansWithinRadius(
             @Param("point") Point point,
@@ -121,19 +192,41 @@ public interface LocationRepository extends JpaRepository<TechnicianLocation, Lo
      * @param since the timestamp threshold for recent activity
      * @return list of active technician locations within the radius, ordered by distance
      */
-    @Query(value = "SELECT tl.* FROM technician_locations tl " +
-           "WHERE tl.location IS NOT NULL " +
-           "AND tl.timestamp >= :since " +
-           "AND ST_DWithin(tl.location, CAST(:point AS geography), :radiusMeters) " +
-           "AND tl.timestamp = (SELECT MAX(tl2.timestamp) FROM technician_locations tl2 " +
-           "                    WHERE tl2.technician_id = tl.technician_id) " +
-           "ORDER BY ST_Distance(tl.location, CAST(:point AS geography))",
+    @Query(value = "SELECT tl.* FROM technician_current_location c " +
+           "JOIN technician_locations tl ON tl.id = c.location_id AND tl.timestamp = c.timestamp " +
+           "WHERE c.location IS NOT NULL " +
+           "AND c.timestamp >= :since " +
+           "AND ST_DWithin(c.location, CAST(:point AS geography), :radiusMeters) " +
+           "ORDER BY ST_Distance(c.location, CAST(:point AS geography))",
            nativeQuery = true)
     List<TechnicianLocation> findActiveTechniciansWithinRadius(
             @Param("point") Point point,
             @Param("radiusMeters") double radiusMeters,
             @Param("since") LocalDateTime since);
     
+    /**
+     * Find the k nearest active technicians to a given point.
+     * Uses the PostGIS {@code <->} distance operator, which walks the GIST index on
+     * technician_current_location in distance order instead of sorting every row,
+     * so latency stays flat as the fleet grows.
+     * 
+     * @param point the point to search from (longitude, latitude)
+     * @param since the timestamp threshold for recent activity
+     * @param limit the maximum number of technicians to return (k)
+     * @return the nearest active technician locations, ordered by distance (closest first)
+     */
+    @Query(value = "SELECT tl.* FROM technician_current_location c " +
+           "JOIN technician_locations tl ON tl.id = c.location_id AND tl.timestamp = c.timestamp " +
+           "WHERE c.location IS NOT NULL " +
+           "AND c.timestamp >= :since " +
+           "ORDER BY c.location <-> CAST(:point AS geography) " +
+           "LIMIT :limit",
+           nativeQuery = true)
+    List<TechnicianLocation> findNearestActiveTechnicians(
+            @Param("point") Point point,
+            @Param("since") LocalDateTime since,
+            @Param("limit") int limit);
+    
     /**
      * Get the last known position for each active technician.
      * Active is defined as having a location update within the specified time threshold.
@@ -142,10 +235,9 @@ public interface LocationRepository extends JpaRepository<TechnicianLocation, Lo
      * @param since the timestamp threshold for active status
      * @return list of the latest locations for all active technicians
      */
-    @Query("SELECT tl FROM TechnicianLocation tl " +
-           "WHERE tl.timestamp >= :since " +
-           "AND tl.timestamp = (SELECT MAX(tl2.timestamp) FROM TechnicianLocation tl2 " +
-           "                    WHERE tl2.technicianId = tl.technicianId)")
+    @Query("SELECT tl FROM TechnicianCurrentLocation c " +
+           "JOIN TechnicianLocation tl ON tl.id = c.locationId AND tl.timestamp = c.timestamp " +
+           "WHERE c.timestamp >= :since")
     List<TechnicianLocation> findLastKnownPositionsForActiveTechnicians(
             @Param("since") LocalDateTime since);
     
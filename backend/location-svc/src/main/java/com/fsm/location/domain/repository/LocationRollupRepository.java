@@ -0,0 +1,83 @@
+package com.fsm.location.domain.repository;
+
+import com.fsm.location.domain.model.RollupCentroid;
+import com.fsm.location.domain.model.TechnicianLocationRollup;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * Repository for the per-technician, per-minute location rollups read by fleet analytics.
+ */
+@Repository
+public interface LocationRollupRepository
+        extends JpaRepository<TechnicianLocationRollup, TechnicianLocationRollup.Key> {
+    
+    /**
+     * Find the stored rollups of any of the given technicians in any of the given minutes,
+     * with one query rather than one lookup per key. The result may contain combinations
+     * of technician and minute that were not asked for.
+     * 
+     * @param technicianIds the IDs of the technicians
+     * @param minutes the starts of the minutes
+     * @return the matching rollups
+     */
+    List<TechnicianLocationRollup> findByTechnicianIdInAndMinuteIn(
+            Collection<Long> technicianIds, Collection<LocalDateTime> minutes);
+    
+    /**
+     * Find a technician's rollups in the half-open range [from, to), oldest first.
+     * 
+     * @param technicianId the ID of the technician
+     * @param from the start of the time range (inclusive)
+     * @param to the end of the time range (exclusive)
+     * @return the technician's rollups
+     */
+    @Query("SELECT r FROM TechnicianLocationRollup r WHERE r.technicianId = :technicianId " +
+           "AND r.minute >= :from AND r.minute < :to ORDER BY r.minute ASC")
+    List<TechnicianLocationRollup> findByTechnician(
+            @Param("technicianId") Long technicianId,
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to);
+    
+    /**
+     * Stream the rollup centroids of the whole fleet in the half-open range [from, to) whose
+     * centroid lies in a bounding box, ordered by technician and then by minute. Rows are
+     * fetched in chunks and read as projections.
+     * Must be called within a transaction and the stream must be closed.
+     * 
+     * @param from the start of the time range (inclusive)
+     * @param to the end of the time range (exclusive)
+     * @param minLatitude the southern edge of the bounding box
+     * @param maxLatitude the northern edge of the bounding box
+     * @param minLongitude the western edge of the bounding box
+     * @param maxLongitude the eastern edge of the bounding box
+     * @return stream of rollup centroids
+     */
+    @QueryHints({
+        @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+        @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT new com.fsm.location.domain.model.RollupCentroid(" +
+           "r.technicianId, r.minute, r.latitude, r.longitude) " +
+           "FROM TechnicianLocationRollup r WHERE r.minute >= :from AND r.minute < :to " +
+           "AND r.latitude BETWEEN :minLatitude AND :maxLatitude " +
+           "AND r.longitude BETWEEN :minLongitude AND :maxLongitude " +
+           "ORDER BY r.technicianId ASC, r.minute ASC")
+    Stream<RollupCentroid> streamFleet(
+            @Param("from") LocalDateTime from,
+            @Param("to") LocalDateTime to,
+            @Param("minLatitude") double minLatitude,
+            @Param("maxLatitude") double maxLatitude,
+            @Param("minLongitude") double minLongitude,
+            @Param("maxLongitude") double maxLongitude);
+}
@@ -0,0 +1,96 @@
+package com.fsm.location.domain.repository;
+
+import com.fsm.location.domain.model.TechnicianCurrentLocation;
+import com.fsm.location.domain.model.TechnicianLocation;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.function.BinaryOperator;
+import java.util.stream.Collectors;
+
+/**
+ * Spring Data JPA repository for TechnicianCurrentLocation entity.
+ * Maintains the one-row-per-technician current position table that backs
+ * the "latest location" queries of {@link LocationRepository}.
+ */
+@Repository
+public interface TechnicianCurrentLocationRepository extends JpaRepository<TechnicianCurrentLocation, Long> {
+    
+    /**
+     * Replaces a technician's current location with the given location,
+     * unless the stored current location is newer.
+     * Pending inserts are flushed first so that a current location persisted
+     * earlier in the same transaction is visible to the update.
+     * 
+     * @param location the persisted technician location
+     * @return the number of updated rows (0 if the technician has no current location
+     *         or the stored one is newer)
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("UPDATE TechnicianCurrentLocation c SET " +
+           "c.locationId = :#{#location.id}, " +
+           "c.latitude = :#{#location.latitude}, " +
+           "c.longitude = :#{#location.longitude}, " +
+           "c.accuracy = :#{#location.accuracy}, " +
+           "c.timestamp = :#{#location.timestamp}, " +
+           "c.batteryLevel = :#{#location.batteryLevel}, " +
+           "c.location = :#{#location.location}, " +
+           "c.updatedAt = CURRENT_TIMESTAMP " +
+           "WHERE c.technicianId = :#{#location.technicianId} " +
+           "AND c.timestamp <= :#{#location.timestamp}")
+    int updateIfNotOlder(@Param("location") TechnicianLocation location);
+    
+    /**
+     * Inserts a technician's current location unless the technician already has one.
+     * Never fails on the primary key, so concurrent first locations of a technician
+     * (a live update, an offline batch and a write-behind flush) do not roll back each other.
+     * 
+     * @param location the persisted technician location
+     * @return the number of inserted rows (0 if the technician already has a current location)
+     */
+    @Modifying(flushAutomatically = true)
+    @Query(value = "INSERT INTO technician_current_location " +
+                   "(technician_id, location_id, latitude, longitude, accuracy, timestamp, battery_level, " +
+                   "location, updated_at) " +
+                   "VALUES (:#{#location.technicianId}, :#{#location.id}, :#{#location.latitude}, " +
+                   ":#{#location.longitude}, :#{#location.accuracy}, :#{#location.timestamp}, " +
+                   ":#{#location.batteryLevel}, :#{#location.location}, CURRENT_TIMESTAMP) " +
+                   "ON CONFLICT DO NOTHING",
+           nativeQuery = true)
+    int insertIfAbsent(@Param("location") TechnicianLocation location);
+    
+    /**
+     * Upserts a technician's current location after a location has been persisted.
+     * The common case (technician already known) is a single conditional UPDATE;
+     * a row is only inserted for a technician's first ever location. Each statement is
+     * atomic: if another transaction inserts the technician's first row between the
+     * UPDATE and the INSERT, the INSERT does nothing and the UPDATE is repeated.
+     * 
+     * @param location the persisted technician location
+     */
+    default void upsert(TechnicianLocation location) {
+        if (updateIfNotOlder(location) == 0 && insertIfAbsent(location) == 0) {
+            updateIfNotOlder(location);
+        }
+    }
+    
+    /**
+     * Upserts the current location of every technician in a batch of persisted locations,
+     * writing only the newest location of each technician.
+     * 
+     * @param locations the persisted technician locations
+     */
+    default void upsertLatest(Collection<TechnicianLocation> locations) {
+        BinaryOperator<TechnicianLocation> newest =
+                BinaryOperator.maxBy(Comparator.comparing(TechnicianLocation::getTimestamp));
+        locations.stream()
+                .collect(Collectors.toMap(TechnicianLocation::getTechnicianId, location -> location, newest))
+                .values()
+                .forEach(this::upsert);
+    }
+}
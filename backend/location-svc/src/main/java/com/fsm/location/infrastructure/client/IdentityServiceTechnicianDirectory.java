@@ -0,0 +1,76 @@
+package com.fsm.location.infrastructure.client;
+
+import com.fsm.location.domain.model.TechnicianProfile;
+import com.fsm.location.infrastructure.config.TechnicianProfileProperties;
+import com.fsm.location.service.TechnicianDirectory;
+import lombok.Data;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.web.client.RestTemplateBuilder;
+import org.springframework.http.HttpHeaders;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Looks up technician profiles in identity-svc.
+ * 
+ * identity-svc has no lookup by a list of IDs, so every batch is answered with a single
+ * {@code GET /api/users}; all returned users are handed to the cache, which therefore
+ * learns the names of technicians that have not reported yet without further calls.
+ */
+@Component
+@ConditionalOnProperty(prefix = "location.technician-profiles", name = "source", havingValue = "IDENTITY_SERVICE")
+@Slf4j
+public class IdentityServiceTechnicianDirectory implements TechnicianDirectory {
+    
+    private final RestTemplate restTemplate;
+    
+    public IdentityServiceTechnicianDirectory(RestTemplateBuilder restTemplateBuilder,
+                                              TechnicianProfileProperties properties) {
+        RestTemplateBuilder builder = restTemplateBuilder
+                .rootUri(properties.getIdentityServiceUrl())
+                .setConnectTimeout(properties.getIdentityServiceTimeout())
+                .setReadTimeout(properties.getIdentityServiceTimeout());
+        if (StringUtils.hasText(properties.getIdentityServiceToken())) {
+            builder = builder.defaultHeader(HttpHeaders.AUTHORIZATION, "Bearer " + properties.getIdentityServiceToken());
+        }
+        this.restTemplate = builder.build();
+    }
+    
+    @Override
+    public Map<Long, TechnicianProfile> findProfiles(Set<Long> technicianIds) {
+        IdentityUser[] users = restTemplate.getForObject("/api/users", IdentityUser[].class);
+        Map<Long, TechnicianProfile> profiles = new HashMap<>();
+        if (users != null) {
+            for (IdentityUser user : users) {
+                if (user.getId() != null && user.getName() != null) {
+                    profiles.put(user.getId(), TechnicianProfile.builder().technicianId(user.getId()).name(user.getName()).build());
+                }
+            }
+        }
+        log.debug("Loaded {} user profiles from identity-svc for {} requested technicians",
+                  profiles.size(), technicianIds.size());
+        return profiles;
+    }
+    
+    @Override
+    public boolean returnsAllProfiles() {
+        return true;
+    }
+    
+    /**
+     * The fields of an identity-svc user needed for display
+     */
+    @Data
+    static class IdentityUser {
+        
+        private Long id;
+        
+        private String name;
+    }
+}
@@ -0,0 +1,29 @@
+package com.fsm.location.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the cached snapshot of active technician locations
+ * ({@link CacheConfig#ALL_LOCATIONS_CACHE}).
+ */
+@Configuration
+@ConfigurationProperties(prefix = "location.cache.active-locations")
+@Data
+public class ActiveLocationsCacheProperties {
+    
+    /**
+     * Age after which a read triggers a background rebuild of the snapshot.
+     * Readers keep receiving the current snapshot until the rebuild completes.
+     */
+    private Duration refreshAfter = Duration.ofSeconds(20);
+    
+    /**
+     * Age after which the snapshot is discarded even if no rebuild succeeded,
+     * so a failing database never leaves readers with an arbitrarily old map.
+     */
+    private Duration maxStaleness = Duration.ofMinutes(5);
+}
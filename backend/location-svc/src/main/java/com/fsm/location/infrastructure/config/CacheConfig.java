@@ -1,5 +1,6 @@
 package com.fsm.location.infrastructure.config;
 
+import com.github.benmanes.caffeine.cache.CacheLoader;
 import com.github.benmanes.caffeine.cache.Caffeine;
 import org.springframework.cache.CacheManager;
 import org.springframework.cache.annotation.EnableCaching;
@@ -7,7 +8,7 @@ import org.springframework.cache.caffeine.CaffeineCacheManager;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 
-import java.util.concurrent.TimeUnit;
+import java.util.List;
 
 /**
  * Caching configuration for the Location Service.
@@ -23,19 +24,30 @@ public class CacheConfig {
     public static final String ALL_LOCATIONS_CACHE = "allTechnicianLocations";
     
     /**
-     * Configures Caffeine cache manager with specific settings.
-     * Cache entries expire after 30 seconds to ensure reasonably fresh data
-     * while still providing performance benefits.
+     * Configures the Caffeine cache manager.
      * 
+     * The active locations snapshot is refreshed ahead: once it is older than
+     * {@code refreshAfter}, the next read returns it unchanged and triggers a single
+     * background rebuild through {@code activeLocationsLoader}. Concurrent reads and
+     * misses never start a second rebuild, and a failed rebuild keeps the last good
+     * snapshot until {@code maxStaleness}. Statistics are recorded and published
+     * as Micrometer cache metrics (cache.gets, cache.puts, cache.load, ...).
+     * 
+     * @param properties the active locations cache settings
+     * @param activeLocationsLoader rebuilds the active locations snapshot
      * @return configured cache manager
      */
     @Bean
-    public CacheManager cacheManager() {
-        CaffeineCacheManager cacheManager = new CaffeineCacheManager(ALL_LOCATIONS_CACHE);
-        cacheManager.setCaffeine(Caffeine.newBuilder()
-                .expireAfterWrite(30, TimeUnit.SECONDS) // Cache for 30 seconds
+    public CacheManager cacheManager(ActiveLocationsCacheProperties properties,
+                                     CacheLoader<Object, Object> activeLocationsLoader) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setCacheNames(List.of()); // Only the caches registered below
+        cacheManager.registerCustomCache(ALL_LOCATIONS_CACHE, Caffeine.newBuilder()
+                .refreshAfterWrite(properties.getRefreshAfter())
+                .expireAfterWrite(properties.getMaxStaleness())
                 .maximumSize(100) // Max 100 entries (reasonable for location data)
-                .recordStats()); // Enable statistics for monitoring
+                .recordStats() // Enable statistics for monitoring
+                .build(activeLocationsLoader));
         return cacheManager;
     }
 }
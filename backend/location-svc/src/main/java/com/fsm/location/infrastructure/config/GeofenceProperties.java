@@ -0,0 +1,38 @@
+package com.fsm.location.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for geofence (job site arrival) detection.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "location.geofence")
+@Data
+public class GeofenceProperties {
+    
+    /**
+     * Time a technician must stay inside a geofence before a dwell event is emitted,
+     * for geofences that do not define their own.
+     */
+    private Duration defaultDwell = Duration.ofMinutes(2);
+    
+    /**
+     * Distance a technician must be outside a geofence before an exit event is emitted,
+     * so GPS jitter at the boundary does not produce exit/enter pairs.
+     */
+    private double exitMarginMeters = 25.0;
+    
+    /**
+     * Fixes less accurate than this are not evaluated against geofences.
+     */
+    private double maxAccuracyMeters = 100.0;
+    
+    /**
+     * Largest number of vertices accepted for a polygon geofence.
+     */
+    private int maxPolygonVertices = 1000;
+}
@@ -0,0 +1,58 @@
+package com.fsm.location.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the time-partitioned technician_locations table
+ * (PostgreSQL only). When enabled, a scheduled job creates upcoming partitions
+ * and removes partitions that fall entirely outside the retention period.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "location.history.partitioning")
+@Data
+public class HistoryPartitioningProperties {
+    
+    /**
+     * Time range covered by one partition.
+     */
+    public enum PartitionInterval {
+        /** One partition per calendar day */
+        DAY,
+        /** One partition per ISO week (Monday to Sunday) */
+        WEEK
+    }
+    
+    /**
+     * Whether partitions are maintained by the service (requires the partitioned PostgreSQL schema).
+     */
+    private boolean enabled = false;
+    
+    /**
+     * Time range covered by each newly created partition.
+     */
+    private PartitionInterval interval = PartitionInterval.WEEK;
+    
+    /**
+     * Number of partitions created ahead of the current one.
+     */
+    private int premake = 4;
+    
+    /**
+     * Location history older than this is removed, one whole partition at a time.
+     */
+    private Duration retention = Duration.ofDays(90);
+    
+    /**
+     * Whether expired partitions are only detached (kept as standalone tables for archiving) instead of dropped.
+     */
+    private boolean detachOnly = false;
+    
+    /**
+     * Cron expression of the maintenance job; it also runs once on startup.
+     */
+    private String cron = "0 15 3 * * *";
+}
@@ -0,0 +1,54 @@
+package com.fsm.location.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the per-minute location rollups and the fleet analytics
+ * endpoints reading them (GET /api/analytics/...).
+ */
+@Configuration
+@ConfigurationProperties(prefix = "location.rollup")
+@Data
+public class LocationRollupProperties {
+    
+    /**
+     * Whether new fixes are folded into rollups by a scheduled job.
+     */
+    private boolean enabled = true;
+    
+    /**
+     * Cron expression of the rollup job.
+     */
+    private String cron = "30 * * * * *";
+    
+    /**
+     * Fixes are only rolled up once they were inserted at least this long ago, so that
+     * transactions still writing fixes (e.g. write-behind flushes) have committed.
+     */
+    private Duration settleDelay = Duration.ofMinutes(2);
+    
+    /**
+     * Longest range of insertion time rolled up in one transaction (when catching up).
+     */
+    private Duration maxWindow = Duration.ofHours(1);
+    
+    /**
+     * Fixes or rollups of a technician further apart than this are a gap in the track:
+     * no speed is derived across it, and time in a geofence is not counted across it.
+     */
+    private Duration maxGap = Duration.ofMinutes(10);
+    
+    /**
+     * Range of analytics queries without a start.
+     */
+    private Duration defaultRange = Duration.ofHours(24);
+    
+    /**
+     * Longest time range a single analytics request may cover.
+     */
+    private Duration maxRange = Duration.ofDays(92);
+}
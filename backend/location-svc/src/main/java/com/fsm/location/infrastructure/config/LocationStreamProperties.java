@@ -0,0 +1,42 @@
+package com.fsm.location.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the live location stream
+ * (GET /api/technicians/locations/stream).
+ */
+@Configuration
+@ConfigurationProperties(prefix = "location.stream")
+@Data
+public class LocationStreamProperties {
+    
+    /**
+     * Maximum number of concurrently connected subscribers.
+     */
+    private int maxSubscribers = 500;
+    
+    /**
+     * Time after which a subscription is closed; clients reconnect and receive a new snapshot.
+     */
+    private Duration subscriptionTimeout = Duration.ofMinutes(30);
+    
+    /**
+     * Window during which updates for a subscriber are collected (and conflated) before being sent.
+     */
+    private Duration flushInterval = Duration.ofMillis(250);
+    
+    /**
+     * Number of threads kept for sending updates to subscribers; more are started while sends are blocked.
+     */
+    private int senderThreads = 4;
+    
+    /**
+     * Time a send may block before the subscriber is disconnected.
+     */
+    private Duration sendTimeout = Duration.ofSeconds(10);
+}
@@ -0,0 +1,40 @@
+package com.fsm.location.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration properties for viewport map queries
+ * (GET /api/technicians/locations with bbox and zoom).
+ * 
+ * Clusters are computed on a Web Mercator grid whose cells are
+ * {@code clusterCellPixels} screen pixels wide at the requested zoom,
+ * so a cluster covers roughly the same screen area at every zoom level.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "location.map")
+@Data
+public class MapViewProperties {
+    
+    /**
+     * Edge length of one clustering cell in 256-pixel map tile pixels.
+     */
+    private int clusterCellPixels = 64;
+    
+    /**
+     * Lowest zoom at which individual technicians are returned instead of clusters.
+     */
+    private int individualMinZoom = 14;
+    
+    /**
+     * Most individual technicians returned for one viewport; denser viewports are clustered.
+     */
+    private int maxTechnicians = 500;
+    
+    /**
+     * Most grid cells a viewport may cover; the grid is coarsened for larger viewports.
+     * Bounds the number of clusters (and single technicians) in a clustered response.
+     */
+    private int maxCells = 1024;
+}
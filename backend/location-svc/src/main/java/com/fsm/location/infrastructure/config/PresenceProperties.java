@@ -0,0 +1,27 @@
+package com.fsm.location.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the technician presence tracker.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "location.presence")
+@Data
+public class PresenceProperties {
+    
+    /**
+     * Resolution of the timing wheel: status transitions are published at most this late.
+     */
+    private Duration tickDuration = Duration.ofSeconds(1);
+    
+    /**
+     * Number of slots of the timing wheel (rounded up to a power of two). With the default
+     * tick, one revolution covers the 15-minute offline deadline without extra rounds.
+     */
+    private int ticksPerWheel = 1024;
+}
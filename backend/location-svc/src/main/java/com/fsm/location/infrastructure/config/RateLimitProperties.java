@@ -0,0 +1,28 @@
+package com.fsm.location.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the per-technician location update rate limit.
+ * Each technician has a token bucket holding at most {@code burst} updates,
+ * refilled with one update every {@code refillInterval}.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "location.rate-limit")
+@Data
+public class RateLimitProperties {
+    
+    /**
+     * Number of location updates a technician may send back to back.
+     */
+    private int burst = 1;
+    
+    /**
+     * Time needed to regain one location update.
+     */
+    private Duration refillInterval = Duration.ofSeconds(30);
+}
@@ -0,0 +1,66 @@
+package com.fsm.location.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the reporting interval recommended to mobile clients
+ * with every location update. Technicians approaching a job site report most often,
+ * moving technicians less often and idle technicians least often; a low battery
+ * stretches the interval further, up to {@code maxInterval}.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "location.reporting")
+@Data
+public class ReportingIntervalProperties {
+    
+    /**
+     * Interval for moving technicians within {@code approachDistanceMeters} of a geofence.
+     */
+    private Duration nearJobInterval = Duration.ofSeconds(30);
+    
+    /**
+     * Interval for moving technicians away from job sites.
+     */
+    private Duration movingInterval = Duration.ofSeconds(60);
+    
+    /**
+     * Interval for technicians who are not moving.
+     */
+    private Duration idleInterval = Duration.ofMinutes(2);
+    
+    /**
+     * Longest recommended interval. Must not exceed the 5 minutes after which a technician
+     * is no longer shown as available.
+     */
+    private Duration maxInterval = Duration.ofMinutes(4);
+    
+    /**
+     * Estimated speed (in meters per second) from which a technician counts as moving.
+     */
+    private double movingSpeedMetersPerSecond = 1.5;
+    
+    /**
+     * Distance to a geofence within which a moving technician is approaching a job site.
+     */
+    private double approachDistanceMeters = 500.0;
+    
+    /**
+     * Battery level (percent) at or below which the interval is stretched.
+     */
+    private int lowBatteryPercent = 20;
+    
+    /**
+     * Factor applied to the interval on low battery.
+     */
+    private double lowBatteryFactor = 2.0;
+    
+    /**
+     * Maximum age of the previous fix used to estimate speed; without one the technician
+     * is assumed to be moving.
+     */
+    private Duration speedWindow = Duration.ofMinutes(5);
+}
@@ -0,0 +1,12 @@
+package com.fsm.location.infrastructure.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+
+/**
+ * Enables {@code @Scheduled} maintenance jobs such as location history partition management.
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+}
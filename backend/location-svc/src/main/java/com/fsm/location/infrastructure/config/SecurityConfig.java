@@ -40,6 +40,8 @@ public class SecurityConfig {
                 .authorizeHttpRequests(auth -> auth
                         // Allow Swagger/OpenAPI endpoints
                         .requestMatchers("/api-docs/**", "/swagger-ui/**", "/swagger-ui.html").permitAll()
+                        // Allow health checks and Prometheus scrapes
+                        .requestMatchers("/actuator/health", "/actuator/prometheus").permitAll()
                         // Allow H2 console for development
                         .requestMatchers("/h2-console/**").permitAll()
                         // Allow all API requests (TODO: Add JWT validation in production)
@@ -0,0 +1,41 @@
+package com.fsm.location.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+/**
+ * Configuration properties for proximity searches over current technician positions.
+ * 
+ * By default searches are answered by the in-memory spatial index, which works on
+ * every database profile. The PostGIS backend delegates to the native PostGIS
+ * queries of the location repository instead and requires the postgresql profile.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "location.spatial")
+@Data
+public class SpatialIndexProperties {
+    
+    /**
+     * Store that answers proximity searches.
+     */
+    public enum Backend {
+        /**
+         * In-memory grid index of the latest fix of every technician
+         */
+        MEMORY,
+        
+        /**
+         * Native PostGIS queries against technician_current_location
+         */
+        POSTGIS
+    }
+    
+    private Backend backend = Backend.MEMORY;
+    
+    /**
+     * Edge length of one grid cell in degrees (0.01 is roughly 1.1 km of latitude).
+     * Smaller cells make small-radius searches cheaper and large-radius searches dearer.
+     */
+    private double cellSizeDegrees = 0.01;
+}
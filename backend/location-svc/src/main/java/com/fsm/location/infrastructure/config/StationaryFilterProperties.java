@@ -0,0 +1,41 @@
+package com.fsm.location.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the suppression of location updates from stationary technicians.
+ * An update within {@code distanceMeters} of the technician's last persisted fix, and not
+ * more accurate than it by more than {@code accuracyToleranceMeters}, only refreshes the
+ * technician's in-memory heartbeat. A keep-alive row is still persisted once the last
+ * persisted fix is {@code keepAliveInterval} old.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "location.ingest.stationary")
+@Data
+public class StationaryFilterProperties {
+    
+    /**
+     * Whether updates from stationary technicians are suppressed.
+     */
+    private boolean enabled = true;
+    
+    /**
+     * Maximum distance from the last persisted fix for an update to count as stationary.
+     */
+    private double distanceMeters = 20.0;
+    
+    /**
+     * Accuracy improvement over the last persisted fix (in meters) above which an update is persisted anyway.
+     */
+    private double accuracyToleranceMeters = 10.0;
+    
+    /**
+     * Age of the last persisted fix after which a stationary update is persisted as a keep-alive row.
+     * Must be shorter than the 15 minutes after which a technician is considered offline.
+     */
+    private Duration keepAliveInterval = Duration.ofMinutes(5);
+}
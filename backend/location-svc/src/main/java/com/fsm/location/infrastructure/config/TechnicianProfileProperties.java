@@ -0,0 +1,73 @@
+package com.fsm.location.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the technician profile (name) cache.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "location.technician-profiles")
+@Data
+public class TechnicianProfileProperties {
+    
+    /**
+     * Where technician profiles come from.
+     */
+    public enum Source {
+        /**
+         * Local stand-in naming every technician "Technician {id}"
+         */
+        PLACEHOLDER,
+        
+        /**
+         * The users of identity-svc
+         */
+        IDENTITY_SERVICE
+    }
+    
+    private Source source = Source.PLACEHOLDER;
+    
+    /**
+     * Base URL of identity-svc.
+     */
+    private String identityServiceUrl = "http://localhost:8080";
+    
+    /**
+     * Bearer token used to list users in identity-svc (requires the ADMIN or SUPERVISOR role).
+     */
+    private String identityServiceToken;
+    
+    /**
+     * Connect and read timeout of identity-svc calls.
+     */
+    private Duration identityServiceTimeout = Duration.ofSeconds(2);
+    
+    /**
+     * Largest number of technicians looked up in one directory call.
+     */
+    private int batchSize = 500;
+    
+    /**
+     * Longest time a request waits for missing profiles before answering with placeholder names.
+     */
+    private Duration lookupTimeout = Duration.ofMillis(200);
+    
+    /**
+     * Interval at which all cached profiles are reloaded in the background.
+     */
+    private Duration refreshInterval = Duration.ofMinutes(10);
+    
+    /**
+     * Cached profiles that could not be refreshed for this long are evicted.
+     */
+    private Duration expireAfter = Duration.ofHours(24);
+    
+    /**
+     * Maximum number of cached profiles.
+     */
+    private long maximumSize = 100_000;
+}
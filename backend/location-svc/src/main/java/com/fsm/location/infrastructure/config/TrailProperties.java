@@ -0,0 +1,33 @@
+package com.fsm.location.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for technician trail queries (GET /api/technicians/{id}/trail).
+ * Trails covered by the recent fixes kept in memory are served without the database.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "location.trail")
+@Data
+public class TrailProperties {
+    
+    /**
+     * Time range returned when the request does not specify one, ending now.
+     */
+    private Duration defaultRange = Duration.ofHours(24);
+    
+    /**
+     * Longest time range a single trail request may cover.
+     */
+    private Duration maxRange = Duration.ofDays(7);
+    
+    /**
+     * Number of recent fixes kept in memory per technician to answer short trail queries
+     * without the database (about 30 bytes each), or 0 to always query the database.
+     */
+    private int recentFixes = 128;
+}
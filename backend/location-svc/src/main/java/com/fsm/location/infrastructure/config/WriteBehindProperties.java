@@ -0,0 +1,65 @@
+package com.fsm.location.infrastructure.config;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+
+/**
+ * Configuration properties for the write-behind location ingestion pipeline.
+ * When enabled, accepted location updates are queued in memory and persisted
+ * in batches by a dedicated writer thread instead of inside the HTTP request.
+ */
+@Configuration
+@ConfigurationProperties(prefix = "location.ingest.write-behind")
+@Data
+public class WriteBehindProperties {
+    
+    /**
+     * Policy applied when the in-memory buffer is full.
+     */
+    public enum BackpressurePolicy {
+        /** Reject the update immediately (503 Service Unavailable) */
+        REJECT,
+        /** Wait up to {@code offerTimeout} for free space, then reject */
+        BLOCK,
+        /** Discard the oldest queued update to make room */
+        DROP_OLDEST
+    }
+    
+    /**
+     * Whether location updates are persisted asynchronously (endpoint returns 202 Accepted).
+     */
+    private boolean enabled = false;
+    
+    /**
+     * Maximum number of queued location updates.
+     */
+    private int capacity = 10_000;
+    
+    /**
+     * Maximum number of location updates written in one batch.
+     */
+    private int batchSize = 200;
+    
+    /**
+     * Maximum time a queued update waits for its batch to fill up before it is flushed.
+     */
+    private Duration flushInterval = Duration.ofMillis(500);
+    
+    /**
+     * Behavior when the buffer is full.
+     */
+    private BackpressurePolicy backpressure = BackpressurePolicy.REJECT;
+    
+    /**
+     * Maximum wait for free buffer space with the BLOCK policy.
+     */
+    private Duration offerTimeout = Duration.ofMillis(100);
+    
+    /**
+     * Maximum time to wait for the buffer to drain on shutdown.
+     */
+    private Duration shutdownTimeout = Duration.ofSeconds(30);
+}
@@ -0,0 +1,24 @@
+package com.fsm.location.service;
+
+import com.fsm.location.infrastructure.config.CacheConfig;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+/**
+ * Loads the {@link CacheConfig#ALL_LOCATIONS_CACHE} snapshot, both on the first miss
+ * and when Caffeine refreshes the snapshot in the background.
+ * Calls the uncached {@link LocationService#buildActiveLocationsSnapshot()}, since the
+ * cached variant would read back the entry being refreshed.
+ */
+@Component
+@RequiredArgsConstructor
+public class ActiveLocationsCacheLoader implements CacheLoader<Object, Object> {
+    
+    private final LocationService locationService;
+    
+    @Override
+    public Object load(Object key) {
+        return locationService.buildActiveLocationsSnapshot();
+    }
+}
@@ -0,0 +1,101 @@
+package com.fsm.location.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fsm.location.api.dto.TechnicianLocationDTO;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Snapshot of all active technician locations together with its encoded JSON response body.
+ * 
+ * The body is serialized and gzip-compressed once, when the snapshot is built, so that
+ * GET /api/technicians/locations can write the cached bytes directly instead of running
+ * Jackson and the compressor again for every dashboard poll. The ETags are derived
+ * from the body, and the gzip representation has its own ETag as required for
+ * strong validators of differently encoded content.
+ * 
+ * Domain Invariants:
+ * - The body arrays are never modified after the snapshot is built
+ * - Equal bodies always produce equal ETags
+ */
+@Getter
+@RequiredArgsConstructor(access = AccessLevel.PRIVATE)
+public final class ActiveLocationsSnapshot {
+    
+    /**
+     * The active technician locations contained in the snapshot
+     */
+    private final List<TechnicianLocationDTO> locations;
+    
+    /**
+     * The JSON array of {@link #locations}, uncompressed
+     */
+    private final byte[] identityBody;
+    
+    /**
+     * {@link #identityBody} compressed with gzip
+     */
+    private final byte[] gzipBody;
+    
+    /**
+     * Quoted strong ETag of the uncompressed body
+     */
+    private final String identityETag;
+    
+    /**
+     * Quoted strong ETag of the gzip-compressed body
+     */
+    private final String gzipETag;
+    
+    /**
+     * Serializes and compresses a list of active technician locations.
+     * 
+     * @param locations the active technician locations
+     * @param objectMapper the mapper used for HTTP responses, so the body matches what Spring MVC would write
+     * @return the encoded snapshot
+     */
+    public static ActiveLocationsSnapshot encode(List<TechnicianLocationDTO> locations, ObjectMapper objectMapper) {
+        try {
+            byte[] identityBody = objectMapper.writeValueAsBytes(locations);
+            String hash = sha256Prefix(identityBody);
+            return new ActiveLocationsSnapshot(List.copyOf(locations), identityBody, gzip(identityBody),
+                    "\"" + hash + "\"", "\"" + hash + "-gzip\"");
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to encode active technician locations", e);
+        }
+    }
+    
+    private static byte[] gzip(byte[] body) throws IOException {
+        ByteArrayOutputStream compressed = new ByteArrayOutputStream(body.length / 4 + 64);
+        try (GZIPOutputStream out = new GZIPOutputStream(compressed)) {
+            out.write(body);
+        }
+        return compressed.toByteArray();
+    }
+    
+    private static String sha256Prefix(byte[] body) {
+        try {
+            byte[] digest = MessageDigest.getInstance("SHA-256").digest(body);
+            return HexFormat.of().formatHex(digest, 0, 12);
+        } catch (NoSuchAlgorithmException e) {
+            throw new IllegalStateException("SHA-256 not available", e);
+        }
+    }
+    
+    /**
+     * @return true if the gzip body is smaller than the uncompressed one and worth sending
+     */
+    public boolean isGzipSmaller() {
+        return gzipBody.length < identityBody.length;
+    }
+}
@@ -0,0 +1,155 @@
+package com.fsm.location.service;
+
+import com.fsm.location.api.dto.GeofenceTimeResponse;
+import com.fsm.location.api.dto.LocationRollupDTO;
+import com.fsm.location.api.dto.TechnicianGeofenceTimeDTO;
+import com.fsm.location.domain.model.RollupCentroid;
+import com.fsm.location.domain.repository.GeofenceRepository;
+import com.fsm.location.domain.repository.LocationRollupRepository;
+import com.fsm.location.infrastructure.config.LocationRollupProperties;
+import com.fsm.location.service.exception.GeofenceNotFoundException;
+import com.fsm.location.service.exception.InvalidAnalyticsRangeException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.locationtech.jts.geom.Envelope;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Service for historical fleet analytics, answered from the per-minute location rollups
+ * maintained by {@link LocationRollupMaintainer} instead of the raw location history.
+ * 
+ * Time inside a geofence is measured on rollup centroids: every minute whose centroid lies
+ * inside counts, and so does the time between two such minutes of a technician that are at
+ * most {@code maxGap} apart (e.g. while a stationary technician reports less often).
+ * Only the rollups inside the geofence's bounding box are read, and the exact containment
+ * test runs on those candidates. Minutes outside the bounding box are therefore not seen:
+ * a technician who leaves it for at most {@code maxGap} counts as one who did not report.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class FleetAnalyticsService {
+    
+    private static final Duration ONE_MINUTE = Duration.ofMinutes(1);
+    
+    private final LocationRollupRepository rollupRepository;
+    
+    private final GeofenceRepository geofenceRepository;
+    
+    private final GeofenceEngine geofenceEngine;
+    
+    private final LocationRollupProperties properties;
+    
+    /**
+     * Gets a technician's per-minute rollups.
+     * 
+     * @param technicianId the ID of the technician
+     * @param from the start of the time range (inclusive), or null for {@code to} minus the default range
+     * @param to the end of the time range (exclusive), or null for now
+     * @return the rollups, oldest first
+     * @throws InvalidAnalyticsRangeException if the range is empty or longer than the maximum range
+     */
+    @Transactional(readOnly = true)
+    public List<LocationRollupDTO> getRollups(Long technicianId, LocalDateTime from, LocalDateTime to) {
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        LocalDateTime start = from != null ? from : end.minus(properties.getDefaultRange());
+        validateRange(start, end);
+        
+        return rollupRepository.findByTechnician(technicianId, start, end).stream()
+                .map(LocationRollupDTO::from)
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * Gets the time each technician spent inside a geofence.
+     * 
+     * @param geofenceId the ID of the geofence
+     * @param from the start of the time range (inclusive), or null for {@code to} minus the default range
+     * @param to the end of the time range (exclusive), or null for now
+     * @return the time inside the geofence per technician, longest first
+     * @throws GeofenceNotFoundException if the geofence does not exist
+     * @throws InvalidAnalyticsRangeException if the range is empty or longer than the maximum range
+     */
+    @Transactional(readOnly = true)
+    public GeofenceTimeResponse getTimeInGeofence(String geofenceId, LocalDateTime from, LocalDateTime to) {
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        LocalDateTime start = from != null ? from : end.minus(properties.getDefaultRange());
+        validateRange(start, end);
+        if (!geofenceRepository.existsById(geofenceId)) {
+            throw new GeofenceNotFoundException(geofenceId);
+        }
+        
+        List<TechnicianGeofenceTimeDTO> technicians = new ArrayList<>();
+        Optional<Envelope> boundingBox = geofenceEngine.findBoundingBox(geofenceId);
+        try (Stream<RollupCentroid> rollups = boundingBox
+                .map(box -> rollupRepository.streamFleet(start, end,
+                        box.getMinY(), box.getMaxY(), box.getMinX(), box.getMaxX()))
+                .orElseGet(Stream::empty)) {
+            Iterator<RollupCentroid> iterator = rollups.iterator();
+            RollupCentroid previousInside = null;
+            TechnicianGeofenceTimeDTO current = null;
+            while (iterator.hasNext()) {
+                RollupCentroid rollup = iterator.next();
+                if (current != null && current.getTechnicianId() != rollup.getTechnicianId()) {
+                    technicians.add(current);
+                    current = null;
+                    previousInside = null;
+                }
+                if (!geofenceEngine.isInside(geofenceId, rollup.getLatitude(), rollup.getLongitude())) {
+                    previousInside = null;
+                    continue;
+                }
+                if (current == null) {
+                    current = TechnicianGeofenceTimeDTO.builder()
+                            .technicianId(rollup.getTechnicianId())
+                            .firstSeen(rollup.getMinute())
+                            .build();
+                }
+                Duration gap = previousInside != null
+                        ? Duration.between(previousInside.getMinute(), rollup.getMinute())
+                        : null;
+                // The rollup's own minute, plus the minutes without fixes since the previous one inside
+                long minutes = gap != null && gap.compareTo(properties.getMaxGap()) <= 0
+                        ? gap.dividedBy(ONE_MINUTE)
+                        : 1;
+                current.setMinutesInside(current.getMinutesInside() + minutes);
+                current.setLastSeen(rollup.getMinute());
+                previousInside = rollup;
+            }
+            if (current != null) {
+                technicians.add(current);
+            }
+        }
+        technicians.sort(Comparator.comparingLong(TechnicianGeofenceTimeDTO::getMinutesInside).reversed());
+        
+        log.debug("Time in geofence {} from {} to {}: {} technicians", geofenceId, start, end, technicians.size());
+        
+        return GeofenceTimeResponse.builder()
+                .geofenceId(geofenceId)
+                .from(start)
+                .to(end)
+                .totalMinutes(technicians.stream().mapToLong(TechnicianGeofenceTimeDTO::getMinutesInside).sum())
+                .technicians(technicians)
+                .build();
+    }
+    
+    private void validateRange(LocalDateTime start, LocalDateTime end) {
+        if (!start.isBefore(end)) {
+            throw new InvalidAnalyticsRangeException("Range start must be before its end");
+        }
+        if (Duration.between(start, end).compareTo(properties.getMaxRange()) > 0) {
+            throw new InvalidAnalyticsRangeException("Range must not exceed " + properties.getMaxRange());
+        }
+    }
+}
@@ -0,0 +1,166 @@
+package com.fsm.location.service;
+
+import com.fsm.location.api.dto.LocationDeltaResponse;
+import com.fsm.location.api.dto.TechnicianLocationDTO;
+import com.fsm.location.domain.model.LocationFix;
+import com.fsm.location.domain.model.PresenceChange;
+import com.fsm.location.domain.model.PresenceStatus;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.jctools.maps.NonBlockingHashMapLong;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Tracks a monotonically increasing fleet version and the version at which each
+ * technician's position or derived status last changed, so that clients polling
+ * the technician map can fetch only what changed since their last poll.
+ * 
+ * The version starts at the service start time in milliseconds, so versions issued
+ * by a restarted instance are newer than the ones clients hold from before the restart;
+ * such unknown versions are answered with a full snapshot. Status changes caused by time
+ * passing are pushed by the {@link PresenceTracker}, so polls never re-derive statuses.
+ * 
+ * Domain Invariants:
+ * - The fleet version never decreases
+ * - Every change with a version up to the returned delta version is included in the delta
+ */
+@Component
+@Slf4j
+public class FleetVersionTracker implements LocationFixListener, PresenceListener {
+    
+    private final LatestLocationRegistry latestLocationRegistry;
+    
+    private final PresenceTracker presenceTracker;
+    
+    private final TechnicianProfileCache technicianProfileCache;
+    
+    private final long baseVersion = System.currentTimeMillis();
+    
+    /**
+     * Guarded by this; version assignment and publication happen atomically, so a reader
+     * never sees version N before every change up to N is visible
+     */
+    private long version = baseVersion;
+    
+    private final NonBlockingHashMapLong<TechnicianState> states = new NonBlockingHashMapLong<>();
+    
+    public FleetVersionTracker(LatestLocationRegistry latestLocationRegistry,
+                               PresenceTracker presenceTracker,
+                               TechnicianProfileCache technicianProfileCache) {
+        this.latestLocationRegistry = latestLocationRegistry;
+        this.presenceTracker = presenceTracker;
+        this.technicianProfileCache = technicianProfileCache;
+    }
+    
+    /**
+     * Starts following the latest location registry and presence transitions.
+     */
+    @PostConstruct
+    public void registerWithRegistry() {
+        latestLocationRegistry.addListener(this);
+        presenceTracker.addListener(this);
+    }
+    
+    @Override
+    public synchronized void onLocationFix(LocationFix fix) {
+        TechnicianState current = states.get(fix.getTechnicianId());
+        if (current != null && current.fix.getTimestamp().isAfter(fix.getTimestamp())) {
+            return;
+        }
+        states.put(fix.getTechnicianId(), new TechnicianState(fix, fix.derivePresence(), ++version));
+    }
+    
+    @Override
+    public synchronized void onRegistryRebuilt(Collection<LocationFix> latestFixes) {
+        states.clear();
+        long rebuiltVersion = ++version;
+        latestFixes.forEach(fix ->
+                states.put(fix.getTechnicianId(), new TechnicianState(fix, fix.derivePresence(), rebuiltVersion)));
+    }
+    
+    /**
+     * Assigns a new version to a technician whose status changed without a new fix
+     * (e.g. going offline), unless a newer fix has been recorded in the meantime.
+     */
+    @Override
+    public synchronized void onPresenceChange(PresenceChange change) {
+        TechnicianState state = states.get(change.getTechnicianId());
+        if (state != null && state.fix.getTimestamp().equals(change.getFix().getTimestamp())
+                && state.status != change.getCurrent()) {
+            states.put(change.getTechnicianId(), new TechnicianState(state.fix, change.getCurrent(), ++version));
+        }
+    }
+    
+    /**
+     * @return the current fleet version
+     */
+    public synchronized long getVersion() {
+        return version;
+    }
+    
+    /**
+     * Gets the technicians that changed since a fleet version, including status changes
+     * caused by fixes ageing past the 5 and 15 minute thresholds.
+     * 
+     * @param sinceVersion the fleet version the client is current to
+     * @return the changes and removals since that version, or a full snapshot if the version is unknown
+     */
+    public LocationDeltaResponse getChangesSince(long sinceVersion) {
+        long currentVersion = getVersion();
+        boolean full = sinceVersion < baseVersion || sinceVersion > currentVersion;
+        
+        List<TechnicianState> changedStates = new ArrayList<>();
+        List<Long> removed = new ArrayList<>();
+        for (TechnicianState state : states.values()) {
+            // Changes after currentVersion are reported by the next delta
+            if (state.version > currentVersion || (!full && state.version <= sinceVersion)) {
+                continue;
+            }
+            if (state.status == PresenceStatus.OFFLINE) {
+                if (!full) {
+                    removed.add(state.fix.getTechnicianId());
+                }
+            } else {
+                changedStates.add(state);
+            }
+        }
+        
+        // One batched, cached lookup for all names, as for the full snapshot
+        Map<Long, String> names = technicianProfileCache.getNames(changedStates.stream()
+                .map(state -> state.fix.getTechnicianId())
+                .collect(Collectors.toSet()));
+        List<TechnicianLocationDTO> changed = changedStates.stream()
+                .map(state -> TechnicianLocationDTO.from(state.fix, state.status, names.get(state.fix.getTechnicianId())))
+                .collect(Collectors.toList());
+        
+        return LocationDeltaResponse.builder()
+                .version(currentVersion)
+                .full(full)
+                .changed(changed)
+                .removed(removed)
+                .build();
+    }
+    
+    /**
+     * Latest fix of a technician with its current status
+     * and the fleet version of the last change.
+     */
+    private static final class TechnicianState {
+        
+        final LocationFix fix;
+        final PresenceStatus status;
+        final long version;
+        
+        TechnicianState(LocationFix fix, PresenceStatus status, long version) {
+            this.fix = fix;
+            this.status = status;
+            this.version = version;
+        }
+    }
+}
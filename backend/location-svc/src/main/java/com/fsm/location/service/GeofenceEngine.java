@@ -0,0 +1,430 @@
+package com.fsm.location.service;
+
+import com.fsm.location.domain.model.Geofence;
+import com.fsm.location.domain.model.GeofenceEvent;
+import com.fsm.location.domain.model.LocationFix;
+import com.fsm.location.domain.repository.GeofenceRepository;
+import com.fsm.location.infrastructure.config.GeofenceProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.jctools.maps.NonBlockingHashMapLong;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.Envelope;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.PrecisionModel;
+import org.locationtech.jts.geom.prep.PreparedGeometry;
+import org.locationtech.jts.geom.prep.PreparedGeometryFactory;
+import org.locationtech.jts.index.strtree.STRtree;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+
+/**
+ * Detects technicians entering, staying at and leaving geofences (job sites) from their
+ * location fixes, and publishes {@link GeofenceEvent}s to every {@link GeofenceEventListener}.
+ * 
+ * Geofences are held in an immutable JTS {@link STRtree} over their bounding boxes, rebuilt
+ * and swapped whenever a geofence is registered or removed, so evaluating a fix is a
+ * lock-free index lookup plus an exact containment test (Haversine distance for circles,
+ * a prepared geometry for polygons) without any database access. The engine follows the
+ * {@link LatestLocationRegistry} as a {@link LocationFixListener}; per-technician visit
+ * state is only kept for technicians that have entered a geofence.
+ * 
+ * Domain Invariants:
+ * - A technician enters a geofence when a fix lies inside it, and exits only when a later fix
+ *   lies more than {@code exitMarginMeters} outside it
+ * - Fixes older than the technician's last evaluated fix, or less accurate than
+ *   {@code maxAccuracyMeters}, are ignored
+ * - Visits open at startup are restored from the latest fixes without emitting events
+ * - Removing a geofence silently ends its visits
+ */
+@Component
+@Slf4j
+public class GeofenceEngine implements LocationFixListener {
+    
+    private static final GeometryFactory GEOMETRY_FACTORY = new GeometryFactory(new PrecisionModel(), 4326);
+    
+    private static final double METERS_PER_DEGREE = Math.PI * LocationFix.EARTH_RADIUS_METERS / 180.0;
+    
+    private final GeofenceRepository geofenceRepository;
+    private final LatestLocationRegistry latestLocationRegistry;
+    private final GeofenceProperties properties;
+    private final List<GeofenceEventListener> listeners;
+    private final Map<GeofenceEvent.Type, Counter> eventCounters = new EnumMap<>(GeofenceEvent.Type.class);
+    
+    private final NonBlockingHashMapLong<TechnicianVisits> technicianVisits = new NonBlockingHashMapLong<>();
+    
+    private volatile FenceIndex index = new FenceIndex(Map.of());
+    
+    public GeofenceEngine(GeofenceRepository geofenceRepository,
+                          LatestLocationRegistry latestLocationRegistry,
+                          GeofenceProperties properties,
+                          ObjectProvider<GeofenceEventListener> listeners,
+                          MeterRegistry meterRegistry) {
+        this.geofenceRepository = geofenceRepository;
+        this.latestLocationRegistry = latestLocationRegistry;
+        this.properties = properties;
+        this.listeners = listeners.orderedStream().collect(Collectors.toList());
+        for (GeofenceEvent.Type type : GeofenceEvent.Type.values()) {
+            eventCounters.put(type, Counter.builder("location.geofence.events")
+                    .description("Geofence events detected from technician location fixes")
+                    .tag("type", type.name().toLowerCase())
+                    .register(meterRegistry));
+        }
+    }
+    
+    /**
+     * Builds the geofence index from the database and starts following the latest location registry.
+     */
+    @PostConstruct
+    public void start() {
+        Map<String, CompiledFence> fences = new HashMap<>();
+        for (Geofence geofence : geofenceRepository.findAll()) {
+            fences.put(geofence.getId(), compile(geofence));
+        }
+        index = new FenceIndex(fences);
+        log.info("Geofence index built with {} geofences", fences.size());
+        latestLocationRegistry.addListener(this);
+    }
+    
+    /**
+     * Adds a geofence to the index, replacing any geofence with the same ID.
+     * Open visits of a replaced geofence are kept and evaluated against its new shape.
+     * 
+     * @param geofence the geofence to evaluate fixes against
+     */
+    public synchronized void register(Geofence geofence) {
+        Map<String, CompiledFence> fences = new HashMap<>(index.fences);
+        fences.put(geofence.getId(), compile(geofence));
+        index = new FenceIndex(fences);
+    }
+    
+    /**
+     * Removes a geofence from the index.
+     * 
+     * @param geofenceId the ID of the geofence
+     */
+    public synchronized void remove(String geofenceId) {
+        Map<String, CompiledFence> fences = new HashMap<>(index.fences);
+        if (fences.remove(geofenceId) != null) {
+            index = new FenceIndex(fences);
+        }
+    }
+    
+    /**
+     * @return the number of indexed geofences
+     */
+    public int size() {
+        return index.fences.size();
+    }
+    
+    /**
+     * Gets the technicians currently inside a geofence.
+     * 
+     * @param geofenceId the ID of the geofence
+     * @return the IDs of the technicians with an open visit
+     */
+    public Set<Long> getTechniciansInside(String geofenceId) {
+        return technicianVisits.entrySet().stream()
+                .filter(entry -> entry.getValue().isInside(geofenceId))
+                .map(Map.Entry::getKey)
+                .collect(Collectors.toSet());
+    }
+    
+    /**
+     * Checks whether a point lies inside a geofence or within a margin of one,
+     * e.g. whether a technician is approaching a job site.
+     * 
+     * @param latitude the latitude of the point
+     * @param longitude the longitude of the point
+     * @param marginMeters the distance outside a geofence that still counts as near it
+     * @return true if any geofence is within the margin
+     */
+    public boolean isNearGeofence(double latitude, double longitude, double marginMeters) {
+        return index.anyWithin(latitude, longitude, marginMeters);
+    }
+    
+    /**
+     * Checks whether a point lies inside a geofence, e.g. a rollup centroid for analytics.
+     * 
+     * @param geofenceId the ID of the geofence
+     * @param latitude the latitude of the point
+     * @param longitude the longitude of the point
+     * @return true if the geofence is indexed and contains the point
+     */
+    public boolean isInside(String geofenceId, double latitude, double longitude) {
+        CompiledFence fence = index.fences.get(geofenceId);
+        return fence != null && fence.contains(LocationFix.builder().latitude(latitude).longitude(longitude).build());
+    }
+    
+    /**
+     * Gets the bounding box of a geofence, e.g. to narrow a query before exact containment tests.
+     * 
+     * @param geofenceId the ID of the geofence
+     * @return the bounding box (x is longitude, y is latitude), or empty if the geofence is not indexed
+     */
+    public Optional<Envelope> findBoundingBox(String geofenceId) {
+        CompiledFence fence = index.fences.get(geofenceId);
+        return fence != null ? Optional.of(new Envelope(fence.envelope)) : Optional.empty();
+    }
+    
+    @Override
+    public void onLocationFix(LocationFix fix) {
+        if (fix.getAccuracy() > properties.getMaxAccuracyMeters()) {
+            return;
+        }
+        FenceIndex fences = index;
+        long technicianId = fix.getTechnicianId();
+        TechnicianVisits visits = technicianVisits.get(technicianId);
+        if (visits == null) {
+            // Fast path: no state is kept until the technician enters a geofence
+            if (!fences.anyContains(fix)) {
+                return;
+            }
+            TechnicianVisits created = new TechnicianVisits();
+            TechnicianVisits existing = technicianVisits.putIfAbsent(technicianId, created);
+            visits = existing != null ? existing : created;
+        }
+        synchronized (visits) {
+            evaluate(visits, fix, fences);
+        }
+    }
+    
+    @Override
+    public void onRegistryRebuilt(Collection<LocationFix> latestFixes) {
+        technicianVisits.clear();
+        FenceIndex fences = index;
+        for (LocationFix fix : latestFixes) {
+            TechnicianVisits visits = new TechnicianVisits();
+            visits.lastFixTime = fix.getTimestamp();
+            fences.forEachContaining(fix, fence -> visits.open.put(fence.id, new Visit(fix.getTimestamp())));
+            if (!visits.open.isEmpty()) {
+                technicianVisits.put(fix.getTechnicianId(), visits);
+            }
+        }
+    }
+    
+    private void evaluate(TechnicianVisits visits, LocationFix fix, FenceIndex fences) {
+        if (visits.lastFixTime != null && !fix.getTimestamp().isAfter(visits.lastFixTime)) {
+            return;
+        }
+        visits.lastFixTime = fix.getTimestamp();
+        
+        Iterator<Map.Entry<String, Visit>> open = visits.open.entrySet().iterator();
+        while (open.hasNext()) {
+            Map.Entry<String, Visit> entry = open.next();
+            CompiledFence fence = fences.fences.get(entry.getKey());
+            Visit visit = entry.getValue();
+            if (fence == null) {
+                open.remove();
+            } else if (fence.isBeyond(fix, properties.getExitMarginMeters())) {
+                open.remove();
+                publish(GeofenceEvent.Type.EXIT, fence, fix, visit);
+            } else {
+                checkDwell(fence, fix, visit);
+            }
+        }
+        
+        fences.forEachContaining(fix, fence -> {
+            if (!visits.open.containsKey(fence.id)) {
+                Visit visit = new Visit(fix.getTimestamp());
+                visits.open.put(fence.id, visit);
+                publish(GeofenceEvent.Type.ENTER, fence, fix, visit);
+                checkDwell(fence, fix, visit);
+            }
+        });
+    }
+    
+    private void checkDwell(CompiledFence fence, LocationFix fix, Visit visit) {
+        if (!visit.dwellReported && !fix.getTimestamp().isBefore(visit.enteredAt.plus(fence.dwell))) {
+            visit.dwellReported = true;
+            publish(GeofenceEvent.Type.DWELL, fence, fix, visit);
+        }
+    }
+    
+    private void publish(GeofenceEvent.Type type, CompiledFence fence, LocationFix fix, Visit visit) {
+        GeofenceEvent event = GeofenceEvent.builder()
+                .type(type)
+                .geofenceId(fence.id)
+                .technicianId(fix.getTechnicianId())
+                .latitude(fix.getLatitude())
+                .longitude(fix.getLongitude())
+                .timestamp(fix.getTimestamp())
+                .enteredAt(visit.enteredAt)
+                .build();
+        eventCounters.get(type).increment();
+        for (GeofenceEventListener listener : listeners) {
+            try {
+                listener.onGeofenceEvent(event);
+            } catch (RuntimeException e) {
+                // Never fail location ingestion because of a listener
+                log.error("Geofence event listener {} failed for {}", listener.getClass().getSimpleName(), event, e);
+            }
+        }
+    }
+    
+    private CompiledFence compile(Geofence geofence) {
+        Duration dwell = geofence.getDwellSeconds() != null
+                ? Duration.ofSeconds(geofence.getDwellSeconds())
+                : properties.getDefaultDwell();
+        if (geofence.getShape() == Geofence.Shape.POLYGON) {
+            return new CompiledFence(geofence.getId(), dwell,
+                    PreparedGeometryFactory.prepare(geofence.toPolygon()), 0, 0, 0);
+        }
+        return new CompiledFence(geofence.getId(), dwell, null,
+                geofence.getCenterLatitude(), geofence.getCenterLongitude(), geofence.getRadiusMeters());
+    }
+    
+    /**
+     * Immutable set of geofences with an STR-tree over their bounding boxes.
+     */
+    private static final class FenceIndex {
+        
+        private final Map<String, CompiledFence> fences;
+        private final STRtree tree = new STRtree();
+        
+        FenceIndex(Map<String, CompiledFence> fences) {
+            this.fences = Map.copyOf(fences);
+            fences.values().forEach(fence -> tree.insert(fence.envelope, fence));
+            // Build eagerly: a built tree is read-only and can be queried concurrently
+            tree.build();
+        }
+        
+        void forEachContaining(LocationFix fix, Consumer<CompiledFence> action) {
+            if (fences.isEmpty()) {
+                return;
+            }
+            Envelope point = new Envelope(fix.getLongitude(), fix.getLongitude(), fix.getLatitude(), fix.getLatitude());
+            tree.query(point, item -> {
+                CompiledFence fence = (CompiledFence) item;
+                if (fence.contains(fix)) {
+                    action.accept(fence);
+                }
+            });
+        }
+        
+        boolean anyContains(LocationFix fix) {
+            boolean[] found = new boolean[1];
+            forEachContaining(fix, fence -> found[0] = true);
+            return found[0];
+        }
+        
+        boolean anyWithin(double latitude, double longitude, double marginMeters) {
+            if (fences.isEmpty()) {
+                return false;
+            }
+            double latDelta = marginMeters / METERS_PER_DEGREE;
+            double cosLat = Math.cos(Math.toRadians(Math.min(90.0, Math.abs(latitude) + latDelta)));
+            double lonDelta = cosLat > 1e-9 ? Math.min(180.0, latDelta / cosLat) : 180.0;
+            Envelope area = new Envelope(longitude - lonDelta, longitude + lonDelta,
+                    latitude - latDelta, latitude + latDelta);
+            LocationFix point = LocationFix.builder().latitude(latitude).longitude(longitude).build();
+            boolean[] found = new boolean[1];
+            tree.query(area, item -> {
+                if (!found[0] && !((CompiledFence) item).isBeyond(point, marginMeters)) {
+                    found[0] = true;
+                }
+            });
+            return found[0];
+        }
+    }
+    
+    /**
+     * A geofence prepared for fast containment tests: either a polygon or a circle.
+     */
+    private static final class CompiledFence {
+        
+        private final String id;
+        private final Duration dwell;
+        private final PreparedGeometry boundary;
+        private final double centerLatitude;
+        private final double centerLongitude;
+        private final double radiusMeters;
+        private final Envelope envelope;
+        
+        CompiledFence(String id, Duration dwell, PreparedGeometry boundary,
+                      double centerLatitude, double centerLongitude, double radiusMeters) {
+            this.id = id;
+            this.dwell = dwell;
+            this.boundary = boundary;
+            this.centerLatitude = centerLatitude;
+            this.centerLongitude = centerLongitude;
+            this.radiusMeters = radiusMeters;
+            if (boundary != null) {
+                this.envelope = boundary.getGeometry().getEnvelopeInternal();
+            } else {
+                double latDelta = radiusMeters / METERS_PER_DEGREE;
+                double cosLat = Math.cos(Math.toRadians(Math.min(90.0, Math.abs(centerLatitude) + latDelta)));
+                double lonDelta = cosLat > 1e-9 ? Math.min(180.0, latDelta / cosLat) : 180.0;
+                this.envelope = new Envelope(centerLongitude - lonDelta, centerLongitude + lonDelta,
+                        centerLatitude - latDelta, centerLatitude + latDelta);
+            }
+        }
+        
+        boolean contains(LocationFix fix) {
+            if (boundary == null) {
+                return fix.distanceMetersTo(centerLatitude, centerLongitude) <= radiusMeters;
+            }
+            return boundary.covers(toPoint(fix));
+        }
+        
+        /**
+         * Checks whether a fix lies more than a margin outside this geofence. For polygons the
+         * distance is measured in degrees and converted with the east-west scale at the fix's
+         * latitude, which never overestimates it.
+         */
+        boolean isBeyond(LocationFix fix, double marginMeters) {
+            if (boundary == null) {
+                return fix.distanceMetersTo(centerLatitude, centerLongitude) > radiusMeters + marginMeters;
+            }
+            Point point = toPoint(fix);
+            if (boundary.covers(point)) {
+                return false;
+            }
+            double degrees = boundary.getGeometry().distance(point);
+            return degrees * METERS_PER_DEGREE * Math.cos(Math.toRadians(fix.getLatitude())) > marginMeters;
+        }
+        
+        private static Point toPoint(LocationFix fix) {
+            return GEOMETRY_FACTORY.createPoint(new Coordinate(fix.getLongitude(), fix.getLatitude()));
+        }
+    }
+    
+    /**
+     * Open visits of one technician; guarded by its own monitor.
+     */
+    private static final class TechnicianVisits {
+        
+        private final Map<String, Visit> open = new HashMap<>(4);
+        private LocalDateTime lastFixTime;
+        
+        synchronized boolean isInside(String geofenceId) {
+            return open.containsKey(geofenceId);
+        }
+    }
+    
+    private static final class Visit {
+        
+        private final LocalDateTime enteredAt;
+        private boolean dwellReported;
+        
+        Visit(LocalDateTime enteredAt) {
+            this.enteredAt = enteredAt;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package com.fsm.location.service;
+
+import com.fsm.location.domain.model.GeofenceEvent;
+
+/**
+ * Receives geofence enter, dwell and exit events detected by the {@link GeofenceEngine}.
+ * Every Spring bean implementing this interface is registered automatically.
+ * 
+ * Events are delivered on the thread that recorded the triggering fix (usually an
+ * ingest request), in order per technician, so implementations must be thread-safe
+ * and must not block; hand events off to a queue or executor for slow work.
+ */
+public interface GeofenceEventListener {
+    
+    /**
+     * Called for every detected geofence event.
+     * 
+     * @param event the geofence event
+     */
+    void onGeofenceEvent(GeofenceEvent event);
+}
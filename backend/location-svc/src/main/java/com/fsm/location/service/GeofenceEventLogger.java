@@ -0,0 +1,20 @@
+package com.fsm.location.service;
+
+import com.fsm.location.domain.model.GeofenceEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+/**
+ * Logs every geofence event, e.g. "technician 101 ENTER geofence job-42".
+ */
+@Component
+@Slf4j
+public class GeofenceEventLogger implements GeofenceEventListener {
+    
+    @Override
+    public void onGeofenceEvent(GeofenceEvent event) {
+        log.info("Technician {} {} geofence {} at {} (inside for {}s)",
+                 event.getTechnicianId(), event.getType(), event.getGeofenceId(), event.getTimestamp(),
+                 event.getTimeInside().getSeconds());
+    }
+}
@@ -0,0 +1,148 @@
+package com.fsm.location.service;
+
+import com.fsm.location.api.dto.GeoPointDTO;
+import com.fsm.location.api.dto.GeofenceDTO;
+import com.fsm.location.api.dto.GeofenceRequest;
+import com.fsm.location.domain.model.Geofence;
+import com.fsm.location.domain.repository.GeofenceRepository;
+import com.fsm.location.infrastructure.config.GeofenceProperties;
+import com.fsm.location.service.exception.GeofenceNotFoundException;
+import com.fsm.location.service.exception.InvalidGeofenceException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.Polygon;
+import org.locationtech.jts.geom.PrecisionModel;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Service for managing geofences.
+ * 
+ * Geofences are persisted so they survive restarts, and every change is applied to the
+ * in-memory {@link GeofenceEngine} after it has been committed.
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class GeofenceService {
+    
+    private static final GeometryFactory GEOMETRY_FACTORY = new GeometryFactory(new PrecisionModel(), 4326);
+    
+    private final GeofenceRepository geofenceRepository;
+    
+    private final GeofenceEngine geofenceEngine;
+    
+    private final GeofenceProperties properties;
+    
+    /**
+     * Registers a geofence, replacing any geofence with the same ID.
+     * 
+     * @param id the ID of the geofence (e.g. the ID of the job)
+     * @param request the geofence definition
+     * @return the registered geofence
+     * @throws InvalidGeofenceException if the request is not exactly one valid circle or polygon
+     */
+    public GeofenceDTO registerGeofence(String id, GeofenceRequest request) {
+        Geofence geofence = toGeofence(id, request);
+        LocalDateTime now = LocalDateTime.now();
+        geofence.setCreatedAt(geofenceRepository.findById(id).map(Geofence::getCreatedAt).orElse(now));
+        geofence.setUpdatedAt(now);
+        
+        Geofence saved = geofenceRepository.save(geofence);
+        geofenceEngine.register(saved);
+        
+        log.info("Registered {} geofence {}", saved.getShape(), id);
+        return GeofenceDTO.from(saved);
+    }
+    
+    /**
+     * Gets a geofence.
+     * 
+     * @param id the ID of the geofence
+     * @return the geofence
+     * @throws GeofenceNotFoundException if the geofence does not exist
+     */
+    @Transactional(readOnly = true)
+    public GeofenceDTO getGeofence(String id) {
+        return geofenceRepository.findById(id)
+                .map(GeofenceDTO::from)
+                .orElseThrow(() -> new GeofenceNotFoundException(id));
+    }
+    
+    /**
+     * Gets all geofences.
+     * 
+     * @return all registered geofences
+     */
+    @Transactional(readOnly = true)
+    public List<GeofenceDTO> getAllGeofences() {
+        return geofenceRepository.findAll().stream()
+                .map(GeofenceDTO::from)
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * Deletes a geofence. Technicians inside it do not receive exit events.
+     * 
+     * @param id the ID of the geofence
+     * @throws GeofenceNotFoundException if the geofence does not exist
+     */
+    public void deleteGeofence(String id) {
+        if (!geofenceRepository.existsById(id)) {
+            throw new GeofenceNotFoundException(id);
+        }
+        geofenceRepository.deleteById(id);
+        geofenceEngine.remove(id);
+        
+        log.info("Deleted geofence {}", id);
+    }
+    
+    private Geofence toGeofence(String id, GeofenceRequest request) {
+        boolean circle = request.getLatitude() != null || request.getLongitude() != null
+                || request.getRadiusMeters() != null;
+        boolean polygon = request.getPolygon() != null;
+        if (circle == polygon) {
+            throw new InvalidGeofenceException("A geofence must be either a circle or a polygon");
+        }
+        Geofence.GeofenceBuilder builder = Geofence.builder()
+                .id(id)
+                .name(request.getName())
+                .dwellSeconds(request.getDwellSeconds());
+        if (circle) {
+            if (request.getLatitude() == null || request.getLongitude() == null || request.getRadiusMeters() == null) {
+                throw new InvalidGeofenceException("A circular geofence requires latitude, longitude and radiusMeters");
+            }
+            return builder.shape(Geofence.Shape.CIRCLE)
+                    .centerLatitude(request.getLatitude())
+                    .centerLongitude(request.getLongitude())
+                    .radiusMeters(request.getRadiusMeters())
+                    .build();
+        }
+        return builder.shape(Geofence.Shape.POLYGON)
+                .boundary(toPolygon(request.getPolygon()).toText())
+                .build();
+    }
+    
+    private Polygon toPolygon(List<GeoPointDTO> vertices) {
+        if (vertices.size() < 3 || vertices.size() > properties.getMaxPolygonVertices()) {
+            throw new InvalidGeofenceException(
+                    "A polygon geofence requires between 3 and " + properties.getMaxPolygonVertices() + " vertices");
+        }
+        Coordinate[] ring = new Coordinate[vertices.size() + 1];
+        for (int i = 0; i < vertices.size(); i++) {
+            ring[i] = new Coordinate(vertices.get(i).getLongitude(), vertices.get(i).getLatitude());
+        }
+        ring[vertices.size()] = ring[0];
+        Polygon polygon = GEOMETRY_FACTORY.createPolygon(ring);
+        if (!polygon.isValid() || polygon.getArea() == 0) {
+            throw new InvalidGeofenceException("Polygon must not intersect itself or be degenerate");
+        }
+        return polygon;
+    }
+}
@@ -0,0 +1,191 @@
+package com.fsm.location.service;
+
+import com.fsm.location.infrastructure.config.HistoryPartitioningProperties;
+import com.fsm.location.infrastructure.config.HistoryPartitioningProperties.PartitionInterval;
+import lombok.Value;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.TemporalAdjusters;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Maintains the range partitions of the technician_locations table (PostgreSQL only).
+ * 
+ * Runs on startup and on a schedule: creates the current and the next {@code premake}
+ * partitions, and drops (or detaches) every partition whose range ended before the
+ * retention cutoff. Expired rows in the default partition, which only receives rows
+ * outside every partition's range, are deleted.
+ * 
+ * Domain Invariants:
+ * - A partition is never created over a range already covered by another partition
+ * - Only partitions lying entirely before the retention cutoff are removed
+ */
+@Component
+@ConditionalOnProperty(prefix = "location.history.partitioning", name = "enabled", havingValue = "true")
+@Slf4j
+public class HistoryPartitionMaintainer {
+    
+    static final String PARENT_TABLE = "technician_locations";
+    static final String DEFAULT_PARTITION = "technician_locations_default";
+    
+    private static final String LIST_PARTITIONS_SQL =
+            "SELECT c.relname, pg_get_expr(c.relpartbound, c.oid) FROM pg_inherits i " +
+            "JOIN pg_class c ON c.oid = i.inhrelid " +
+            "WHERE i.inhparent = '" + PARENT_TABLE + "'::regclass";
+    
+    /**
+     * Matches the bound expression of a range partition, e.g.
+     * {@code FOR VALUES FROM ('2024-01-01 00:00:00') TO ('2024-01-08 00:00:00')}
+     */
+    private static final Pattern RANGE_BOUND = Pattern.compile("FROM \\('([^']+)'\\) TO \\('([^']+)'\\)");
+    
+    private static final DateTimeFormatter BOUND_FORMAT = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final DateTimeFormatter NAME_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd");
+    
+    private final HistoryPartitioningProperties properties;
+    private final JdbcTemplate jdbcTemplate;
+    
+    public HistoryPartitionMaintainer(HistoryPartitioningProperties properties, JdbcTemplate jdbcTemplate) {
+        this.properties = properties;
+        this.jdbcTemplate = jdbcTemplate;
+    }
+    
+    /**
+     * Creates upcoming partitions and removes expired ones.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(cron = "${location.history.partitioning.cron:0 15 3 * * *}")
+    public void maintainPartitions() {
+        maintain(LocalDate.now());
+    }
+    
+    /**
+     * Maintains partitions relative to the given day.
+     * 
+     * @param today the current day
+     */
+    void maintain(LocalDate today) {
+        List<Partition> partitions;
+        try {
+            partitions = listPartitions();
+        } catch (DataAccessException e) {
+            log.error("Could not list partitions of {}; is the table partitioned?", PARENT_TABLE, e);
+            return;
+        }
+        createUpcomingPartitions(today, partitions);
+        removeExpiredPartitions(today.atStartOfDay().minus(properties.getRetention()), partitions);
+    }
+    
+    private void createUpcomingPartitions(LocalDate today, List<Partition> partitions) {
+        PartitionInterval interval = properties.getInterval();
+        LocalDate start = periodStart(today, interval);
+        for (int i = 0; i <= properties.getPremake(); i++) {
+            LocalDate end = nextPeriodStart(start, interval);
+            LocalDateTime from = start.atStartOfDay();
+            LocalDateTime to = end.atStartOfDay();
+            if (partitions.stream().noneMatch(partition -> partition.overlaps(from, to))) {
+                String name = partitionName(start);
+                execute("CREATE TABLE IF NOT EXISTS " + name + " PARTITION OF " + PARENT_TABLE +
+                        " FOR VALUES FROM ('" + BOUND_FORMAT.format(from) + "') TO ('" + BOUND_FORMAT.format(to) + "')",
+                        "Created location history partition {}", name);
+            }
+            start = end;
+        }
+    }
+    
+    private void removeExpiredPartitions(LocalDateTime cutoff, List<Partition> partitions) {
+        for (Partition partition : partitions) {
+            if (DEFAULT_PARTITION.equals(partition.getName())) {
+                try {
+                    int deleted = jdbcTemplate.update(
+                            "DELETE FROM " + DEFAULT_PARTITION + " WHERE timestamp < ?", cutoff);
+                    if (deleted > 0) {
+                        log.info("Deleted {} expired rows from {}", deleted, DEFAULT_PARTITION);
+                    }
+                } catch (DataAccessException e) {
+                    log.error("Failed to delete expired rows from {}", DEFAULT_PARTITION, e);
+                }
+            } else if (partition.getTo() != null && !partition.getTo().isAfter(cutoff)) {
+                if (properties.isDetachOnly()) {
+                    execute("ALTER TABLE " + PARENT_TABLE + " DETACH PARTITION " + partition.getName(),
+                            "Detached expired location history partition {}", partition.getName());
+                } else {
+                    execute("DROP TABLE " + partition.getName(),
+                            "Dropped expired location history partition {}", partition.getName());
+                }
+            }
+        }
+    }
+    
+    private void execute(String sql, String successMessage, String partitionName) {
+        try {
+            jdbcTemplate.execute(sql);
+            log.info(successMessage, partitionName);
+        } catch (DataAccessException e) {
+            log.error("Partition maintenance statement failed: {}", sql, e);
+        }
+    }
+    
+    private List<Partition> listPartitions() {
+        return jdbcTemplate.query(LIST_PARTITIONS_SQL,
+                (rs, rowNum) -> Partition.of(rs.getString(1), rs.getString(2)));
+    }
+    
+    /**
+     * @return the first day of the partition period containing the given day
+     */
+    static LocalDate periodStart(LocalDate day, PartitionInterval interval) {
+        return interval == PartitionInterval.WEEK
+                ? day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY))
+                : day;
+    }
+    
+    private static LocalDate nextPeriodStart(LocalDate start, PartitionInterval interval) {
+        return interval == PartitionInterval.WEEK ? start.plusWeeks(1) : start.plusDays(1);
+    }
+    
+    /**
+     * @return the name of the partition starting on the given day, e.g. technician_locations_p20240101
+     */
+    static String partitionName(LocalDate start) {
+        return PARENT_TABLE + "_p" + NAME_FORMAT.format(start);
+    }
+    
+    /**
+     * A partition of technician_locations with its range; the range is null for the default partition.
+     */
+    @Value
+    static class Partition {
+        
+        String name;
+        LocalDateTime from;
+        LocalDateTime to;
+        
+        static Partition of(String name, String boundExpression) {
+            Matcher matcher = RANGE_BOUND.matcher(boundExpression);
+            if (!matcher.find()) {
+                return new Partition(name, null, null);
+            }
+            return new Partition(name,
+                    LocalDateTime.parse(matcher.group(1), BOUND_FORMAT),
+                    LocalDateTime.parse(matcher.group(2), BOUND_FORMAT));
+        }
+        
+        boolean overlaps(LocalDateTime rangeFrom, LocalDateTime rangeTo) {
+            return from != null && from.isBefore(rangeTo) && to.isAfter(rangeFrom);
+        }
+    }
+}
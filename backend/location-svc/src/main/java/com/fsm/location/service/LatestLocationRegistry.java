@@ -0,0 +1,192 @@
+package com.fsm.location.service;
+
+import com.fsm.location.domain.model.LocationFix;
+import lombok.extern.slf4j.Slf4j;
+import org.jctools.maps.NonBlockingHashMapLong;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Function;
+
+/**
+ * In-memory registry of the last accepted fix for every technician.
+ * 
+ * Keeps the ingest hot path free of database reads: "my latest location"
+ * lookups are answered from this registry instead of
+ * querying technician_locations. The registry is rebuilt from the database
+ * on startup and updated by {@link LocationService} after each committed write.
+ * 
+ * Backed by a lock-free, primitive-keyed (long technicianId) map so lookups
+ * do not box the key. Other in-memory views of current positions register as
+ * {@link LocationFixListener}s and are notified of every new latest fix.
+ */
+@Component
+@Slf4j
+public class LatestLocationRegistry {
+    
+    private final NonBlockingHashMapLong<LocationFix> latestFixes = new NonBlockingHashMapLong<>();
+    
+    private final List<LocationFixListener> listeners = new CopyOnWriteArrayList<>();
+    
+    /**
+     * Registers a listener notified of every new latest fix.
+     * The listener immediately receives the current registry content via
+     * {@link LocationFixListener#onRegistryRebuilt}, so it does not matter
+     * whether it registers before or after the startup rebuild.
+     * 
+     * @param listener the fix listener
+     */
+    public void addListener(LocationFixListener listener) {
+        listeners.add(listener);
+        listener.onRegistryRebuilt(values());
+    }
+    
+    /**
+     * Gets the last known fix for a technician.
+     * 
+     * @param technicianId the ID of the technician
+     * @return the last fix, or null if the technician has never reported
+     */
+    public LocationFix get(long technicianId) {
+        return latestFixes.get(technicianId);
+    }
+    
+    /**
+     * Gets the last known fix for a technician.
+     * 
+     * @param technicianId the ID of the technician
+     * @return the last fix if available
+     */
+    public Optional<LocationFix> find(long technicianId) {
+        return Optional.ofNullable(latestFixes.get(technicianId));
+    }
+    
+    /**
+     * Records a fix if it is newer than the currently registered one.
+     * Older fixes (e.g. arriving out of order) never overwrite newer ones,
+     * except that a persisted fix replaces its not-yet-persisted copy. Listeners
+     * already saw that copy, so they only learn its location ID via
+     * {@link LocationFixListener#onLocationPersisted}.
+     * 
+     * @param fix the fix to record
+     * @return true if the fix became the technician's latest fix
+     */
+    public boolean record(LocationFix fix) {
+        LocationFix replaced = replaceIfNewer(fix);
+        if (replaced == fix) {
+            return false;
+        }
+        boolean persistedCopy = isPersistedCopy(fix, replaced);
+        for (LocationFixListener listener : listeners) {
+            if (persistedCopy) {
+                listener.onLocationPersisted(fix);
+            } else {
+                listener.onLocationFix(fix);
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * @return the replaced fix (null if the technician had none), or the given fix if it was not recorded
+     */
+    private LocationFix replaceIfNewer(LocationFix fix) {
+        long technicianId = fix.getTechnicianId();
+        while (true) {
+            LocationFix current = latestFixes.get(technicianId);
+            if (!fix.isNewerThan(current) && !isPersistedCopy(fix, current)) {
+                return fix;
+            }
+            boolean swapped = current == null
+                    ? latestFixes.putIfAbsent(technicianId, fix) == null
+                    : latestFixes.replace(technicianId, current, fix);
+            if (swapped) {
+                return current;
+            }
+        }
+    }
+    
+    private static boolean isPersistedCopy(LocationFix fix, LocationFix current) {
+        return current != null && current.getLocationId() == null && fix.getLocationId() != null
+                && fix.getTimestamp().equals(current.getTimestamp());
+    }
+    
+    /**
+     * Takes back fixes that will never be persisted (e.g. dropped or failed write-behind updates).
+     * Each technician whose latest fix is still one of them gets its last persisted fix back,
+     * or is removed if it has none. Listeners are then notified once with the new content,
+     * as they may have followed the lost fixes.
+     * 
+     * @param lost the unpersisted fixes
+     * @param persistedFixes loads the last persisted fix of the given technicians
+     * @return the number of technicians whose latest fix was taken back
+     */
+    public int revert(Collection<LocationFix> lost, Function<Set<Long>, Map<Long, LocationFix>> persistedFixes) {
+        Map<Long, LocationFix> stillLatest = new HashMap<>();
+        for (LocationFix fix : lost) {
+            LocationFix current = latestFixes.get(fix.getTechnicianId());
+            if (current != null && current.getLocationId() == null
+                    && current.getTimestamp().equals(fix.getTimestamp())) {
+                stillLatest.put(fix.getTechnicianId(), current);
+            }
+        }
+        if (stillLatest.isEmpty()) {
+            return 0;
+        }
+        
+        Map<Long, LocationFix> restored = persistedFixes.apply(stillLatest.keySet());
+        int reverted = 0;
+        for (Map.Entry<Long, LocationFix> entry : stillLatest.entrySet()) {
+            LocationFix persisted = restored.get(entry.getKey());
+            boolean swapped = persisted == null
+                    ? latestFixes.remove(entry.getKey(), entry.getValue())
+                    : latestFixes.replace(entry.getKey(), entry.getValue(), persisted);
+            if (swapped) {
+                reverted++;
+            }
+        }
+        if (reverted > 0) {
+            Collection<LocationFix> content = values();
+            listeners.forEach(listener -> listener.onRegistryRebuilt(content));
+            log.warn("Took back the unpersisted latest fix of {} technicians", reverted);
+        }
+        return reverted;
+    }
+    
+    /**
+     * Replaces the registry content with the given fixes and notifies
+     * listeners once with the rebuilt content.
+     * 
+     * @param fixes the latest fix for each technician
+     */
+    public void rebuild(Collection<LocationFix> fixes) {
+        latestFixes.clear();
+        fixes.forEach(this::replaceIfNewer);
+        Collection<LocationFix> rebuilt = values();
+        listeners.forEach(listener -> listener.onRegistryRebuilt(rebuilt));
+        log.info("Latest location registry rebuilt with {} technicians", latestFixes.size());
+    }
+    
+    /**
+     * Gets a read-only view of all registered fixes.
+     * 
+     * @return the latest fix for each known technician
+     */
+    public Collection<LocationFix> values() {
+        return Collections.unmodifiableCollection(latestFixes.values());
+    }
+    
+    /**
+     * @return the number of technicians with a known fix
+     */
+    public int size() {
+        return latestFixes.size();
+    }
+}
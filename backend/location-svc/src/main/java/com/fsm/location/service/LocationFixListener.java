@@ -0,0 +1,41 @@
+package com.fsm.location.service;
+
+import com.fsm.location.domain.model.LocationFix;
+
+import java.util.Collection;
+
+/**
+ * Callback for in-memory structures that follow the latest fix of every technician.
+ * Listeners register themselves with {@link LatestLocationRegistry#addListener}
+ * and are notified whenever a fix becomes
+ * a technician's latest fix, on the thread that recorded it, so implementations
+ * must be thread-safe and must not block.
+ */
+public interface LocationFixListener {
+    
+    /**
+     * Called after a fix became the latest fix of its technician.
+     * Notifications for the same technician may arrive out of order when fixes are
+     * recorded concurrently, so implementations should ignore fixes older than the
+     * one they already hold.
+     * 
+     * @param fix the new latest fix
+     */
+    void onLocationFix(LocationFix fix);
+    
+    /**
+     * Called after a queued fix, already passed to {@link #onLocationFix}, was persisted.
+     * Only the location ID is new; position, time and status are unchanged.
+     * 
+     * @param fix the persisted copy of the fix
+     */
+    default void onLocationPersisted(LocationFix fix) {
+    }
+    
+    /**
+     * Called after the registry content was replaced (e.g. on startup).
+     * 
+     * @param latestFixes the latest fix of every known technician
+     */
+    void onRegistryRebuilt(Collection<LocationFix> latestFixes);
+}
@@ -0,0 +1,90 @@
+package com.fsm.location.service;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.Getter;
+import org.springframework.stereotype.Component;
+
+/**
+ * Latency timers and fix counters of the location ingest and map read paths.
+ * 
+ * Timers publish percentile histograms, so that latency quantiles can be aggregated
+ * across instances from the Prometheus buckets instead of being computed per instance:
+ * - location.ingest.latency (mode=single|queued|batch): from receiving a location update
+ *   until it is committed (or queued, with write-behind ingestion)
+ * - location.map.read.latency (view=snapshot|delta|viewport): building the active locations
+ *   snapshot on a cache miss, answering a delta poll and answering a viewport query
+ * 
+ * Snapshot cache hits never reach the service; their latency is the HTTP server timer of
+ * GET /api/technicians/locations, and hits and misses are counted by the cache.gets meter.
+ */
+@Component
+@Getter
+public class LocationMetrics {
+    
+    private final Timer singleIngestTimer;
+    private final Timer queuedIngestTimer;
+    private final Timer batchIngestTimer;
+    
+    private final Timer snapshotBuildTimer;
+    private final Timer deltaReadTimer;
+    private final Timer viewportReadTimer;
+    
+    private final Counter acceptedFixes;
+    private final Counter skippedFixes;
+    private final Counter rejectedFixes;
+    
+    private final Counter suppressedUpdates;
+    
+    public LocationMetrics(MeterRegistry meterRegistry) {
+        this.singleIngestTimer = ingestTimer("single", meterRegistry);
+        this.queuedIngestTimer = ingestTimer("queued", meterRegistry);
+        this.batchIngestTimer = ingestTimer("batch", meterRegistry);
+        this.snapshotBuildTimer = mapReadTimer("snapshot", meterRegistry);
+        this.deltaReadTimer = mapReadTimer("delta", meterRegistry);
+        this.viewportReadTimer = mapReadTimer("viewport", meterRegistry);
+        this.acceptedFixes = fixCounter("accepted", meterRegistry);
+        this.skippedFixes = fixCounter("skipped", meterRegistry);
+        this.rejectedFixes = fixCounter("rejected", meterRegistry);
+        this.suppressedUpdates = Counter.builder("location.ingest.suppressed")
+                .description("Location updates from stationary technicians answered without persisting them")
+                .register(meterRegistry);
+    }
+    
+    /**
+     * Counts the outcome of a batch of buffered fixes.
+     * 
+     * @param accepted fixes persisted
+     * @param skipped fixes thinned out by the rate limit
+     * @param rejected fixes with a timestamp too far in the future
+     */
+    public void recordBatch(int accepted, int skipped, int rejected) {
+        acceptedFixes.increment(accepted);
+        skippedFixes.increment(skipped);
+        rejectedFixes.increment(rejected);
+    }
+    
+    private static Timer ingestTimer(String mode, MeterRegistry meterRegistry) {
+        return Timer.builder("location.ingest.latency")
+                .description("Time to accept a location update")
+                .tag("mode", mode)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+    
+    private static Timer mapReadTimer(String view, MeterRegistry meterRegistry) {
+        return Timer.builder("location.map.read.latency")
+                .description("Time to answer a dispatcher map query")
+                .tag("view", view)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+    }
+    
+    private static Counter fixCounter(String outcome, MeterRegistry meterRegistry) {
+        return Counter.builder("location.ingest.fixes")
+                .description("Buffered fixes received in batches, by outcome")
+                .tag("outcome", outcome)
+                .register(meterRegistry);
+    }
+}
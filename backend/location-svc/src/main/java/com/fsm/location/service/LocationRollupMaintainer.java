@@ -0,0 +1,235 @@
+package com.fsm.location.service;
+
+import com.fsm.location.domain.model.LocationFix;
+import com.fsm.location.domain.model.LocationSample;
+import com.fsm.location.domain.model.TechnicianLocationRollup;
+import com.fsm.location.domain.repository.LocationRepository;
+import com.fsm.location.domain.repository.LocationRollupRepository;
+import com.fsm.location.infrastructure.config.LocationRollupProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.jctools.maps.NonBlockingHashMapLong;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Incrementally folds new location fixes into per-technician, per-minute rollups
+ * (centroid, fix count, max speed, min battery level) for fleet analytics.
+ * 
+ * Fixes are selected by insertion time (created_at) after a watermark stored in
+ * location_rollup_watermark, so offline batches recorded long before they were uploaded
+ * are rolled up as well, into the minutes they were recorded in. Each window of insertion
+ * time is folded into the stored rollups and the watermark advanced in one transaction;
+ * the watermark is advanced conditionally, so instances running the job concurrently
+ * never fold a window twice. Speeds are derived between consecutive fixes of a technician,
+ * using the last fix seen in earlier windows where it is older.
+ * 
+ * Domain Invariants:
+ * - Every fix is folded into exactly one rollup, once
+ * - Only fixes inserted at least {@code settleDelay} ago are rolled up
+ * - No speed is derived across a gap longer than {@code maxGap}
+ */
+@Component
+@ConditionalOnProperty(prefix = "location.rollup", name = "enabled", havingValue = "true", matchIfMissing = true)
+@Slf4j
+public class LocationRollupMaintainer {
+    
+    static final String READ_WATERMARK_SQL = "SELECT rolled_up_to FROM location_rollup_watermark WHERE id = 1";
+    
+    static final String ADVANCE_WATERMARK_SQL =
+            "UPDATE location_rollup_watermark SET rolled_up_to = ? WHERE id = 1 AND rolled_up_to = ?";
+    
+    /**
+     * Fixes closer together than this give no meaningful speed
+     */
+    private static final double MIN_SPEED_INTERVAL_SECONDS = 1.0;
+    
+    private final LocationRollupProperties properties;
+    private final LocationRepository locationRepository;
+    private final LocationRollupRepository rollupRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final Counter rolledUpFixes;
+    
+    /**
+     * Newest fix of each technician seen in an earlier window, to derive the speed of the next one
+     */
+    private final NonBlockingHashMapLong<LocationFix> lastFixes = new NonBlockingHashMapLong<>();
+    
+    private volatile LocalDateTime rolledUpTo;
+    
+    public LocationRollupMaintainer(LocationRollupProperties properties,
+                                    LocationRepository locationRepository,
+                                    LocationRollupRepository rollupRepository,
+                                    JdbcTemplate jdbcTemplate,
+                                    PlatformTransactionManager transactionManager,
+                                    MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.locationRepository = locationRepository;
+        this.rollupRepository = rollupRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.rolledUpFixes = Counter.builder("location.rollup.fixes")
+                .description("Location fixes folded into per-minute rollups")
+                .register(meterRegistry);
+        Gauge.builder("location.rollup.lag", this, LocationRollupMaintainer::lagSeconds)
+                .description("Age of the newest insertion time rolled up")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
+    
+    /**
+     * Rolls up the fixes inserted since the last run.
+     */
+    @Scheduled(cron = "${location.rollup.cron:30 * * * * *}")
+    public void rollUpNewFixes() {
+        try {
+            rollUp(LocalDateTime.now());
+        } catch (DataAccessException e) {
+            log.error("Failed to roll up location fixes", e);
+        }
+    }
+    
+    /**
+     * Rolls up every settled fix inserted after the watermark, one window at a time.
+     * 
+     * @param now the current time
+     * @return the number of fixes rolled up
+     */
+    int rollUp(LocalDateTime now) {
+        LocalDateTime upTo = now.minus(properties.getSettleDelay()).truncatedTo(ChronoUnit.SECONDS);
+        LocalDateTime after = jdbcTemplate.queryForObject(READ_WATERMARK_SQL, LocalDateTime.class);
+        int total = 0;
+        while (after.isBefore(upTo)) {
+            LocalDateTime windowStart = after;
+            LocalDateTime windowEnd = windowStart.plus(properties.getMaxWindow());
+            if (windowEnd.isAfter(upTo)) {
+                windowEnd = upTo;
+            }
+            LocalDateTime end = windowEnd;
+            Integer folded = transactionTemplate.execute(status -> rollUpWindow(windowStart, end, status));
+            if (folded == null) {
+                log.info("Location rollups were advanced past {} concurrently; skipping this run", windowStart);
+                break;
+            }
+            rolledUpFixes.increment(folded);
+            total += folded;
+            after = end;
+            rolledUpTo = end;
+        }
+        if (total > 0) {
+            log.debug("Rolled up {} location fixes inserted up to {}", total, upTo);
+        }
+        return total;
+    }
+    
+    /**
+     * Folds the fixes inserted in (after, upTo] into the stored rollups and advances the watermark.
+     * 
+     * @return the number of fixes rolled up, or null if the watermark was advanced concurrently
+     */
+    private Integer rollUpWindow(LocalDateTime after, LocalDateTime upTo, TransactionStatus status) {
+        Map<TechnicianLocationRollup.Key, TechnicianLocationRollup> rollups = new HashMap<>();
+        int count = 0;
+        try (Stream<LocationSample> samples = locationRepository.streamInsertedBetween(after, upTo)) {
+            Iterator<LocationSample> iterator = samples.iterator();
+            long technicianId = 0;
+            LocationFix previous = null;
+            while (iterator.hasNext()) {
+                LocationFix fix = iterator.next().toFix();
+                if (count == 0 || fix.getTechnicianId() != technicianId) {
+                    technicianId = fix.getTechnicianId();
+                    LocationFix carried = lastFixes.get(technicianId);
+                    previous = carried != null && fix.isNewerThan(carried) ? carried : null;
+                }
+                TechnicianLocationRollup rollup = TechnicianLocationRollup.of(fix, speedBetween(previous, fix));
+                rollups.merge(rollup.getId(), rollup, (stored, added) -> {
+                    stored.merge(added);
+                    return stored;
+                });
+                if (fix.isNewerThan(lastFixes.get(technicianId))) {
+                    lastFixes.put(technicianId, fix);
+                }
+                previous = fix;
+                count++;
+            }
+        }
+        
+        if (!rollups.isEmpty()) {
+            store(rollups);
+        }
+        if (jdbcTemplate.update(ADVANCE_WATERMARK_SQL, upTo, after) == 0) {
+            status.setRollbackOnly();
+            return null;
+        }
+        return count;
+    }
+    
+    /**
+     * Merges new rollups into the stored ones of the same technician and minute, and inserts the others.
+     */
+    private void store(Map<TechnicianLocationRollup.Key, TechnicianLocationRollup> rollups) {
+        List<Long> technicianIds = rollups.keySet().stream()
+                .map(TechnicianLocationRollup.Key::getTechnicianId)
+                .distinct()
+                .collect(Collectors.toList());
+        List<LocalDateTime> minutes = rollups.keySet().stream()
+                .map(TechnicianLocationRollup.Key::getMinute)
+                .distinct()
+                .collect(Collectors.toList());
+        Map<TechnicianLocationRollup.Key, TechnicianLocationRollup> stored =
+                rollupRepository.findByTechnicianIdInAndMinuteIn(technicianIds, minutes).stream()
+                        .collect(Collectors.toMap(TechnicianLocationRollup::getId, Function.identity()));
+        
+        List<TechnicianLocationRollup> created = new ArrayList<>();
+        rollups.forEach((key, rollup) -> {
+            TechnicianLocationRollup existing = stored.get(key);
+            if (existing != null) {
+                // Managed entity: flushed on commit
+                existing.merge(rollup);
+            } else {
+                created.add(rollup);
+            }
+        });
+        rollupRepository.saveAll(created);
+    }
+    
+    /**
+     * @return the speed in meters per second between two consecutive fixes, or null if unknown
+     */
+    private Float speedBetween(LocationFix previous, LocationFix fix) {
+        if (previous == null) {
+            return null;
+        }
+        double seconds = Duration.between(previous.getTimestamp(), fix.getTimestamp()).toMillis() / 1000.0;
+        if (seconds < MIN_SPEED_INTERVAL_SECONDS || seconds > properties.getMaxGap().toSeconds()) {
+            return null;
+        }
+        return (float) (fix.distanceMetersTo(previous.getLatitude(), previous.getLongitude()) / seconds);
+    }
+    
+    private double lagSeconds() {
+        LocalDateTime watermark = rolledUpTo;
+        return watermark != null ? Duration.between(watermark, LocalDateTime.now()).toSeconds() : 0;
+    }
+}
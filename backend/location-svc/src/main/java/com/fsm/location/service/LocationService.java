@@ -1,19 +1,37 @@
 package com.fsm.location.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fsm.location.api.dto.BufferedLocationFix;
+import com.fsm.location.api.dto.LocationBatchResponse;
+import com.fsm.location.api.dto.LocationDeltaResponse;
 import com.fsm.location.api.dto.LocationUpdateRequest;
 import com.fsm.location.api.dto.TechnicianLocationDTO;
+import com.fsm.location.domain.model.LocationFix;
+import com.fsm.location.domain.model.PresenceStatus;
 import com.fsm.location.domain.model.TechnicianLocation;
 import com.fsm.location.domain.repository.LocationRepository;
+import com.fsm.location.domain.repository.TechnicianCurrentLocationRepository;
 import com.fsm.location.infrastructure.config.CacheConfig;
+import com.fsm.location.service.exception.IngestBufferFullException;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.cache.annotation.Cacheable;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
 import java.util.Optional;
+import java.util.TreeSet;
 import java.util.stream.Collectors;
 
 /**
@@ -27,8 +45,32 @@ public class LocationService {
     
     private final LocationRepository locationRepository;
     
+    private final TechnicianCurrentLocationRepository currentLocationRepository;
+    
+    private final LatestLocationRegistry latestLocationRegistry;
+    
+    private final LocationWriteBehindBuffer writeBehindBuffer;
+    
+    private final FleetVersionTracker fleetVersionTracker;
+    
+    private final PresenceTracker presenceTracker;
+    
+    private final TechnicianProfileCache technicianProfileCache;
+    
+    private final LocationUpdateRateLimiter rateLimiter;
+    
+    private final StationaryFixFilter stationaryFixFilter;
+    
+    private final ReportingIntervalAdvisor reportingIntervalAdvisor;
+    
+    private final RecentFixBuffer recentFixBuffer;
+    
+    private final LocationMetrics metrics;
+    
+    private final ObjectMapper objectMapper;
+    
     /**
-     * Rate limiting threshold: minimum seconds between updates for the same technician.
+     * Minimum seconds between buffered fixes kept from the same technician's device.
      */
     private static final int RATE_LIMIT_SECONDS = 30;
     
@@ -37,25 +79,160 @@ public class LocationService {
      */
     private static final int STALE_LOCATION_MINUTES = 15;
     
+    /**
+     * Tolerated device clock skew: buffered fixes recorded further in the future are rejected (in seconds).
+     */
+    private static final int MAX_CLOCK_SKEW_SECONDS = 60;
+    
+    /**
+     * Rebuilds the in-memory latest location registry from the database on startup,
+     * so that latest-location lookups never need to query history.
+     */
+    @PostConstruct
+    public void rebuildLatestLocationRegistry() {
+        List<LocationFix> latestFixes = locationRepository.findLatestLocationsForAllTechnicians().stream()
+                .map(LocationFix::from)
+                .collect(Collectors.toList());
+        latestLocationRegistry.rebuild(latestFixes);
+    }
+    
+    /**
+     * Takes a location update permit from the technician's rate limit bucket.
+     * Callers check this before {@link #updateLocation} or {@link #enqueueLocation};
+     * a rejected update costs a single compare-and-set, without exceptions or database access.
+     * 
+     * @param technicianId the ID of the technician
+     * @return 0 if the update is permitted, otherwise the seconds to wait (rounded up)
+     */
+    public long acquireUpdatePermit(Long technicianId) {
+        long waitNanos = rateLimiter.tryAcquire(technicianId);
+        if (waitNanos == 0) {
+            return 0;
+        }
+        long secondsToWait = (waitNanos + 999_999_999L) / 1_000_000_000L;
+        log.debug("Rate limit exceeded for technician {}: retry in {} seconds", technicianId, secondsToWait);
+        return secondsToWait;
+    }
+    
+    /**
+     * Recommends when the technician's device should report its next location, based on the
+     * speed since their previous fix, their battery level and whether they are near a job site
+     * (see {@link ReportingIntervalAdvisor}). Callers ask before recording the update.
+     * 
+     * @param technicianId the ID of the technician
+     * @param request the location update request
+     * @return the recommended seconds until the next location update
+     */
+    public long recommendReportingInterval(Long technicianId, LocationUpdateRequest request) {
+        return reportingIntervalAdvisor.recommend(technicianId, request.getLatitude(), request.getLongitude(),
+                request.getBatteryLevel(), LocalDateTime.now()).toSeconds();
+    }
+    
+    /**
+     * Records a location update as a heartbeat if the technician has not moved since their
+     * last persisted fix (see {@link StationaryFixFilter}). Callers check this before
+     * {@link #updateLocation} or {@link #enqueueLocation}; a suppressed update is not persisted.
+     * The heartbeat keeps the position, accuracy and location ID of the last persisted fix
+     * and becomes the technician's latest fix, so their presence stays fresh.
+     * 
+     * @param technicianId the ID of the technician
+     * @param request the location update request
+     * @return the recorded heartbeat, or empty if the update has to be persisted
+     */
+    public Optional<LocationFix> recordStationaryHeartbeat(Long technicianId, LocationUpdateRequest request) {
+        LocalDateTime now = LocalDateTime.now();
+        LocationFix anchor = stationaryFixFilter.findStationaryAnchor(technicianId,
+                request.getLatitude(), request.getLongitude(), request.getAccuracy(), now);
+        if (anchor == null) {
+            return Optional.empty();
+        }
+        
+        LocationFix heartbeat = anchor.toBuilder()
+                .batteryLevel(request.getBatteryLevel())
+                .timestamp(now)
+                .build();
+        latestLocationRegistry.record(heartbeat);
+        metrics.getSuppressedUpdates().increment();
+        log.debug("Technician {} is stationary, recorded heartbeat for locationId={}",
+                  technicianId, anchor.getLocationId());
+        return Optional.of(heartbeat);
+    }
+    
     /**
      * Updates a technician's location.
-     * Enforces rate limiting: max once per 30 seconds per technician.
+     * Rate limiting is applied by the caller via {@link #acquireUpdatePermit}.
+     * The technician's current location row is upserted in the same transaction;
+     * the latest location registry is updated (and the ingest latency recorded)
+     * once the transaction commits.
      * 
      * @param technicianId the ID of the technician
      * @param request the location update request
      * @return the saved location
-     * @throws IllegalStateException if rate limit is exceeded
      */
     @Transactional
     public TechnicianLocation updateLocation(Long technicianId, LocationUpdateRequest request) {
+        Timer.Sample sample = Timer.start();
         log.debug("Updating location for technician {}: lat={}, lon={}, accuracy={}", 
                   technicianId, request.getLatitude(), request.getLongitude(), request.getAccuracy());
         
-        // Check rate limiting
-        validateRateLimit(technicianId);
-        
         // Create and save new location
-        TechnicianLocation location = TechnicianLocation.builder()
+        TechnicianLocation location = buildLocation(technicianId, request);
+        
+        TechnicianLocation saved = locationRepository.save(location);
+        currentLocationRepository.upsert(saved);
+        LocationFix fix = LocationFix.from(saved);
+        afterCommit(() -> {
+            latestLocationRegistry.record(fix);
+            sample.stop(metrics.getSingleIngestTimer());
+        });
+        
+        log.info("Location updated for technician {}: locationId={}", technicianId, saved.getId());
+        
+        return saved;
+    }
+    
+    /**
+     * @return true if single location updates are queued for write-behind persistence
+     *         instead of being saved within the request
+     */
+    public boolean isWriteBehindEnabled() {
+        return writeBehindBuffer.isEnabled();
+    }
+    
+    /**
+     * Accepts a technician's location update for asynchronous persistence.
+     * Queues the location in the write-behind buffer. The latest location registry is
+     * updated immediately, so the accepted fix is visible to latest-location lookups
+     * before it is persisted.
+     * 
+     * @param technicianId the ID of the technician
+     * @param request the location update request
+     * @return the accepted fix (without a location ID until persisted)
+     * @throws IngestBufferFullException if the write-behind buffer is full
+     */
+    public LocationFix enqueueLocation(Long technicianId, LocationUpdateRequest request) {
+        Timer.Sample sample = Timer.start();
+        TechnicianLocation location = buildLocation(technicianId, request);
+        if (!writeBehindBuffer.offer(location)) {
+            log.warn("Write-behind buffer full, rejecting location update for technician {}", technicianId);
+            throw new IngestBufferFullException();
+        }
+        
+        LocationFix fix = LocationFix.from(location);
+        latestLocationRegistry.record(fix);
+        sample.stop(metrics.getQueuedIngestTimer());
+        return fix;
+    }
+    
+    /**
+     * Creates a new location entity for a live update, timestamped with the current time.
+     * 
+     * @param technicianId the ID of the technician
+     * @param request the location update request
+     * @return the unsaved location entity
+     */
+    private TechnicianLocation buildLocation(Long technicianId, LocationUpdateRequest request) {
+        return TechnicianLocation.builder()
                 .technicianId(technicianId)
                 .latitude(request.getLatitude())
                 .longitude(request.getLongitude())
@@ -63,58 +240,192 @@ public class LocationService {
                 .batteryLevel(request.getBatteryLevel())
                 .timestamp(LocalDateTime.now())
                 .build();
+    }
+    
+    /**
+     * Stores a batch of fixes buffered on the device while it was offline.
+     * The 30-second rate limit is applied on device timestamps rather than arrival time:
+     * fixes are thinned so that no two persisted fixes (including the technician's
+     * latest known fix and the fixes already stored around the batch) are closer than
+     * 30 seconds. A batch re-sent after its first attempt was committed (e.g. because the
+     * response was lost) is therefore accepted only once. All accepted fixes are written
+     * with JDBC batch inserts in a single transaction.
+     * 
+     * @param technicianId the ID of the technician
+     * @param fixes the buffered fixes, in any order
+     * @return counts of accepted, skipped and rejected fixes
+     */
+    @Transactional
+    public LocationBatchResponse updateLocations(Long technicianId, List<BufferedLocationFix> fixes) {
+        Timer.Sample sample = Timer.start();
+        log.debug("Updating {} buffered locations for technician {}", fixes.size(), technicianId);
         
-        TechnicianLocation saved = locationRepository.save(location);
+        LocalDateTime latestAllowed = LocalDateTime.now().plusSeconds(MAX_CLOCK_SKEW_SECONDS);
+        LocationFix latestFix = latestLocationRegistry.get(technicianId);
+        LocalDateTime latestKnown = latestFix != null ? latestFix.getTimestamp() : null;
         
-        log.info("Location updated for technician {}: locationId={}", technicianId, saved.getId());
+        List<BufferedLocationFix> ordered = new ArrayList<>(fixes);
+        ordered.sort(Comparator.comparing(BufferedLocationFix::getRecordedAt));
+        NavigableSet<LocalDateTime> stored = findStoredTimestamps(technicianId, ordered, latestAllowed);
         
-        return saved;
+        List<TechnicianLocation> accepted = new ArrayList<>(ordered.size());
+        LocalDateTime lastAccepted = null;
+        int rejected = 0;
+        for (BufferedLocationFix fix : ordered) {
+            LocalDateTime recordedAt = fix.getRecordedAt();
+            if (recordedAt.isAfter(latestAllowed)) {
+                rejected++;
+            } else if (!isWithinRateLimitWindow(recordedAt, latestKnown) 
+                    && !isWithinRateLimitWindow(recordedAt, lastAccepted)
+                    && !isWithinRateLimitWindow(recordedAt, stored.floor(recordedAt))
+                    && !isWithinRateLimitWindow(recordedAt, stored.ceiling(recordedAt))) {
+                accepted.add(TechnicianLocation.builder()
+                        .technicianId(technicianId)
+                        .latitude(fix.getLatitude())
+                        .longitude(fix.getLongitude())
+                        .accuracy(fix.getAccuracy())
+                        .batteryLevel(fix.getBatteryLevel())
+                        .timestamp(recordedAt)
+                        .build());
+                lastAccepted = recordedAt;
+            }
+        }
+        
+        List<TechnicianLocation> saved = locationRepository.saveAll(accepted);
+        if (!saved.isEmpty()) {
+            currentLocationRepository.upsert(saved.get(saved.size() - 1));
+            List<LocationFix> savedFixes = saved.stream().map(LocationFix::from).toList();
+            afterCommit(() -> {
+                // Older fixes of the batch never reach the registry's listeners
+                savedFixes.forEach(recentFixBuffer::onLocationFix);
+                latestLocationRegistry.record(savedFixes.get(savedFixes.size() - 1));
+            });
+        }
+        
+        int skipped = fixes.size() - saved.size() - rejected;
+        int rejectedCount = rejected;
+        afterCommit(() -> {
+            metrics.recordBatch(saved.size(), skipped, rejectedCount);
+            sample.stop(metrics.getBatchIngestTimer());
+        });
+        log.info("Batch location update for technician {}: received={}, accepted={}, skipped={}, rejected={}",
+                 technicianId, fixes.size(), saved.size(), skipped, rejected);
+        
+        return LocationBatchResponse.builder()
+                .technicianId(technicianId)
+                .received(fixes.size())
+                .accepted(saved.size())
+                .skipped(skipped)
+                .rejected(rejected)
+                .latestTimestamp(lastAccepted)
+                .build();
     }
     
     /**
-     * Validates that the technician hasn't exceeded the rate limit.
-     * Rate limit: one update per 30 seconds.
+     * Loads the timestamps of the technician's stored fixes within the rate limit interval
+     * of a batch's accepted time range.
      * 
      * @param technicianId the ID of the technician
-     * @throws IllegalStateException if rate limit is exceeded
-     */
-    private void validateRateLimit(Long technicianId) {
-        Optional<TechnicianLocation> latestLocation = 
-                locationRepository.findFirstByTechnicianIdOrderByTimestampDesc(technicianId);
-        
-        if (latestLocation.isPresent()) {
-            LocalDateTime lastUpdate = latestLocation.get().getTimestamp();
-            LocalDateTime rateLimitThreshold = LocalDateTime.now().minusSeconds(RATE_LIMIT_SECONDS);
-            
-            if (lastUpdate.isAfter(rateLimitThreshold)) {
-                long secondsSinceLastUpdate = java.time.Duration.between(lastUpdate, LocalDateTime.now()).getSeconds();
-                long secondsToWait = RATE_LIMIT_SECONDS - secondsSinceLastUpdate;
-                
-                log.warn("Rate limit exceeded for technician {}: last update was {} seconds ago", 
-                         technicianId, secondsSinceLastUpdate);
-                
-                throw new IllegalStateException(
-                        String.format("Rate limit exceeded. Please wait %d seconds before updating location again.", 
-                                      secondsToWait));
-            }
+     * @param ordered the batch's fixes, oldest first
+     * @param latestAllowed the newest timestamp not rejected as in the future
+     * @return the stored timestamps, empty if every fix is rejected
+     */
+    private NavigableSet<LocalDateTime> findStoredTimestamps(Long technicianId, List<BufferedLocationFix> ordered,
+                                                             LocalDateTime latestAllowed) {
+        if (ordered.isEmpty() || ordered.get(0).getRecordedAt().isAfter(latestAllowed)) {
+            return new TreeSet<>();
+        }
+        LocalDateTime first = ordered.get(0).getRecordedAt();
+        LocalDateTime last = ordered.get(ordered.size() - 1).getRecordedAt();
+        if (last.isAfter(latestAllowed)) {
+            last = latestAllowed;
+        }
+        return new TreeSet<>(locationRepository.findTimestamps(technicianId,
+                first.minusSeconds(RATE_LIMIT_SECONDS), last.plusSeconds(RATE_LIMIT_SECONDS)));
+    }
+    
+    /**
+     * Checks whether two device timestamps are closer than the rate limit interval.
+     * 
+     * @param recordedAt the timestamp of the candidate fix
+     * @param other the timestamp of an already persisted fix (may be null)
+     * @return true if the candidate fix must be skipped
+     */
+    private boolean isWithinRateLimitWindow(LocalDateTime recordedAt, LocalDateTime other) {
+        return other != null && Math.abs(Duration.between(other, recordedAt).getSeconds()) < RATE_LIMIT_SECONDS;
+    }
+    
+    /**
+     * Runs the given action after the current transaction commits,
+     * or immediately when no transaction is active.
+     * 
+     * @param action the action to run
+     */
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
         }
     }
     
     /**
      * Gets the latest location for a technician.
+     * Served from the latest location registry; the database is only queried
+     * for technicians the registry does not know (e.g. rows written by other tools).
      * 
      * @param technicianId the ID of the technician
      * @return the latest location if available
      */
+    public Optional<LocationFix> getLatestLocation(Long technicianId) {
+        LocationFix latestFix = latestLocationRegistry.get(technicianId);
+        if (latestFix != null) {
+            return Optional.of(latestFix);
+        }
+        
+        return locationRepository.findFirstByTechnicianIdOrderByTimestampDesc(technicianId)
+                .map(LocationFix::from)
+                .map(fix -> {
+                    latestLocationRegistry.record(fix);
+                    return fix;
+                });
+    }
+    
+    /**
+     * Gets the snapshot of all active technician locations for map display,
+     * including its pre-encoded JSON response bodies.
+     * Served from a snapshot that is rebuilt in the background once it is 20 seconds old
+     * (see {@link CacheConfig}); concurrent cache misses share a single load.
+     * 
+     * @return the cached snapshot of active technician locations
+     */
+    @Transactional(readOnly = true)
+    @Cacheable(value = CacheConfig.ALL_LOCATIONS_CACHE, sync = true)
+    public ActiveLocationsSnapshot getActiveLocationsSnapshot() {
+        return buildActiveLocationsSnapshot();
+    }
+    
+    /**
+     * Loads all active technician locations and encodes them, bypassing the cache.
+     * Used to build the snapshot served by {@link #getActiveLocationsSnapshot()}.
+     * 
+     * @return a new snapshot of active technician locations
+     */
     @Transactional(readOnly = true)
-    public Optional<TechnicianLocation> getLatestLocation(Long technicianId) {
-        return locationRepository.findFirstByTechnicianIdOrderByTimestampDesc(technicianId);
+    public ActiveLocationsSnapshot buildActiveLocationsSnapshot() {
+        return metrics.getSnapshotBuildTimer().record(
+                () -> ActiveLocationsSnapshot.encode(getAllActiveTechnicianLocations(), objectMapper));
     }
     
     /**
      * Gets all active technician locations for map display.
      * Returns the latest location for each technician, filtering out stale locations (older than 15 minutes).
-     * Results are cached for 30 seconds to reduce database load.
+     * Always queries the database; map requests are served from {@link #getActiveLocationsSnapshot()}.
      * 
      * Domain Invariants:
      * - Only returns locations for active technicians (non-stale locations)
@@ -123,7 +434,6 @@ public class LocationService {
      * @return list of active technician locations with derived status
      */
     @Transactional(readOnly = true)
-    @Cacheable(value = CacheConfig.ALL_LOCATIONS_CACHE)
     public List<TechnicianLocationDTO> getAllActiveTechnicianLocations() {
         log.debug("Fetching all active technician locations");
         
@@ -133,15 +443,33 @@ public class LocationService {
         
         log.info("Found {} active technician locations", activeLocations.size());
         
+        // One batched, cached lookup for all names instead of one per technician
+        Map<Long, String> names = technicianProfileCache.getNames(activeLocations.stream()
+                .map(TechnicianLocation::getTechnicianId)
+                .collect(Collectors.toSet()));
+        
         // Convert to DTOs with derived status
         return activeLocations.stream()
-                .map(this::convertToDTO)
+                .map(location -> convertToDTO(location, names.get(location.getTechnicianId())))
                 .collect(Collectors.toList());
     }
     
+    /**
+     * Gets the technician locations that changed since a fleet version, for map clients
+     * polling incrementally. Served from memory, so unlike
+     * {@link #getActiveLocationsSnapshot()} the result is never a cached snapshot.
+     * 
+     * @param sinceVersion the fleet version returned by the client's previous poll
+     * @return the changed and removed technicians, or a full snapshot if the version is unknown
+     */
+    public LocationDeltaResponse getLocationChangesSince(long sinceVersion) {
+        return metrics.getDeltaReadTimer().record(() -> fleetVersionTracker.getChangesSince(sinceVersion));
+    }
+    
     /**
      * Converts a TechnicianLocation entity to a TechnicianLocationDTO.
-     * Derives the status based on location freshness:
+     * The status is looked up in the {@link PresenceTracker}; for technicians it does not
+     * know yet it is derived from the location's freshness:
      * - "available" if location is recent (within 5 minutes)
      * - "busy" if location is active but not recent (5-15 minutes)
      * 
@@ -150,16 +478,14 @@ public class LocationService {
      * the data retrieval level rather than shown with an 'offline' status.
      * 
      * @param location the technician location entity
+     * @param name the technician's display name
      * @return the DTO with derived status
      */
-    private TechnicianLocationDTO convertToDTO(TechnicianLocation location) {
-        // Derive status based on location freshness
-        // Only two statuses are returned: "available" or "busy"
-        // (stale/offline technicians are excluded by the query)
-        String status = location.isRecent() ? "available" : "busy";
-        
-        // For now, use placeholder for name. In future, this would be fetched from identity-svc
-        String name = "Technician " + location.getTechnicianId();
+    TechnicianLocationDTO convertToDTO(TechnicianLocation location, String name) {
+        // Stale/offline technicians are excluded by the query
+        String status = presenceTracker.find(location.getTechnicianId())
+                .map(PresenceStatus::getValue)
+                .orElseGet(() -> location.isRecent() ? "available" : "busy");
         
         return TechnicianLocationDTO.builder()
                 .technicianId(location.getTechnicianId())
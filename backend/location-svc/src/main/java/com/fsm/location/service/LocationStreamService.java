@@ -0,0 +1,360 @@
+package com.fsm.location.service;
+
+import com.fsm.location.api.dto.TechnicianLocationDTO;
+import com.fsm.location.domain.model.LocationFix;
+import com.fsm.location.domain.model.PresenceChange;
+import com.fsm.location.domain.model.PresenceStatus;
+import com.fsm.location.infrastructure.config.LocationStreamProperties;
+import com.fsm.location.service.exception.TooManySubscribersException;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.jctools.maps.NonBlockingHashMapLong;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Server-sent event stream of technician positions for the dispatcher map.
+ * 
+ * A new subscriber first receives a {@code snapshot} event with every active technician,
+ * then a {@code location} event whenever a technician's position or derived status
+ * changes. Status changes caused by time passing (available to busy after 5 minutes,
+ * busy to offline after 15 minutes without a fix) are pushed by the {@link PresenceTracker}.
+ * 
+ * Each subscriber has its own pending buffer keyed by technician: while a subscriber is
+ * waiting for its next flush (or is slow to consume), newer updates for a technician
+ * replace older ones. A slow subscriber therefore never holds more than one pending
+ * update per technician and never delays other subscribers.
+ * 
+ * Sends run on a pool that grows while sends block, never on the scheduler thread.
+ * A subscriber whose send does not finish within the send timeout is disconnected.
+ */
+@Service
+@Slf4j
+public class LocationStreamService implements LocationFixListener, PresenceListener, SmartLifecycle {
+    
+    static final String SNAPSHOT_EVENT = "snapshot";
+    static final String LOCATION_EVENT = "location";
+    
+    private final LocationStreamProperties properties;
+    private final LatestLocationRegistry latestLocationRegistry;
+    private final PresenceTracker presenceTracker;
+    private final TechnicianProfileCache technicianProfileCache;
+    
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    
+    /**
+     * Subscriber slots taken, including subscriptions being opened
+     */
+    private final AtomicInteger reservedSubscribers = new AtomicInteger();
+    
+    /**
+     * Last update published for each technician, used to detect status changes
+     */
+    private final NonBlockingHashMapLong<TechnicianLocationDTO> published = new NonBlockingHashMapLong<>();
+    
+    private volatile ScheduledExecutorService scheduler;
+    private volatile ExecutorService senders;
+    private volatile boolean running;
+    
+    public LocationStreamService(
+            LocationStreamProperties properties,
+            LatestLocationRegistry latestLocationRegistry,
+            PresenceTracker presenceTracker,
+            TechnicianProfileCache technicianProfileCache,
+            MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.latestLocationRegistry = latestLocationRegistry;
+        this.presenceTracker = presenceTracker;
+        this.technicianProfileCache = technicianProfileCache;
+        
+        Gauge.builder("location.stream.subscribers", subscribers, Set::size)
+                .description("Connected live location stream subscribers")
+                .register(meterRegistry);
+    }
+    
+    /**
+     * Starts following the latest location registry and presence transitions.
+     */
+    @PostConstruct
+    public void registerWithRegistry() {
+        latestLocationRegistry.addListener(this);
+        presenceTracker.addListener(this);
+    }
+    
+    /**
+     * Opens a new subscription and sends it the snapshot of all active technicians.
+     * 
+     * @return the emitter streaming events to the subscriber
+     * @throws TooManySubscribersException if the maximum number of subscribers is reached
+     */
+    public SseEmitter subscribe() {
+        return subscribe(new SseEmitter(properties.getSubscriptionTimeout().toMillis()));
+    }
+    
+    /**
+     * Opens a new subscription streaming to the given emitter.
+     */
+    SseEmitter subscribe(SseEmitter emitter) {
+        // One batched name lookup, outside the subscriber's lock
+        Map<Long, String> names = new HashMap<>(technicianProfileCache.getNames(latestLocationRegistry.values().stream()
+                .map(LocationFix::getTechnicianId)
+                .collect(Collectors.toSet())));
+        
+        int maxSubscribers = properties.getMaxSubscribers();
+        if (reservedSubscribers.incrementAndGet() > maxSubscribers) {
+            reservedSubscribers.decrementAndGet();
+            throw new TooManySubscribersException(maxSubscribers);
+        }
+        Subscriber subscriber = new Subscriber(emitter);
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(emitter::complete);
+        emitter.onError(error -> remove(subscriber));
+        
+        // Register before taking the snapshot so that no update falls between the two
+        synchronized (subscriber) {
+            subscribers.add(subscriber);
+            List<TechnicianLocationDTO> snapshot = new ArrayList<>();
+            for (LocationFix fix : latestLocationRegistry.values()) {
+                PresenceStatus status = presenceTracker.getStatus(fix.getTechnicianId());
+                if (status != PresenceStatus.OFFLINE) {
+                    String name = names.computeIfAbsent(fix.getTechnicianId(), technicianProfileCache::getName);
+                    snapshot.add(TechnicianLocationDTO.from(fix, status, name));
+                }
+            }
+            send(subscriber, SNAPSHOT_EVENT, snapshot);
+        }
+        
+        log.debug("Live location stream subscriber connected ({} subscribers)", subscribers.size());
+        return emitter;
+    }
+    
+    @Override
+    public void onLocationFix(LocationFix fix) {
+        TechnicianLocationDTO update = TechnicianLocationDTO.from(fix, fix.derivePresence(),
+                technicianProfileCache.getName(fix.getTechnicianId()));
+        TechnicianLocationDTO current = published.merge(fix.getTechnicianId(), update, LocationStreamService::newer);
+        if (current == update) {
+            publish(update);
+        }
+    }
+    
+    @Override
+    public void onRegistryRebuilt(Collection<LocationFix> latestFixes) {
+        Map<Long, String> names = technicianProfileCache.getNames(latestFixes.stream()
+                .map(LocationFix::getTechnicianId)
+                .collect(Collectors.toSet()));
+        published.clear();
+        latestFixes.forEach(fix -> published.put(fix.getTechnicianId(), TechnicianLocationDTO.from(fix,
+                fix.derivePresence(), names.get(fix.getTechnicianId()))));
+    }
+    
+    /**
+     * Publishes a status change of a technician whose latest fix aged past a status threshold.
+     */
+    @Override
+    public void onPresenceChange(PresenceChange change) {
+        TechnicianLocationDTO previous = published.get(change.getTechnicianId());
+        if (previous == null || !previous.getTimestamp().equals(change.getFix().getTimestamp())
+                || previous.getStatus().equals(change.getCurrent().getValue())) {
+            // Not published yet, superseded by a newer fix, or already published with this status
+            return;
+        }
+        TechnicianLocationDTO update = TechnicianLocationDTO.from(change.getFix(), change.getCurrent(),
+                previous.getName());
+        if (published.replace(change.getTechnicianId(), previous, update)) {
+            publish(update);
+        }
+    }
+    
+    private void publish(TechnicianLocationDTO update) {
+        ScheduledExecutorService currentScheduler = scheduler;
+        ExecutorService currentSenders = senders;
+        if (currentScheduler == null || currentSenders == null) {
+            return;
+        }
+        for (Subscriber subscriber : subscribers) {
+            if (subscriber.offer(update)) {
+                currentScheduler.schedule(() -> currentSenders.execute(() -> flush(subscriber)),
+                        properties.getFlushInterval().toMillis(), TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+    
+    private void flush(Subscriber subscriber) {
+        synchronized (subscriber) {
+            subscriber.flushScheduled.set(false);
+            for (Long technicianId : subscriber.pending.keySet()) {
+                TechnicianLocationDTO update = subscriber.pending.remove(technicianId);
+                if (update != null && !send(subscriber, LOCATION_EVENT, update)) {
+                    return;
+                }
+            }
+        }
+    }
+    
+    private boolean send(Subscriber subscriber, String event, Object data) {
+        ScheduledExecutorService currentScheduler = scheduler;
+        ScheduledFuture<?> timeout = currentScheduler == null ? null : currentScheduler.schedule(
+                () -> timeOut(subscriber), properties.getSendTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        try {
+            subscriber.emitter.send(SseEmitter.event().name(event).data(data, MediaType.APPLICATION_JSON));
+            return subscribers.contains(subscriber);
+        } catch (IOException | IllegalStateException e) {
+            log.debug("Dropping live location stream subscriber: {}", e.getMessage());
+            remove(subscriber);
+            subscriber.emitter.completeWithError(e);
+            return false;
+        } finally {
+            if (timeout != null) {
+                timeout.cancel(false);
+            }
+        }
+    }
+    
+    /**
+     * Disconnects a subscriber whose send is still blocked after the send timeout.
+     * The emitter is completed on a sender thread: it stays locked by the blocked send.
+     */
+    private void timeOut(Subscriber subscriber) {
+        if (!subscribers.contains(subscriber)) {
+            return;
+        }
+        log.debug("Dropping live location stream subscriber: send did not finish within {}",
+                properties.getSendTimeout());
+        remove(subscriber);
+        ExecutorService currentSenders = senders;
+        if (currentSenders != null) {
+            currentSenders.execute(() -> subscriber.emitter.completeWithError(
+                    new TimeoutException("Send did not finish within " + properties.getSendTimeout())));
+        }
+    }
+    
+    /**
+     * Removes a subscriber and releases its slot; does nothing if it was already removed.
+     */
+    private void remove(Subscriber subscriber) {
+        if (subscribers.remove(subscriber)) {
+            reservedSubscribers.decrementAndGet();
+        }
+    }
+    
+    private static TechnicianLocationDTO newer(TechnicianLocationDTO current, TechnicianLocationDTO update) {
+        return update.getTimestamp().isBefore(current.getTimestamp()) ? current : update;
+    }
+    
+    /**
+     * @return the number of connected subscribers
+     */
+    public int getSubscriberCount() {
+        return subscribers.size();
+    }
+    
+    @Override
+    public void start() {
+        ScheduledThreadPoolExecutor timers = new ScheduledThreadPoolExecutor(1, daemonThreads("location-stream-scheduler-"));
+        // Send timeouts are cancelled as soon as the send returns
+        timers.setRemoveOnCancelPolicy(true);
+        scheduler = timers;
+        // Keeps senderThreads threads; more are started while sends to slow subscribers are blocked
+        senders = new ThreadPoolExecutor(properties.getSenderThreads(), Integer.MAX_VALUE,
+                60, TimeUnit.SECONDS, new SynchronousQueue<>(), daemonThreads("location-stream-"));
+        running = true;
+    }
+    
+    private static ThreadFactory daemonThreads(String namePrefix) {
+        AtomicInteger threadNumber = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, namePrefix + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+    
+    /**
+     * Closes every subscription so that open streams do not hold up a graceful shutdown.
+     * Runs before the web server starts its graceful shutdown (default phase).
+     */
+    @Override
+    public void stop() {
+        running = false;
+        ScheduledExecutorService currentScheduler = scheduler;
+        ExecutorService currentSenders = senders;
+        scheduler = null;
+        senders = null;
+        if (currentScheduler != null) {
+            currentScheduler.shutdownNow();
+        }
+        for (Subscriber subscriber : subscribers) {
+            remove(subscriber);
+            if (currentSenders != null) {
+                // A subscriber with a blocked send must not hold up the shutdown
+                currentSenders.execute(subscriber.emitter::complete);
+            } else {
+                subscriber.emitter.complete();
+            }
+        }
+        if (currentSenders != null) {
+            currentSenders.shutdown();
+        }
+    }
+    
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+    
+    /**
+     * One connected stream with its conflating buffer of pending updates.
+     */
+    static final class Subscriber {
+        
+        final SseEmitter emitter;
+        
+        /**
+         * Pending updates keyed by technician ID; holds at most one update per technician
+         */
+        final Map<Long, TechnicianLocationDTO> pending = new ConcurrentHashMap<>();
+        
+        final AtomicBoolean flushScheduled = new AtomicBoolean();
+        
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+        
+        /**
+         * Adds an update, replacing any older pending update for the same technician.
+         * 
+         * @param update the update to send
+         * @return true if the caller must schedule a flush
+         */
+        boolean offer(TechnicianLocationDTO update) {
+            pending.merge(update.getTechnicianId(), update, LocationStreamService::newer);
+            return flushScheduled.compareAndSet(false, true);
+        }
+    }
+}
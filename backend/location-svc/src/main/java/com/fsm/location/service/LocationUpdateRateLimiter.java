@@ -0,0 +1,86 @@
+package com.fsm.location.service;
+
+import com.fsm.location.infrastructure.config.RateLimitProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.jctools.maps.NonBlockingHashMapLong;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * In-memory token bucket limiting how often each technician may update their location.
+ * 
+ * Implemented as a generic cell rate algorithm (GCRA), which behaves exactly like a
+ * token bucket of size {@code burst} refilled every {@code refillInterval}, but keeps a
+ * single long per technician: the theoretical arrival time (TAT) at which the bucket
+ * is full again. A permit is granted by advancing the TAT with compare-and-set, so two
+ * concurrent requests from the same device can never both take the last token, and
+ * no lock or database round trip is involved. Rejections return the time to wait
+ * instead of throwing.
+ * 
+ * Domain Invariants:
+ * - At most {@code burst} permits are granted within any {@code refillInterval} window
+ *   after the bucket was full, and one more per elapsed interval after that
+ * - Limiter state is per instance and lost on restart (every technician starts with a full bucket)
+ */
+@Component
+public class LocationUpdateRateLimiter {
+    
+    private final NonBlockingHashMapLong<AtomicLong> theoreticalArrivalTimes = new NonBlockingHashMapLong<>();
+    
+    private final long intervalNanos;
+    private final long burstToleranceNanos;
+    private final LongSupplier nanoClock;
+    private final Counter rejectedCounter;
+    
+    @Autowired
+    public LocationUpdateRateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry) {
+        this(properties, meterRegistry, System::nanoTime);
+    }
+    
+    LocationUpdateRateLimiter(RateLimitProperties properties, MeterRegistry meterRegistry, LongSupplier nanoClock) {
+        if (properties.getBurst() < 1) {
+            throw new IllegalArgumentException("location.rate-limit.burst must be at least 1");
+        }
+        this.intervalNanos = properties.getRefillInterval().toNanos();
+        this.burstToleranceNanos = (properties.getBurst() - 1) * intervalNanos;
+        this.nanoClock = nanoClock;
+        this.rejectedCounter = Counter.builder("location.ingest.rate_limited")
+                .description("Location updates rejected by the per-technician rate limit")
+                .register(meterRegistry);
+    }
+    
+    /**
+     * Takes one token from the technician's bucket if available.
+     * 
+     * @param technicianId the ID of the technician
+     * @return 0 if the update is permitted, otherwise the nanoseconds until a token is available
+     */
+    public long tryAcquire(long technicianId) {
+        long now = nanoClock.getAsLong();
+        AtomicLong tat = theoreticalArrivalTimes.get(technicianId);
+        if (tat == null) {
+            AtomicLong created = new AtomicLong(now);
+            tat = theoreticalArrivalTimes.putIfAbsent(technicianId, created);
+            if (tat == null) {
+                tat = created;
+            }
+        }
+        while (true) {
+            long current = tat.get();
+            // nanoTime values may wrap, so compare by difference
+            long start = current - now < 0 ? now : current;
+            long waitNanos = start - now - burstToleranceNanos;
+            if (waitNanos > 0) {
+                rejectedCounter.increment();
+                return waitNanos;
+            }
+            if (tat.compareAndSet(current, start + intervalNanos)) {
+                return 0;
+            }
+        }
+    }
+}
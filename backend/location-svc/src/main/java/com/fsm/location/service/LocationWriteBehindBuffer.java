@@ -0,0 +1,321 @@
+package com.fsm.location.service;
+
+import com.fsm.location.domain.model.LocationFix;
+import com.fsm.location.domain.model.TechnicianLocation;
+import com.fsm.location.domain.repository.LocationRepository;
+import com.fsm.location.domain.repository.TechnicianCurrentLocationRepository;
+import com.fsm.location.infrastructure.config.WriteBehindProperties;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+
+/**
+ * Write-behind buffer for technician location updates.
+ * 
+ * When enabled, accepted updates are queued in a bounded ring buffer and a dedicated
+ * writer thread persists them in batches, flushing whenever {@code batchSize} updates
+ * are queued or {@code flushInterval} has elapsed since the first queued update.
+ * This decouples request latency from database commit latency.
+ * 
+ * Domain Invariants:
+ * - The buffer never holds more than {@code capacity} updates
+ * - On graceful shutdown every queued update is flushed before the application stops
+ * - Queued updates are lost if the process dies before they are flushed
+ * - Updates that are dropped or fail to persist are taken back from the latest location registry
+ */
+@Component
+@Slf4j
+public class LocationWriteBehindBuffer implements SmartLifecycle {
+    
+    private final WriteBehindProperties properties;
+    private final LocationRepository locationRepository;
+    private final TechnicianCurrentLocationRepository currentLocationRepository;
+    private final LatestLocationRegistry latestLocationRegistry;
+    private final TransactionTemplate transactionTemplate;
+    private final BlockingQueue<TechnicianLocation> queue;
+    
+    /**
+     * Updates discarded by the DROP_OLDEST policy, taken back from the registry by the writer
+     */
+    private final Queue<TechnicianLocation> dropped = new ConcurrentLinkedQueue<>();
+    
+    private final Timer flushTimer;
+    private final DistributionSummary flushSize;
+    private final Counter rejectedCounter;
+    private final Counter droppedCounter;
+    private final Counter failedCounter;
+    
+    private volatile boolean running;
+    
+    /**
+     * Set on shutdown when the writer must stop after its current batch and leave the rest to the caller
+     */
+    private volatile boolean handedOver;
+    private Thread writerThread;
+    
+    public LocationWriteBehindBuffer(
+            WriteBehindProperties properties,
+            LocationRepository locationRepository,
+            TechnicianCurrentLocationRepository currentLocationRepository,
+            LatestLocationRegistry latestLocationRegistry,
+            PlatformTransactionManager transactionManager,
+            MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.locationRepository = locationRepository;
+        this.currentLocationRepository = currentLocationRepository;
+        this.latestLocationRegistry = latestLocationRegistry;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.queue = new ArrayBlockingQueue<>(properties.getCapacity());
+        
+        Gauge.builder("location.ingest.queue.depth", queue, BlockingQueue::size)
+                .description("Location updates waiting to be persisted")
+                .register(meterRegistry);
+        this.flushTimer = Timer.builder("location.ingest.flush.latency")
+                .description("Time to persist one batch of location updates")
+                .register(meterRegistry);
+        this.flushSize = DistributionSummary.builder("location.ingest.flush.size")
+                .description("Number of location updates persisted per batch")
+                .register(meterRegistry);
+        this.rejectedCounter = Counter.builder("location.ingest.buffer.rejected")
+                .description("Location updates rejected because the buffer was full")
+                .register(meterRegistry);
+        this.droppedCounter = Counter.builder("location.ingest.buffer.dropped")
+                .description("Queued location updates discarded to make room for newer ones")
+                .register(meterRegistry);
+        this.failedCounter = Counter.builder("location.ingest.flush.failed")
+                .description("Location updates lost because their batch failed to persist")
+                .register(meterRegistry);
+    }
+    
+    /**
+     * @return true if location updates should be queued instead of persisted synchronously
+     */
+    public boolean isEnabled() {
+        return properties.isEnabled();
+    }
+    
+    /**
+     * Queues a location update for asynchronous persistence,
+     * applying the configured backpressure policy when the buffer is full.
+     * 
+     * @param location the location to persist
+     * @return true if the update was queued, false if it was rejected
+     */
+    public boolean offer(TechnicianLocation location) {
+        boolean queued = switch (properties.getBackpressure()) {
+            case REJECT -> queue.offer(location);
+            case BLOCK -> offerWithTimeout(location);
+            case DROP_OLDEST -> offerDroppingOldest(location);
+        };
+        if (!queued) {
+            rejectedCounter.increment();
+        }
+        return queued;
+    }
+    
+    private boolean offerWithTimeout(TechnicianLocation location) {
+        try {
+            return queue.offer(location, properties.getOfferTimeout().toNanos(), TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+    }
+    
+    private boolean offerDroppingOldest(TechnicianLocation location) {
+        while (!queue.offer(location)) {
+            TechnicianLocation oldest = queue.poll();
+            if (oldest != null) {
+                dropped.add(oldest);
+                droppedCounter.increment();
+            }
+        }
+        return true;
+    }
+    
+    /**
+     * @return the number of queued location updates
+     */
+    public int size() {
+        return queue.size();
+    }
+    
+    @Override
+    public void start() {
+        if (!properties.isEnabled()) {
+            return;
+        }
+        running = true;
+        handedOver = false;
+        writerThread = new Thread(this::runWriter, "location-write-behind");
+        writerThread.setDaemon(true);
+        writerThread.start();
+        log.info("Write-behind location ingestion started: capacity={}, batchSize={}, flushInterval={}, backpressure={}",
+                 properties.getCapacity(), properties.getBatchSize(), properties.getFlushInterval(),
+                 properties.getBackpressure());
+    }
+    
+    /**
+     * Stops accepting new work and waits until the writer has flushed every queued update.
+     * If the writer does not finish within the shutdown timeout, it is stopped after its
+     * current batch and the rest is flushed on the calling thread.
+     */
+    @Override
+    public void stop() {
+        if (!running) {
+            return;
+        }
+        running = false;
+        log.info("Flushing {} queued location updates before shutdown", queue.size());
+        try {
+            writerThread.join(properties.getShutdownTimeout().toMillis());
+            if (writerThread.isAlive()) {
+                handedOver = true;
+                writerThread.join();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            log.warn("Interrupted while flushing, {} queued location updates are not persisted", queue.size());
+            return;
+        }
+        List<TechnicianLocation> remaining = new ArrayList<>();
+        while (queue.drainTo(remaining, properties.getBatchSize()) > 0) {
+            flush(remaining);
+            remaining.clear();
+        }
+        revertDropped();
+    }
+    
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+    
+    /**
+     * Stops after the web server (higher phases stop first), so no request can enqueue
+     * after the final flush, and before the datasource is closed.
+     */
+    @Override
+    public int getPhase() {
+        return 0;
+    }
+    
+    private void runWriter() {
+        long flushIntervalNanos = properties.getFlushInterval().toNanos();
+        int batchSize = properties.getBatchSize();
+        List<TechnicianLocation> batch = new ArrayList<>(batchSize);
+        
+        while ((running || !queue.isEmpty()) && !handedOver) {
+            try {
+                revertDropped();
+                TechnicianLocation first = queue.poll(flushIntervalNanos, TimeUnit.NANOSECONDS);
+                if (first == null) {
+                    continue;
+                }
+                batch.add(first);
+                long deadline = System.nanoTime() + flushIntervalNanos;
+                while (batch.size() < batchSize) {
+                    queue.drainTo(batch, batchSize - batch.size());
+                    long remainingNanos = deadline - System.nanoTime();
+                    if (batch.size() >= batchSize || remainingNanos <= 0 || !running) {
+                        break;
+                    }
+                    TechnicianLocation next = queue.poll(remainingNanos, TimeUnit.NANOSECONDS);
+                    if (next == null) {
+                        break;
+                    }
+                    batch.add(next);
+                }
+                flush(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                flush(batch);
+                return;
+            } finally {
+                batch.clear();
+            }
+        }
+    }
+    
+    /**
+     * Persists one batch in a single transaction, together with the current location
+     * of each technician in the batch, and records the persisted fixes (now carrying
+     * their IDs) in the latest location registry. If the transaction fails, the fixes
+     * of the batch are taken back from the registry.
+     * 
+     * @param batch the location updates to persist
+     */
+    void flush(List<TechnicianLocation> batch) {
+        if (batch.isEmpty()) {
+            return;
+        }
+        try {
+            List<TechnicianLocation> saved = flushTimer.recordCallable(
+                    () -> transactionTemplate.execute(status -> {
+                        List<TechnicianLocation> persisted = locationRepository.saveAll(batch);
+                        currentLocationRepository.upsertLatest(persisted);
+                        return persisted;
+                    }));
+            flushSize.record(batch.size());
+            if (saved != null) {
+                saved.forEach(location -> latestLocationRegistry.record(LocationFix.from(location)));
+            }
+            log.debug("Flushed {} location updates", batch.size());
+        } catch (Exception e) {
+            failedCounter.increment(batch.size());
+            log.error("Failed to persist batch of {} location updates", batch.size(), e);
+            revert(batch);
+        }
+    }
+    
+    private void revertDropped() {
+        List<TechnicianLocation> lost = new ArrayList<>();
+        for (TechnicianLocation location = dropped.poll(); location != null; location = dropped.poll()) {
+            lost.add(location);
+        }
+        revert(lost);
+    }
+    
+    /**
+     * Takes back fixes that will never be persisted from the latest location registry,
+     * restoring the current location stored for their technicians.
+     */
+    private void revert(Collection<TechnicianLocation> lost) {
+        if (lost.isEmpty()) {
+            return;
+        }
+        List<LocationFix> fixes = lost.stream().map(LocationFix::from).collect(Collectors.toList());
+        latestLocationRegistry.revert(fixes, this::findPersistedFixes);
+    }
+    
+    private Map<Long, LocationFix> findPersistedFixes(Set<Long> technicianIds) {
+        Map<Long, LocationFix> persisted = new HashMap<>();
+        try {
+            currentLocationRepository.findAllById(technicianIds)
+                    .forEach(current -> persisted.put(current.getTechnicianId(), LocationFix.from(current)));
+        } catch (Exception e) {
+            log.warn("Could not load the current location of {} technicians", technicianIds.size(), e);
+        }
+        return persisted;
+    }
+}
@@ -0,0 +1,261 @@
+package com.fsm.location.service;
+
+import com.fsm.location.api.dto.MapViewResponse;
+import com.fsm.location.api.dto.TechnicianClusterDTO;
+import com.fsm.location.api.dto.TechnicianLocationDTO;
+import com.fsm.location.domain.model.LocationFix;
+import com.fsm.location.domain.model.PresenceStatus;
+import com.fsm.location.infrastructure.config.MapViewProperties;
+import com.fsm.location.service.exception.InvalidViewportException;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Service for dispatcher map viewports.
+ * 
+ * Returns only the active technicians inside the requested bounding box, answered from
+ * the in-memory {@link TechnicianSpatialIndex}. Below {@code individualMinZoom}, or when a
+ * viewport holds more than {@code maxTechnicians}, technicians are aggregated on a Web
+ * Mercator grid into clusters with a count and centroid, so the response size depends on
+ * the viewport rather than on the fleet size.
+ * 
+ * Domain Invariants:
+ * - Only active technicians (latest fix not older than 15 minutes) are returned
+ * - Every active technician in the viewport is counted exactly once, individually or in a cluster
+ * - A clustered response never holds more entries than the grid has cells ({@code maxCells})
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class MapViewService {
+    
+    /**
+     * Stale location threshold: locations older than this are considered stale (in minutes).
+     */
+    private static final int STALE_LOCATION_MINUTES = 15;
+    
+    /**
+     * Latitude limit of the Web Mercator projection used by map tiles.
+     */
+    private static final double MAX_MERCATOR_LATITUDE = 85.05112878;
+    
+    private static final int TILE_PIXELS = 256;
+    
+    private final TechnicianSpatialIndex spatialIndex;
+    
+    private final MapViewProperties properties;
+    
+    private final LocationMetrics metrics;
+    
+    private final TechnicianProfileCache technicianProfileCache;
+    
+    private final PresenceTracker presenceTracker;
+    
+    /**
+     * Gets the active technicians in a map viewport, clustered at low zoom.
+     * A viewport with {@code minLongitude > maxLongitude} crosses the antimeridian.
+     * 
+     * @param minLongitude the western edge of the viewport
+     * @param minLatitude the southern edge of the viewport
+     * @param maxLongitude the eastern edge of the viewport
+     * @param maxLatitude the northern edge of the viewport
+     * @param zoom the map zoom level (0 shows the whole world in one 256-pixel tile)
+     * @return the technicians and clusters to draw
+     * @throws InvalidViewportException if the viewport is out of range
+     */
+    public MapViewResponse getMapView(double minLongitude, double minLatitude,
+                                      double maxLongitude, double maxLatitude, int zoom) {
+        validateViewport(minLongitude, minLatitude, maxLongitude, maxLatitude);
+        return metrics.getViewportReadTimer().record(
+                () -> queryMapView(minLongitude, minLatitude, maxLongitude, maxLatitude, zoom));
+    }
+    
+    private MapViewResponse queryMapView(double minLongitude, double minLatitude,
+                                         double maxLongitude, double maxLatitude, int zoom) {
+        LocalDateTime staleThreshold = LocalDateTime.now().minusMinutes(STALE_LOCATION_MINUTES);
+        Grid grid = gridFor(minLongitude, minLatitude, maxLongitude, maxLatitude, zoom);
+        
+        if (zoom < properties.getIndividualMinZoom()) {
+            spatialIndex.forEachWithin(minLatitude, minLongitude, maxLatitude, maxLongitude, staleThreshold, grid);
+            return grid.toResponse(zoom, this::toDTOs);
+        }
+        
+        List<LocationFix> fixes = new ArrayList<>();
+        spatialIndex.forEachWithin(minLatitude, minLongitude, maxLatitude, maxLongitude, staleThreshold, fixes::add);
+        if (fixes.size() > properties.getMaxTechnicians()) {
+            log.debug("{} technicians in viewport at zoom {}, clustering", fixes.size(), zoom);
+            fixes.forEach(grid);
+            return grid.toResponse(zoom, this::toDTOs);
+        }
+        
+        fixes.sort(Comparator.comparingLong(LocationFix::getTechnicianId));
+        List<TechnicianLocationDTO> technicians = toDTOs(fixes);
+        return MapViewResponse.builder()
+                .zoom(zoom)
+                .clustered(false)
+                .total(technicians.size())
+                .technicians(technicians)
+                .clusters(List.of())
+                .build();
+    }
+    
+    /**
+     * Converts fixes to DTOs, looking up the technicians' names in one batch.
+     */
+    private List<TechnicianLocationDTO> toDTOs(List<LocationFix> fixes) {
+        Map<Long, String> names = technicianProfileCache.getNames(fixes.stream()
+                .map(LocationFix::getTechnicianId)
+                .collect(Collectors.toSet()));
+        return fixes.stream()
+                .map(fix -> TechnicianLocationDTO.from(fix, statusOf(fix), names.get(fix.getTechnicianId())))
+                .toList();
+    }
+    
+    /**
+     * Looks up a technician's status in the {@link PresenceTracker}, as for the technician map;
+     * for technicians it does not know yet it is derived from the fix's freshness.
+     */
+    private PresenceStatus statusOf(LocationFix fix) {
+        return presenceTracker.find(fix.getTechnicianId())
+                .orElseGet(() -> fix.isRecent() ? PresenceStatus.AVAILABLE : PresenceStatus.BUSY);
+    }
+    
+    private static void validateViewport(double minLongitude, double minLatitude,
+                                         double maxLongitude, double maxLatitude) {
+        if (!isBetween(minLatitude, -90.0, 90.0) || !isBetween(maxLatitude, -90.0, 90.0)) {
+            throw new InvalidViewportException("Viewport latitudes must be between -90 and 90");
+        }
+        if (!isBetween(minLongitude, -180.0, 180.0) || !isBetween(maxLongitude, -180.0, 180.0)) {
+            throw new InvalidViewportException("Viewport longitudes must be between -180 and 180");
+        }
+        if (minLatitude > maxLatitude) {
+            throw new InvalidViewportException("Viewport minLat must not be greater than maxLat");
+        }
+    }
+    
+    private static boolean isBetween(double value, double min, double max) {
+        return value >= min && value <= max; // false for NaN
+    }
+    
+    /**
+     * Chooses the clustering grid for a viewport: cells of {@code clusterCellPixels} at the
+     * requested zoom, halved in resolution until the viewport covers at most {@code maxCells}.
+     */
+    private Grid gridFor(double minLongitude, double minLatitude, double maxLongitude, double maxLatitude,
+                         int zoom) {
+        double width = minLongitude <= maxLongitude
+                ? (maxLongitude - minLongitude) / 360.0
+                : (maxLongitude + 360.0 - minLongitude) / 360.0;
+        double height = mercatorY(minLatitude) - mercatorY(maxLatitude);
+        
+        long cellsPerTile = Math.max(1, TILE_PIXELS / properties.getClusterCellPixels());
+        long cellsPerSide = (1L << zoom) * cellsPerTile;
+        while (cellsPerSide > 1
+                && (Math.floor(width * cellsPerSide) + 1) * (Math.floor(height * cellsPerSide) + 1)
+                        > properties.getMaxCells()) {
+            cellsPerSide /= 2;
+        }
+        return new Grid(cellsPerSide, this::statusOf);
+    }
+    
+    /**
+     * Web Mercator y of a latitude, from 0 at the northern to 1 at the southern edge of the map.
+     */
+    private static double mercatorY(double latitude) {
+        double clamped = Math.max(-MAX_MERCATOR_LATITUDE, Math.min(MAX_MERCATOR_LATITUDE, latitude));
+        double sin = Math.sin(Math.toRadians(clamped));
+        return 0.5 - Math.log((1 + sin) / (1 - sin)) / (4 * Math.PI);
+    }
+    
+    /**
+     * Square Web Mercator grid covering the world with {@code cellsPerSide} x {@code cellsPerSide}
+     * cells, accumulating the technicians of each cell.
+     */
+    private static final class Grid implements Consumer<LocationFix> {
+        
+        private final long cellsPerSide;
+        private final Function<LocationFix, PresenceStatus> statuses;
+        private final Map<Long, Cell> cells = new HashMap<>();
+        
+        Grid(long cellsPerSide, Function<LocationFix, PresenceStatus> statuses) {
+            this.cellsPerSide = cellsPerSide;
+            this.statuses = statuses;
+        }
+        
+        @Override
+        public void accept(LocationFix fix) {
+            long column = clamp((long) Math.floor((fix.getLongitude() + 180.0) / 360.0 * cellsPerSide));
+            long row = clamp((long) Math.floor(mercatorY(fix.getLatitude()) * cellsPerSide));
+            cells.computeIfAbsent(row * cellsPerSide + column, key -> new Cell()).add(fix, statuses.apply(fix));
+        }
+        
+        private long clamp(long index) {
+            return Math.max(0, Math.min(cellsPerSide - 1, index));
+        }
+        
+        MapViewResponse toResponse(int zoom, Function<List<LocationFix>, List<TechnicianLocationDTO>> toDTOs) {
+            List<LocationFix> singles = new ArrayList<>();
+            List<TechnicianClusterDTO> clusters = new ArrayList<>();
+            int total = 0;
+            List<Map.Entry<Long, Cell>> ordered = new ArrayList<>(cells.entrySet());
+            ordered.sort(Map.Entry.comparingByKey());
+            for (Map.Entry<Long, Cell> entry : ordered) {
+                Cell cell = entry.getValue();
+                total += cell.count;
+                if (cell.count == 1) {
+                    singles.add(cell.first);
+                } else {
+                    clusters.add(cell.toCluster());
+                }
+            }
+            return MapViewResponse.builder()
+                    .zoom(zoom)
+                    .clustered(true)
+                    .total(total)
+                    .technicians(toDTOs.apply(singles))
+                    .clusters(clusters)
+                    .build();
+        }
+    }
+    
+    private static final class Cell {
+        
+        private LocationFix first;
+        private int count;
+        private int availableCount;
+        private double latitudeSum;
+        private double longitudeSum;
+        
+        void add(LocationFix fix, PresenceStatus status) {
+            if (first == null) {
+                first = fix;
+            }
+            count++;
+            if (status == PresenceStatus.AVAILABLE) {
+                availableCount++;
+            }
+            latitudeSum += fix.getLatitude();
+            longitudeSum += fix.getLongitude();
+        }
+        
+        TechnicianClusterDTO toCluster() {
+            return TechnicianClusterDTO.builder()
+                    .latitude(latitudeSum / count)
+                    .longitude(longitudeSum / count)
+                    .count(count)
+                    .availableCount(availableCount)
+                    .build();
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package com.fsm.location.service;
+
+import com.fsm.location.domain.model.TechnicianProfile;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Local stand-in for identity-svc: names every technician "Technician {id}".
+ * Used unless {@code location.technician-profiles.source=IDENTITY_SERVICE}.
+ */
+@Component
+@ConditionalOnProperty(prefix = "location.technician-profiles", name = "source",
+        havingValue = "PLACEHOLDER", matchIfMissing = true)
+public class PlaceholderTechnicianDirectory implements TechnicianDirectory {
+    
+    @Override
+    public Map<Long, TechnicianProfile> findProfiles(Set<Long> technicianIds) {
+        return technicianIds.stream()
+                .collect(Collectors.toMap(Function.identity(), TechnicianProfile::placeholder));
+    }
+}
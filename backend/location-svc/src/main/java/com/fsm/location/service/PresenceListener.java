@@ -0,0 +1,23 @@
+package com.fsm.location.service;
+
+import com.fsm.location.domain.model.PresenceChange;
+
+/**
+ * Callback for components that follow technician presence transitions
+ * (available, busy, offline). Listeners register themselves with
+ * {@link PresenceTracker#addListener}.
+ * 
+ * Transitions caused by time passing are delivered on the presence timer thread,
+ * transitions caused by a new fix on the thread that recorded it, so implementations
+ * must be thread-safe and must not block. A transition may race with a newer fix;
+ * implementations should ignore changes whose fix is not the one they hold.
+ */
+public interface PresenceListener {
+    
+    /**
+     * Called after a technician's presence status changed.
+     * 
+     * @param change the status transition
+     */
+    void onPresenceChange(PresenceChange change);
+}
@@ -0,0 +1,384 @@
+package com.fsm.location.service;
+
+import com.fsm.location.domain.model.LocationFix;
+import com.fsm.location.domain.model.PresenceChange;
+import com.fsm.location.domain.model.PresenceStatus;
+import com.fsm.location.infrastructure.config.PresenceProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.jctools.maps.NonBlockingHashMapLong;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Tracks the presence status (available, busy, offline) of every technician and
+ * publishes a {@link PresenceChange} to every {@link PresenceListener} when it changes.
+ * 
+ * Each technician's next freshness deadline (5 minutes after their latest fix to become
+ * busy, 15 minutes to go offline) is scheduled on a hashed timing wheel: a ring of
+ * {@code ticksPerWheel} buckets advanced by a single thread every {@code tickDuration}.
+ * Scheduling and expiring a deadline are O(1), a tick only visits the technicians due in
+ * its bucket, and a newer fix simply supersedes the technician's pending deadline, which
+ * is discarded when its bucket is next visited. Status lookups are a single map read,
+ * so readers never derive status by scanning all technicians.
+ * 
+ * Domain Invariants:
+ * - Transitions caused by time passing are published at most one tick after the deadline
+ * - Only the technician's latest fix determines their status
+ * - A registry rebuild resets every status without publishing transitions
+ */
+@Component
+@Slf4j
+public class PresenceTracker implements LocationFixListener, SmartLifecycle {
+    
+    private static final long RECENT_MILLIS = LocationFix.RECENT_THRESHOLD.toMillis();
+    private static final long STALE_MILLIS = LocationFix.STALE_THRESHOLD.toMillis();
+    private static final long NO_DEADLINE = Long.MAX_VALUE;
+    
+    private final LatestLocationRegistry latestLocationRegistry;
+    private final LongSupplier clock;
+    private final ZoneId zone = ZoneId.systemDefault();
+    
+    private final NonBlockingHashMapLong<Presence> presences = new NonBlockingHashMapLong<>();
+    private final List<PresenceListener> listeners = new CopyOnWriteArrayList<>();
+    private final Map<PresenceStatus, AtomicLong> counts = new EnumMap<>(PresenceStatus.class);
+    
+    /**
+     * Deadlines scheduled by any thread, moved into the wheel by the wheel thread on its next tick
+     */
+    private final Queue<Presence> scheduled = new ConcurrentLinkedQueue<>();
+    
+    /**
+     * Buckets of the timing wheel; only accessed while holding this
+     */
+    private final List<List<Presence>> wheel;
+    private final int mask;
+    private final long tickMillis;
+    private final long startMillis;
+    private long tick;
+    
+    private volatile boolean running;
+    private Thread wheelThread;
+    
+    @Autowired
+    public PresenceTracker(PresenceProperties properties,
+                           LatestLocationRegistry latestLocationRegistry,
+                           MeterRegistry meterRegistry) {
+        this(properties, latestLocationRegistry, meterRegistry, System::currentTimeMillis);
+    }
+    
+    PresenceTracker(PresenceProperties properties,
+                    LatestLocationRegistry latestLocationRegistry,
+                    MeterRegistry meterRegistry,
+                    LongSupplier clock) {
+        if (properties.getTickDuration().toMillis() < 1 || properties.getTicksPerWheel() < 1) {
+            throw new IllegalArgumentException("Presence tick duration and ticks per wheel must be positive");
+        }
+        this.latestLocationRegistry = latestLocationRegistry;
+        this.clock = clock;
+        this.tickMillis = properties.getTickDuration().toMillis();
+        int size = Integer.highestOneBit(Math.max(1, properties.getTicksPerWheel() - 1)) << 1;
+        this.mask = size - 1;
+        this.wheel = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            wheel.add(new ArrayList<>());
+        }
+        this.startMillis = clock.getAsLong();
+        
+        for (PresenceStatus status : PresenceStatus.values()) {
+            AtomicLong count = new AtomicLong();
+            counts.put(status, count);
+            Gauge.builder("location.presence.technicians", count, AtomicLong::get)
+                    .description("Known technicians by presence status")
+                    .tag("status", status.getValue())
+                    .register(meterRegistry);
+        }
+        Gauge.builder("location.technicians.active", this, PresenceTracker::countActive)
+                .description("Technicians with a fix in the last 15 minutes (available or busy)")
+                .register(meterRegistry);
+    }
+    
+    /**
+     * Starts following the latest location registry.
+     */
+    @PostConstruct
+    public void registerWithRegistry() {
+        latestLocationRegistry.addListener(this);
+    }
+    
+    /**
+     * Registers a listener notified of every presence transition.
+     * 
+     * @param listener the presence listener
+     */
+    public void addListener(PresenceListener listener) {
+        listeners.add(listener);
+    }
+    
+    /**
+     * Gets the presence status of a technician.
+     * 
+     * @param technicianId the ID of the technician
+     * @return the current status; OFFLINE if the technician never reported
+     */
+    public PresenceStatus getStatus(long technicianId) {
+        Presence presence = presences.get(technicianId);
+        return presence != null ? presence.status : PresenceStatus.OFFLINE;
+    }
+    
+    /**
+     * Gets the presence status of a technician.
+     * 
+     * @param technicianId the ID of the technician
+     * @return the current status if the technician ever reported
+     */
+    public Optional<PresenceStatus> find(long technicianId) {
+        Presence presence = presences.get(technicianId);
+        return presence != null ? Optional.of(presence.status) : Optional.empty();
+    }
+    
+    /**
+     * @param status a presence status
+     * @return the number of technicians currently in that status
+     */
+    public long count(PresenceStatus status) {
+        return counts.get(status).get();
+    }
+    
+    /**
+     * @return the number of technicians currently available or busy
+     */
+    public long countActive() {
+        return count(PresenceStatus.AVAILABLE) + count(PresenceStatus.BUSY);
+    }
+    
+    @Override
+    public void onLocationFix(LocationFix fix) {
+        long technicianId = fix.getTechnicianId();
+        Presence next = newPresence(fix, clock.getAsLong());
+        while (true) {
+            Presence current = presences.get(technicianId);
+            if (current != null && current.fix.getTimestamp().isAfter(fix.getTimestamp())) {
+                return;
+            }
+            boolean swapped = current == null
+                    ? presences.putIfAbsent(technicianId, next) == null
+                    : presences.replace(technicianId, current, next);
+            if (swapped) {
+                PresenceStatus previous = current != null ? current.status : PresenceStatus.OFFLINE;
+                transitioned(current, next);
+                if (previous != next.status) {
+                    publish(next, previous);
+                }
+                return;
+            }
+        }
+    }
+    
+    @Override
+    public void onRegistryRebuilt(Collection<LocationFix> latestFixes) {
+        presences.clear();
+        counts.values().forEach(count -> count.set(0));
+        long now = clock.getAsLong();
+        for (LocationFix fix : latestFixes) {
+            Presence presence = newPresence(fix, now);
+            presences.put(fix.getTechnicianId(), presence);
+            transitioned(null, presence);
+        }
+    }
+    
+    /**
+     * Advances the timing wheel up to a point in time, publishing every transition that is due.
+     * Called by the wheel thread on every tick.
+     * 
+     * @param nowMillis the current time in epoch milliseconds
+     */
+    synchronized void advance(long nowMillis) {
+        while (startMillis + (tick + 1) * tickMillis <= nowMillis) {
+            transferScheduled();
+            expire(wheel.get((int) (tick & mask)), nowMillis);
+            tick++;
+        }
+    }
+    
+    private void transferScheduled() {
+        Presence presence;
+        while ((presence = scheduled.poll()) != null) {
+            if (presences.get(presence.technicianId) != presence) {
+                continue;
+            }
+            // The bucket of tick t is visited at startMillis + (t + 1) * tickMillis
+            long dueTick = presence.deadline <= startMillis
+                    ? tick
+                    : Math.max(tick, (presence.deadline - startMillis + tickMillis - 1) / tickMillis - 1);
+            presence.remainingRounds = (dueTick - tick) / wheel.size();
+            wheel.get((int) (dueTick & mask)).add(presence);
+        }
+    }
+    
+    private void expire(List<Presence> bucket, long nowMillis) {
+        int retained = 0;
+        List<Presence> due = new ArrayList<>();
+        for (Presence presence : bucket) {
+            if (presences.get(presence.technicianId) != presence) {
+                // Superseded by a newer fix or a rebuild
+                continue;
+            }
+            if (presence.remainingRounds > 0) {
+                presence.remainingRounds--;
+                bucket.set(retained++, presence);
+            } else {
+                due.add(presence);
+            }
+        }
+        bucket.subList(retained, bucket.size()).clear();
+        due.forEach(presence -> expire(presence, nowMillis));
+    }
+    
+    private void expire(Presence current, long nowMillis) {
+        PresenceStatus status = statusAt(current.fixMillis, nowMillis);
+        if (status == current.status) {
+            scheduled.add(current);
+            return;
+        }
+        Presence next = new Presence(current.fix, current.fixMillis, status);
+        if (presences.replace(current.technicianId, current, next)) {
+            transitioned(current, next);
+            publish(next, current.status);
+        }
+    }
+    
+    private Presence newPresence(LocationFix fix, long nowMillis) {
+        long fixMillis = fix.getTimestamp().atZone(zone).toInstant().toEpochMilli();
+        return new Presence(fix, fixMillis, statusAt(fixMillis, nowMillis));
+    }
+    
+    /**
+     * Updates the status counts and schedules the next deadline of a presence that replaced another.
+     */
+    private void transitioned(Presence previous, Presence next) {
+        if (previous != null) {
+            counts.get(previous.status).decrementAndGet();
+        }
+        counts.get(next.status).incrementAndGet();
+        if (next.deadline != NO_DEADLINE) {
+            scheduled.add(next);
+        }
+    }
+    
+    private void publish(Presence presence, PresenceStatus previous) {
+        PresenceChange change = PresenceChange.builder()
+                .technicianId(presence.technicianId)
+                .fix(presence.fix)
+                .previous(previous)
+                .current(presence.status)
+                .build();
+        for (PresenceListener listener : listeners) {
+            try {
+                listener.onPresenceChange(change);
+            } catch (RuntimeException e) {
+                log.error("Presence listener {} failed for {}", listener.getClass().getSimpleName(), change, e);
+            }
+        }
+    }
+    
+    /**
+     * Derives the status with the same thresholds as {@link LocationFix#derivePresence()}.
+     */
+    private static PresenceStatus statusAt(long fixMillis, long nowMillis) {
+        long age = nowMillis - fixMillis;
+        if (age > STALE_MILLIS) {
+            return PresenceStatus.OFFLINE;
+        }
+        return age < RECENT_MILLIS ? PresenceStatus.AVAILABLE : PresenceStatus.BUSY;
+    }
+    
+    @Override
+    public void start() {
+        running = true;
+        wheelThread = new Thread(this::runWheel, "location-presence-wheel");
+        wheelThread.setDaemon(true);
+        wheelThread.start();
+    }
+    
+    @Override
+    public void stop() {
+        running = false;
+        if (wheelThread != null) {
+            wheelThread.interrupt();
+        }
+    }
+    
+    @Override
+    public boolean isRunning() {
+        return running;
+    }
+    
+    private void runWheel() {
+        while (running) {
+            try {
+                long nextTickMillis;
+                synchronized (this) {
+                    nextTickMillis = startMillis + (tick + 1) * tickMillis;
+                }
+                long sleepMillis = nextTickMillis - clock.getAsLong();
+                if (sleepMillis > 0) {
+                    Thread.sleep(sleepMillis);
+                }
+                advance(clock.getAsLong());
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return;
+            } catch (RuntimeException e) {
+                log.error("Failed to advance the presence timing wheel", e);
+            }
+        }
+    }
+    
+    /**
+     * Status of one technician derived from their latest fix, and the wheel entry for its
+     * next deadline. Replaced, never modified, when the status or the fix changes.
+     */
+    private static final class Presence {
+        
+        private final long technicianId;
+        private final LocationFix fix;
+        private final long fixMillis;
+        private final PresenceStatus status;
+        private final long deadline;
+        
+        /**
+         * Wheel revolutions left before the deadline is due; only accessed by the wheel
+         */
+        private long remainingRounds;
+        
+        Presence(LocationFix fix, long fixMillis, PresenceStatus status) {
+            this.technicianId = fix.getTechnicianId();
+            this.fix = fix;
+            this.fixMillis = fixMillis;
+            this.status = status;
+            this.deadline = switch (status) {
+                case AVAILABLE -> fixMillis + RECENT_MILLIS;
+                case BUSY -> fixMillis + STALE_MILLIS + 1;
+                case OFFLINE -> NO_DEADLINE;
+            };
+        }
+    }
+}
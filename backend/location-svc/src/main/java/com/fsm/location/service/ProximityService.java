@@ -0,0 +1,153 @@
+package com.fsm.location.service;
+
+import com.fsm.location.api.dto.NearbyTechnicianDTO;
+import com.fsm.location.domain.model.LocationFix;
+import com.fsm.location.domain.model.NearbyTechnician;
+import com.fsm.location.domain.model.PresenceStatus;
+import com.fsm.location.domain.model.TechnicianLocation;
+import com.fsm.location.domain.repository.LocationRepository;
+import com.fsm.location.infrastructure.config.SpatialIndexProperties;
+import com.fsm.location.infrastructure.config.SpatialIndexProperties.Backend;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.locationtech.jts.geom.Coordinate;
+import org.locationtech.jts.geom.GeometryFactory;
+import org.locationtech.jts.geom.Point;
+import org.locationtech.jts.geom.PrecisionModel;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Service for proximity searches over the current positions of active technicians.
+ * Searches are answered by the in-memory {@link TechnicianSpatialIndex}, or by native
+ * PostGIS queries when {@code location.spatial.backend=POSTGIS}.
+ * 
+ * Domain Invariants:
+ * - Only active technicians (latest fix not older than 15 minutes) are returned
+ * - Results are ordered by distance from the search point (closest first)
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class ProximityService {
+    
+    // GeometryFactory with SRID 4326 (WGS84), matching TechnicianLocation
+    private static final GeometryFactory GEOMETRY_FACTORY =
+        new GeometryFactory(new PrecisionModel(), 4326);
+    
+    /**
+     * Stale location threshold: locations older than this are considered stale (in minutes).
+     */
+    private static final int STALE_LOCATION_MINUTES = 15;
+    
+    private final TechnicianSpatialIndex spatialIndex;
+    
+    private final LocationRepository locationRepository;
+    
+    private final SpatialIndexProperties properties;
+    
+    private final TechnicianProfileCache technicianProfileCache;
+    
+    private final PresenceTracker presenceTracker;
+    
+    /**
+     * Finds the active technicians within a radius of a point.
+     * 
+     * @param latitude the latitude of the search point
+     * @param longitude the longitude of the search point
+     * @param radiusMeters the search radius in meters
+     * @return the active technicians within the radius, closest first
+     */
+    public List<NearbyTechnicianDTO> findNearbyTechnicians(double latitude, double longitude, double radiusMeters) {
+        LocalDateTime staleThreshold = LocalDateTime.now().minusMinutes(STALE_LOCATION_MINUTES);
+        
+        List<NearbyTechnician> nearby;
+        if (properties.getBackend() == Backend.POSTGIS) {
+            Point point = GEOMETRY_FACTORY.createPoint(new Coordinate(longitude, latitude));
+            nearby = toNearbyTechnicians(
+                    locationRepository.findActiveTechniciansWithinRadius(point, radiusMeters, staleThreshold),
+                    latitude, longitude);
+        } else {
+            nearby = spatialIndex.findWithinRadius(latitude, longitude, radiusMeters, staleThreshold);
+        }
+        
+        log.debug("Found {} active technicians within {}m of ({}, {})",
+                  nearby.size(), radiusMeters, latitude, longitude);
+        
+        return convertToDTOs(nearby);
+    }
+    
+    /**
+     * Finds the k active technicians closest to a point (e.g. a job site).
+     * On the PostGIS backend this uses the index-assisted {@code <->} operator;
+     * otherwise the in-memory spatial index.
+     * 
+     * @param latitude the latitude of the search point
+     * @param longitude the longitude of the search point
+     * @param k the maximum number of technicians to return
+     * @return up to k active technicians, closest first
+     */
+    public List<NearbyTechnicianDTO> findNearestTechnicians(double latitude, double longitude, int k) {
+        LocalDateTime staleThreshold = LocalDateTime.now().minusMinutes(STALE_LOCATION_MINUTES);
+        
+        List<NearbyTechnician> nearest;
+        if (properties.getBackend() == Backend.POSTGIS) {
+            Point point = GEOMETRY_FACTORY.createPoint(new Coordinate(longitude, latitude));
+            nearest = toNearbyTechnicians(
+                    locationRepository.findNearestActiveTechnicians(point, staleThreshold, k), latitude, longitude);
+        } else {
+            nearest = spatialIndex.findNearest(latitude, longitude, k, staleThreshold);
+        }
+        
+        log.debug("Found {} nearest active technicians to ({}, {})", nearest.size(), latitude, longitude);
+        
+        return convertToDTOs(nearest);
+    }
+    
+    private static List<NearbyTechnician> toNearbyTechnicians(List<TechnicianLocation> locations,
+                                                              double latitude, double longitude) {
+        return locations.stream()
+                .map(LocationFix::from)
+                .map(fix -> new NearbyTechnician(fix, fix.distanceMetersTo(latitude, longitude)))
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * Converts search results to DTOs, looking up the technicians' names in one batch.
+     */
+    private List<NearbyTechnicianDTO> convertToDTOs(List<NearbyTechnician> technicians) {
+        Map<Long, String> names = technicianProfileCache.getNames(technicians.stream()
+                .map(nearby -> nearby.getFix().getTechnicianId())
+                .collect(Collectors.toSet()));
+        return technicians.stream()
+                .map(nearby -> convertToDTO(nearby, names.get(nearby.getFix().getTechnicianId())))
+                .collect(Collectors.toList());
+    }
+    
+    /**
+     * Converts a search result to a DTO. The status is looked up in the {@link PresenceTracker},
+     * as for the technician map; for technicians it does not know yet it is derived from the
+     * fix's freshness.
+     */
+    private NearbyTechnicianDTO convertToDTO(NearbyTechnician nearby, String name) {
+        LocationFix fix = nearby.getFix();
+        String status = presenceTracker.find(fix.getTechnicianId())
+                .map(PresenceStatus::getValue)
+                .orElseGet(() -> fix.isRecent() ? "available" : "busy");
+        return NearbyTechnicianDTO.builder()
+                .technicianId(fix.getTechnicianId())
+                .name(name)
+                .status(status)
+                .latitude(fix.getLatitude())
+                .longitude(fix.getLongitude())
+                .accuracy(fix.getAccuracy())
+                .timestamp(fix.getTimestamp())
+                .batteryLevel(fix.getBatteryLevel())
+                .distanceMeters(nearby.getDistanceMeters())
+                .build();
+    }
+}
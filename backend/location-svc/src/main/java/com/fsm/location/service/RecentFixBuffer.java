@@ -0,0 +1,269 @@
+package com.fsm.location.service;
+
+import com.fsm.location.domain.model.LocationFix;
+import com.fsm.location.domain.model.Trail;
+import com.fsm.location.infrastructure.config.TrailProperties;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import org.jctools.maps.NonBlockingHashMapLong;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.Collection;
+
+/**
+ * In-memory ring buffer of the most recent fixes of every technician, for short trail
+ * queries ("where has this technician been in the last 30 minutes") without the database.
+ * 
+ * Each technician's fixes are kept in parallel primitive arrays of a fixed capacity
+ * (latitude, longitude, epoch millis, accuracy and battery level: 29 bytes per fix), so the
+ * memory per technician is bounded and no object is kept per fix. The buffer follows the
+ * {@link LatestLocationRegistry} as a {@link LocationFixListener}; fixes that become known
+ * otherwise (offline batches) are added by {@link LocationService}.
+ * 
+ * Every ring knows the time from which it holds every persisted fix of its technician: the
+ * first fix it received, pushed forward whenever the oldest fix is overwritten or an older
+ * fix arrives out of order. Trails starting before that time are not answered from memory.
+ * 
+ * Domain Invariants:
+ * - A ring holds at most {@code recentFixes} fixes, oldest overwritten first
+ * - Fixes are kept in timestamp order; heartbeats and persisted copies of a held fix are not added
+ * - A trail is only answered if every fix of its range is held
+ */
+@Component
+public class RecentFixBuffer implements LocationFixListener {
+    
+    /**
+     * Bytes per fix: latitude, longitude, epoch millis, accuracy and battery level
+     */
+    private static final int BYTES_PER_FIX = Double.BYTES * 2 + Long.BYTES + Float.BYTES + Byte.BYTES;
+    
+    /**
+     * Approximate bytes per ring besides its fixes: the ring, five array headers and the map entry
+     */
+    private static final int BYTES_PER_RING = 48 + 5 * 16 + 32;
+    
+    private static final long NO_LOCATION_ID = -1;
+    
+    private static final byte NO_BATTERY_LEVEL = -1;
+    
+    private final LatestLocationRegistry latestLocationRegistry;
+    private final int capacity;
+    
+    private final NonBlockingHashMapLong<FixRing> rings = new NonBlockingHashMapLong<>();
+    
+    public RecentFixBuffer(TrailProperties properties,
+                           LatestLocationRegistry latestLocationRegistry,
+                           MeterRegistry meterRegistry) {
+        if (properties.getRecentFixes() < 0) {
+            throw new IllegalArgumentException("location.trail.recent-fixes must not be negative");
+        }
+        this.latestLocationRegistry = latestLocationRegistry;
+        this.capacity = properties.getRecentFixes();
+        
+        Gauge.builder("location.trail.recent.technicians", rings, NonBlockingHashMapLong::size)
+                .description("Technicians with recent fixes held in memory")
+                .register(meterRegistry);
+        Gauge.builder("location.trail.recent.memory", this, RecentFixBuffer::estimatedBytes)
+                .description("Approximate memory held by the recent fix ring buffers")
+                .baseUnit("bytes")
+                .register(meterRegistry);
+    }
+    
+    /**
+     * Starts following the latest location registry, unless no recent fixes are kept.
+     */
+    @PostConstruct
+    public void registerWithRegistry() {
+        if (capacity > 0) {
+            latestLocationRegistry.addListener(this);
+        }
+    }
+    
+    @Override
+    public void onLocationFix(LocationFix fix) {
+        if (capacity == 0) {
+            return;
+        }
+        FixRing ring = rings.get(fix.getTechnicianId());
+        if (ring == null) {
+            FixRing created = new FixRing(capacity);
+            FixRing existing = rings.putIfAbsent(fix.getTechnicianId(), created);
+            ring = existing != null ? existing : created;
+        }
+        synchronized (ring) {
+            ring.add(fix);
+        }
+    }
+    
+    /**
+     * Remembers the location ID of a held write-behind fix, to recognize its heartbeats.
+     */
+    @Override
+    public void onLocationPersisted(LocationFix fix) {
+        onLocationFix(fix);
+    }
+    
+    /**
+     * Starts over: fixes recorded before the rebuild are only served from the database.
+     */
+    @Override
+    public void onRegistryRebuilt(Collection<LocationFix> latestFixes) {
+        rings.clear();
+    }
+    
+    /**
+     * Gets a technician's trail over a time range from memory.
+     * 
+     * @param technicianId the ID of the technician
+     * @param from the start of the time range (inclusive)
+     * @param to the end of the time range (exclusive)
+     * @return the trail, or null if the buffer does not hold every fix of the range
+     */
+    public Trail getTrail(long technicianId, LocalDateTime from, LocalDateTime to) {
+        FixRing ring = rings.get(technicianId);
+        if (ring == null) {
+            return null;
+        }
+        long fromMillis = toEpochMillis(from);
+        long toMillis = toEpochMillis(to);
+        synchronized (ring) {
+            return ring.trail(fromMillis, toMillis);
+        }
+    }
+    
+    /**
+     * @return the number of fixes kept per technician
+     */
+    public int getCapacity() {
+        return capacity;
+    }
+    
+    /**
+     * @return the approximate memory held per technician, in bytes
+     */
+    public long bytesPerTechnician() {
+        return BYTES_PER_RING + (long) capacity * BYTES_PER_FIX;
+    }
+    
+    /**
+     * @return the approximate memory held by all ring buffers, in bytes
+     */
+    public long estimatedBytes() {
+        return rings.size() * bytesPerTechnician();
+    }
+    
+    private static long toEpochMillis(LocalDateTime timestamp) {
+        return timestamp.toInstant(ZoneOffset.UTC).toEpochMilli();
+    }
+    
+    /**
+     * Recent fixes of one technician; guarded by its own monitor.
+     */
+    private static final class FixRing {
+        
+        private final double[] latitudes;
+        private final double[] longitudes;
+        private final long[] epochMillis;
+        private final float[] accuracies;
+        private final byte[] batteryLevels;
+        
+        /**
+         * Index of the oldest fix
+         */
+        private int head;
+        private int size;
+        
+        /**
+         * Every persisted fix at or after this time is held
+         */
+        private long coveredFromMillis = Long.MAX_VALUE;
+        
+        /**
+         * Location ID of the newest fix, to recognize heartbeats repeating it
+         */
+        private long newestLocationId = NO_LOCATION_ID;
+        
+        FixRing(int capacity) {
+            latitudes = new double[capacity];
+            longitudes = new double[capacity];
+            epochMillis = new long[capacity];
+            accuracies = new float[capacity];
+            batteryLevels = new byte[capacity];
+        }
+        
+        void add(LocationFix fix) {
+            long millis = toEpochMillis(fix.getTimestamp());
+            long locationId = fix.getLocationId() != null ? fix.getLocationId() : NO_LOCATION_ID;
+            if (size > 0) {
+                long newestMillis = epochMillis[index(size - 1)];
+                if (millis == newestMillis) {
+                    // The persisted copy of a queued fix
+                    if (locationId != NO_LOCATION_ID) {
+                        newestLocationId = locationId;
+                    }
+                    return;
+                }
+                if (locationId != NO_LOCATION_ID && locationId == newestLocationId) {
+                    // A heartbeat of a technician who has not moved
+                    return;
+                }
+                if (millis < newestMillis) {
+                    // Out of order: only the fixes after it are known to be complete
+                    coveredFromMillis = Math.max(coveredFromMillis, millis + 1);
+                    return;
+                }
+            } else if (coveredFromMillis == Long.MAX_VALUE) {
+                coveredFromMillis = millis;
+            }
+            
+            int slot;
+            if (size == latitudes.length) {
+                slot = head;
+                head = index(1);
+                coveredFromMillis = Math.max(coveredFromMillis, epochMillis[slot] + 1);
+            } else {
+                slot = index(size);
+                size++;
+            }
+            latitudes[slot] = fix.getLatitude();
+            longitudes[slot] = fix.getLongitude();
+            epochMillis[slot] = millis;
+            accuracies[slot] = (float) fix.getAccuracy();
+            batteryLevels[slot] = fix.getBatteryLevel() != null
+                    ? fix.getBatteryLevel().byteValue()
+                    : NO_BATTERY_LEVEL;
+            newestLocationId = locationId;
+        }
+        
+        Trail trail(long fromMillis, long toMillis) {
+            if (fromMillis < coveredFromMillis) {
+                return null;
+            }
+            int first = 0;
+            while (first < size && epochMillis[index(first)] < fromMillis) {
+                first++;
+            }
+            int last = first;
+            while (last < size && epochMillis[index(last)] < toMillis) {
+                last++;
+            }
+            Trail trail = new Trail(last - first);
+            for (int i = first; i < last; i++) {
+                int slot = index(i);
+                trail.add(latitudes[slot], longitudes[slot], Math.floorDiv(epochMillis[slot], 1000L));
+            }
+            return trail;
+        }
+        
+        /**
+         * @return the array slot of the i-th oldest fix
+         */
+        private int index(int i) {
+            int slot = head + i;
+            return slot < latitudes.length ? slot : slot - latitudes.length;
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.fsm.location.service;
+
+import com.fsm.location.domain.model.LocationFix;
+import com.fsm.location.infrastructure.config.RateLimitProperties;
+import com.fsm.location.infrastructure.config.ReportingIntervalProperties;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Recommends when a technician's device should report its next location.
+ * 
+ * Instead of every device reporting on the same fixed schedule, the server shapes inbound
+ * load: the speed is estimated from the technician's previous fix in the
+ * {@link LatestLocationRegistry}, and moving technicians near a geofence (job site) report
+ * most often so that arrivals are detected promptly, while idle technicians and devices
+ * with a low battery report least often.
+ * 
+ * Domain Invariants:
+ * - A recommendation is never shorter than the rate limit refill interval, so following it
+ *   never gets an update rejected
+ * - A recommendation never exceeds {@code maxInterval}, which keeps technicians available
+ */
+@Component
+public class ReportingIntervalAdvisor {
+    
+    private final LatestLocationRegistry latestLocationRegistry;
+    private final GeofenceEngine geofenceEngine;
+    private final ReportingIntervalProperties properties;
+    private final Duration minInterval;
+    
+    public ReportingIntervalAdvisor(ReportingIntervalProperties properties,
+                                    RateLimitProperties rateLimitProperties,
+                                    LatestLocationRegistry latestLocationRegistry,
+                                    GeofenceEngine geofenceEngine) {
+        if (properties.getMaxInterval().compareTo(LocationFix.RECENT_THRESHOLD) > 0) {
+            throw new IllegalArgumentException("location.reporting.max-interval must not exceed "
+                    + LocationFix.RECENT_THRESHOLD.toMinutes() + " minutes");
+        }
+        if (properties.getMaxInterval().compareTo(rateLimitProperties.getRefillInterval()) < 0) {
+            throw new IllegalArgumentException(
+                    "location.reporting.max-interval must not be shorter than location.rate-limit.refill-interval");
+        }
+        this.properties = properties;
+        this.minInterval = rateLimitProperties.getRefillInterval();
+        this.latestLocationRegistry = latestLocationRegistry;
+        this.geofenceEngine = geofenceEngine;
+    }
+    
+    /**
+     * Recommends the interval until a technician's next location update.
+     * Must be called before the update is recorded, so that the registry still holds the previous fix.
+     * 
+     * @param technicianId the ID of the technician
+     * @param latitude the reported latitude
+     * @param longitude the reported longitude
+     * @param batteryLevel the reported battery level (may be null)
+     * @param now the time the update was received
+     * @return the recommended reporting interval
+     */
+    public Duration recommend(long technicianId, double latitude, double longitude,
+                              Integer batteryLevel, LocalDateTime now) {
+        Duration interval;
+        if (!isMoving(latestLocationRegistry.get(technicianId), latitude, longitude, now)) {
+            interval = properties.getIdleInterval();
+        } else if (geofenceEngine.isNearGeofence(latitude, longitude, properties.getApproachDistanceMeters())) {
+            interval = properties.getNearJobInterval();
+        } else {
+            interval = properties.getMovingInterval();
+        }
+        
+        if (batteryLevel != null && batteryLevel <= properties.getLowBatteryPercent()) {
+            interval = Duration.ofMillis(Math.round(interval.toMillis() * properties.getLowBatteryFactor()));
+        }
+        
+        if (interval.compareTo(minInterval) < 0) {
+            return minInterval;
+        }
+        return interval.compareTo(properties.getMaxInterval()) > 0 ? properties.getMaxInterval() : interval;
+    }
+    
+    /**
+     * Estimates whether the technician is moving from the distance to their previous fix.
+     * Without a usable previous fix the technician is assumed to be moving.
+     */
+    private boolean isMoving(LocationFix previous, double latitude, double longitude, LocalDateTime now) {
+        if (previous == null) {
+            return true;
+        }
+        Duration elapsed = Duration.between(previous.getTimestamp(), now);
+        if (elapsed.isNegative() || elapsed.isZero() || elapsed.compareTo(properties.getSpeedWindow()) > 0) {
+            return true;
+        }
+        double metersPerSecond = previous.distanceMetersTo(latitude, longitude) * 1000.0 / elapsed.toMillis();
+        return metersPerSecond >= properties.getMovingSpeedMetersPerSecond();
+    }
+}
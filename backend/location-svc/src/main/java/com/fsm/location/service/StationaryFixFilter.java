@@ -0,0 +1,119 @@
+package com.fsm.location.service;
+
+import com.fsm.location.domain.model.LocationFix;
+import com.fsm.location.infrastructure.config.StationaryFilterProperties;
+import jakarta.annotation.PostConstruct;
+import org.jctools.maps.NonBlockingHashMapLong;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Collection;
+
+/**
+ * Decides whether a location update from a technician who has not moved needs to be persisted.
+ * 
+ * A technician parked at a job keeps reporting the same position; persisting each of those
+ * fixes adds a history row (and updates every index of technician_locations) without telling
+ * anything new. The filter follows the {@link LatestLocationRegistry} as a
+ * {@link LocationFixListener} and remembers the last persisted fix of every technician as
+ * its anchor. An update close enough to the anchor, and not substantially more accurate, is
+ * stationary: the caller only refreshes the technician's heartbeat in memory. Once the anchor
+ * is older than the keep-alive interval, the next update is persisted regardless.
+ * 
+ * Domain Invariants:
+ * - Stationary updates are compared with the last persisted fix, never with a heartbeat,
+ *   so that slow drift is persisted once it adds up to the distance threshold
+ * - A technician is never suppressed for longer than the keep-alive interval
+ */
+@Component
+public class StationaryFixFilter implements LocationFixListener {
+    
+    private final LatestLocationRegistry latestLocationRegistry;
+    private final StationaryFilterProperties properties;
+    
+    private final NonBlockingHashMapLong<LocationFix> anchors = new NonBlockingHashMapLong<>();
+    
+    public StationaryFixFilter(StationaryFilterProperties properties, LatestLocationRegistry latestLocationRegistry) {
+        Duration keepAlive = properties.getKeepAliveInterval();
+        if (keepAlive.isNegative() || keepAlive.isZero() || keepAlive.compareTo(LocationFix.STALE_THRESHOLD) >= 0) {
+            throw new IllegalArgumentException(
+                    "location.ingest.stationary.keep-alive-interval must be positive and shorter than "
+                    + LocationFix.STALE_THRESHOLD.toMinutes() + " minutes");
+        }
+        this.properties = properties;
+        this.latestLocationRegistry = latestLocationRegistry;
+    }
+    
+    /**
+     * Starts following the latest location registry.
+     */
+    @PostConstruct
+    public void registerWithRegistry() {
+        latestLocationRegistry.addListener(this);
+    }
+    
+    /**
+     * Only persisted fixes become anchors; heartbeats carry the location ID of their anchor
+     * and are ignored.
+     */
+    @Override
+    public void onLocationFix(LocationFix fix) {
+        Long locationId = fix.getLocationId();
+        if (locationId == null) {
+            return;
+        }
+        long technicianId = fix.getTechnicianId();
+        while (true) {
+            LocationFix anchor = anchors.get(technicianId);
+            if (anchor != null && (locationId.equals(anchor.getLocationId()) || anchor.isNewerThan(fix))) {
+                return;
+            }
+            boolean swapped = anchor == null
+                    ? anchors.putIfAbsent(technicianId, fix) == null
+                    : anchors.replace(technicianId, anchor, fix);
+            if (swapped) {
+                return;
+            }
+        }
+    }
+    
+    /**
+     * A persisted write-behind fix becomes the anchor once it carries its location ID.
+     */
+    @Override
+    public void onLocationPersisted(LocationFix fix) {
+        onLocationFix(fix);
+    }
+    
+    @Override
+    public void onRegistryRebuilt(Collection<LocationFix> latestFixes) {
+        anchors.clear();
+        latestFixes.forEach(this::onLocationFix);
+    }
+    
+    /**
+     * Checks whether a location update can be suppressed because the technician has not moved.
+     * 
+     * @param technicianId the ID of the technician
+     * @param latitude the reported latitude
+     * @param longitude the reported longitude
+     * @param accuracy the reported accuracy in meters
+     * @param now the time the update was received
+     * @return the technician's last persisted fix if the update is stationary, otherwise null
+     */
+    public LocationFix findStationaryAnchor(long technicianId, double latitude, double longitude,
+                                            double accuracy, LocalDateTime now) {
+        if (!properties.isEnabled()) {
+            return null;
+        }
+        LocationFix anchor = anchors.get(technicianId);
+        if (anchor == null
+                || !anchor.getTimestamp().plus(properties.getKeepAliveInterval()).isAfter(now)
+                || anchor.getAccuracy() - accuracy > properties.getAccuracyToleranceMeters()
+                || anchor.distanceMetersTo(latitude, longitude) > properties.getDistanceMeters()) {
+            return null;
+        }
+        return anchor;
+    }
+}
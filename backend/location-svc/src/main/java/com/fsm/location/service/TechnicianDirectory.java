@@ -0,0 +1,31 @@
+package com.fsm.location.service;
+
+import com.fsm.location.domain.model.TechnicianProfile;
+
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Source of technician profiles (names) for the {@link TechnicianProfileCache}.
+ * Implementations are called with batches of technician IDs, never once per location.
+ */
+public interface TechnicianDirectory {
+    
+    /**
+     * Looks up the profiles of a batch of technicians.
+     * 
+     * @param technicianIds the IDs of the technicians
+     * @return the known profiles by technician ID; may omit unknown technicians and
+     *         may contain technicians that were not requested
+     * @throws RuntimeException if the directory is unavailable
+     */
+    Map<Long, TechnicianProfile> findProfiles(Set<Long> technicianIds);
+    
+    /**
+     * @return true if every call answers with all known profiles whatever IDs are requested,
+     *         so that the cache makes one call per lookup instead of one per batch
+     */
+    default boolean returnsAllProfiles() {
+        return false;
+    }
+}
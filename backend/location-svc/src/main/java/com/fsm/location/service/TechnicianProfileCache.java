@@ -0,0 +1,232 @@
+package com.fsm.location.service;
+
+import com.fsm.location.domain.model.TechnicianProfile;
+import com.fsm.location.infrastructure.config.TechnicianProfileProperties;
+import com.github.benmanes.caffeine.cache.AsyncLoadingCache;
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.stereotype.Component;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Cache of technician profiles used to put real names into location DTOs.
+ * 
+ * Missing profiles are loaded from the {@link TechnicianDirectory} in batches of at most
+ * {@code batchSize} technicians (in one call if the directory always returns every profile),
+ * never one remote call per location. Every profile a call returns is cached, including
+ * technicians that were not requested. A caller waits at most
+ * {@code lookupTimeout} for missing profiles and gets placeholder names for the rest; the
+ * load completes in the background and later calls see the real names. All cached profiles
+ * are reloaded every {@code refreshInterval} by a background task, so renames show up
+ * without readers ever waiting for the directory, and a directory outage keeps the last
+ * known names until {@code expireAfter}.
+ */
+@Component
+@Slf4j
+public class TechnicianProfileCache {
+    
+    private final TechnicianDirectory directory;
+    private final TechnicianProfileProperties properties;
+    private final TaskScheduler taskScheduler;
+    private final AsyncLoadingCache<Long, TechnicianProfile> cache;
+    
+    private ScheduledFuture<?> refreshTask;
+    
+    public TechnicianProfileCache(TechnicianDirectory directory,
+                                  TechnicianProfileProperties properties,
+                                  TaskScheduler taskScheduler,
+                                  MeterRegistry meterRegistry) {
+        this.directory = directory;
+        this.properties = properties;
+        this.taskScheduler = taskScheduler;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(properties.getMaximumSize())
+                .expireAfterWrite(properties.getExpireAfter())
+                .recordStats()
+                .buildAsync(new CacheLoader<Long, TechnicianProfile>() {
+                    @Override
+                    public TechnicianProfile load(Long technicianId) {
+                        // Single misses take the bulk path too, so every returned profile is cached
+                        return loadAll(Set.of(technicianId)).get(technicianId);
+                    }
+                    
+                    @Override
+                    public Map<Long, TechnicianProfile> loadAll(Set<? extends Long> technicianIds) {
+                        Map<Long, TechnicianProfile> profiles = lookup(technicianIds);
+                        // Caffeine caches extra profiles only after the requested ones complete
+                        profiles.forEach((technicianId, profile) -> {
+                            if (!technicianIds.contains(technicianId)) {
+                                cache.put(technicianId, CompletableFuture.completedFuture(profile));
+                            }
+                        });
+                        return profiles;
+                    }
+                });
+        CaffeineCacheMetrics.monitor(meterRegistry, cache.synchronous(), "technicianProfiles");
+    }
+    
+    /**
+     * Schedules the periodic background refresh of all cached profiles.
+     */
+    @PostConstruct
+    public void scheduleRefresh() {
+        refreshTask = taskScheduler.scheduleWithFixedDelay(this::refresh,
+                Instant.now().plus(properties.getRefreshInterval()), properties.getRefreshInterval());
+    }
+    
+    @PreDestroy
+    public void cancelRefresh() {
+        if (refreshTask != null) {
+            refreshTask.cancel(false);
+        }
+    }
+    
+    /**
+     * Gets the display names of a set of technicians, loading missing profiles in batches.
+     * 
+     * @param technicianIds the IDs of the technicians
+     * @return the name of every requested technician; "Technician {id}" while its profile is unknown
+     */
+    public Map<Long, String> getNames(Collection<Long> technicianIds) {
+        Map<Long, String> names = new HashMap<>();
+        if (technicianIds.isEmpty()) {
+            return names;
+        }
+        CompletableFuture<Map<Long, TechnicianProfile>> pending = cache.getAll(technicianIds);
+        Map<Long, TechnicianProfile> profiles;
+        try {
+            profiles = pending.get(properties.getLookupTimeout().toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            log.debug("Technician profile lookup still running; using cached names for now");
+            profiles = getAllLoaded(technicianIds);
+        } catch (ExecutionException e) {
+            log.warn("Technician profile lookup failed: {}", e.getCause().getMessage());
+            profiles = getAllLoaded(technicianIds);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            profiles = getAllLoaded(technicianIds);
+        }
+        for (Long technicianId : technicianIds) {
+            TechnicianProfile profile = profiles.get(technicianId);
+            names.put(technicianId, (profile != null ? profile : TechnicianProfile.placeholder(technicianId)).getName());
+        }
+        return names;
+    }
+    
+    /**
+     * Gets the display name of a technician without waiting for the directory, for paths
+     * that build one location DTO at a time (e.g. the live location stream). A missing
+     * profile is loaded in the background, so later calls see the real name.
+     * 
+     * @param technicianId the ID of the technician
+     * @return the cached name; "Technician {id}" while its profile is not loaded
+     */
+    public String getName(long technicianId) {
+        CompletableFuture<TechnicianProfile> profile = cache.get(technicianId);
+        if (profile.isDone() && !profile.isCompletedExceptionally()) {
+            return profile.join().getName();
+        }
+        return TechnicianProfile.placeholder(technicianId).getName();
+    }
+    
+    /**
+     * Reloads every cached profile from the directory in batches. Profiles that fail to
+     * load keep their cached value.
+     */
+    void refresh() {
+        Set<Long> technicianIds = Set.copyOf(cache.asMap().keySet());
+        int refreshed = 0;
+        for (Set<Long> batch : batches(technicianIds)) {
+            try {
+                Map<Long, TechnicianProfile> profiles = directory.findProfiles(batch);
+                batch.forEach(technicianId -> {
+                    TechnicianProfile profile = profiles.get(technicianId);
+                    if (profile != null) {
+                        cache.put(technicianId, CompletableFuture.completedFuture(profile));
+                    }
+                });
+                refreshed += profiles.size();
+            } catch (RuntimeException e) {
+                log.warn("Failed to refresh {} technician profiles, keeping cached names: {}",
+                         batch.size(), e.getMessage());
+            }
+        }
+        log.debug("Refreshed {} of {} cached technician profiles", refreshed, technicianIds.size());
+    }
+    
+    /**
+     * @return the number of cached profiles
+     */
+    public long size() {
+        return cache.synchronous().estimatedSize();
+    }
+    
+    private Map<Long, TechnicianProfile> lookup(Set<? extends Long> technicianIds) {
+        Map<Long, TechnicianProfile> profiles = new HashMap<>();
+        for (Set<Long> batch : batches(technicianIds)) {
+            profiles.putAll(directory.findProfiles(batch));
+        }
+        // Remember unknown technicians too, so that they are not looked up again on every request
+        technicianIds.forEach(technicianId -> profiles.putIfAbsent(technicianId, TechnicianProfile.placeholder(technicianId)));
+        return profiles;
+    }
+    
+    /**
+     * Splits technician IDs into directory calls: one call in total if the directory
+     * always answers with every profile, otherwise one call per {@code batchSize} IDs.
+     */
+    private List<Set<Long>> batches(Collection<? extends Long> technicianIds) {
+        if (technicianIds.isEmpty()) {
+            return List.of();
+        }
+        if (directory.returnsAllProfiles()) {
+            return List.of(Set.copyOf(technicianIds));
+        }
+        List<Set<Long>> batches = new ArrayList<>();
+        Set<Long> batch = new LinkedHashSet<>();
+        for (Long technicianId : technicianIds) {
+            batch.add(technicianId);
+            if (batch.size() == properties.getBatchSize()) {
+                batches.add(batch);
+                batch = new LinkedHashSet<>();
+            }
+        }
+        if (!batch.isEmpty()) {
+            batches.add(batch);
+        }
+        return batches;
+    }
+    
+    /**
+     * Gets the profiles that are already loaded, without waiting for loads in progress.
+     */
+    private Map<Long, TechnicianProfile> getAllLoaded(Collection<Long> technicianIds) {
+        Map<Long, TechnicianProfile> loaded = new HashMap<>();
+        for (Long technicianId : technicianIds) {
+            CompletableFuture<TechnicianProfile> profile = cache.getIfPresent(technicianId);
+            if (profile != null && profile.isDone() && !profile.isCompletedExceptionally()) {
+                loaded.put(technicianId, profile.join());
+            }
+        }
+        return loaded;
+    }
+}
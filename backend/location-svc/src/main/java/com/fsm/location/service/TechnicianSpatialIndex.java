@@ -0,0 +1,347 @@
+package com.fsm.location.service;
+
+import com.fsm.location.domain.model.LocationFix;
+import com.fsm.location.domain.model.NearbyTechnician;
+import com.fsm.location.infrastructure.config.SpatialIndexProperties;
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.jctools.maps.NonBlockingHashMapLong;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * In-memory spatial index of the current position of every technician.
+ * 
+ * Positions are bucketed into a fixed grid of cells of {@code cellSizeDegrees} degrees.
+ * A radius search only visits the cells overlapping the bounding box of the search
+ * circle and computes exact distances for the technicians in those cells, so it
+ * costs microseconds and needs no database round-trip. A nearest-neighbour search
+ * visits rings of cells around the search point until no unvisited cell can hold a
+ * closer technician. Map viewports are answered by visiting the cells overlapping the
+ * requested box. The index follows the
+ * {@link LatestLocationRegistry} as a {@link LocationFixListener}.
+ * 
+ * Domain Invariants:
+ * - Each technician is indexed at the position of their latest fix only
+ * - An older fix never replaces a newer one
+ */
+@Component
+@Slf4j
+public class TechnicianSpatialIndex implements LocationFixListener {
+    
+    private static final double METERS_PER_DEGREE_LATITUDE = Math.PI * LocationFix.EARTH_RADIUS_METERS / 180.0;
+    
+    private static final Comparator<NearbyTechnician> BY_DISTANCE =
+            Comparator.comparingDouble(NearbyTechnician::getDistanceMeters);
+    
+    private final LatestLocationRegistry latestLocationRegistry;
+    private final double cellSizeDegrees;
+    private final long columns;
+    
+    private final NonBlockingHashMapLong<LocationFix> positions = new NonBlockingHashMapLong<>();
+    private final NonBlockingHashMapLong<Set<Long>> cells = new NonBlockingHashMapLong<>();
+    
+    public TechnicianSpatialIndex(SpatialIndexProperties properties, LatestLocationRegistry latestLocationRegistry) {
+        this.latestLocationRegistry = latestLocationRegistry;
+        this.cellSizeDegrees = properties.getCellSizeDegrees();
+        this.columns = (long) Math.ceil(360.0 / cellSizeDegrees) + 1;
+    }
+    
+    /**
+     * Starts following the latest location registry.
+     */
+    @PostConstruct
+    public void registerWithRegistry() {
+        latestLocationRegistry.addListener(this);
+    }
+    
+    @Override
+    public void onLocationFix(LocationFix fix) {
+        long technicianId = fix.getTechnicianId();
+        LocationFix previous;
+        while (true) {
+            previous = positions.get(technicianId);
+            if (previous != null && previous.getTimestamp().isAfter(fix.getTimestamp())) {
+                return;
+            }
+            boolean swapped = previous == null
+                    ? positions.putIfAbsent(technicianId, fix) == null
+                    : positions.replace(technicianId, previous, fix);
+            if (swapped) {
+                break;
+            }
+        }
+        long cell = cellOf(fix.getLatitude(), fix.getLongitude());
+        cells.computeIfAbsent(cell, key -> ConcurrentHashMap.newKeySet()).add(technicianId);
+        if (previous != null) {
+            long previousCell = cellOf(previous.getLatitude(), previous.getLongitude());
+            if (previousCell != cell) {
+                Set<Long> members = cells.get(previousCell);
+                if (members != null) {
+                    members.remove(technicianId);
+                    // A concurrent newer fix may have moved the technician back into this cell
+                    LocationFix current = positions.get(technicianId);
+                    if (current != null && cellOf(current.getLatitude(), current.getLongitude()) == previousCell) {
+                        members.add(technicianId);
+                    }
+                }
+            }
+        }
+    }
+    
+    @Override
+    public void onRegistryRebuilt(Collection<LocationFix> latestFixes) {
+        positions.clear();
+        cells.clear();
+        latestFixes.forEach(this::onLocationFix);
+        log.info("Technician spatial index rebuilt with {} technicians", positions.size());
+    }
+    
+    /**
+     * Finds technicians whose latest fix lies within a radius of a point.
+     * 
+     * @param latitude the latitude of the search point
+     * @param longitude the longitude of the search point
+     * @param radiusMeters the search radius in meters
+     * @param since only fixes recorded at or after this time are considered
+     * @return the matching technicians, closest first
+     */
+    public List<NearbyTechnician> findWithinRadius(double latitude, double longitude, double radiusMeters,
+                                                   LocalDateTime since) {
+        List<NearbyTechnician> result = new ArrayList<>();
+        
+        double latDelta = radiusMeters / METERS_PER_DEGREE_LATITUDE;
+        double cosLat = Math.cos(Math.toRadians(latitude));
+        double minLat = Math.max(-90.0, latitude - latDelta);
+        double maxLat = Math.min(90.0, latitude + latDelta);
+        long minRow = row(minLat);
+        long maxRow = row(maxLat);
+        
+        long minCol;
+        long maxCol;
+        double lonDelta = cosLat > 1e-9 ? latDelta / cosLat : 360.0;
+        if (lonDelta >= 180.0 || maxLat >= 90.0 || minLat <= -90.0) {
+            minCol = 0;
+            maxCol = columns - 1;
+        } else {
+            minCol = column(longitude - lonDelta);
+            maxCol = column(longitude + lonDelta);
+        }
+        
+        long cellCount = (maxRow - minRow + 1) * columnSpan(minCol, maxCol);
+        if (cellCount > positions.size()) {
+            // Large radius: scanning every technician is cheaper than visiting every cell
+            for (LocationFix fix : positions.values()) {
+                addIfWithin(result, fix, latitude, longitude, radiusMeters, since);
+            }
+        } else {
+            Consumer<LocationFix> collector = fix -> addIfWithin(result, fix, latitude, longitude, radiusMeters, since);
+            for (long row = minRow; row <= maxRow; row++) {
+                for (long col = minCol; ; col = (col + 1) % columns) {
+                    forEachInCell(row * columns + col, collector);
+                    if (col == maxCol) {
+                        break;
+                    }
+                }
+            }
+        }
+        
+        result.sort(BY_DISTANCE);
+        return result;
+    }
+    
+    /**
+     * Finds the k technicians whose latest fix is closest to a point.
+     * 
+     * @param latitude the latitude of the search point
+     * @param longitude the longitude of the search point
+     * @param k the maximum number of technicians to return
+     * @param since only fixes recorded at or after this time are considered
+     * @return up to k technicians, closest first
+     */
+    public List<NearbyTechnician> findNearest(double latitude, double longitude, int k, LocalDateTime since) {
+        // Max-heap on distance holding the k closest technicians found so far
+        PriorityQueue<NearbyTechnician> nearest = new PriorityQueue<>(k + 1, BY_DISTANCE.reversed());
+        Consumer<LocationFix> collector = fix -> offerIfCloser(nearest, k, fix, latitude, longitude, since);
+        
+        long centerRow = row(latitude);
+        long centerCol = column(longitude);
+        long lastRow = row(90.0);
+        int technicians = positions.size();
+        long visitedCells = 0;
+        
+        for (long ring = 0; ; ring++) {
+            if (visitedCells > technicians || 2 * ring + 1 >= columns) {
+                // Sparse fleet or huge search area: scanning every technician is cheaper
+                nearest.clear();
+                positions.values().forEach(collector);
+                break;
+            }
+            for (long row = Math.max(0, centerRow - ring); row <= Math.min(lastRow, centerRow + ring); row++) {
+                boolean edgeRow = Math.abs(row - centerRow) == ring;
+                long step = edgeRow || ring == 0 ? 1 : 2 * ring;
+                for (long offset = -ring; offset <= ring; offset += step) {
+                    long col = Math.floorMod(centerCol + offset, columns);
+                    forEachInCell(row * columns + col, collector);
+                    visitedCells++;
+                }
+            }
+            if (nearest.size() == k
+                    && nearest.peek().getDistanceMeters() <= minDistanceBeyondRing(latitude, ring)) {
+                break;
+            }
+        }
+        
+        List<NearbyTechnician> result = new ArrayList<>(nearest);
+        result.sort(BY_DISTANCE);
+        return result;
+    }
+    
+    /**
+     * Visits technicians whose latest fix lies within a latitude/longitude box.
+     * A box with {@code minLongitude > maxLongitude} crosses the antimeridian.
+     * 
+     * @param minLatitude the southern edge of the box
+     * @param minLongitude the western edge of the box
+     * @param maxLatitude the northern edge of the box
+     * @param maxLongitude the eastern edge of the box
+     * @param since only fixes recorded at or after this time are visited
+     * @param action receives each matching fix
+     */
+    public void forEachWithin(double minLatitude, double minLongitude, double maxLatitude, double maxLongitude,
+                              LocalDateTime since, Consumer<LocationFix> action) {
+        Consumer<LocationFix> collector = fix -> {
+            if (!fix.getTimestamp().isBefore(since)
+                    && contains(fix, minLatitude, minLongitude, maxLatitude, maxLongitude)) {
+                action.accept(fix);
+            }
+        };
+        
+        long minRow = row(minLatitude);
+        long maxRow = row(maxLatitude);
+        double longitudeSpan = minLongitude <= maxLongitude
+                ? maxLongitude - minLongitude
+                : maxLongitude + 360.0 - minLongitude;
+        long minCol;
+        long maxCol;
+        if (longitudeSpan + cellSizeDegrees >= 360.0) {
+            minCol = 0;
+            maxCol = columns - 1;
+        } else {
+            minCol = column(minLongitude);
+            maxCol = column(maxLongitude);
+        }
+        
+        long cellCount = (maxRow - minRow + 1) * columnSpan(minCol, maxCol);
+        if (cellCount > positions.size()) {
+            // Large box: scanning every technician is cheaper than visiting every cell
+            positions.values().forEach(collector);
+            return;
+        }
+        for (long row = minRow; row <= maxRow; row++) {
+            for (long col = minCol; ; col = (col + 1) % columns) {
+                forEachInCell(row * columns + col, collector);
+                if (col == maxCol) {
+                    break;
+                }
+            }
+        }
+    }
+    
+    private static boolean contains(LocationFix fix, double minLatitude, double minLongitude,
+                                    double maxLatitude, double maxLongitude) {
+        double latitude = fix.getLatitude();
+        double longitude = fix.getLongitude();
+        if (latitude < minLatitude || latitude > maxLatitude) {
+            return false;
+        }
+        return minLongitude <= maxLongitude
+                ? longitude >= minLongitude && longitude <= maxLongitude
+                : longitude >= minLongitude || longitude <= maxLongitude;
+    }
+    
+    private static void offerIfCloser(PriorityQueue<NearbyTechnician> nearest, int k, LocationFix fix,
+                                      double latitude, double longitude, LocalDateTime since) {
+        if (fix.getTimestamp().isBefore(since)) {
+            return;
+        }
+        double distance = fix.distanceMetersTo(latitude, longitude);
+        if (nearest.size() < k) {
+            nearest.add(new NearbyTechnician(fix, distance));
+        } else if (distance < nearest.peek().getDistanceMeters()) {
+            nearest.poll();
+            nearest.add(new NearbyTechnician(fix, distance));
+        }
+    }
+    
+    /**
+     * Lower bound of the distance from a point inside the center cell to any cell
+     * outside the first {@code ring} rings: at least {@code ring} whole cells,
+     * measured along the (shorter) longitude axis at the highest latitude reached.
+     */
+    private double minDistanceBeyondRing(double latitude, long ring) {
+        double highestLatitude = Math.min(90.0, Math.abs(latitude) + (ring + 1) * cellSizeDegrees);
+        return ring * cellSizeDegrees * METERS_PER_DEGREE_LATITUDE * Math.cos(Math.toRadians(highestLatitude));
+    }
+    
+    private void forEachInCell(long cell, Consumer<LocationFix> action) {
+        Set<Long> members = cells.get(cell);
+        if (members == null) {
+            return;
+        }
+        for (Long technicianId : members) {
+            LocationFix fix = positions.get(technicianId);
+            // Skip technicians that just moved out of this cell; they are found in their new one
+            if (fix != null && cellOf(fix.getLatitude(), fix.getLongitude()) == cell) {
+                action.accept(fix);
+            }
+        }
+    }
+    
+    private static void addIfWithin(List<NearbyTechnician> result, LocationFix fix, double latitude,
+                                    double longitude, double radiusMeters, LocalDateTime since) {
+        if (fix.getTimestamp().isBefore(since)) {
+            return;
+        }
+        double distance = fix.distanceMetersTo(latitude, longitude);
+        if (distance <= radiusMeters) {
+            result.add(new NearbyTechnician(fix, distance));
+        }
+    }
+    
+    /**
+     * @return the number of indexed technicians
+     */
+    public int size() {
+        return positions.size();
+    }
+    
+    private long columnSpan(long minCol, long maxCol) {
+        return maxCol >= minCol ? maxCol - minCol + 1 : columns - minCol + maxCol + 1;
+    }
+    
+    private long cellOf(double latitude, double longitude) {
+        return row(latitude) * columns + column(longitude);
+    }
+    
+    private long row(double latitude) {
+        return (long) Math.floor((latitude + 90.0) / cellSizeDegrees);
+    }
+    
+    /**
+     * Column of a longitude, wrapping around the antimeridian.
+     */
+    private long column(double longitude) {
+        double normalized = ((longitude + 180.0) % 360.0 + 360.0) % 360.0;
+        return (long) Math.floor(normalized / cellSizeDegrees);
+    }
+}
@@ -0,0 +1,105 @@
+package com.fsm.location.service;
+
+import com.fsm.location.api.dto.TrailResponse;
+import com.fsm.location.domain.model.Trail;
+import com.fsm.location.domain.model.TrailPoint;
+import com.fsm.location.domain.repository.LocationRepository;
+import com.fsm.location.infrastructure.config.TrailProperties;
+import com.fsm.location.service.exception.InvalidTrailRangeException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+/**
+ * Service for replaying a technician's path over a time range.
+ * 
+ * The history is streamed from the database into a primitive-array {@link Trail}
+ * rather than loaded as a list of entities, optionally simplified with the
+ * Douglas-Peucker algorithm and returned as an encoded polyline, which keeps both
+ * the heap usage and the response size of a full-day trail small.
+ * 
+ * Recent trails (e.g. the last 30 minutes) held completely by the {@link RecentFixBuffer}
+ * are copied from its ring buffer instead, without a transaction or any database access.
+ */
+@Service
+@Slf4j
+public class TrailService {
+    
+    private final LocationRepository locationRepository;
+    
+    private final RecentFixBuffer recentFixBuffer;
+    
+    private final TrailProperties properties;
+    
+    private final TransactionTemplate readOnlyTransaction;
+    
+    public TrailService(LocationRepository locationRepository,
+                        RecentFixBuffer recentFixBuffer,
+                        TrailProperties properties,
+                        PlatformTransactionManager transactionManager) {
+        this.locationRepository = locationRepository;
+        this.recentFixBuffer = recentFixBuffer;
+        this.properties = properties;
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+    }
+    
+    /**
+     * Gets the trail of a technician.
+     * 
+     * @param technicianId the ID of the technician
+     * @param from the start of the time range (inclusive), or null for {@code to} minus the default range
+     * @param to the end of the time range (exclusive), or null for now
+     * @param toleranceMeters the Douglas-Peucker tolerance in meters, 0 to return every recorded point
+     * @return the trail as an encoded polyline with time offsets
+     * @throws InvalidTrailRangeException if the range is empty or longer than the maximum range
+     */
+    public TrailResponse getTrail(Long technicianId, LocalDateTime from, LocalDateTime to, double toleranceMeters) {
+        LocalDateTime end = to != null ? to : LocalDateTime.now();
+        LocalDateTime start = from != null ? from : end.minus(properties.getDefaultRange());
+        if (!start.isBefore(end)) {
+            throw new InvalidTrailRangeException("Trail start must be before its end");
+        }
+        if (Duration.between(start, end).compareTo(properties.getMaxRange()) > 0) {
+            throw new InvalidTrailRangeException("Trail range must not exceed " + properties.getMaxRange());
+        }
+        
+        Trail recent = recentFixBuffer.getTrail(technicianId, start, end);
+        Trail trail = recent != null ? recent : loadTrail(technicianId, start, end);
+        Trail simplified = trail.simplify(toleranceMeters);
+        
+        log.debug("Trail of technician {} from {} to {} ({}): {} points, {} after simplification",
+                  technicianId, start, end, recent != null ? "memory" : "database",
+                  trail.size(), simplified.size());
+        
+        return TrailResponse.builder()
+                .technicianId(technicianId)
+                .from(start)
+                .to(end)
+                .recordedPoints(trail.size())
+                .points(simplified.size())
+                .toleranceMeters(toleranceMeters)
+                .polyline(simplified.encodePolyline())
+                .startTime(simplified.isEmpty() ? null : simplified.getTimestamp(0))
+                .timeOffsets(simplified.getTimeOffsets())
+                .build();
+    }
+    
+    /**
+     * Streams a technician's trail from the database within a read-only transaction.
+     */
+    private Trail loadTrail(Long technicianId, LocalDateTime start, LocalDateTime end) {
+        return readOnlyTransaction.execute(status -> {
+            Trail trail = new Trail();
+            try (Stream<TrailPoint> points = locationRepository.streamTrail(technicianId, start, end)) {
+                points.forEach(point -> trail.add(point.getLatitude(), point.getLongitude(), point.getTimestamp()));
+            }
+            return trail;
+        });
+    }
+}
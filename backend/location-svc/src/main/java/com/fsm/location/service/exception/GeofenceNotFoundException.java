@@ -0,0 +1,15 @@
+package com.fsm.location.service.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exception thrown when a geofence does not exist.
+ */
+@ResponseStatus(HttpStatus.NOT_FOUND)
+public class GeofenceNotFoundException extends RuntimeException {
+    
+    public GeofenceNotFoundException(String geofenceId) {
+        super("Geofence not found: " + geofenceId);
+    }
+}
@@ -0,0 +1,19 @@
+package com.fsm.location.service.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exception thrown when the write-behind ingestion buffer cannot accept more location updates.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class IngestBufferFullException extends RuntimeException {
+    
+    public IngestBufferFullException(String message) {
+        super(message);
+    }
+    
+    public IngestBufferFullException() {
+        super("Location ingestion buffer is full. Please try again later.");
+    }
+}
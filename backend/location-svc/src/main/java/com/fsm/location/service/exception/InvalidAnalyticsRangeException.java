@@ -0,0 +1,15 @@
+package com.fsm.location.service.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exception thrown when fleet analytics are requested for an empty or too long time range.
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidAnalyticsRangeException extends RuntimeException {
+    
+    public InvalidAnalyticsRangeException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,15 @@
+package com.fsm.location.service.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exception thrown when a geofence definition is neither a valid circle nor a valid polygon.
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidGeofenceException extends RuntimeException {
+    
+    public InvalidGeofenceException(String message) {
+        super(message);
+    }
+}
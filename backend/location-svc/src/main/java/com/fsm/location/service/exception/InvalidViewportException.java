@@ -0,0 +1,15 @@
+package com.fsm.location.service.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exception thrown when a map viewport (bounding box) is malformed or out of range.
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidViewportException extends RuntimeException {
+    
+    public InvalidViewportException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,15 @@
+package com.fsm.location.service.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exception thrown when a binary location payload is malformed or carries out-of-range values.
+ */
+@ResponseStatus(HttpStatus.BAD_REQUEST)
+public class InvalidWireFormatException extends RuntimeException {
+    
+    public InvalidWireFormatException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,16 @@
+package com.fsm.location.service.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Exception thrown when a new live location stream subscription would exceed
+ * the configured maximum number of subscribers.
+ */
+@ResponseStatus(HttpStatus.SERVICE_UNAVAILABLE)
+public class TooManySubscribersException extends RuntimeException {
+    
+    public TooManySubscribersException(int maxSubscribers) {
+        super("Live location stream is at its limit of " + maxSubscribers + " subscribers");
+    }
+}
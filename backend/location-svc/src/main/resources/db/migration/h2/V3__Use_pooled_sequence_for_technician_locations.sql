@@ -0,0 +1,8 @@
+-- V3__Use_pooled_sequence_for_technician_locations.sql
+-- Switches technician_locations ID generation to a pooled sequence so Hibernate can batch inserts
+
+-- Increment must match the allocationSize of the entity's @SequenceGenerator.
+-- Starts well above the sample rows so the first allocated block cannot collide with them.
+CREATE SEQUENCE technician_locations_id_seq START WITH 1000 INCREMENT BY 50;
+
+ALTER TABLE technician_locations ALTER COLUMN id SET DEFAULT NEXT VALUE FOR technician_locations_id_seq;
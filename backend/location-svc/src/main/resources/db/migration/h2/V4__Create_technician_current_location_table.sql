@@ -0,0 +1,29 @@
+-- V4__Create_technician_current_location_table.sql
+-- Creates the technician_current_location table holding the newest location of each technician,
+-- so that "latest location" queries no longer search the whole location history
+
+CREATE TABLE technician_current_location (
+    technician_id BIGINT PRIMARY KEY,
+    location_id BIGINT NOT NULL,
+    latitude DOUBLE PRECISION NOT NULL,
+    longitude DOUBLE PRECISION NOT NULL,
+    accuracy DOUBLE PRECISION NOT NULL,
+    timestamp TIMESTAMP NOT NULL,
+    battery_level INT,
+    location GEOMETRY,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+);
+
+-- Index for querying active technicians (timestamp within the staleness threshold)
+CREATE INDEX idx_technician_current_location_timestamp ON technician_current_location(timestamp);
+
+-- Backfill from existing history (newest location per technician)
+INSERT INTO technician_current_location
+    (technician_id, location_id, latitude, longitude, accuracy, timestamp, battery_level, location, updated_at)
+SELECT tl.technician_id, tl.id, tl.latitude, tl.longitude, tl.accuracy, tl.timestamp, tl.battery_level, tl.location,
+       CURRENT_TIMESTAMP
+FROM technician_locations tl
+WHERE tl.id = (SELECT tl2.id FROM technician_locations tl2
+               WHERE tl2.technician_id = tl.technician_id
+               ORDER BY tl2.timestamp DESC, tl2.id DESC
+               LIMIT 1);
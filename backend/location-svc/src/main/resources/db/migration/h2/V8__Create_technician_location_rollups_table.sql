@@ -0,0 +1,31 @@
+-- V8__Create_technician_location_rollups_table.sql
+-- Creates the per-technician, per-minute location rollups read by fleet analytics,
+-- and the watermark of the rollup stage that folds new fixes into them
+
+CREATE TABLE technician_location_rollups (
+    technician_id BIGINT NOT NULL,
+    minute_start TIMESTAMP NOT NULL,
+    latitude DOUBLE PRECISION NOT NULL,
+    longitude DOUBLE PRECISION NOT NULL,
+    fix_count INT NOT NULL,
+    max_speed_mps REAL,
+    min_battery_level SMALLINT,
+    PRIMARY KEY (technician_id, minute_start)
+);
+
+-- Index for fleet-wide analytics over a time range
+CREATE INDEX idx_technician_location_rollups_minute ON technician_location_rollups(minute_start);
+
+-- Fixes inserted up to rolled_up_to (created_at) have been folded into the rollups
+CREATE TABLE location_rollup_watermark (
+    id INT PRIMARY KEY,
+    rolled_up_to TIMESTAMP NOT NULL
+);
+
+-- Start before the oldest fix, so that existing history is rolled up as well
+INSERT INTO location_rollup_watermark (id, rolled_up_to)
+SELECT 1, COALESCE(DATEADD('SECOND', -1, MIN(created_at)), CURRENT_TIMESTAMP)
+FROM technician_locations;
+
+-- Index for reading fixes by insertion time
+CREATE INDEX idx_technician_locations_created_at ON technician_locations(created_at);
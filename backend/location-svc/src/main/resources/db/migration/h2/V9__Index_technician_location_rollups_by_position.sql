@@ -0,0 +1,5 @@
+-- V9__Index_technician_location_rollups_by_position.sql
+-- Time-in-geofence analytics read only the rollups inside a geofence's bounding box,
+-- so that a zone query does not read every rollup of the fleet in its time range
+
+CREATE INDEX idx_technician_location_rollups_position ON technician_location_rollups(latitude, longitude);
@@ -0,0 +1,17 @@
+-- V7__Use_lean_history_indexes.sql
+-- Optional "lean history" schema (profile lean-history): technician_locations keeps only the indexes
+-- its own queries need, so that every insert updates two small indexes instead of three B-trees and a GIST.
+-- Current-position and spatial lookups never read the history: they are served by technician_current_location
+-- (and its GIST index) or by the in-memory spatial index.
+
+-- Fixes arrive in roughly timestamp order, so a BRIN index (one summary per 32 pages) answers time-range scans
+-- such as partition maintenance and exports at a fraction of the size and write cost of a B-tree
+DROP INDEX idx_technician_locations_timestamp;
+CREATE INDEX idx_technician_locations_timestamp_brin ON technician_locations
+    USING BRIN(timestamp) WITH (pages_per_range = 32);
+
+-- Proximity searches use technician_current_location; no query searches the history by location
+DROP INDEX idx_technician_locations_location;
+
+-- Kept: the primary key (id, timestamp), used to join current locations to their history rows,
+-- and idx_technician_locations_tech_timestamp, used by trails and per-technician history queries
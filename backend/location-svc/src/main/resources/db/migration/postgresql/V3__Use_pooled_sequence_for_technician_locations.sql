@@ -0,0 +1,6 @@
+-- V3__Use_pooled_sequence_for_technician_locations.sql
+-- Switches technician_locations ID generation to a pooled sequence so Hibernate can batch inserts
+
+-- Reuse the BIGSERIAL sequence so raw inserts relying on the column default stay collision-free.
+-- Increment must match the allocationSize of the entity's @SequenceGenerator.
+ALTER SEQUENCE technician_locations_id_seq INCREMENT BY 50;
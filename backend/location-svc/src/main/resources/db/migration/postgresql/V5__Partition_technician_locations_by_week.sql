@@ -0,0 +1,62 @@
+-- V5__Partition_technician_locations_by_week.sql
+-- Converts technician_locations into a table range-partitioned by timestamp (one partition per week),
+-- so old history can be removed by dropping whole partitions and time-bounded queries scan fewer rows.
+-- Further partitions are created, and expired ones removed, by the service (location.history.partitioning.*).
+
+ALTER TABLE technician_locations RENAME TO technician_locations_unpartitioned;
+
+-- Keep the ID sequence (and its pooled increment) when the old table is dropped
+ALTER SEQUENCE technician_locations_id_seq OWNED BY NONE;
+
+-- The partition key must be part of the primary key; IDs stay unique through the sequence
+CREATE TABLE technician_locations (
+    id BIGINT NOT NULL DEFAULT nextval('technician_locations_id_seq'),
+    technician_id BIGINT NOT NULL,
+    latitude DOUBLE PRECISION NOT NULL,
+    longitude DOUBLE PRECISION NOT NULL,
+    accuracy DOUBLE PRECISION NOT NULL,
+    timestamp TIMESTAMP NOT NULL,
+    battery_level INTEGER,
+    location GEOGRAPHY(Point, 4326),
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP
+) PARTITION BY RANGE (timestamp);
+
+ALTER SEQUENCE technician_locations_id_seq OWNED BY technician_locations.id;
+
+-- Weekly partitions from the oldest existing row up to next week
+DO $$
+DECLARE
+    week_start TIMESTAMP := date_trunc('week',
+            COALESCE((SELECT min(timestamp) FROM technician_locations_unpartitioned), LOCALTIMESTAMP));
+    last_week_start TIMESTAMP := date_trunc('week', LOCALTIMESTAMP) + INTERVAL '1 week';
+BEGIN
+    WHILE week_start <= last_week_start LOOP
+        EXECUTE format('CREATE TABLE %I PARTITION OF technician_locations FOR VALUES FROM (%L) TO (%L)',
+                       'technician_locations_p' || to_char(week_start, 'YYYYMMDD'),
+                       week_start, week_start + INTERVAL '1 week');
+        week_start := week_start + INTERVAL '1 week';
+    END LOOP;
+END $$;
+
+-- Catches rows outside every partition (e.g. device clocks far in the future) instead of failing the insert
+CREATE TABLE technician_locations_default PARTITION OF technician_locations DEFAULT;
+
+INSERT INTO technician_locations
+    (id, technician_id, latitude, longitude, accuracy, timestamp, battery_level, location, created_at)
+SELECT id, technician_id, latitude, longitude, accuracy, timestamp, battery_level, location, created_at
+FROM technician_locations_unpartitioned;
+
+DROP TABLE technician_locations_unpartitioned;
+
+ALTER TABLE technician_locations ADD PRIMARY KEY (id, timestamp);
+
+-- Indexes are created on every partition. The single-column technician_id index is not recreated:
+-- the (technician_id, timestamp DESC) index serves the same lookups.
+CREATE INDEX idx_technician_locations_timestamp ON technician_locations(timestamp);
+CREATE INDEX idx_technician_locations_tech_timestamp ON technician_locations(technician_id, timestamp DESC);
+CREATE INDEX idx_technician_locations_location ON technician_locations USING GIST(location);
+
+ALTER TABLE technician_locations ADD CONSTRAINT chk_latitude CHECK (latitude >= -90.0 AND latitude <= 90.0);
+ALTER TABLE technician_locations ADD CONSTRAINT chk_longitude CHECK (longitude >= -180.0 AND longitude <= 180.0);
+ALTER TABLE technician_locations ADD CONSTRAINT chk_accuracy CHECK (accuracy > 0);
+ALTER TABLE technician_locations ADD CONSTRAINT chk_battery_level CHECK (battery_level >= 0 AND battery_level <= 100);
@@ -0,0 +1,21 @@
+-- V6__Create_geofences_table.sql
+-- Creates the geofences table holding circular and polygon fences around job sites.
+-- Fences are loaded into an in-memory spatial index on startup; incoming fixes are
+-- evaluated against that index, never against this table.
+
+CREATE TABLE geofences (
+    id VARCHAR(64) PRIMARY KEY,
+    name VARCHAR(255),
+    shape VARCHAR(16) NOT NULL,
+    center_latitude DOUBLE PRECISION,
+    center_longitude DOUBLE PRECISION,
+    radius_meters DOUBLE PRECISION,
+    boundary VARCHAR(40000),
+    dwell_seconds INTEGER,
+    created_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    updated_at TIMESTAMP NOT NULL DEFAULT CURRENT_TIMESTAMP,
+    CONSTRAINT chk_geofence_shape CHECK (shape IN ('CIRCLE', 'POLYGON')),
+    CONSTRAINT chk_geofence_circle CHECK (shape <> 'CIRCLE'
+        OR (center_latitude IS NOT NULL AND center_longitude IS NOT NULL AND radius_meters > 0)),
+    CONSTRAINT chk_geofence_polygon CHECK (shape <> 'POLYGON' OR boundary IS NOT NULL)
+);
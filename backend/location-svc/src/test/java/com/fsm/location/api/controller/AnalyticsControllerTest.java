@@ -0,0 +1,126 @@
+package com.fsm.location.api.controller;
+
+import com.fsm.location.api.dto.GeofenceTimeResponse;
+import com.fsm.location.api.dto.LocationRollupDTO;
+import com.fsm.location.api.dto.TechnicianGeofenceTimeDTO;
+import com.fsm.location.service.FleetAnalyticsService;
+import com.fsm.location.service.exception.GeofenceNotFoundException;
+import com.fsm.location.service.exception.InvalidAnalyticsRangeException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Unit tests for AnalyticsController.
+ */
+@WebMvcTest(controllers = AnalyticsController.class,
+        excludeAutoConfiguration = {
+                org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration.class,
+                org.springframework.boot.autoconfigure.security.servlet.SecurityFilterAutoConfiguration.class
+        })
+class AnalyticsControllerTest {
+    
+    private static final LocalDateTime FROM = LocalDateTime.of(2024, 1, 15, 0, 0);
+    private static final LocalDateTime TO = LocalDateTime.of(2024, 1, 16, 0, 0);
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @MockBean
+    private FleetAnalyticsService fleetAnalyticsService;
+    
+    @WithMockUser
+    @Test
+    void testGetRollups() throws Exception {
+        // Given
+        LocationRollupDTO rollup = LocationRollupDTO.builder()
+                .minute(FROM.plusHours(8))
+                .latitude(39.7817)
+                .longitude(-89.6501)
+                .fixCount(6)
+                .maxSpeedMetersPerSecond(12.5f)
+                .minBatteryLevel(42)
+                .build();
+        when(fleetAnalyticsService.getRollups(101L, FROM, TO)).thenReturn(List.of(rollup));
+        
+        // When / Then
+        mockMvc.perform(get("/api/analytics/technicians/101/rollups")
+                        .param("from", "2024-01-15T00:00:00")
+                        .param("to", "2024-01-16T00:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].fixCount").value(6))
+                .andExpect(jsonPath("$[0].maxSpeedMetersPerSecond").value(12.5))
+                .andExpect(jsonPath("$[0].minBatteryLevel").value(42));
+    }
+    
+    @WithMockUser
+    @Test
+    void testGetRollupsDefaults() throws Exception {
+        when(fleetAnalyticsService.getRollups(101L, null, null)).thenReturn(List.of());
+        
+        mockMvc.perform(get("/api/analytics/technicians/101/rollups"))
+                .andExpect(status().isOk());
+        
+        verify(fleetAnalyticsService).getRollups(101L, null, null);
+    }
+    
+    @WithMockUser
+    @Test
+    void testGetRollupsInvalidRange() throws Exception {
+        when(fleetAnalyticsService.getRollups(eq(101L), any(), any()))
+                .thenThrow(new InvalidAnalyticsRangeException("Range start must be before its end"));
+        
+        mockMvc.perform(get("/api/analytics/technicians/101/rollups")
+                        .param("from", "2024-01-16T00:00:00")
+                        .param("to", "2024-01-15T00:00:00"))
+                .andExpect(status().isBadRequest());
+    }
+    
+    @WithMockUser
+    @Test
+    void testGetTimeInGeofence() throws Exception {
+        // Given
+        GeofenceTimeResponse response = GeofenceTimeResponse.builder()
+                .geofenceId("job-1")
+                .from(FROM)
+                .to(TO)
+                .totalMinutes(95)
+                .technicians(List.of(
+                        new TechnicianGeofenceTimeDTO(102L, 60, FROM.plusHours(9), FROM.plusHours(10)),
+                        new TechnicianGeofenceTimeDTO(101L, 35, FROM.plusHours(8), FROM.plusHours(11))))
+                .build();
+        when(fleetAnalyticsService.getTimeInGeofence("job-1", FROM, TO)).thenReturn(response);
+        
+        // When / Then
+        mockMvc.perform(get("/api/analytics/geofences/job-1/time")
+                        .param("from", "2024-01-15T00:00:00")
+                        .param("to", "2024-01-16T00:00:00"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.geofenceId").value("job-1"))
+                .andExpect(jsonPath("$.totalMinutes").value(95))
+                .andExpect(jsonPath("$.technicians[0].technicianId").value(102))
+                .andExpect(jsonPath("$.technicians[0].minutesInside").value(60));
+    }
+    
+    @WithMockUser
+    @Test
+    void testGetTimeInUnknownGeofence() throws Exception {
+        when(fleetAnalyticsService.getTimeInGeofence(eq("job-2"), any(), any()))
+                .thenThrow(new GeofenceNotFoundException("job-2"));
+        
+        mockMvc.perform(get("/api/analytics/geofences/job-2/time"))
+                .andExpect(status().isNotFound());
+    }
+}
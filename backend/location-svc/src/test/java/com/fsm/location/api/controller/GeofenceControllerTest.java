@@ -0,0 +1,137 @@
+package com.fsm.location.api.controller;
+
+import com.fsm.location.api.dto.GeofenceDTO;
+import com.fsm.location.api.dto.GeofenceRequest;
+import com.fsm.location.domain.model.Geofence;
+import com.fsm.location.service.GeofenceService;
+import com.fsm.location.service.exception.GeofenceNotFoundException;
+import com.fsm.location.service.exception.InvalidGeofenceException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Unit tests for GeofenceController.
+ */
+@WebMvcTest(controllers = GeofenceController.class,
+        excludeAutoConfiguration = {
+                org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration.class,
+                org.springframework.boot.autoconfigure.security.servlet.SecurityFilterAutoConfiguration.class
+        })
+class GeofenceControllerTest {
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @MockBean
+    private GeofenceService geofenceService;
+    
+    private static GeofenceDTO circle() {
+        return GeofenceDTO.builder()
+                .id("job-42")
+                .name("Job 42")
+                .shape(Geofence.Shape.CIRCLE)
+                .latitude(39.7817)
+                .longitude(-89.6501)
+                .radiusMeters(150.0)
+                .build();
+    }
+    
+    @WithMockUser
+    @Test
+    void testRegisterGeofence() throws Exception {
+        // Given
+        when(geofenceService.registerGeofence(eq("job-42"), any(GeofenceRequest.class))).thenReturn(circle());
+        
+        // When / Then
+        mockMvc.perform(put("/api/geofences/job-42")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Job 42\",\"latitude\":39.7817,\"longitude\":-89.6501,\"radiusMeters\":150}"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value("job-42"))
+                .andExpect(jsonPath("$.shape").value("CIRCLE"))
+                .andExpect(jsonPath("$.radiusMeters").value(150.0))
+                .andExpect(jsonPath("$.polygon").doesNotExist());
+    }
+    
+    @WithMockUser
+    @Test
+    void testRegisterGeofenceRejectsInvalidId() throws Exception {
+        mockMvc.perform(put("/api/geofences/job 42")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"latitude\":39.7817,\"longitude\":-89.6501,\"radiusMeters\":150}"))
+                .andExpect(status().isBadRequest());
+        
+        verifyNoInteractions(geofenceService);
+    }
+    
+    @WithMockUser
+    @Test
+    void testRegisterGeofenceRejectsInvalidVertex() throws Exception {
+        mockMvc.perform(put("/api/geofences/job-42")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"polygon\":[{\"latitude\":95,\"longitude\":0},{\"latitude\":1,\"longitude\":0},"
+                                 + "{\"latitude\":1,\"longitude\":1}]}"))
+                .andExpect(status().isBadRequest());
+        
+        verifyNoInteractions(geofenceService);
+    }
+    
+    @WithMockUser
+    @Test
+    void testRegisterGeofenceInvalidShape() throws Exception {
+        // Given
+        when(geofenceService.registerGeofence(eq("job-42"), any(GeofenceRequest.class)))
+                .thenThrow(new InvalidGeofenceException("A geofence must be either a circle or a polygon"));
+        
+        // When / Then
+        mockMvc.perform(put("/api/geofences/job-42")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"name\":\"Job 42\"}"))
+                .andExpect(status().isBadRequest());
+    }
+    
+    @WithMockUser
+    @Test
+    void testGetAllGeofences() throws Exception {
+        // Given
+        when(geofenceService.getAllGeofences()).thenReturn(List.of(circle()));
+        
+        // When / Then
+        mockMvc.perform(get("/api/geofences"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].id").value("job-42"));
+    }
+    
+    @WithMockUser
+    @Test
+    void testGetGeofenceNotFound() throws Exception {
+        // Given
+        when(geofenceService.getGeofence("job-1")).thenThrow(new GeofenceNotFoundException("job-1"));
+        
+        // When / Then
+        mockMvc.perform(get("/api/geofences/job-1"))
+                .andExpect(status().isNotFound());
+    }
+    
+    @WithMockUser
+    @Test
+    void testDeleteGeofence() throws Exception {
+        mockMvc.perform(delete("/api/geofences/job-42"))
+                .andExpect(status().isNoContent());
+        
+        verify(geofenceService).deleteGeofence("job-42");
+    }
+}
@@ -1,6 +1,8 @@
 package com.fsm.location.api.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fsm.location.api.dto.BufferedLocationFix;
+import com.fsm.location.api.dto.LocationBatchRequest;
 import com.fsm.location.api.dto.LocationUpdateRequest;
 import com.fsm.location.domain.model.TechnicianLocation;
 import com.fsm.location.domain.repository.LocationRepository;
@@ -13,6 +15,7 @@ import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.ActiveProfiles;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 
 import java.time.LocalDateTime;
 import java.util.List;
@@ -264,4 +267,112 @@ class LocationControllerIntegrationTest {
         assertEquals(1, locations.size());
         assertNull(locations.get(0).getBatteryLevel());
     }
+    
+    @WithMockUser
+    @Test
+    void testBatchUpdatePersistsThinnedFixes() throws Exception {
+        // Given - five fixes buffered offline, 20 seconds apart
+        Long technicianId = 110L;
+        LocalDateTime start = LocalDateTime.now().minusMinutes(30);
+        List<BufferedLocationFix> fixes = new java.util.ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            fixes.add(BufferedLocationFix.builder()
+                    .latitude(39.7817 + i * 0.001)
+                    .longitude(-89.6501)
+                    .accuracy(5.0)
+                    .recordedAt(start.plusSeconds(i * 20L))
+                    .build());
+        }
+        
+        // When
+        mockMvc.perform(post("/api/technicians/me/location/batch")
+                        .header("X-Technician-Id", technicianId.toString())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(new LocationBatchRequest(fixes))))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.received").value(5))
+                .andExpect(jsonPath("$.accepted").value(3))
+                .andExpect(jsonPath("$.skipped").value(2));
+        
+        // Then - fixes at 0s, 40s and 80s are stored with their device timestamps and distinct IDs
+        List<TechnicianLocation> locations = locationRepository.findByTechnicianIdOrderByTimestampDesc(technicianId);
+        assertEquals(3, locations.size());
+        assertEquals(3, locations.stream().map(TechnicianLocation::getId).distinct().count());
+        
+        // And - a live update right after reconnecting is not blocked by the buffered fixes
+        mockMvc.perform(post("/api/technicians/me/location")
+                        .header("X-Technician-Id", technicianId.toString())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(LocationUpdateRequest.builder()
+                                .latitude(39.7817).longitude(-89.6501).accuracy(5.0).build())))
+                .andExpect(status().isCreated());
+    }
+    
+    @WithMockUser
+    @Test
+    void testNearbyTechniciansFollowIngestedLocations() throws Exception {
+        // Given - a location far away from every other test's technicians
+        Long technicianId = 111L;
+        LocationUpdateRequest request = LocationUpdateRequest.builder()
+                .latitude(10.0)
+                .longitude(10.0)
+                .accuracy(5.0)
+                .build();
+        mockMvc.perform(post("/api/technicians/me/location")
+                        .header("X-Technician-Id", technicianId.toString())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated());
+        
+        // When / Then
+        mockMvc.perform(get("/api/technicians/nearby")
+                        .param("lat", "10.001")
+                        .param("lon", "10.0")
+                        .param("radius", "500"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].technicianId").value(technicianId))
+                .andExpect(jsonPath("$[0].status").value("available"));
+        
+        mockMvc.perform(get("/api/technicians/nearby")
+                        .param("lat", "10.01")
+                        .param("lon", "10.0")
+                        .param("radius", "500"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+    }
+    
+    @WithMockUser
+    @Test
+    void testLocationStreamSendsSnapshotThenUpdates() throws Exception {
+        // Given - an open stream
+        Long technicianId = 112L;
+        MvcResult stream = mockMvc.perform(get("/api/technicians/locations/stream"))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+        assertTrue(stream.getResponse().getContentAsString().startsWith("event:snapshot"));
+        
+        // When - the technician reports a location
+        LocationUpdateRequest request = LocationUpdateRequest.builder()
+                .latitude(20.0)
+                .longitude(20.0)
+                .accuracy(5.0)
+                .build();
+        mockMvc.perform(post("/api/technicians/me/location")
+                        .header("X-Technician-Id", technicianId.toString())
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(request)))
+                .andExpect(status().isCreated());
+        
+        // Then - the stream pushes the update
+        long deadline = System.currentTimeMillis() + 5000;
+        String content = stream.getResponse().getContentAsString();
+        while (!content.contains("\"technicianId\":112") && System.currentTimeMillis() < deadline) {
+            Thread.sleep(20);
+            content = stream.getResponse().getContentAsString();
+        }
+        assertTrue(content.contains("event:location"), content);
+        assertTrue(content.contains("\"technicianId\":112"), content);
+        assertTrue(content.contains("\"status\":\"available\""), content);
+    }
 }
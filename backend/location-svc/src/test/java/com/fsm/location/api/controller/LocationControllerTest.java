@@ -1,10 +1,18 @@
 package com.fsm.location.api.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fsm.location.api.dto.BufferedLocationFix;
+import com.fsm.location.api.dto.LocationBatchRequest;
+import com.fsm.location.api.dto.LocationBatchResponse;
+import com.fsm.location.api.dto.LocationDeltaResponse;
 import com.fsm.location.api.dto.LocationUpdateRequest;
 import com.fsm.location.api.dto.TechnicianLocationDTO;
+import com.fsm.location.api.wire.LocationWireFormat;
+import com.fsm.location.domain.model.LocationFix;
 import com.fsm.location.domain.model.TechnicianLocation;
+import com.fsm.location.service.ActiveLocationsSnapshot;
 import com.fsm.location.service.LocationService;
+import com.fsm.location.service.exception.IngestBufferFullException;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -14,13 +22,18 @@ import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.web.servlet.MockMvc;
 
+import java.io.ByteArrayInputStream;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.zip.GZIPInputStream;
 
+import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
 import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.csrf;
@@ -55,6 +68,10 @@ class LocationControllerTest {
     private LocationUpdateRequest validRequest;
     private TechnicianLocation savedLocation;
     
+    private ActiveLocationsSnapshot snapshot(List<TechnicianLocationDTO> locations) {
+        return ActiveLocationsSnapshot.encode(locations, objectMapper);
+    }
+    
     @BeforeEach
     void setUp() {
         validRequest = LocationUpdateRequest.builder()
@@ -82,6 +99,8 @@ class LocationControllerTest {
         // Given
         when(locationService.updateLocation(eq(101L), any(LocationUpdateRequest.class)))
                 .thenReturn(savedLocation);
+        when(locationService.recommendReportingInterval(eq(101L), any(LocationUpdateRequest.class)))
+                .thenReturn(60L);
         
         // When / Then
         mockMvc.perform(post("/api/technicians/me/location")
@@ -93,7 +112,8 @@ class LocationControllerTest {
                 .andExpect(jsonPath("$.technicianId").value(101))
                 .andExpect(jsonPath("$.latitude").value(39.7817))
                 .andExpect(jsonPath("$.longitude").value(-89.6501))
-                .andExpect(jsonPath("$.message").value("Location updated successfully"));
+                .andExpect(jsonPath("$.message").value("Location updated successfully"))
+                .andExpect(jsonPath("$.recommendedIntervalSeconds").value(60));
         
         verify(locationService).updateLocation(eq(101L), any(LocationUpdateRequest.class));
     }
@@ -102,8 +122,7 @@ class LocationControllerTest {
     @Test
     void testUpdateMyLocationRateLimitExceeded() throws Exception {
         // Given
-        when(locationService.updateLocation(eq(101L), any(LocationUpdateRequest.class)))
-                .thenThrow(new IllegalStateException("Rate limit exceeded. Please wait 20 seconds before updating location again."));
+        when(locationService.acquireUpdatePermit(101L)).thenReturn(20L);
         
         // When / Then
         mockMvc.perform(post("/api/technicians/me/location")
@@ -111,10 +130,82 @@ class LocationControllerTest {
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(validRequest)))
                 .andExpect(status().isTooManyRequests())
+                .andExpect(header().string("Retry-After", "20"))
                 .andExpect(jsonPath("$.technicianId").value(101))
                 .andExpect(jsonPath("$.message").value("Rate limit exceeded. Please wait 20 seconds before updating location again."));
         
-        verify(locationService).updateLocation(eq(101L), any(LocationUpdateRequest.class));
+        verify(locationService, never()).updateLocation(any(), any());
+        verify(locationService, never()).enqueueLocation(any(), any());
+    }
+    
+    @WithMockUser
+    @Test
+    void testUpdateMyLocationStationaryReturnsOk() throws Exception {
+        // Given
+        when(locationService.recordStationaryHeartbeat(eq(101L), any(LocationUpdateRequest.class)))
+                .thenReturn(Optional.of(LocationFix.builder()
+                        .locationId(1L)
+                        .technicianId(101L)
+                        .latitude(39.7817)
+                        .longitude(-89.6501)
+                        .accuracy(5.0)
+                        .timestamp(LocalDateTime.now())
+                        .build()));
+        
+        // When / Then - the persisted location is returned, nothing is written
+        mockMvc.perform(post("/api/technicians/me/location")
+                        .header("X-Technician-Id", "101")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(validRequest)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.locationId").value(1))
+                .andExpect(jsonPath("$.message").value("Location unchanged"));
+        
+        verify(locationService, never()).updateLocation(any(), any());
+        verify(locationService, never()).enqueueLocation(any(), any());
+    }
+    
+    @WithMockUser
+    @Test
+    void testUpdateMyLocationWriteBehindReturnsAccepted() throws Exception {
+        // Given
+        when(locationService.isWriteBehindEnabled()).thenReturn(true);
+        when(locationService.enqueueLocation(eq(101L), any(LocationUpdateRequest.class)))
+                .thenReturn(LocationFix.builder()
+                        .technicianId(101L)
+                        .latitude(39.7817)
+                        .longitude(-89.6501)
+                        .accuracy(5.0)
+                        .timestamp(LocalDateTime.now())
+                        .build());
+        
+        // When / Then
+        mockMvc.perform(post("/api/technicians/me/location")
+                        .header("X-Technician-Id", "101")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(validRequest)))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.locationId").doesNotExist())
+                .andExpect(jsonPath("$.technicianId").value(101))
+                .andExpect(jsonPath("$.message").value("Location accepted for processing"));
+        
+        verify(locationService, never()).updateLocation(any(), any());
+    }
+    
+    @WithMockUser
+    @Test
+    void testUpdateMyLocationWriteBehindBufferFull() throws Exception {
+        // Given
+        when(locationService.isWriteBehindEnabled()).thenReturn(true);
+        when(locationService.enqueueLocation(eq(101L), any(LocationUpdateRequest.class)))
+                .thenThrow(new IngestBufferFullException());
+        
+        // When / Then
+        mockMvc.perform(post("/api/technicians/me/location")
+                        .header("X-Technician-Id", "101")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(validRequest)))
+                .andExpect(status().isServiceUnavailable());
     }
     
     @WithMockUser
@@ -280,12 +371,97 @@ class LocationControllerTest {
         verify(locationService).updateLocation(eq(101L), any(LocationUpdateRequest.class));
     }
     
+    @WithMockUser
+    @Test
+    void testUpdateMyLocationsBatchSuccess() throws Exception {
+        // Given
+        LocationBatchRequest batchRequest = LocationBatchRequest.builder()
+                .fixes(List.of(BufferedLocationFix.builder()
+                        .latitude(39.7817)
+                        .longitude(-89.6501)
+                        .accuracy(5.0)
+                        .recordedAt(LocalDateTime.now().minusMinutes(5))
+                        .build()))
+                .build();
+        when(locationService.updateLocations(eq(101L), any()))
+                .thenReturn(LocationBatchResponse.builder()
+                        .technicianId(101L).received(1).accepted(1).build());
+        
+        // When / Then
+        mockMvc.perform(post("/api/technicians/me/location/batch")
+                        .header("X-Technician-Id", "101")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(batchRequest)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.accepted").value(1))
+                .andExpect(jsonPath("$.message").value("Locations updated successfully"));
+    }
+    
+    @WithMockUser
+    @Test
+    void testUpdateMyLocationsBatchNothingStored() throws Exception {
+        // Given
+        LocationBatchRequest batchRequest = LocationBatchRequest.builder()
+                .fixes(List.of(BufferedLocationFix.builder()
+                        .latitude(39.7817)
+                        .longitude(-89.6501)
+                        .accuracy(5.0)
+                        .recordedAt(LocalDateTime.now())
+                        .build()))
+                .build();
+        when(locationService.updateLocations(eq(101L), any()))
+                .thenReturn(LocationBatchResponse.builder()
+                        .technicianId(101L).received(1).accepted(0).skipped(1).build());
+        
+        // When / Then
+        mockMvc.perform(post("/api/technicians/me/location/batch")
+                        .header("X-Technician-Id", "101")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(batchRequest)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.skipped").value(1));
+    }
+    
+    @WithMockUser
+    @Test
+    void testUpdateMyLocationsBatchRejectsInvalidFix() throws Exception {
+        // Given - one fix without a device timestamp
+        LocationBatchRequest batchRequest = LocationBatchRequest.builder()
+                .fixes(List.of(BufferedLocationFix.builder()
+                        .latitude(39.7817)
+                        .longitude(-89.6501)
+                        .accuracy(5.0)
+                        .build()))
+                .build();
+        
+        // When / Then
+        mockMvc.perform(post("/api/technicians/me/location/batch")
+                        .header("X-Technician-Id", "101")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(batchRequest)))
+                .andExpect(status().isBadRequest());
+        
+        verify(locationService, never()).updateLocations(any(), any());
+    }
+    
+    @WithMockUser
+    @Test
+    void testUpdateMyLocationsBatchRejectsEmptyBatch() throws Exception {
+        mockMvc.perform(post("/api/technicians/me/location/batch")
+                        .header("X-Technician-Id", "101")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content("{\"fixes\":[]}"))
+                .andExpect(status().isBadRequest());
+        
+        verify(locationService, never()).updateLocations(any(), any());
+    }
+    
     @WithMockUser
     @Test
     void testGetMyLatestLocationExists() throws Exception {
         // Given
         when(locationService.getLatestLocation(101L))
-                .thenReturn(Optional.of(savedLocation));
+                .thenReturn(Optional.of(LocationFix.from(savedLocation)));
         
         // When / Then
         mockMvc.perform(get("/api/technicians/me/location")
@@ -424,6 +600,61 @@ class LocationControllerTest {
                 .andExpect(jsonPath("$.technicianId").value(102));
     }
     
+    @WithMockUser
+    @Test
+    void testUpdateMyLocationBinary() throws Exception {
+        // Given
+        when(locationService.updateLocation(eq(101L), any(LocationUpdateRequest.class)))
+                .thenReturn(savedLocation);
+        
+        // When / Then
+        mockMvc.perform(post("/api/technicians/me/location")
+                        .header("X-Technician-Id", "101")
+                        .contentType(LocationWireFormat.MEDIA_TYPE)
+                        .content(LocationWireFormat.encodeUpdate(validRequest)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.locationId").value(1));
+        
+        verify(locationService).updateLocation(101L, validRequest);
+    }
+    
+    @WithMockUser
+    @Test
+    void testUpdateMyLocationBinaryMalformed() throws Exception {
+        mockMvc.perform(post("/api/technicians/me/location")
+                        .header("X-Technician-Id", "101")
+                        .contentType(LocationWireFormat.MEDIA_TYPE)
+                        .content(new byte[] {1, 2, 3}))
+                .andExpect(status().isBadRequest());
+        
+        verify(locationService, never()).updateLocation(any(), any());
+    }
+    
+    @WithMockUser
+    @Test
+    void testUpdateMyLocationsBinaryBatch() throws Exception {
+        // Given
+        LocalDateTime recordedAt = LocalDateTime.now().minusMinutes(5).withNano(0);
+        List<BufferedLocationFix> fixes = List.of(
+                BufferedLocationFix.builder().latitude(39.7817).longitude(-89.6501).accuracy(5.0)
+                        .batteryLevel(85).recordedAt(recordedAt).build(),
+                BufferedLocationFix.builder().latitude(39.7820).longitude(-89.6498).accuracy(6.0)
+                        .recordedAt(recordedAt.plusSeconds(30)).build());
+        when(locationService.updateLocations(eq(101L), anyList()))
+                .thenReturn(LocationBatchResponse.builder()
+                        .technicianId(101L).received(2).accepted(2).build());
+        
+        // When / Then
+        mockMvc.perform(post("/api/technicians/me/location/batch")
+                        .header("X-Technician-Id", "101")
+                        .contentType(LocationWireFormat.MEDIA_TYPE)
+                        .content(LocationWireFormat.encodeBatch(fixes)))
+                .andExpect(status().isCreated())
+                .andExpect(jsonPath("$.accepted").value(2));
+        
+        verify(locationService).updateLocations(101L, fixes);
+    }
+    
     @Test
     @WithMockUser(authorities = {"DISPATCHER"})
     void testGetAllTechnicianLocationsAsDispatcher() throws Exception {
@@ -452,7 +683,7 @@ class LocationControllerTest {
                         .build()
         );
         
-        when(locationService.getAllActiveTechnicianLocations()).thenReturn(locations);
+        when(locationService.getActiveLocationsSnapshot()).thenReturn(snapshot(locations));
         
         // When / Then
         mockMvc.perform(get("/api/technicians/locations")
@@ -469,7 +700,7 @@ class LocationControllerTest {
                 .andExpect(jsonPath("$[1].technicianId").value(102))
                 .andExpect(jsonPath("$[1].status").value("busy"));
         
-        verify(locationService).getAllActiveTechnicianLocations();
+        verify(locationService).getActiveLocationsSnapshot();
     }
     
     @Test
@@ -489,7 +720,7 @@ class LocationControllerTest {
                         .build()
         );
         
-        when(locationService.getAllActiveTechnicianLocations()).thenReturn(locations);
+        when(locationService.getActiveLocationsSnapshot()).thenReturn(snapshot(locations));
         
         // When / Then
         mockMvc.perform(get("/api/technicians/locations")
@@ -497,7 +728,7 @@ class LocationControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.length()").value(1));
         
-        verify(locationService).getAllActiveTechnicianLocations();
+        verify(locationService).getActiveLocationsSnapshot();
     }
     
     @Test
@@ -517,7 +748,7 @@ class LocationControllerTest {
                         .build()
         );
         
-        when(locationService.getAllActiveTechnicianLocations()).thenReturn(locations);
+        when(locationService.getActiveLocationsSnapshot()).thenReturn(snapshot(locations));
         
         // When / Then
         mockMvc.perform(get("/api/technicians/locations")
@@ -525,7 +756,7 @@ class LocationControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.length()").value(1));
         
-        verify(locationService).getAllActiveTechnicianLocations();
+        verify(locationService).getActiveLocationsSnapshot();
     }
     
     // Note: RBAC tests (TECHNICIAN forbidden, Unauthenticated access) are covered in LocationControllerIntegrationTest
@@ -535,7 +766,7 @@ class LocationControllerTest {
     @WithMockUser(authorities = {"DISPATCHER"})
     void testGetAllTechnicianLocationsEmptyList() throws Exception {
         // Given
-        when(locationService.getAllActiveTechnicianLocations()).thenReturn(Collections.emptyList());
+        when(locationService.getActiveLocationsSnapshot()).thenReturn(snapshot(Collections.emptyList()));
         
         // When / Then
         mockMvc.perform(get("/api/technicians/locations")
@@ -543,7 +774,7 @@ class LocationControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.length()").value(0));
         
-        verify(locationService).getAllActiveTechnicianLocations();
+        verify(locationService).getActiveLocationsSnapshot();
     }
     
     @Test
@@ -566,7 +797,7 @@ class LocationControllerTest {
                         .timestamp(now.minusMinutes(10)).batteryLevel(45).build()
         );
         
-        when(locationService.getAllActiveTechnicianLocations()).thenReturn(locations);
+        when(locationService.getActiveLocationsSnapshot()).thenReturn(snapshot(locations));
         
         // When / Then
         mockMvc.perform(get("/api/technicians/locations")
@@ -577,6 +808,134 @@ class LocationControllerTest {
                 .andExpect(jsonPath("$[1].status").value("available"))
                 .andExpect(jsonPath("$[2].status").value("busy"));
         
-        verify(locationService).getAllActiveTechnicianLocations();
+        verify(locationService).getActiveLocationsSnapshot();
+    }
+    
+    @Test
+    @WithMockUser(authorities = {"DISPATCHER"})
+    void testGetAllTechnicianLocationsReturnsNotModifiedForMatchingETag() throws Exception {
+        // Given
+        List<TechnicianLocationDTO> locations = Collections.singletonList(
+                TechnicianLocationDTO.builder()
+                        .technicianId(101L).name("Technician 101").status("available")
+                        .latitude(39.7817).longitude(-89.6501).accuracy(5.0)
+                        .timestamp(LocalDateTime.now()).batteryLevel(85).build()
+        );
+        when(locationService.getActiveLocationsSnapshot()).thenReturn(snapshot(locations));
+        
+        String etag = mockMvc.perform(get("/api/technicians/locations"))
+                .andExpect(status().isOk())
+                .andExpect(header().exists("ETag"))
+                .andReturn().getResponse().getHeader("ETag");
+        
+        // When / Then
+        mockMvc.perform(get("/api/technicians/locations")
+                        .header("If-None-Match", etag))
+                .andExpect(status().isNotModified())
+                .andExpect(content().string(""));
+    }
+    
+    @Test
+    @WithMockUser(authorities = {"DISPATCHER"})
+    void testGetAllTechnicianLocationsETagChangesWithContent() throws Exception {
+        // Given
+        LocalDateTime now = LocalDateTime.now();
+        TechnicianLocationDTO before = TechnicianLocationDTO.builder()
+                .technicianId(101L).name("Technician 101").status("available")
+                .latitude(39.7817).longitude(-89.6501).accuracy(5.0)
+                .timestamp(now.minusSeconds(30)).batteryLevel(85).build();
+        TechnicianLocationDTO after = TechnicianLocationDTO.builder()
+                .technicianId(101L).name("Technician 101").status("available")
+                .latitude(39.7820).longitude(-89.6501).accuracy(5.0)
+                .timestamp(now).batteryLevel(85).build();
+        when(locationService.getActiveLocationsSnapshot())
+                .thenReturn(snapshot(List.of(before)))
+                .thenReturn(snapshot(List.of(after)));
+        
+        String etag = mockMvc.perform(get("/api/technicians/locations"))
+                .andReturn().getResponse().getHeader("ETag");
+        
+        // When / Then
+        mockMvc.perform(get("/api/technicians/locations")
+                        .header("If-None-Match", etag))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].latitude").value(39.7820));
+    }
+    
+    @Test
+    @WithMockUser(authorities = {"DISPATCHER"})
+    void testGetAllTechnicianLocationsServesPreEncodedGzipBody() throws Exception {
+        // Given - enough technicians for gzip to pay off
+        LocalDateTime now = LocalDateTime.now();
+        List<TechnicianLocationDTO> locations = new ArrayList<>();
+        for (long technicianId = 1; technicianId <= 50; technicianId++) {
+            locations.add(TechnicianLocationDTO.builder()
+                    .technicianId(technicianId).name("Technician " + technicianId).status("available")
+                    .latitude(39.7817).longitude(-89.6501).accuracy(5.0)
+                    .timestamp(now).batteryLevel(85).build());
+        }
+        ActiveLocationsSnapshot snapshot = snapshot(locations);
+        when(locationService.getActiveLocationsSnapshot()).thenReturn(snapshot);
+        
+        // When / Then
+        mockMvc.perform(get("/api/technicians/locations")
+                        .header("Accept-Encoding", "gzip, deflate, br"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(header().string("ETag", snapshot.getGzipETag()))
+                .andExpect(header().string("Vary", org.hamcrest.Matchers.containsString("Accept-Encoding")))
+                .andExpect(content().contentTypeCompatibleWith(MediaType.APPLICATION_JSON))
+                .andExpect(content().bytes(snapshot.getGzipBody()));
+        mockMvc.perform(get("/api/technicians/locations")
+                        .header("Accept-Encoding", "gzip")
+                        .header("If-None-Match", snapshot.getGzipETag()))
+                .andExpect(status().isNotModified());
+        mockMvc.perform(get("/api/technicians/locations")
+                        .header("Accept-Encoding", "gzip;q=0"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andExpect(content().bytes(snapshot.getIdentityBody()));
+        
+        byte[] decompressed = new GZIPInputStream(new ByteArrayInputStream(snapshot.getGzipBody())).readAllBytes();
+        assertArrayEquals(snapshot.getIdentityBody(), decompressed);
+    }
+    
+    @Test
+    void testAcceptsGzip() {
+        assertTrue(LocationController.acceptsGzip("gzip"));
+        assertTrue(LocationController.acceptsGzip("deflate, GZIP;q=0.5"));
+        assertTrue(LocationController.acceptsGzip("*"));
+        assertFalse(LocationController.acceptsGzip(null));
+        assertFalse(LocationController.acceptsGzip("br, deflate"));
+        assertFalse(LocationController.acceptsGzip("gzip;q=0"));
+        assertFalse(LocationController.acceptsGzip("gzip;q=0.0, identity"));
+    }
+    
+    @Test
+    @WithMockUser(authorities = {"DISPATCHER"})
+    void testGetTechnicianLocationChangesSinceVersion() throws Exception {
+        // Given
+        LocationDeltaResponse delta = LocationDeltaResponse.builder()
+                .version(1042L)
+                .full(false)
+                .changed(List.of(TechnicianLocationDTO.builder()
+                        .technicianId(101L).name("Technician 101").status("available")
+                        .latitude(39.7817).longitude(-89.6501).accuracy(5.0)
+                        .timestamp(LocalDateTime.now()).batteryLevel(85).build()))
+                .removed(List.of(102L))
+                .build();
+        when(locationService.getLocationChangesSince(1040L)).thenReturn(delta);
+        
+        // When / Then
+        mockMvc.perform(get("/api/technicians/locations")
+                        .param("sinceVersion", "1040"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.version").value(1042))
+                .andExpect(jsonPath("$.full").value(false))
+                .andExpect(jsonPath("$.changed.length()").value(1))
+                .andExpect(jsonPath("$.changed[0].technicianId").value(101))
+                .andExpect(jsonPath("$.removed[0]").value(102));
+        
+        verify(locationService, never()).getActiveLocationsSnapshot();
     }
 }
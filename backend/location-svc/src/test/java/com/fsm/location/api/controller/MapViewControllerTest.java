@@ -0,0 +1,128 @@
+package com.fsm.location.api.controller;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fsm.location.api.dto.MapViewResponse;
+import com.fsm.location.api.dto.TechnicianClusterDTO;
+import com.fsm.location.api.dto.TechnicianLocationDTO;
+import com.fsm.location.service.ActiveLocationsSnapshot;
+import com.fsm.location.service.LocationService;
+import com.fsm.location.service.MapViewService;
+import com.fsm.location.service.exception.InvalidViewportException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Unit tests for MapViewController.
+ */
+@WebMvcTest(controllers = {MapViewController.class, LocationController.class},
+        excludeAutoConfiguration = {
+                org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration.class,
+                org.springframework.boot.autoconfigure.security.servlet.SecurityFilterAutoConfiguration.class
+        })
+class MapViewControllerTest {
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @MockBean
+    private MapViewService mapViewService;
+    
+    @MockBean
+    private LocationService locationService;
+    
+    @WithMockUser
+    @Test
+    void testGetMapViewReturnsClustersAndTechnicians() throws Exception {
+        // Given
+        MapViewResponse view = MapViewResponse.builder()
+                .zoom(6)
+                .clustered(true)
+                .total(3)
+                .technicians(List.of(TechnicianLocationDTO.builder()
+                        .technicianId(103L)
+                        .status("available")
+                        .latitude(41.88)
+                        .longitude(-87.63)
+                        .timestamp(LocalDateTime.now())
+                        .build()))
+                .clusters(List.of(new TechnicianClusterDTO(39.79, -89.64, 2, 1)))
+                .build();
+        when(mapViewService.getMapView(-92.0, 37.0, -86.0, 43.0, 6)).thenReturn(view);
+        
+        // When / Then
+        mockMvc.perform(get("/api/technicians/locations")
+                        .param("bbox", "-92,37,-86,43")
+                        .param("zoom", "6"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.clustered").value(true))
+                .andExpect(jsonPath("$.total").value(3))
+                .andExpect(jsonPath("$.clusters[0].count").value(2))
+                .andExpect(jsonPath("$.clusters[0].latitude").value(39.79))
+                .andExpect(jsonPath("$.technicians[0].technicianId").value(103));
+        
+        verifyNoInteractions(locationService);
+    }
+    
+    @WithMockUser
+    @Test
+    void testWithoutBboxServesFullList() throws Exception {
+        // Given
+        when(locationService.getActiveLocationsSnapshot())
+                .thenReturn(ActiveLocationsSnapshot.encode(List.of(), new ObjectMapper()));
+        
+        // When / Then
+        mockMvc.perform(get("/api/technicians/locations"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+        
+        verifyNoInteractions(mapViewService);
+    }
+    
+    @WithMockUser
+    @Test
+    void testGetMapViewRejectsMalformedBbox() throws Exception {
+        mockMvc.perform(get("/api/technicians/locations")
+                        .param("bbox", "-92,37,-86")
+                        .param("zoom", "6"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/technicians/locations")
+                        .param("bbox", "-92,37,west,43")
+                        .param("zoom", "6"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/technicians/locations")
+                        .param("bbox", "-92,,-86,43")
+                        .param("zoom", "6"))
+                .andExpect(status().isBadRequest());
+        
+        verify(mapViewService, never()).getMapView(anyDouble(), anyDouble(), anyDouble(), anyDouble(), anyInt());
+    }
+    
+    @WithMockUser
+    @Test
+    void testGetMapViewRejectsInvalidZoomOrViewport() throws Exception {
+        when(mapViewService.getMapView(-92.0, 43.0, -86.0, 37.0, 6))
+                .thenThrow(new InvalidViewportException("Viewport minLat must not be greater than maxLat"));
+        
+        mockMvc.perform(get("/api/technicians/locations")
+                        .param("bbox", "-92,37,-86,43")
+                        .param("zoom", "23"))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/technicians/locations")
+                        .param("bbox", "-92,43,-86,37")
+                        .param("zoom", "6"))
+                .andExpect(status().isBadRequest());
+    }
+}
@@ -0,0 +1,152 @@
+package com.fsm.location.api.controller;
+
+import com.fsm.location.api.dto.NearbyTechnicianDTO;
+import com.fsm.location.service.ProximityService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Unit tests for ProximityController.
+ */
+@WebMvcTest(controllers = ProximityController.class,
+        excludeAutoConfiguration = {
+                org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration.class,
+                org.springframework.boot.autoconfigure.security.servlet.SecurityFilterAutoConfiguration.class
+        })
+class ProximityControllerTest {
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @MockBean
+    private ProximityService proximityService;
+    
+    @WithMockUser
+    @Test
+    void testGetNearbyTechnicians() throws Exception {
+        // Given
+        NearbyTechnicianDTO technician = NearbyTechnicianDTO.builder()
+                .technicianId(101L)
+                .name("Technician 101")
+                .status("available")
+                .latitude(39.7817)
+                .longitude(-89.6510)
+                .accuracy(5.0)
+                .timestamp(LocalDateTime.now())
+                .distanceMeters(77.0)
+                .build();
+        when(proximityService.findNearbyTechnicians(39.7817, -89.6501, 5000.0))
+                .thenReturn(List.of(technician));
+        
+        // When / Then
+        mockMvc.perform(get("/api/technicians/nearby")
+                        .param("lat", "39.7817")
+                        .param("lon", "-89.6501")
+                        .param("radius", "5000"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(1))
+                .andExpect(jsonPath("$[0].technicianId").value(101))
+                .andExpect(jsonPath("$[0].distanceMeters").value(77.0));
+    }
+    
+    @WithMockUser
+    @Test
+    void testGetNearbyTechniciansInvalidLatitude() throws Exception {
+        mockMvc.perform(get("/api/technicians/nearby")
+                        .param("lat", "91")
+                        .param("lon", "-89.6501")
+                        .param("radius", "5000"))
+                .andExpect(status().isBadRequest());
+        
+        verify(proximityService, never()).findNearbyTechnicians(anyDouble(), anyDouble(), anyDouble());
+    }
+    
+    @WithMockUser
+    @Test
+    void testGetNearbyTechniciansInvalidRadius() throws Exception {
+        mockMvc.perform(get("/api/technicians/nearby")
+                        .param("lat", "39.7817")
+                        .param("lon", "-89.6501")
+                        .param("radius", "0"))
+                .andExpect(status().isBadRequest());
+        
+        mockMvc.perform(get("/api/technicians/nearby")
+                        .param("lat", "39.7817")
+                        .param("lon", "-89.6501")
+                        .param("radius", "200000"))
+                .andExpect(status().isBadRequest());
+    }
+    
+    @WithMockUser
+    @Test
+    void testGetNearbyTechniciansMissingParameter() throws Exception {
+        mockMvc.perform(get("/api/technicians/nearby")
+                        .param("lat", "39.7817"))
+                .andExpect(status().isBadRequest());
+    }
+    
+    @WithMockUser
+    @Test
+    void testGetNearestTechnicians() throws Exception {
+        // Given
+        NearbyTechnicianDTO technician = NearbyTechnicianDTO.builder()
+                .technicianId(102L)
+                .status("busy")
+                .distanceMeters(1740.0)
+                .build();
+        when(proximityService.findNearestTechnicians(39.7817, -89.6501, 3))
+                .thenReturn(List.of(technician));
+        
+        // When / Then
+        mockMvc.perform(get("/api/technicians/nearest")
+                        .param("lat", "39.7817")
+                        .param("lon", "-89.6501")
+                        .param("k", "3"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$[0].technicianId").value(102))
+                .andExpect(jsonPath("$[0].distanceMeters").value(1740.0));
+    }
+    
+    @WithMockUser
+    @Test
+    void testGetNearestTechniciansDefaultsToFive() throws Exception {
+        when(proximityService.findNearestTechnicians(39.7817, -89.6501, 5)).thenReturn(List.of());
+        
+        mockMvc.perform(get("/api/technicians/nearest")
+                        .param("lat", "39.7817")
+                        .param("lon", "-89.6501"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(0));
+    }
+    
+    @WithMockUser
+    @Test
+    void testGetNearestTechniciansInvalidK() throws Exception {
+        mockMvc.perform(get("/api/technicians/nearest")
+                        .param("lat", "39.7817")
+                        .param("lon", "-89.6501")
+                        .param("k", "0"))
+                .andExpect(status().isBadRequest());
+        
+        mockMvc.perform(get("/api/technicians/nearest")
+                        .param("lat", "39.7817")
+                        .param("lon", "-89.6501")
+                        .param("k", "101"))
+                .andExpect(status().isBadRequest());
+        
+        verify(proximityService, never()).findNearestTechnicians(anyDouble(), anyDouble(), anyInt());
+    }
+}
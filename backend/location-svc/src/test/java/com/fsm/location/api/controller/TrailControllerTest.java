@@ -0,0 +1,103 @@
+package com.fsm.location.api.controller;
+
+import com.fsm.location.api.dto.TrailResponse;
+import com.fsm.location.service.TrailService;
+import com.fsm.location.service.exception.InvalidTrailRangeException;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.boot.test.mock.mockito.MockBean;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.time.LocalDateTime;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+/**
+ * Unit tests for TrailController.
+ */
+@WebMvcTest(controllers = TrailController.class,
+        excludeAutoConfiguration = {
+                org.springframework.boot.autoconfigure.security.servlet.SecurityAutoConfiguration.class,
+                org.springframework.boot.autoconfigure.security.servlet.SecurityFilterAutoConfiguration.class
+        })
+class TrailControllerTest {
+    
+    private static final LocalDateTime FROM = LocalDateTime.of(2024, 1, 15, 0, 0);
+    private static final LocalDateTime TO = LocalDateTime.of(2024, 1, 16, 0, 0);
+    
+    @Autowired
+    private MockMvc mockMvc;
+    
+    @MockBean
+    private TrailService trailService;
+    
+    @WithMockUser
+    @Test
+    void testGetTrail() throws Exception {
+        // Given
+        TrailResponse trail = TrailResponse.builder()
+                .technicianId(101L)
+                .from(FROM)
+                .to(TO)
+                .recordedPoints(3)
+                .points(2)
+                .toleranceMeters(10.0)
+                .polyline("_p~iF~ps|U_ulLnnqC")
+                .startTime(FROM.plusHours(8))
+                .timeOffsets(new int[] {0, 60})
+                .build();
+        when(trailService.getTrail(101L, FROM, TO, 10.0)).thenReturn(trail);
+        
+        // When / Then
+        mockMvc.perform(get("/api/technicians/101/trail")
+                        .param("from", "2024-01-15T00:00:00")
+                        .param("to", "2024-01-16T00:00:00")
+                        .param("tolerance", "10"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.technicianId").value(101))
+                .andExpect(jsonPath("$.recordedPoints").value(3))
+                .andExpect(jsonPath("$.points").value(2))
+                .andExpect(jsonPath("$.polyline").value("_p~iF~ps|U_ulLnnqC"))
+                .andExpect(jsonPath("$.timeOffsets[1]").value(60));
+    }
+    
+    @WithMockUser
+    @Test
+    void testGetTrailDefaults() throws Exception {
+        when(trailService.getTrail(101L, null, null, 0.0)).thenReturn(TrailResponse.builder().build());
+        
+        mockMvc.perform(get("/api/technicians/101/trail"))
+                .andExpect(status().isOk());
+        
+        verify(trailService).getTrail(101L, null, null, 0.0);
+    }
+    
+    @WithMockUser
+    @Test
+    void testGetTrailInvalidTolerance() throws Exception {
+        mockMvc.perform(get("/api/technicians/101/trail")
+                        .param("tolerance", "-1"))
+                .andExpect(status().isBadRequest());
+        
+        verify(trailService, never()).getTrail(any(), any(), any(), anyDouble());
+    }
+    
+    @WithMockUser
+    @Test
+    void testGetTrailInvalidRange() throws Exception {
+        when(trailService.getTrail(eq(101L), any(), any(), anyDouble()))
+                .thenThrow(new InvalidTrailRangeException("Trail start must be before its end"));
+        
+        mockMvc.perform(get("/api/technicians/101/trail")
+                        .param("from", "2024-01-16T00:00:00")
+                        .param("to", "2024-01-15T00:00:00"))
+                .andExpect(status().isBadRequest());
+    }
+}
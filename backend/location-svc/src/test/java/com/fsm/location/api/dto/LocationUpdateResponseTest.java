@@ -42,7 +42,7 @@ class LocationUpdateResponseTest {
     void testAllArgsConstructor() {
         LocalDateTime now = LocalDateTime.now();
         LocationUpdateResponse response = new LocationUpdateResponse(
-                1L, 101L, 39.7817, -89.6501, now, "Success");
+                1L, 101L, 39.7817, -89.6501, now, "Success", 60L);
         
         assertNotNull(response);
         assertEquals(1L, response.getLocationId());
@@ -51,6 +51,7 @@ class LocationUpdateResponseTest {
         assertEquals(-89.6501, response.getLongitude());
         assertEquals(now, response.getTimestamp());
         assertEquals("Success", response.getMessage());
+        assertEquals(60L, response.getRecommendedIntervalSeconds());
     }
     
     @Test
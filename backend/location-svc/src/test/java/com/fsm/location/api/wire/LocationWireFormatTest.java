@@ -0,0 +1,124 @@
+package com.fsm.location.api.wire;
+
+import com.fsm.location.api.dto.BufferedLocationFix;
+import com.fsm.location.api.dto.LocationUpdateRequest;
+import com.fsm.location.service.exception.InvalidWireFormatException;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for LocationWireFormat.
+ */
+class LocationWireFormatTest {
+    
+    private static final LocalDateTime RECORDED_AT = LocalDateTime.of(2024, 1, 15, 8, 0);
+    
+    private static BufferedLocationFix fix(double latitude, double longitude, Integer battery, LocalDateTime recordedAt) {
+        return BufferedLocationFix.builder()
+                .latitude(latitude)
+                .longitude(longitude)
+                .accuracy(5.5)
+                .batteryLevel(battery)
+                .recordedAt(recordedAt)
+                .build();
+    }
+    
+    @Test
+    void testUpdateRoundTrip() {
+        LocationUpdateRequest request = LocationUpdateRequest.builder()
+                .latitude(-33.8688197)
+                .longitude(151.2092955)
+                .accuracy(12.3)
+                .batteryLevel(42)
+                .build();
+        
+        byte[] payload = LocationWireFormat.encodeUpdate(request);
+        
+        assertEquals(LocationWireFormat.UPDATE_SIZE, payload.length);
+        assertEquals(request, LocationWireFormat.decodeUpdate(payload));
+    }
+    
+    @Test
+    void testUpdateWithoutBatteryLevel() {
+        LocationUpdateRequest request = LocationUpdateRequest.builder()
+                .latitude(90.0)
+                .longitude(-180.0)
+                .accuracy(0.1)
+                .build();
+        
+        assertNull(LocationWireFormat.decodeUpdate(LocationWireFormat.encodeUpdate(request)).getBatteryLevel());
+    }
+    
+    @Test
+    void testUpdateRejectsInvalidPayloads() {
+        byte[] valid = LocationWireFormat.encodeUpdate(LocationUpdateRequest.builder()
+                .latitude(39.7817).longitude(-89.6501).accuracy(5.0).batteryLevel(85).build());
+        
+        assertThrows(InvalidWireFormatException.class,
+                () -> LocationWireFormat.decodeUpdate(Arrays.copyOf(valid, 11)));
+        
+        byte[] badVersion = valid.clone();
+        badVersion[0] = 2;
+        assertThrows(InvalidWireFormatException.class, () -> LocationWireFormat.decodeUpdate(badVersion));
+        
+        byte[] badLatitude = valid.clone();
+        badLatitude[1] = 0x7F;
+        assertThrows(InvalidWireFormatException.class, () -> LocationWireFormat.decodeUpdate(badLatitude));
+        
+        byte[] zeroAccuracy = valid.clone();
+        zeroAccuracy[9] = 0;
+        zeroAccuracy[10] = 0;
+        assertThrows(InvalidWireFormatException.class, () -> LocationWireFormat.decodeUpdate(zeroAccuracy));
+        
+        byte[] badBattery = valid.clone();
+        badBattery[11] = 101;
+        assertThrows(InvalidWireFormatException.class, () -> LocationWireFormat.decodeUpdate(badBattery));
+    }
+    
+    @Test
+    void testBatchRoundTrip() {
+        List<BufferedLocationFix> fixes = List.of(
+                fix(39.7817, -89.6501, 85, RECORDED_AT),
+                fix(39.7819, -89.6497, null, RECORDED_AT.plusSeconds(30)),
+                fix(39.7810, -89.6510, 84, RECORDED_AT.minusSeconds(10)));
+        
+        assertEquals(fixes, LocationWireFormat.decodeBatch(LocationWireFormat.encodeBatch(fixes)));
+    }
+    
+    @Test
+    void testBatchIsCompact() {
+        List<BufferedLocationFix> fixes = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            fixes.add(fix((397_817 + i) / 1e4, (-896_501 + i) / 1e4, 85, RECORDED_AT.plusSeconds(i * 30L)));
+        }
+        
+        byte[] payload = LocationWireFormat.encodeBatch(fixes);
+        
+        // First fix carries absolute values; every later fix takes 3 + 3 + 1 + 1 + 1 bytes
+        assertTrue(payload.length < 100 * 10, "payload was " + payload.length + " bytes");
+        assertEquals(fixes, LocationWireFormat.decodeBatch(payload));
+    }
+    
+    @Test
+    void testBatchRejectsInvalidPayloads() {
+        byte[] valid = LocationWireFormat.encodeBatch(List.of(fix(39.7817, -89.6501, 85, RECORDED_AT)));
+        
+        assertThrows(InvalidWireFormatException.class,
+                () -> LocationWireFormat.decodeBatch(Arrays.copyOf(valid, valid.length - 1)));
+        assertThrows(InvalidWireFormatException.class,
+                () -> LocationWireFormat.decodeBatch(Arrays.copyOf(valid, valid.length + 1)));
+        assertThrows(InvalidWireFormatException.class,
+                () -> LocationWireFormat.decodeBatch(new byte[] {1, 0}));
+        // 501 fixes
+        assertThrows(InvalidWireFormatException.class,
+                () -> LocationWireFormat.decodeBatch(new byte[] {1, (byte) 0xF5, 0x03}));
+        assertThrows(InvalidWireFormatException.class,
+                () -> LocationWireFormat.decodeBatch(new byte[0]));
+    }
+}
@@ -0,0 +1,71 @@
+package com.fsm.location.domain.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for LocationFix.
+ */
+class LocationFixTest {
+    
+    private LocationFix fix(LocalDateTime timestamp) {
+        return LocationFix.builder()
+                .technicianId(101L)
+                .latitude(39.7817)
+                .longitude(-89.6501)
+                .accuracy(5.0)
+                .timestamp(timestamp)
+                .build();
+    }
+    
+    @Test
+    void testFromCopiesEntityFields() {
+        LocalDateTime now = LocalDateTime.now();
+        TechnicianLocation location = TechnicianLocation.builder()
+                .id(1L)
+                .technicianId(101L)
+                .latitude(39.7817)
+                .longitude(-89.6501)
+                .accuracy(5.0)
+                .batteryLevel(85)
+                .timestamp(now)
+                .build();
+        
+        LocationFix fix = LocationFix.from(location);
+        
+        assertEquals(1L, fix.getLocationId());
+        assertEquals(101L, fix.getTechnicianId());
+        assertEquals(85, fix.getBatteryLevel());
+        assertEquals(now, fix.getTimestamp());
+    }
+    
+    @Test
+    void testIsNewerThan() {
+        LocalDateTime now = LocalDateTime.now();
+        
+        assertTrue(fix(now).isNewerThan(null));
+        assertTrue(fix(now).isNewerThan(fix(now.minusSeconds(1))));
+        assertFalse(fix(now).isNewerThan(fix(now)));
+    }
+    
+    @Test
+    void testDeriveStatusFromFreshness() {
+        LocalDateTime now = LocalDateTime.now();
+        
+        assertEquals("available", fix(now.minusMinutes(1)).deriveStatus());
+        assertEquals("busy", fix(now.minusMinutes(10)).deriveStatus());
+        assertEquals("offline", fix(now.minusMinutes(20)).deriveStatus());
+    }
+    
+    @Test
+    void testDistanceMetersTo() {
+        // Springfield, IL to Chicago, IL is about 288 km as the crow flies
+        double distance = fix(LocalDateTime.now()).distanceMetersTo(41.8781, -87.6298);
+        
+        assertEquals(288_500, distance, 1_000);
+        assertEquals(0.0, fix(LocalDateTime.now()).distanceMetersTo(39.7817, -89.6501), 0.001);
+    }
+}
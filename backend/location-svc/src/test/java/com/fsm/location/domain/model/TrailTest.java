@@ -0,0 +1,113 @@
+package com.fsm.location.domain.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for Trail.
+ */
+class TrailTest {
+    
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 15, 8, 0);
+    
+    @Test
+    void testEncodePolylineMatchesReferenceEncoding() {
+        // Example from the encoded polyline algorithm format specification
+        Trail trail = new Trail();
+        trail.add(38.5, -120.2, START);
+        trail.add(40.7, -120.95, START.plusSeconds(30));
+        trail.add(43.252, -126.453, START.plusSeconds(60));
+        
+        assertEquals("_p~iF~ps|U_ulLnnqC_mqNvxq`@", trail.encodePolyline());
+    }
+    
+    @Test
+    void testEmptyTrail() {
+        Trail trail = new Trail();
+        
+        assertTrue(trail.isEmpty());
+        assertEquals("", trail.encodePolyline());
+        assertEquals(0, trail.getTimeOffsets().length);
+        assertSame(trail, trail.simplify(10));
+    }
+    
+    @Test
+    void testGrowsBeyondInitialCapacity() {
+        Trail trail = new Trail(2);
+        for (int i = 0; i < 1000; i++) {
+            trail.add(39.78 + i * 1e-4, -89.65, START.plusSeconds(i * 30L));
+        }
+        
+        assertEquals(1000, trail.size());
+        assertEquals(39.78 + 999 * 1e-4, trail.getLatitude(999), 1e-9);
+        assertEquals(START.plusSeconds(999 * 30L), trail.getTimestamp(999));
+        assertEquals(999 * 30, trail.getTimeOffsets()[999]);
+    }
+    
+    @Test
+    void testSimplifyDropsCollinearPoints() {
+        Trail trail = new Trail();
+        for (int i = 0; i <= 100; i++) {
+            trail.add(39.78 + i * 1e-4, -89.65 + i * 1e-4, START.plusSeconds(i * 30L));
+        }
+        
+        Trail simplified = trail.simplify(1.0);
+        
+        assertEquals(2, simplified.size());
+        assertEquals(START, simplified.getTimestamp(0));
+        assertEquals(START.plusSeconds(3000), simplified.getTimestamp(1));
+    }
+    
+    @Test
+    void testSimplifyKeepsCornersBeyondTolerance() {
+        // An L-shaped path: east for ~850m, then north for ~1.1km, with a 2m wobble on each leg
+        Trail trail = new Trail();
+        trail.add(39.7800, -89.6600, START);
+        trail.add(39.78002, -89.6550, START.plusSeconds(30));
+        trail.add(39.7800, -89.6500, START.plusSeconds(60));
+        trail.add(39.7850, -89.65002, START.plusSeconds(90));
+        trail.add(39.7900, -89.6500, START.plusSeconds(120));
+        
+        Trail simplified = trail.simplify(10.0);
+        
+        assertEquals(3, simplified.size());
+        assertEquals(-89.6500, simplified.getLongitude(1), 1e-9);
+        assertEquals(39.7800, simplified.getLatitude(1), 1e-9);
+        assertArrayEquals(new int[] {0, 60, 120}, simplified.getTimeOffsets());
+        
+        // Below the wobble every point is kept
+        assertEquals(5, trail.simplify(1.0).size());
+    }
+    
+    @Test
+    void testSimplifyWithZeroToleranceKeepsTrail() {
+        Trail trail = new Trail();
+        trail.add(39.78, -89.65, START);
+        trail.add(39.79, -89.65, START.plusSeconds(30));
+        trail.add(39.80, -89.65, START.plusSeconds(60));
+        
+        assertSame(trail, trail.simplify(0));
+    }
+    
+    @Test
+    void testSimplifyAcrossAntimeridian() {
+        Trail trail = new Trail();
+        trail.add(0.0, 179.999, START);
+        trail.add(0.0, -179.9995, START.plusSeconds(30));
+        trail.add(0.0, -179.999, START.plusSeconds(60));
+        
+        // The middle point lies on the short segment across the antimeridian
+        assertEquals(2, trail.simplify(1.0).size());
+    }
+    
+    @Test
+    void testGetOutOfBoundsThrows() {
+        Trail trail = new Trail();
+        trail.add(39.78, -89.65, START);
+        
+        assertThrows(IndexOutOfBoundsException.class, () -> trail.getLatitude(1));
+    }
+}
@@ -1,14 +1,19 @@
 package com.fsm.location.domain.repository;
 
+import com.fsm.location.domain.model.TechnicianCurrentLocation;
 import com.fsm.location.domain.model.TechnicianLocation;
+import com.fsm.location.domain.model.TrailPoint;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
 import org.springframework.test.context.TestPropertySource;
 
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -17,15 +22,23 @@ import static org.junit.jupiter.api.Assertions.*;
  * Tests geospatial queries that work with H2 in-memory database.
  */
 @DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
 @TestPropertySource(locations = "classpath:application-test.properties")
 class LocationRepositoryIntegrationTest {
     
     @Autowired
     private LocationRepository repository;
     
+    @Autowired
+    private TechnicianCurrentLocationRepository currentLocationRepository;
+    
+    @Autowired
+    private TestEntityManager entityManager;
+    
     @BeforeEach
     void setUp() {
         repository.deleteAll();
+        currentLocationRepository.deleteAll();
         
         // Setup test data - Create locations in Springfield, IL area
         LocalDateTime now = LocalDateTime.now();
@@ -90,7 +103,8 @@ class LocationRepositoryIntegrationTest {
                 .batteryLevel(78)
                 .build();
         
-        repository.saveAll(List.of(location1, location2, location3, location4, location5, location6));
+        currentLocationRepository.upsertLatest(
+                repository.saveAll(List.of(location1, location2, location3, location4, location5, location6)));
     }
     
     @Test
@@ -220,6 +234,29 @@ class LocationRepositoryIntegrationTest {
         assertEquals(101L, locations.get(0).getTechnicianId());
     }
     
+    @Test
+    void testStreamTrailReturnsPointsOldestFirst() {
+        LocalDateTime start = LocalDateTime.now().minusHours(2).withNano(0);
+        for (int i = 2; i >= 0; i--) {
+            repository.save(TechnicianLocation.builder()
+                    .technicianId(202L)
+                    .latitude(39.78 + i * 0.001)
+                    .longitude(-89.65)
+                    .accuracy(5.0)
+                    .timestamp(start.plusMinutes(i))
+                    .build());
+        }
+        
+        List<TrailPoint> points;
+        try (Stream<TrailPoint> trail = repository.streamTrail(202L, start, start.plusMinutes(3))) {
+            points = trail.toList();
+        }
+        
+        assertEquals(3, points.size());
+        assertEquals(start, points.get(0).getTimestamp());
+        assertEquals(39.782, points.get(2).getLatitude(), 1e-9);
+    }
+    
     @Test
     void testCountByTechnicianId() {
         long count = repository.countByTechnicianId(101L);
@@ -276,4 +313,83 @@ class LocationRepositoryIntegrationTest {
                 .count();
         assertEquals(6, uniqueCount);
     }
+    
+    @Test
+    void testLatestQueriesFollowCurrentLocationUpserts() {
+        // Given - a newer location for technician 101
+        TechnicianLocation newerLocation = repository.save(TechnicianLocation.builder()
+                .technicianId(101L)
+                .latitude(39.7900)
+                .longitude(-89.6600)
+                .accuracy(5.0)
+                .timestamp(LocalDateTime.now())
+                .batteryLevel(80)
+                .build());
+        
+        // When
+        currentLocationRepository.upsert(newerLocation);
+        entityManager.clear();
+        
+        // Then
+        List<TechnicianLocation> latestLocations = repository.findLatestLocationsForAllTechnicians();
+        assertEquals(6, latestLocations.size());
+        TechnicianLocation latest = latestLocations.stream()
+                .filter(loc -> loc.getTechnicianId().equals(101L))
+                .findFirst()
+                .orElseThrow();
+        assertEquals(newerLocation.getId(), latest.getId());
+        assertEquals(newerLocation.getId(), currentLocationRepository.findById(101L).orElseThrow().getLocationId());
+    }
+    
+    @Test
+    void testCurrentLocationUpsertIgnoresOlderLocation() {
+        // Given - an out-of-order location for technician 104, older than its current one
+        Long currentLocationId = currentLocationRepository.findById(104L).orElseThrow().getLocationId();
+        TechnicianLocation olderLocation = repository.save(TechnicianLocation.builder()
+                .technicianId(104L)
+                .latitude(39.7000)
+                .longitude(-89.6000)
+                .accuracy(5.0)
+                .timestamp(LocalDateTime.now().minusMinutes(30))
+                .build());
+        
+        // When
+        currentLocationRepository.upsert(olderLocation);
+        entityManager.clear();
+        
+        // Then
+        assertEquals(currentLocationId, currentLocationRepository.findById(104L).orElseThrow().getLocationId());
+        assertEquals(6, currentLocationRepository.count());
+    }
+    
+    @Test
+    void testFirstCurrentLocationIsInsertedOnlyOnce() {
+        // Given - two first locations of a new technician, e.g. from a live update and an offline batch
+        TechnicianLocation first = repository.save(TechnicianLocation.builder()
+                .technicianId(999L)
+                .latitude(39.7900)
+                .longitude(-89.6600)
+                .accuracy(5.0)
+                .timestamp(LocalDateTime.now().minusMinutes(1))
+                .build());
+        TechnicianLocation second = repository.save(TechnicianLocation.builder()
+                .technicianId(999L)
+                .latitude(39.8000)
+                .longitude(-89.6700)
+                .accuracy(5.0)
+                .timestamp(LocalDateTime.now())
+                .build());
+        
+        // When - the second insert finds the row of the first instead of failing on the primary key
+        assertEquals(1, currentLocationRepository.insertIfAbsent(first));
+        assertEquals(0, currentLocationRepository.insertIfAbsent(second));
+        currentLocationRepository.upsert(second);
+        entityManager.clear();
+        
+        // Then
+        TechnicianCurrentLocation current = currentLocationRepository.findById(999L).orElseThrow();
+        assertEquals(second.getId(), current.getLocationId());
+        assertNotNull(current.getLocation());
+        assertEquals(7, currentLocationRepository.count());
+    }
 }
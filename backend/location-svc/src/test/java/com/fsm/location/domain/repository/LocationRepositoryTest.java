@@ -1,11 +1,14 @@
 package com.fsm.location.domain.repository;
 
+import com.fsm.location.domain.model.LocationSample;
 import com.fsm.location.domain.model.TechnicianLocation;
+import com.fsm.location.domain.model.TrailPoint;
 import org.junit.jupiter.api.Test;
 
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -209,6 +212,24 @@ class LocationRepositoryTest {
             return List.of();
         }
         
+        @Override
+        public List<LocalDateTime> findTimestamps(
+                Long technicianId, LocalDateTime from, LocalDateTime to) {
+            return List.of();
+        }
+        
+        @Override
+        public Stream<TrailPoint> streamTrail(
+                Long technicianId, LocalDateTime from, LocalDateTime to) {
+            return Stream.empty();
+        }
+        
+        @Override
+        public Stream<LocationSample> streamInsertedBetween(
+                LocalDateTime after, LocalDateTime upTo) {
+            return Stream.empty();
+        }
+        
         @Override
         public List<TechnicianLocation> findLatestLocationsForAllTechnicians() {
             return List.of();
@@ -241,6 +262,12 @@ class LocationRepositoryTest {
             return List.of();
         }
         
+        @Override
+        public List<TechnicianLocation> findNearestActiveTechnicians(
+                org.locationtech.jts.geom.Point point, LocalDateTime since, int limit) {
+            return List.of();
+        }
+        
         @Override
         public List<TechnicianLocation> findLastKnownPositionsForActiveTechnicians(LocalDateTime since) {
             return List.of();
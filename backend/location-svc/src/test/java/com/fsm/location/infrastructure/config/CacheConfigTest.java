@@ -0,0 +1,131 @@
+package com.fsm.location.infrastructure.config;
+
+import com.github.benmanes.caffeine.cache.CacheLoader;
+import org.junit.jupiter.api.Test;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.interceptor.SimpleKey;
+
+import java.time.Duration;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for the refresh-ahead configuration of the active locations cache.
+ */
+class CacheConfigTest {
+    
+    private static final Object KEY = SimpleKey.EMPTY;
+    
+    private final AtomicInteger loads = new AtomicInteger();
+    
+    private Cache activeLocationsCache(Duration refreshAfter, CacheLoader<Object, Object> loader) {
+        ActiveLocationsCacheProperties properties = new ActiveLocationsCacheProperties();
+        properties.setRefreshAfter(refreshAfter);
+        CacheManager cacheManager = new CacheConfig().cacheManager(properties, loader);
+        return cacheManager.getCache(CacheConfig.ALL_LOCATIONS_CACHE);
+    }
+    
+    private static Object read(Cache cache) {
+        return cache.get(KEY).get();
+    }
+    
+    private static void awaitValue(Cache cache, Object expected) throws InterruptedException {
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (!expected.equals(read(cache)) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertEquals(expected, read(cache));
+    }
+    
+    @Test
+    void testOnlyConfiguredCachesExist() {
+        CacheManager cacheManager = new CacheConfig().cacheManager(
+                new ActiveLocationsCacheProperties(), key -> loads.incrementAndGet());
+        
+        assertNotNull(cacheManager.getCache(CacheConfig.ALL_LOCATIONS_CACHE));
+        assertNull(cacheManager.getCache("other"));
+    }
+    
+    @Test
+    void testConcurrentMissesShareSingleLoad() throws InterruptedException {
+        Cache cache = activeLocationsCache(Duration.ofMinutes(1), key -> loads.incrementAndGet());
+        Set<Object> results = ConcurrentHashMap.newKeySet();
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] readers = new Thread[8];
+        for (int t = 0; t < readers.length; t++) {
+            readers[t] = new Thread(() -> {
+                try {
+                    start.await();
+                    results.add(cache.get(KEY, () -> {
+                        Thread.sleep(100);
+                        return loads.incrementAndGet();
+                    }));
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+            });
+            readers[t].start();
+        }
+        start.countDown();
+        for (Thread reader : readers) {
+            reader.join();
+        }
+        
+        assertEquals(1, loads.get());
+        assertEquals(Set.of(1), results);
+    }
+    
+    @Test
+    void testStaleSnapshotServedWhileRefreshingInBackground() throws InterruptedException {
+        CountDownLatch refreshStarted = new CountDownLatch(1);
+        CountDownLatch releaseRefresh = new CountDownLatch(1);
+        Cache cache = activeLocationsCache(Duration.ofMillis(50), key -> {
+            int load = loads.incrementAndGet();
+            if (load > 1) {
+                refreshStarted.countDown();
+                releaseRefresh.await();
+            }
+            return load;
+        });
+        assertEquals(1, read(cache));
+        Thread.sleep(100);
+        
+        // Reads during the refresh return the previous snapshot and do not start another rebuild
+        assertEquals(1, read(cache));
+        refreshStarted.await();
+        for (int i = 0; i < 10; i++) {
+            assertEquals(1, read(cache));
+        }
+        assertEquals(2, loads.get());
+        
+        releaseRefresh.countDown();
+        awaitValue(cache, 2);
+    }
+    
+    @Test
+    void testFailedRefreshKeepsLastGoodSnapshot() throws InterruptedException {
+        Cache cache = activeLocationsCache(Duration.ofMillis(50), key -> {
+            if (loads.incrementAndGet() > 1) {
+                throw new IllegalStateException("database down");
+            }
+            return "snapshot";
+        });
+        assertEquals("snapshot", read(cache));
+        Thread.sleep(100);
+        
+        read(cache);
+        long deadline = System.nanoTime() + Duration.ofSeconds(5).toNanos();
+        while (loads.get() < 2 && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        Thread.sleep(50);
+        
+        assertTrue(loads.get() >= 2);
+        assertEquals("snapshot", read(cache));
+    }
+}
@@ -0,0 +1,153 @@
+package com.fsm.location.service;
+
+import com.fsm.location.api.dto.GeofenceTimeResponse;
+import com.fsm.location.api.dto.LocationRollupDTO;
+import com.fsm.location.domain.model.RollupCentroid;
+import com.fsm.location.domain.model.TechnicianLocationRollup;
+import com.fsm.location.domain.repository.GeofenceRepository;
+import com.fsm.location.domain.repository.LocationRollupRepository;
+import com.fsm.location.infrastructure.config.LocationRollupProperties;
+import com.fsm.location.service.exception.GeofenceNotFoundException;
+import com.fsm.location.service.exception.InvalidAnalyticsRangeException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Envelope;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for FleetAnalyticsService.
+ */
+class FleetAnalyticsServiceTest {
+    
+    private static final LocalDateTime FROM = LocalDateTime.of(2024, 1, 15, 8, 0);
+    private static final LocalDateTime TO = FROM.plusHours(8);
+    
+    private static final double INSIDE_LAT = 39.7817;
+    private static final double OUTSIDE_LAT = 39.8817;
+    private static final double SPRINGFIELD_LON = -89.6501;
+    
+    /**
+     * Bounding box of job-1; the fence itself only covers latitudes below 39.8
+     */
+    private static final Envelope JOB_BOX = new Envelope(-89.7, -89.6, 39.7, 39.9);
+    
+    private LocationRollupRepository rollupRepository;
+    private GeofenceRepository geofenceRepository;
+    private FleetAnalyticsService fleetAnalyticsService;
+    
+    @BeforeEach
+    void setUp() {
+        rollupRepository = mock(LocationRollupRepository.class);
+        geofenceRepository = mock(GeofenceRepository.class);
+        GeofenceEngine geofenceEngine = mock(GeofenceEngine.class);
+        when(geofenceRepository.existsById("job-1")).thenReturn(true);
+        when(geofenceEngine.findBoundingBox("job-1")).thenReturn(Optional.of(JOB_BOX));
+        when(geofenceEngine.isInside(eq("job-1"), anyDouble(), anyDouble()))
+                .thenAnswer(invocation -> invocation.<Double>getArgument(1) < 39.8);
+        fleetAnalyticsService = new FleetAnalyticsService(rollupRepository, geofenceRepository,
+                geofenceEngine, new LocationRollupProperties());
+    }
+    
+    private static RollupCentroid centroid(long technicianId, int minute, double latitude) {
+        return new RollupCentroid(technicianId, FROM.plusMinutes(minute), latitude, SPRINGFIELD_LON);
+    }
+    
+    @Test
+    void testGetRollupsMapsToDTOs() {
+        when(rollupRepository.findByTechnician(101L, FROM, TO)).thenReturn(List.of(
+                TechnicianLocationRollup.builder()
+                        .technicianId(101L)
+                        .minute(FROM)
+                        .latitude(INSIDE_LAT)
+                        .longitude(SPRINGFIELD_LON)
+                        .fixCount(6)
+                        .maxSpeedMetersPerSecond(12.5f)
+                        .minBatteryLevel((short) 42)
+                        .build()));
+        
+        List<LocationRollupDTO> rollups = fleetAnalyticsService.getRollups(101L, FROM, TO);
+        
+        assertEquals(1, rollups.size());
+        assertEquals(FROM, rollups.get(0).getMinute());
+        assertEquals(6, rollups.get(0).getFixCount());
+        assertEquals(12.5f, rollups.get(0).getMaxSpeedMetersPerSecond());
+        assertEquals(42, rollups.get(0).getMinBatteryLevel());
+    }
+    
+    @Test
+    void testGetRollupsDefaultsToLastDay() {
+        fleetAnalyticsService.getRollups(101L, null, TO);
+        
+        verify(rollupRepository).findByTechnician(101L, TO.minusHours(24), TO);
+    }
+    
+    @Test
+    void testTimeInGeofenceFillsShortGaps() {
+        AtomicBoolean closed = new AtomicBoolean();
+        when(rollupRepository.streamFleet(FROM, TO, 39.7, 39.9, -89.7, -89.6)).thenReturn(Stream.of(
+                centroid(101L, 0, INSIDE_LAT),
+                centroid(101L, 1, INSIDE_LAT),
+                centroid(101L, 2, INSIDE_LAT),
+                centroid(101L, 3, OUTSIDE_LAT),
+                centroid(101L, 5, INSIDE_LAT),
+                // Stationary technician reporting every few minutes
+                centroid(102L, 0, INSIDE_LAT),
+                centroid(102L, 5, INSIDE_LAT),
+                // Longer than the maximum gap: counted as a minute of its own
+                centroid(102L, 30, INSIDE_LAT)
+        ).onClose(() -> closed.set(true)));
+        
+        GeofenceTimeResponse response = fleetAnalyticsService.getTimeInGeofence("job-1", FROM, TO);
+        
+        assertTrue(closed.get());
+        assertEquals(11, response.getTotalMinutes());
+        assertEquals(2, response.getTechnicians().size());
+        assertEquals(102L, response.getTechnicians().get(0).getTechnicianId());
+        assertEquals(7, response.getTechnicians().get(0).getMinutesInside());
+        assertEquals(FROM, response.getTechnicians().get(0).getFirstSeen());
+        assertEquals(FROM.plusMinutes(30), response.getTechnicians().get(0).getLastSeen());
+        assertEquals(101L, response.getTechnicians().get(1).getTechnicianId());
+        assertEquals(4, response.getTechnicians().get(1).getMinutesInside());
+    }
+    
+    @Test
+    void testTimeInGeofenceNotIndexedReadsNoRollups() {
+        when(geofenceRepository.existsById("job-3")).thenReturn(true);
+        
+        GeofenceTimeResponse response = fleetAnalyticsService.getTimeInGeofence("job-3", FROM, TO);
+        
+        assertEquals(0, response.getTotalMinutes());
+        assertTrue(response.getTechnicians().isEmpty());
+        verifyNoInteractions(rollupRepository);
+    }
+    
+    @Test
+    void testTimeInUnknownGeofence() {
+        assertThrows(GeofenceNotFoundException.class,
+                () -> fleetAnalyticsService.getTimeInGeofence("job-2", FROM, TO));
+        verifyNoInteractions(rollupRepository);
+    }
+    
+    @Test
+    void testRangeMustNotBeEmpty() {
+        assertThrows(InvalidAnalyticsRangeException.class,
+                () -> fleetAnalyticsService.getTimeInGeofence("job-1", TO, FROM));
+    }
+    
+    @Test
+    void testRangeMustNotExceedMaximum() {
+        assertThrows(InvalidAnalyticsRangeException.class,
+                () -> fleetAnalyticsService.getRollups(101L, TO.minusDays(93), TO));
+        verifyNoInteractions(rollupRepository);
+    }
+}
@@ -0,0 +1,159 @@
+package com.fsm.location.service;
+
+import com.fsm.location.api.dto.LocationDeltaResponse;
+import com.fsm.location.api.dto.TechnicianLocationDTO;
+import com.fsm.location.domain.model.LocationFix;
+import com.fsm.location.domain.model.TechnicianProfile;
+import com.fsm.location.infrastructure.config.PresenceProperties;
+import com.fsm.location.infrastructure.config.TechnicianProfileProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.time.LocalDateTime;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Unit tests for FleetVersionTracker.
+ */
+class FleetVersionTrackerTest {
+    
+    private final AtomicLong clock = new AtomicLong(System.currentTimeMillis());
+    
+    private LatestLocationRegistry registry;
+    private PresenceTracker presenceTracker;
+    private FleetVersionTracker tracker;
+    
+    @BeforeEach
+    void setUp() {
+        registry = new LatestLocationRegistry();
+        presenceTracker = new PresenceTracker(new PresenceProperties(), registry, new SimpleMeterRegistry(), clock::get);
+        presenceTracker.registerWithRegistry();
+        TechnicianProfileCache profileCache = new TechnicianProfileCache(technicianIds -> Map.of(101L,
+                TechnicianProfile.builder().technicianId(101L).name("Alice Smith").build()),
+                new TechnicianProfileProperties(), mock(TaskScheduler.class), new SimpleMeterRegistry());
+        tracker = new FleetVersionTracker(registry, presenceTracker, profileCache);
+        tracker.registerWithRegistry();
+    }
+    
+    private LocationFix fix(long technicianId, LocalDateTime timestamp) {
+        return LocationFix.builder()
+                .locationId(technicianId)
+                .technicianId(technicianId)
+                .latitude(39.7817)
+                .longitude(-89.6501)
+                .accuracy(5.0)
+                .timestamp(timestamp)
+                .build();
+    }
+    
+    private static List<Long> changedIds(LocationDeltaResponse delta) {
+        return delta.getChanged().stream().map(TechnicianLocationDTO::getTechnicianId).sorted().toList();
+    }
+    
+    @Test
+    void testDeltaContainsOnlyChangesSinceVersion() {
+        LocalDateTime now = LocalDateTime.now();
+        registry.record(fix(101L, now.minusSeconds(10)));
+        long version = tracker.getChangesSince(0).getVersion();
+        
+        registry.record(fix(102L, now));
+        LocationDeltaResponse delta = tracker.getChangesSince(version);
+        
+        assertFalse(delta.isFull());
+        assertEquals(List.of(102L), changedIds(delta));
+        assertTrue(delta.getRemoved().isEmpty());
+        assertTrue(delta.getVersion() > version);
+    }
+    
+    @Test
+    void testDeltaCarriesTechnicianNames() {
+        registry.record(fix(101L, LocalDateTime.now()));
+        registry.record(fix(102L, LocalDateTime.now()));
+        
+        List<TechnicianLocationDTO> changed = tracker.getChangesSince(0).getChanged().stream()
+                .sorted(Comparator.comparing(TechnicianLocationDTO::getTechnicianId))
+                .toList();
+        
+        assertEquals("Alice Smith", changed.get(0).getName());
+        assertEquals("Technician 102", changed.get(1).getName());
+    }
+    
+    @Test
+    void testDeltaIsEmptyWhenNothingChanged() {
+        registry.record(fix(101L, LocalDateTime.now()));
+        long version = tracker.getChangesSince(0).getVersion();
+        
+        LocationDeltaResponse delta = tracker.getChangesSince(version);
+        
+        assertEquals(version, delta.getVersion());
+        assertTrue(delta.getChanged().isEmpty());
+        assertTrue(delta.getRemoved().isEmpty());
+    }
+    
+    @Test
+    void testUnknownVersionReturnsFullSnapshotWithoutOfflineTechnicians() {
+        LocalDateTime now = LocalDateTime.now();
+        registry.record(fix(101L, now));
+        registry.record(fix(102L, now.minusMinutes(30)));
+        
+        LocationDeltaResponse fromBeforeStart = tracker.getChangesSince(0);
+        LocationDeltaResponse fromTheFuture = tracker.getChangesSince(Long.MAX_VALUE);
+        
+        assertTrue(fromBeforeStart.isFull());
+        assertEquals(List.of(101L), changedIds(fromBeforeStart));
+        assertTrue(fromBeforeStart.getRemoved().isEmpty());
+        assertTrue(fromTheFuture.isFull());
+        assertEquals(List.of(101L), changedIds(fromTheFuture));
+    }
+    
+    @Test
+    void testTechnicianGoingOfflineIsReportedAsRemoved() {
+        LocalDateTime now = LocalDateTime.now();
+        registry.record(fix(101L, now));
+        long version = tracker.getChangesSince(0).getVersion();
+        
+        // Simulate the fix ageing past the stale threshold
+        tracker.onRegistryRebuilt(List.of(fix(101L, now.minusMinutes(20))));
+        LocationDeltaResponse delta = tracker.getChangesSince(version);
+        
+        assertTrue(delta.getChanged().isEmpty());
+        assertEquals(List.of(101L), delta.getRemoved());
+    }
+    
+    @Test
+    void testPresenceTransitionsAreVersioned() {
+        registry.record(fix(101L, LocalDateTime.now()));
+        long version = tracker.getChangesSince(0).getVersion();
+        
+        // The timing wheel moves the technician to busy, then offline, without a new fix
+        clock.addAndGet(6 * 60_000L);
+        presenceTracker.advance(clock.get());
+        LocationDeltaResponse busy = tracker.getChangesSince(version);
+        clock.addAndGet(10 * 60_000L);
+        presenceTracker.advance(clock.get());
+        LocationDeltaResponse offline = tracker.getChangesSince(busy.getVersion());
+        
+        assertEquals("busy", busy.getChanged().get(0).getStatus());
+        assertTrue(offline.getChanged().isEmpty());
+        assertEquals(List.of(101L), offline.getRemoved());
+    }
+    
+    @Test
+    void testOlderFixDoesNotReplaceNewerOne() {
+        LocalDateTime now = LocalDateTime.now();
+        tracker.onLocationFix(fix(101L, now));
+        long version = tracker.getVersion();
+        
+        tracker.onLocationFix(fix(101L, now.minusMinutes(1)));
+        
+        assertEquals(version, tracker.getVersion());
+    }
+}
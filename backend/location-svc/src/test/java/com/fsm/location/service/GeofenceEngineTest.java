@@ -0,0 +1,246 @@
+package com.fsm.location.service;
+
+import com.fsm.location.domain.model.Geofence;
+import com.fsm.location.domain.model.GeofenceEvent;
+import com.fsm.location.domain.model.LocationFix;
+import com.fsm.location.domain.repository.GeofenceRepository;
+import com.fsm.location.infrastructure.config.GeofenceProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.locationtech.jts.geom.Envelope;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for GeofenceEngine.
+ */
+class GeofenceEngineTest {
+    
+    private static final double CENTER_LAT = 39.7817;
+    private static final double CENTER_LON = -89.6501;
+    
+    /**
+     * Roughly 111 meters of latitude
+     */
+    private static final double DEGREES_111M = 0.001;
+    
+    private static final LocalDateTime T0 = LocalDateTime.of(2024, 1, 15, 8, 0);
+    
+    private final GeofenceRepository geofenceRepository = mock(GeofenceRepository.class);
+    private final LatestLocationRegistry registry = new LatestLocationRegistry();
+    private final GeofenceProperties properties = new GeofenceProperties();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<GeofenceEvent> events = new ArrayList<>();
+    
+    private GeofenceEngine engine;
+    
+    @BeforeEach
+    void setUp() {
+        properties.setDefaultDwell(Duration.ofMinutes(2));
+        when(geofenceRepository.findAll()).thenReturn(List.of(circle("job-1", 100.0)));
+        engine = engine(events::add);
+        engine.start();
+    }
+    
+    private GeofenceEngine engine(GeofenceEventListener... listeners) {
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        for (int i = 0; i < listeners.length; i++) {
+            beanFactory.addBean("listener" + i, listeners[i]);
+        }
+        return new GeofenceEngine(geofenceRepository, registry, properties,
+                beanFactory.getBeanProvider(GeofenceEventListener.class), meterRegistry);
+    }
+    
+    private static Geofence circle(String id, double radiusMeters) {
+        return Geofence.builder()
+                .id(id)
+                .shape(Geofence.Shape.CIRCLE)
+                .centerLatitude(CENTER_LAT)
+                .centerLongitude(CENTER_LON)
+                .radiusMeters(radiusMeters)
+                .build();
+    }
+    
+    private static Geofence square(String id) {
+        double w = CENTER_LON - 0.002;
+        double e = CENTER_LON + 0.002;
+        double s = CENTER_LAT - 0.002;
+        double n = CENTER_LAT + 0.002;
+        return Geofence.builder()
+                .id(id)
+                .shape(Geofence.Shape.POLYGON)
+                .boundary(String.format("POLYGON ((%s %s, %s %s, %s %s, %s %s, %s %s))", w, s, e, s, e, n, w, n, w, s))
+                .dwellSeconds(0)
+                .build();
+    }
+    
+    private void report(double latitudeOffset, LocalDateTime timestamp) {
+        report(101L, latitudeOffset, 5.0, timestamp);
+    }
+    
+    private void report(long technicianId, double latitudeOffset, double accuracy, LocalDateTime timestamp) {
+        registry.record(LocationFix.builder()
+                .technicianId(technicianId)
+                .latitude(CENTER_LAT + latitudeOffset)
+                .longitude(CENTER_LON)
+                .accuracy(accuracy)
+                .timestamp(timestamp)
+                .build());
+    }
+    
+    private List<GeofenceEvent.Type> types() {
+        return events.stream().map(GeofenceEvent::getType).collect(Collectors.toList());
+    }
+    
+    @Test
+    void testEnterDwellExit() {
+        report(DEGREES_111M * 2, T0);
+        report(0.0, T0.plusSeconds(30));
+        report(0.0001, T0.plusSeconds(90));
+        report(0.0, T0.plusSeconds(150));
+        report(0.0, T0.plusSeconds(180));
+        report(DEGREES_111M * 2, T0.plusSeconds(240));
+        
+        assertEquals(List.of(GeofenceEvent.Type.ENTER, GeofenceEvent.Type.DWELL, GeofenceEvent.Type.EXIT), types());
+        GeofenceEvent exit = events.get(2);
+        assertEquals("job-1", exit.getGeofenceId());
+        assertEquals(101L, exit.getTechnicianId());
+        assertEquals(T0.plusSeconds(30), exit.getEnteredAt());
+        assertEquals(Duration.ofSeconds(210), exit.getTimeInside());
+        assertEquals(1.0, meterRegistry.counter("location.geofence.events", "type", "dwell").count());
+    }
+    
+    @Test
+    void testExitRequiresMarginBeyondBoundary() {
+        report(0.0, T0);
+        // About 111 m from the center: outside the 100 m radius but within the 25 m exit margin
+        report(DEGREES_111M, T0.plusSeconds(10));
+        
+        assertEquals(List.of(GeofenceEvent.Type.ENTER), types());
+        assertEquals(Set.of(101L), engine.getTechniciansInside("job-1"));
+        
+        report(DEGREES_111M * 1.3, T0.plusSeconds(20));
+        
+        assertEquals(List.of(GeofenceEvent.Type.ENTER, GeofenceEvent.Type.EXIT), types());
+        assertTrue(engine.getTechniciansInside("job-1").isEmpty());
+    }
+    
+    @Test
+    void testInaccurateFixesIgnored() {
+        report(101L, 0.0, 250.0, T0);
+        
+        assertTrue(events.isEmpty());
+    }
+    
+    @Test
+    void testOutsideFixesKeepNoState() {
+        report(DEGREES_111M * 5, T0);
+        report(102L, DEGREES_111M * 5, 5.0, T0);
+        
+        assertTrue(events.isEmpty());
+        assertTrue(engine.getTechniciansInside("job-1").isEmpty());
+    }
+    
+    @Test
+    void testPolygonWithZeroDwell() {
+        engine.register(square("site-7"));
+        
+        report(DEGREES_111M * 1.5, T0);
+        
+        // Inside the square but outside the circle
+        assertEquals(List.of(GeofenceEvent.Type.ENTER, GeofenceEvent.Type.DWELL), types());
+        assertEquals("site-7", events.get(0).getGeofenceId());
+        assertEquals(2, engine.size());
+    }
+    
+    @Test
+    void testRemovedGeofenceEndsVisitSilently() {
+        report(0.0, T0);
+        
+        engine.remove("job-1");
+        report(DEGREES_111M * 5, T0.plusSeconds(10));
+        
+        assertEquals(List.of(GeofenceEvent.Type.ENTER), types());
+        assertEquals(0, engine.size());
+    }
+    
+    @Test
+    void testRegistryRebuildRestoresVisitsWithoutEvents() {
+        registry.rebuild(List.of(LocationFix.builder()
+                .technicianId(101L)
+                .latitude(CENTER_LAT)
+                .longitude(CENTER_LON)
+                .accuracy(5.0)
+                .timestamp(T0)
+                .build()));
+        
+        assertTrue(events.isEmpty());
+        assertEquals(Set.of(101L), engine.getTechniciansInside("job-1"));
+        
+        report(DEGREES_111M * 5, T0.plusSeconds(10));
+        
+        assertEquals(List.of(GeofenceEvent.Type.EXIT), types());
+    }
+    
+    @Test
+    void testFailingListenerDoesNotAffectOthers() {
+        List<GeofenceEvent> received = new ArrayList<>();
+        GeofenceEngine isolated = engine(event -> {
+            throw new IllegalStateException("listener failure");
+        }, received::add);
+        isolated.start();
+        
+        assertDoesNotThrow(() -> report(0.0, T0));
+        
+        assertEquals(1, received.size());
+    }
+    
+    @Test
+    void testRegisterReplacesGeofence() {
+        report(DEGREES_111M * 2, T0);
+        
+        engine.register(circle("job-1", 500.0));
+        report(DEGREES_111M * 2, T0.plusSeconds(10));
+        
+        assertEquals(List.of(GeofenceEvent.Type.ENTER), types());
+        assertEquals(1, engine.size());
+    }
+    
+    @Test
+    void testIsNearGeofenceWithinMargin() {
+        // job-1 is a 100 m circle; ~333 m north of its center is ~233 m outside it
+        assertTrue(engine.isNearGeofence(CENTER_LAT, CENTER_LON, 0.0));
+        assertTrue(engine.isNearGeofence(CENTER_LAT + DEGREES_111M * 3, CENTER_LON, 250.0));
+        assertFalse(engine.isNearGeofence(CENTER_LAT + DEGREES_111M * 3, CENTER_LON, 200.0));
+        
+        engine.remove("job-1");
+        assertFalse(engine.isNearGeofence(CENTER_LAT, CENTER_LON, 250.0));
+    }
+    
+    @Test
+    void testIsInsideGeofence() {
+        assertTrue(engine.isInside("job-1", CENTER_LAT + DEGREES_111M * 0.5, CENTER_LON));
+        assertFalse(engine.isInside("job-1", CENTER_LAT + DEGREES_111M * 2, CENTER_LON));
+        assertFalse(engine.isInside("job-2", CENTER_LAT, CENTER_LON));
+    }
+    
+    @Test
+    void testBoundingBoxCoversGeofence() {
+        Envelope box = engine.findBoundingBox("job-1").orElseThrow();
+        
+        assertTrue(box.contains(CENTER_LON, CENTER_LAT + DEGREES_111M * 0.5));
+        assertFalse(box.contains(CENTER_LON, CENTER_LAT + DEGREES_111M * 2));
+        assertTrue(engine.findBoundingBox("job-2").isEmpty());
+    }
+}
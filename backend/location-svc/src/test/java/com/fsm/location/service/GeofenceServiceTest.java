@@ -0,0 +1,147 @@
+package com.fsm.location.service;
+
+import com.fsm.location.api.dto.GeoPointDTO;
+import com.fsm.location.api.dto.GeofenceDTO;
+import com.fsm.location.api.dto.GeofenceRequest;
+import com.fsm.location.domain.model.Geofence;
+import com.fsm.location.domain.repository.GeofenceRepository;
+import com.fsm.location.infrastructure.config.GeofenceProperties;
+import com.fsm.location.service.exception.GeofenceNotFoundException;
+import com.fsm.location.service.exception.InvalidGeofenceException;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.Spy;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for GeofenceService.
+ */
+@ExtendWith(MockitoExtension.class)
+class GeofenceServiceTest {
+    
+    @Mock
+    private GeofenceRepository geofenceRepository;
+    
+    @Mock
+    private GeofenceEngine geofenceEngine;
+    
+    @Spy
+    private GeofenceProperties properties = new GeofenceProperties();
+    
+    @InjectMocks
+    private GeofenceService geofenceService;
+    
+    private static List<GeoPointDTO> square() {
+        return List.of(new GeoPointDTO(39.78, -89.65), new GeoPointDTO(39.78, -89.64),
+                       new GeoPointDTO(39.79, -89.64), new GeoPointDTO(39.79, -89.65));
+    }
+    
+    @Test
+    void testRegisterCircle() {
+        // Given
+        LocalDateTime created = LocalDateTime.of(2024, 1, 15, 8, 0);
+        when(geofenceRepository.findById("job-42"))
+                .thenReturn(Optional.of(Geofence.builder().id("job-42").createdAt(created).build()));
+        when(geofenceRepository.save(any(Geofence.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        GeofenceRequest request = GeofenceRequest.builder()
+                .latitude(39.7817)
+                .longitude(-89.6501)
+                .radiusMeters(150.0)
+                .build();
+        
+        // When
+        GeofenceDTO result = geofenceService.registerGeofence("job-42", request);
+        
+        // Then
+        assertEquals(Geofence.Shape.CIRCLE, result.getShape());
+        assertEquals(150.0, result.getRadiusMeters());
+        assertEquals(created, result.getCreatedAt());
+        verify(geofenceEngine).register(argThat(geofence -> geofence.getRadiusMeters() == 150.0));
+    }
+    
+    @Test
+    void testRegisterPolygonRoundTripsVertices() {
+        // Given
+        when(geofenceRepository.findById("site-7")).thenReturn(Optional.empty());
+        when(geofenceRepository.save(any(Geofence.class))).thenAnswer(invocation -> invocation.getArgument(0));
+        
+        // When
+        GeofenceDTO result = geofenceService.registerGeofence("site-7",
+                GeofenceRequest.builder().polygon(square()).build());
+        
+        // Then
+        assertEquals(Geofence.Shape.POLYGON, result.getShape());
+        assertEquals(square(), result.getPolygon());
+        assertNotNull(result.getCreatedAt());
+        verify(geofenceEngine).register(any(Geofence.class));
+    }
+    
+    @Test
+    void testRejectsCircleAndPolygonTogether() {
+        GeofenceRequest request = GeofenceRequest.builder()
+                .latitude(39.7817)
+                .longitude(-89.6501)
+                .radiusMeters(150.0)
+                .polygon(square())
+                .build();
+        
+        assertThrows(InvalidGeofenceException.class, () -> geofenceService.registerGeofence("job-42", request));
+        verifyNoInteractions(geofenceRepository, geofenceEngine);
+    }
+    
+    @Test
+    void testRejectsIncompleteCircle() {
+        GeofenceRequest request = GeofenceRequest.builder().latitude(39.7817).radiusMeters(150.0).build();
+        
+        assertThrows(InvalidGeofenceException.class, () -> geofenceService.registerGeofence("job-42", request));
+    }
+    
+    @Test
+    void testRejectsSelfIntersectingPolygon() {
+        List<GeoPointDTO> bowTie = List.of(new GeoPointDTO(39.78, -89.65), new GeoPointDTO(39.79, -89.64),
+                                           new GeoPointDTO(39.78, -89.64), new GeoPointDTO(39.79, -89.65));
+        GeofenceRequest request = GeofenceRequest.builder().polygon(bowTie).build();
+        
+        assertThrows(InvalidGeofenceException.class, () -> geofenceService.registerGeofence("site-7", request));
+    }
+    
+    @Test
+    void testRejectsTooFewVertices() {
+        GeofenceRequest request = GeofenceRequest.builder().polygon(square().subList(0, 2)).build();
+        
+        assertThrows(InvalidGeofenceException.class, () -> geofenceService.registerGeofence("site-7", request));
+    }
+    
+    @Test
+    void testDeleteGeofence() {
+        // Given
+        when(geofenceRepository.existsById("job-42")).thenReturn(true);
+        
+        // When
+        geofenceService.deleteGeofence("job-42");
+        
+        // Then
+        verify(geofenceRepository).deleteById("job-42");
+        verify(geofenceEngine).remove("job-42");
+    }
+    
+    @Test
+    void testDeleteMissingGeofence() {
+        // Given
+        when(geofenceRepository.existsById("job-42")).thenReturn(false);
+        
+        // When / Then
+        assertThrows(GeofenceNotFoundException.class, () -> geofenceService.deleteGeofence("job-42"));
+        verify(geofenceEngine, never()).remove(any());
+    }
+}
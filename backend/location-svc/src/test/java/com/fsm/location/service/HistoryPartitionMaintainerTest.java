@@ -0,0 +1,147 @@
+package com.fsm.location.service;
+
+import com.fsm.location.infrastructure.config.HistoryPartitioningProperties;
+import com.fsm.location.infrastructure.config.HistoryPartitioningProperties.PartitionInterval;
+import com.fsm.location.service.HistoryPartitionMaintainer.Partition;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.startsWith;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for HistoryPartitionMaintainer.
+ */
+class HistoryPartitionMaintainerTest {
+    
+    // A Wednesday
+    private static final LocalDate TODAY = LocalDate.of(2024, 3, 13);
+    
+    private HistoryPartitioningProperties properties;
+    private JdbcTemplate jdbcTemplate;
+    private HistoryPartitionMaintainer maintainer;
+    
+    @BeforeEach
+    void setUp() {
+        properties = new HistoryPartitioningProperties();
+        properties.setEnabled(true);
+        properties.setPremake(1);
+        properties.setRetention(Duration.ofDays(14));
+        jdbcTemplate = mock(JdbcTemplate.class);
+        maintainer = new HistoryPartitionMaintainer(properties, jdbcTemplate);
+    }
+    
+    @SuppressWarnings("unchecked")
+    private void givenPartitions(Partition... partitions) {
+        when(jdbcTemplate.query(anyString(), any(RowMapper.class))).thenReturn(List.of(partitions));
+    }
+    
+    private static Partition partition(String name, String from, String to) {
+        return Partition.of(name, "FOR VALUES FROM ('" + from + " 00:00:00') TO ('" + to + " 00:00:00')");
+    }
+    
+    @Test
+    void testPeriodStart() {
+        assertEquals(LocalDate.of(2024, 3, 11), HistoryPartitionMaintainer.periodStart(TODAY, PartitionInterval.WEEK));
+        assertEquals(TODAY, HistoryPartitionMaintainer.periodStart(TODAY, PartitionInterval.DAY));
+    }
+    
+    @Test
+    void testPartitionParsesRangeBound() {
+        Partition partition = partition("technician_locations_p20240311", "2024-03-11", "2024-03-18");
+        Partition defaultPartition = Partition.of("technician_locations_default", "DEFAULT");
+        
+        assertEquals(LocalDateTime.of(2024, 3, 11, 0, 0), partition.getFrom());
+        assertEquals(LocalDateTime.of(2024, 3, 18, 0, 0), partition.getTo());
+        assertNull(defaultPartition.getFrom());
+        assertFalse(defaultPartition.overlaps(LocalDateTime.MIN, LocalDateTime.MAX));
+    }
+    
+    @Test
+    void testCreatesCurrentAndUpcomingWeeklyPartitions() {
+        givenPartitions();
+        
+        maintainer.maintain(TODAY);
+        
+        verify(jdbcTemplate).execute("CREATE TABLE IF NOT EXISTS technician_locations_p20240311 " +
+                "PARTITION OF technician_locations FOR VALUES FROM ('2024-03-11 00:00:00') TO ('2024-03-18 00:00:00')");
+        verify(jdbcTemplate).execute("CREATE TABLE IF NOT EXISTS technician_locations_p20240318 " +
+                "PARTITION OF technician_locations FOR VALUES FROM ('2024-03-18 00:00:00') TO ('2024-03-25 00:00:00')");
+        verify(jdbcTemplate, times(2)).execute(anyString());
+    }
+    
+    @Test
+    void testSkipsRangesCoveredByExistingPartitions() {
+        properties.setInterval(PartitionInterval.DAY);
+        givenPartitions(partition("technician_locations_p20240311", "2024-03-11", "2024-03-18"));
+        
+        maintainer.maintain(TODAY);
+        
+        verify(jdbcTemplate, never()).execute(anyString());
+    }
+    
+    @Test
+    void testDropsOnlyPartitionsEndingBeforeRetentionCutoff() {
+        // Cutoff is 2024-02-28 00:00
+        givenPartitions(
+                partition("technician_locations_p20240219", "2024-02-19", "2024-02-26"),
+                partition("technician_locations_p20240226", "2024-02-26", "2024-03-04"),
+                partition("technician_locations_p20240311", "2024-03-11", "2024-03-18"),
+                partition("technician_locations_p20240318", "2024-03-18", "2024-03-25"));
+        
+        maintainer.maintain(TODAY);
+        
+        verify(jdbcTemplate).execute("DROP TABLE technician_locations_p20240219");
+        verify(jdbcTemplate, never()).execute("DROP TABLE technician_locations_p20240226");
+        verify(jdbcTemplate, times(1)).execute(anyString());
+    }
+    
+    @Test
+    void testDetachesExpiredPartitionsWhenConfigured() {
+        properties.setDetachOnly(true);
+        givenPartitions(
+                partition("technician_locations_p20240219", "2024-02-19", "2024-02-26"),
+                partition("technician_locations_p20240311", "2024-03-11", "2024-03-18"),
+                partition("technician_locations_p20240318", "2024-03-18", "2024-03-25"));
+        
+        maintainer.maintain(TODAY);
+        
+        verify(jdbcTemplate).execute("ALTER TABLE technician_locations DETACH PARTITION technician_locations_p20240219");
+        verify(jdbcTemplate, never()).execute(startsWith("DROP"));
+    }
+    
+    @Test
+    void testDeletesExpiredRowsFromDefaultPartition() {
+        givenPartitions(
+                Partition.of("technician_locations_default", "DEFAULT"),
+                partition("technician_locations_p20240311", "2024-03-11", "2024-03-18"),
+                partition("technician_locations_p20240318", "2024-03-18", "2024-03-25"));
+        
+        maintainer.maintain(TODAY);
+        
+        verify(jdbcTemplate).update("DELETE FROM technician_locations_default WHERE timestamp < ?",
+                LocalDateTime.of(2024, 2, 28, 0, 0));
+        verify(jdbcTemplate, never()).execute(anyString());
+    }
+    
+    @Test
+    void testFailedStatementDoesNotStopMaintenance() {
+        givenPartitions(partition("technician_locations_p20240219", "2024-02-19", "2024-02-26"));
+        doThrow(new org.springframework.dao.DataIntegrityViolationException("overlap"))
+                .when(jdbcTemplate).execute(startsWith("CREATE"));
+        
+        maintainer.maintain(TODAY);
+        
+        verify(jdbcTemplate).execute("DROP TABLE technician_locations_p20240219");
+    }
+}
@@ -0,0 +1,191 @@
+package com.fsm.location.service;
+
+import com.fsm.location.domain.model.LocationFix;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for LatestLocationRegistry.
+ */
+class LatestLocationRegistryTest {
+    
+    private final LatestLocationRegistry registry = new LatestLocationRegistry();
+    
+    private LocationFix fix(long technicianId, long locationId, LocalDateTime timestamp) {
+        return LocationFix.builder()
+                .locationId(locationId)
+                .technicianId(technicianId)
+                .latitude(39.7817)
+                .longitude(-89.6501)
+                .accuracy(5.0)
+                .timestamp(timestamp)
+                .build();
+    }
+    
+    @Test
+    void testGetReturnsNullForUnknownTechnician() {
+        assertNull(registry.get(101L));
+        assertTrue(registry.find(101L).isEmpty());
+    }
+    
+    @Test
+    void testRecordStoresFirstFix() {
+        LocationFix fix = fix(101L, 1L, LocalDateTime.now());
+        
+        assertTrue(registry.record(fix));
+        assertSame(fix, registry.get(101L));
+        assertEquals(1, registry.size());
+    }
+    
+    @Test
+    void testRecordReplacesWithNewerFix() {
+        LocalDateTime now = LocalDateTime.now();
+        registry.record(fix(101L, 1L, now.minusMinutes(1)));
+        
+        assertTrue(registry.record(fix(101L, 2L, now)));
+        assertEquals(2L, registry.get(101L).getLocationId());
+    }
+    
+    @Test
+    void testRecordIgnoresOlderFix() {
+        LocalDateTime now = LocalDateTime.now();
+        registry.record(fix(101L, 2L, now));
+        
+        assertFalse(registry.record(fix(101L, 1L, now.minusMinutes(1))));
+        assertEquals(2L, registry.get(101L).getLocationId());
+    }
+    
+    @Test
+    void testRebuildReplacesContent() {
+        LocalDateTime now = LocalDateTime.now();
+        registry.record(fix(101L, 1L, now));
+        
+        registry.rebuild(List.of(fix(102L, 2L, now), fix(103L, 3L, now)));
+        
+        assertNull(registry.get(101L));
+        assertNotNull(registry.get(102L));
+        assertNotNull(registry.get(103L));
+        assertEquals(2, registry.values().size());
+    }
+    
+    @Test
+    void testConcurrentRecordsKeepNewestFix() throws InterruptedException {
+        LocalDateTime base = LocalDateTime.now().minusHours(1);
+        Thread[] writers = new Thread[4];
+        for (int t = 0; t < writers.length; t++) {
+            int offset = t;
+            writers[t] = new Thread(() -> {
+                for (int i = offset; i < 1000; i += writers.length) {
+                    registry.record(fix(101L, i, base.plusSeconds(i)));
+                }
+            });
+            writers[t].start();
+        }
+        for (Thread writer : writers) {
+            writer.join();
+        }
+        
+        assertEquals(999L, registry.get(101L).getLocationId());
+    }
+    
+    @Test
+    void testListenersNotifiedOfNewLatestFixesOnly() {
+        List<LocationFix> notified = new ArrayList<>();
+        List<Collection<LocationFix>> rebuilds = new ArrayList<>();
+        registry.addListener(new LocationFixListener() {
+            @Override
+            public void onLocationFix(LocationFix fix) {
+                notified.add(fix);
+            }
+            
+            @Override
+            public void onRegistryRebuilt(Collection<LocationFix> latestFixes) {
+                rebuilds.add(List.copyOf(latestFixes));
+            }
+        });
+        LocalDateTime now = LocalDateTime.now();
+        LocationFix latest = fix(101L, 2L, now);
+        
+        registry.record(latest);
+        registry.record(fix(101L, 1L, now.minusMinutes(1)));
+        registry.rebuild(List.of(fix(102L, 3L, now)));
+        
+        assertEquals(List.of(latest), notified);
+        // Once on registration, once on rebuild
+        assertEquals(2, rebuilds.size());
+        assertTrue(rebuilds.get(0).isEmpty());
+        assertEquals(102L, rebuilds.get(1).iterator().next().getTechnicianId());
+    }
+    
+    @Test
+    void testPersistedCopyIsNotNotifiedAsNewFix() {
+        List<LocationFix> notified = new ArrayList<>();
+        List<LocationFix> persistedCopies = new ArrayList<>();
+        registry.addListener(new LocationFixListener() {
+            @Override
+            public void onLocationFix(LocationFix fix) {
+                notified.add(fix);
+            }
+            
+            @Override
+            public void onLocationPersisted(LocationFix fix) {
+                persistedCopies.add(fix);
+            }
+            
+            @Override
+            public void onRegistryRebuilt(Collection<LocationFix> latestFixes) {
+            }
+        });
+        LocationFix persisted = fix(101L, 1L, LocalDateTime.now());
+        LocationFix queued = persisted.toBuilder().locationId(null).build();
+        
+        assertTrue(registry.record(queued));
+        assertTrue(registry.record(persisted));
+        
+        assertEquals(1L, registry.get(101L).getLocationId());
+        assertEquals(List.of(queued), notified);
+        assertEquals(List.of(persisted), persistedCopies);
+    }
+    
+    @Test
+    void testRevertRestoresPersistedFixesOfLostLatestFixes() {
+        List<Collection<LocationFix>> rebuilds = new ArrayList<>();
+        registry.addListener(new LocationFixListener() {
+            @Override
+            public void onLocationFix(LocationFix fix) {
+            }
+            
+            @Override
+            public void onRegistryRebuilt(Collection<LocationFix> latestFixes) {
+                rebuilds.add(List.copyOf(latestFixes));
+            }
+        });
+        LocalDateTime now = LocalDateTime.now();
+        LocationFix persisted = fix(101L, 1L, now.minusMinutes(1));
+        LocationFix lost = fix(101L, 0L, now).toBuilder().locationId(null).build();
+        LocationFix lostFirstFix = fix(102L, 0L, now).toBuilder().locationId(null).build();
+        LocationFix superseded = fix(103L, 0L, now.minusMinutes(1)).toBuilder().locationId(null).build();
+        registry.record(persisted);
+        registry.record(lost);
+        registry.record(lostFirstFix);
+        registry.record(fix(103L, 3L, now));
+        
+        int reverted = registry.revert(List.of(lost, lostFirstFix, superseded),
+                technicianIds -> Map.of(101L, persisted));
+        
+        assertEquals(2, reverted);
+        assertEquals(persisted, registry.get(101L));
+        assertNull(registry.get(102L));
+        assertEquals(3L, registry.get(103L).getLocationId());
+        // Once on registration, once on revert
+        assertEquals(2, rebuilds.size());
+        assertEquals(2, rebuilds.get(1).size());
+    }
+}
@@ -0,0 +1,195 @@
+package com.fsm.location.service;
+
+import com.fsm.location.domain.model.LocationSample;
+import com.fsm.location.domain.model.TechnicianLocationRollup;
+import com.fsm.location.domain.repository.LocationRepository;
+import com.fsm.location.domain.repository.LocationRollupRepository;
+import com.fsm.location.infrastructure.config.LocationRollupProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionStatus;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for LocationRollupMaintainer.
+ */
+class LocationRollupMaintainerTest {
+    
+    private static final double SPRINGFIELD_LAT = 39.7817;
+    private static final double SPRINGFIELD_LON = -89.6501;
+    
+    private static final LocalDateTime NOW = LocalDateTime.of(2024, 1, 15, 12, 0);
+    private static final LocalDateTime MINUTE = LocalDateTime.of(2024, 1, 15, 11, 40);
+    
+    private LocationRepository locationRepository;
+    private LocationRollupRepository rollupRepository;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionStatus transactionStatus;
+    private LocationRollupMaintainer maintainer;
+    
+    @BeforeEach
+    void setUp() {
+        locationRepository = mock(LocationRepository.class);
+        rollupRepository = mock(LocationRollupRepository.class);
+        jdbcTemplate = mock(JdbcTemplate.class);
+        transactionStatus = mock(TransactionStatus.class);
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenReturn(transactionStatus);
+        when(jdbcTemplate.update(eq(LocationRollupMaintainer.ADVANCE_WATERMARK_SQL),
+                any(LocalDateTime.class), any(LocalDateTime.class))).thenReturn(1);
+        maintainer = new LocationRollupMaintainer(new LocationRollupProperties(), locationRepository,
+                rollupRepository, jdbcTemplate, transactionManager, new SimpleMeterRegistry());
+    }
+    
+    private void givenWatermarks(LocalDateTime first, LocalDateTime... next) {
+        when(jdbcTemplate.queryForObject(LocationRollupMaintainer.READ_WATERMARK_SQL, LocalDateTime.class))
+                .thenReturn(first, next);
+    }
+    
+    private void givenInserted(LocationSample... samples) {
+        when(locationRepository.streamInsertedBetween(any(), any())).thenAnswer(invocation -> Stream.of(samples));
+    }
+    
+    private static LocationSample sample(long technicianId, double latitude, LocalDateTime timestamp, Integer battery) {
+        return new LocationSample(technicianId, latitude, SPRINGFIELD_LON, timestamp, battery);
+    }
+    
+    @SuppressWarnings("unchecked")
+    private List<TechnicianLocationRollup> savedRollups() {
+        ArgumentCaptor<Iterable<TechnicianLocationRollup>> captor = ArgumentCaptor.forClass(Iterable.class);
+        verify(rollupRepository, atLeastOnce()).saveAll(captor.capture());
+        List<TechnicianLocationRollup> saved = new ArrayList<>();
+        captor.getAllValues().forEach(rollups -> rollups.forEach(saved::add));
+        saved.sort(Comparator.comparing(TechnicianLocationRollup::getTechnicianId)
+                .thenComparing(TechnicianLocationRollup::getMinute));
+        return saved;
+    }
+    
+    @Test
+    void testFixesAreFoldedIntoMinutes() {
+        givenWatermarks(NOW.minusMinutes(10));
+        givenInserted(
+                sample(101L, SPRINGFIELD_LAT, MINUTE, 80),
+                // ~111 m in 30 seconds
+                sample(101L, SPRINGFIELD_LAT + 0.001, MINUTE.plusSeconds(30), 75),
+                sample(101L, SPRINGFIELD_LAT + 0.001, MINUTE.plusSeconds(70), 90),
+                sample(102L, SPRINGFIELD_LAT, MINUTE.plusSeconds(20), null));
+        
+        assertEquals(4, maintainer.rollUp(NOW));
+        
+        List<TechnicianLocationRollup> saved = savedRollups();
+        assertEquals(3, saved.size());
+        TechnicianLocationRollup first = saved.get(0);
+        assertEquals(MINUTE, first.getMinute());
+        assertEquals(2, first.getFixCount());
+        assertEquals(SPRINGFIELD_LAT + 0.0005, first.getLatitude(), 1e-9);
+        assertEquals(3.7, first.getMaxSpeedMetersPerSecond(), 0.05);
+        assertEquals((short) 75, first.getMinBatteryLevel());
+        TechnicianLocationRollup second = saved.get(1);
+        assertEquals(MINUTE.plusMinutes(1), second.getMinute());
+        assertEquals(0.0, second.getMaxSpeedMetersPerSecond(), 1e-6);
+        assertNull(saved.get(2).getMaxSpeedMetersPerSecond());
+        assertNull(saved.get(2).getMinBatteryLevel());
+        verify(jdbcTemplate).update(LocationRollupMaintainer.ADVANCE_WATERMARK_SQL,
+                NOW.minusMinutes(2), NOW.minusMinutes(10));
+    }
+    
+    @Test
+    void testFixesAreMergedIntoStoredRollups() {
+        TechnicianLocationRollup stored = TechnicianLocationRollup.builder()
+                .technicianId(101L)
+                .minute(MINUTE)
+                .latitude(SPRINGFIELD_LAT + 0.003)
+                .longitude(SPRINGFIELD_LON)
+                .fixCount(2)
+                .maxSpeedMetersPerSecond(10.0f)
+                .minBatteryLevel((short) 60)
+                .build();
+        when(rollupRepository.findByTechnicianIdInAndMinuteIn(anyCollection(), anyCollection()))
+                .thenReturn(List.of(stored));
+        givenWatermarks(NOW.minusMinutes(10));
+        givenInserted(sample(101L, SPRINGFIELD_LAT, MINUTE.plusSeconds(45), 70));
+        
+        maintainer.rollUp(NOW);
+        
+        assertEquals(3, stored.getFixCount());
+        assertEquals(SPRINGFIELD_LAT + 0.002, stored.getLatitude(), 1e-9);
+        assertEquals(10.0f, stored.getMaxSpeedMetersPerSecond());
+        assertEquals((short) 60, stored.getMinBatteryLevel());
+        assertTrue(savedRollups().isEmpty());
+    }
+    
+    @Test
+    void testSpeedIsDerivedFromFixOfEarlierWindow() {
+        givenWatermarks(NOW.minusMinutes(10), NOW.minusMinutes(2));
+        givenInserted(sample(101L, SPRINGFIELD_LAT, MINUTE, null));
+        maintainer.rollUp(NOW);
+        
+        givenInserted(sample(101L, SPRINGFIELD_LAT + 0.001, MINUTE.plusSeconds(30), null));
+        maintainer.rollUp(NOW.plusMinutes(1));
+        
+        assertEquals(3.7, savedRollups().get(1).getMaxSpeedMetersPerSecond(), 0.05);
+    }
+    
+    @Test
+    void testNoSpeedAcrossGaps() {
+        givenWatermarks(NOW.minusMinutes(30));
+        givenInserted(
+                sample(101L, SPRINGFIELD_LAT, MINUTE.minusMinutes(15), null),
+                sample(101L, SPRINGFIELD_LAT + 0.01, MINUTE, null));
+        
+        maintainer.rollUp(NOW);
+        
+        assertNull(savedRollups().get(1).getMaxSpeedMetersPerSecond());
+    }
+    
+    @Test
+    void testCatchingUpRollsUpOneWindowAtATime() {
+        givenWatermarks(NOW.minusHours(3));
+        when(locationRepository.streamInsertedBetween(any(), any())).thenAnswer(invocation -> Stream.empty());
+        
+        maintainer.rollUp(NOW);
+        
+        verify(jdbcTemplate).update(LocationRollupMaintainer.ADVANCE_WATERMARK_SQL, NOW.minusHours(2), NOW.minusHours(3));
+        verify(jdbcTemplate).update(LocationRollupMaintainer.ADVANCE_WATERMARK_SQL, NOW.minusHours(1), NOW.minusHours(2));
+        verify(jdbcTemplate).update(LocationRollupMaintainer.ADVANCE_WATERMARK_SQL, NOW.minusMinutes(2), NOW.minusHours(1));
+        verify(rollupRepository, never()).saveAll(any());
+    }
+    
+    @Test
+    void testConcurrentlyAdvancedWatermarkRollsBack() {
+        givenWatermarks(NOW.minusHours(3));
+        givenInserted(sample(101L, SPRINGFIELD_LAT, MINUTE, null));
+        when(jdbcTemplate.update(eq(LocationRollupMaintainer.ADVANCE_WATERMARK_SQL),
+                any(LocalDateTime.class), any(LocalDateTime.class))).thenReturn(0);
+        
+        assertEquals(0, maintainer.rollUp(NOW));
+        
+        verify(transactionStatus).setRollbackOnly();
+        verify(locationRepository, times(1)).streamInsertedBetween(any(), any());
+    }
+    
+    @Test
+    void testNothingToRollUpBeforeSettleDelay() {
+        givenWatermarks(NOW.minusMinutes(2));
+        
+        assertEquals(0, maintainer.rollUp(NOW));
+        
+        verifyNoInteractions(locationRepository);
+    }
+}
@@ -1,25 +1,46 @@
 package com.fsm.location.service;
 
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fsm.location.api.dto.BufferedLocationFix;
+import com.fsm.location.api.dto.LocationBatchResponse;
+import com.fsm.location.api.dto.LocationDeltaResponse;
 import com.fsm.location.api.dto.LocationUpdateRequest;
 import com.fsm.location.api.dto.TechnicianLocationDTO;
+import com.fsm.location.domain.model.LocationFix;
 import com.fsm.location.domain.model.TechnicianLocation;
+import com.fsm.location.domain.model.PresenceStatus;
 import com.fsm.location.domain.repository.LocationRepository;
+import com.fsm.location.domain.repository.TechnicianCurrentLocationRepository;
+import com.fsm.location.service.exception.IngestBufferFullException;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
+import org.mockito.Spy;
 import org.mockito.junit.jupiter.MockitoExtension;
 
+import java.io.ByteArrayInputStream;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
 import java.util.Arrays;
+import java.util.Collection;
 import java.util.Collections;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 /**
@@ -31,6 +52,44 @@ class LocationServiceTest {
     @Mock
     private LocationRepository locationRepository;
     
+    @Mock
+    private TechnicianCurrentLocationRepository currentLocationRepository;
+    
+    @Spy
+    private LatestLocationRegistry latestLocationRegistry = new LatestLocationRegistry();
+    
+    @Mock
+    private LocationWriteBehindBuffer writeBehindBuffer;
+    
+    @Mock
+    private FleetVersionTracker fleetVersionTracker;
+    
+    @Mock
+    private PresenceTracker presenceTracker;
+    
+    @Mock
+    private TechnicianProfileCache technicianProfileCache;
+    
+    @Mock
+    private LocationUpdateRateLimiter rateLimiter;
+    
+    @Mock
+    private StationaryFixFilter stationaryFixFilter;
+    
+    @Mock
+    private ReportingIntervalAdvisor reportingIntervalAdvisor;
+    
+    @Mock
+    private RecentFixBuffer recentFixBuffer;
+    
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    
+    @Spy
+    private LocationMetrics metrics = new LocationMetrics(meterRegistry);
+    
+    @Spy
+    private ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    
     @InjectMocks
     private LocationService locationService;
     
@@ -39,6 +98,10 @@ class LocationServiceTest {
     
     @BeforeEach
     void setUp() {
+        lenient().when(technicianProfileCache.getNames(anyCollection())).thenAnswer(invocation -> {
+            Collection<Long> technicianIds = invocation.getArgument(0);
+            return technicianIds.stream().collect(Collectors.toMap(Function.identity(), id -> "Technician " + id));
+        });
         validRequest = LocationUpdateRequest.builder()
                 .latitude(39.7817)
                 .longitude(-89.6501)
@@ -62,8 +125,6 @@ class LocationServiceTest {
     void testUpdateLocationSuccess() {
         // Given
         Long technicianId = 101L;
-        when(locationRepository.findFirstByTechnicianIdOrderByTimestampDesc(technicianId))
-                .thenReturn(Optional.empty());
         when(locationRepository.save(any(TechnicianLocation.class)))
                 .thenReturn(savedLocation);
         
@@ -77,7 +138,7 @@ class LocationServiceTest {
         assertEquals(savedLocation.getLatitude(), result.getLatitude());
         assertEquals(savedLocation.getLongitude(), result.getLongitude());
         
-        verify(locationRepository).findFirstByTechnicianIdOrderByTimestampDesc(technicianId);
+        verify(locationRepository, never()).findFirstByTechnicianIdOrderByTimestampDesc(any());
         verify(locationRepository).save(any(TechnicianLocation.class));
     }
     
@@ -85,8 +146,6 @@ class LocationServiceTest {
     void testUpdateLocationSavesCorrectData() {
         // Given
         Long technicianId = 101L;
-        when(locationRepository.findFirstByTechnicianIdOrderByTimestampDesc(technicianId))
-                .thenReturn(Optional.empty());
         when(locationRepository.save(any(TechnicianLocation.class)))
                 .thenReturn(savedLocation);
         
@@ -107,25 +166,95 @@ class LocationServiceTest {
     }
     
     @Test
-    void testUpdateLocationRateLimitNotExceeded() {
-        // Given - last update was 31 seconds ago (should be allowed)
+    void testAcquireUpdatePermitGranted() {
+        // Given
+        when(rateLimiter.tryAcquire(101L)).thenReturn(0L);
+        
+        // When / Then
+        assertEquals(0, locationService.acquireUpdatePermit(101L));
+    }
+    
+    @Test
+    void testAcquireUpdatePermitRejectedRoundsUpToSeconds() {
+        // Given - a token is available in just over 19 seconds
+        when(rateLimiter.tryAcquire(101L)).thenReturn(19_000_000_001L);
+        
+        // When / Then
+        assertEquals(20, locationService.acquireUpdatePermit(101L));
+        verifyNoInteractions(locationRepository);
+    }
+    
+    @Test
+    void testUpdateLocationRecordsLatestFixInRegistry() {
+        // Given
         Long technicianId = 101L;
-        TechnicianLocation oldLocation = TechnicianLocation.builder()
-                .id(1L)
-                .technicianId(technicianId)
+        when(locationRepository.save(any(TechnicianLocation.class)))
+                .thenReturn(savedLocation);
+        
+        // When
+        locationService.updateLocation(technicianId, validRequest);
+        
+        // Then
+        assertEquals(savedLocation.getId(), latestLocationRegistry.get(technicianId).getLocationId());
+        verify(locationRepository, never()).findFirstByTechnicianIdOrderByTimestampDesc(any());
+    }
+    
+    @Test
+    void testUpdateLocationRecordsIngestLatency() {
+        // Given
+        when(locationRepository.save(any(TechnicianLocation.class)))
+                .thenReturn(savedLocation);
+        
+        // When
+        locationService.updateLocation(101L, validRequest);
+        
+        // Then
+        assertEquals(1, meterRegistry.get("location.ingest.latency").tag("mode", "single").timer().count());
+        assertEquals(0, meterRegistry.get("location.ingest.latency").tag("mode", "batch").timer().count());
+    }
+    
+    @Test
+    void testUpdateLocationUpsertsCurrentLocation() {
+        // Given
+        when(locationRepository.save(any(TechnicianLocation.class)))
+                .thenReturn(savedLocation);
+        
+        // When
+        locationService.updateLocation(101L, validRequest);
+        
+        // Then
+        verify(currentLocationRepository).upsert(savedLocation);
+    }
+    
+    @Test
+    void testRebuildLatestLocationRegistryLoadsLatestLocations() {
+        // Given
+        when(locationRepository.findLatestLocationsForAllTechnicians())
+                .thenReturn(List.of(savedLocation));
+        
+        // When
+        locationService.rebuildLatestLocationRegistry();
+        
+        // Then
+        assertEquals(1, latestLocationRegistry.size());
+        assertEquals(39.7817, latestLocationRegistry.get(101L).getLatitude());
+    }
+    
+    @Test
+    void testUpdateLocationWithoutBatteryLevel() {
+        // Given
+        Long technicianId = 101L;
+        LocationUpdateRequest requestWithoutBattery = LocationUpdateRequest.builder()
                 .latitude(39.7817)
                 .longitude(-89.6501)
                 .accuracy(5.0)
-                .timestamp(LocalDateTime.now().minusSeconds(31))
                 .build();
         
-        when(locationRepository.findFirstByTechnicianIdOrderByTimestampDesc(technicianId))
-                .thenReturn(Optional.of(oldLocation));
         when(locationRepository.save(any(TechnicianLocation.class)))
                 .thenReturn(savedLocation);
         
         // When
-        TechnicianLocation result = locationService.updateLocation(technicianId, validRequest);
+        TechnicianLocation result = locationService.updateLocation(technicianId, requestWithoutBattery);
         
         // Then
         assertNotNull(result);
@@ -133,75 +262,189 @@ class LocationServiceTest {
     }
     
     @Test
-    void testUpdateLocationRateLimitExceeded() {
-        // Given - last update was 10 seconds ago (should be blocked)
+    void testEnqueueLocationQueuesAndRegistersFix() {
+        // Given
         Long technicianId = 101L;
-        TechnicianLocation recentLocation = TechnicianLocation.builder()
-                .id(1L)
-                .technicianId(technicianId)
-                .latitude(39.7817)
-                .longitude(-89.6501)
-                .accuracy(5.0)
-                .timestamp(LocalDateTime.now().minusSeconds(10))
-                .build();
-        
-        when(locationRepository.findFirstByTechnicianIdOrderByTimestampDesc(technicianId))
-                .thenReturn(Optional.of(recentLocation));
+        when(writeBehindBuffer.offer(any(TechnicianLocation.class))).thenReturn(true);
         
-        // When / Then
-        IllegalStateException exception = assertThrows(IllegalStateException.class,
-                () -> locationService.updateLocation(technicianId, validRequest));
+        // When
+        LocationFix fix = locationService.enqueueLocation(technicianId, validRequest);
         
-        assertTrue(exception.getMessage().contains("Rate limit exceeded"));
-        assertTrue(exception.getMessage().contains("wait"));
+        // Then - nothing is written within the request, but the fix is immediately visible
+        assertNull(fix.getLocationId());
+        assertEquals(39.7817, fix.getLatitude());
+        assertSame(fix, latestLocationRegistry.get(technicianId));
         verify(locationRepository, never()).save(any(TechnicianLocation.class));
     }
     
     @Test
-    void testUpdateLocationRateLimitJustUnder30Seconds() {
-        // Given - last update was 29 seconds ago (should be blocked)
+    void testRecordStationaryHeartbeatRefreshesLatestFix() {
+        // Given - the technician has not moved since their last persisted fix
+        LocationFix persisted = LocationFix.from(savedLocation).toBuilder()
+                .timestamp(LocalDateTime.now().minusMinutes(2))
+                .build();
+        latestLocationRegistry.record(persisted);
+        when(stationaryFixFilter.findStationaryAnchor(eq(101L), eq(39.7817), eq(-89.6501), eq(5.0), any()))
+                .thenReturn(persisted);
+        
+        // When
+        Optional<LocationFix> heartbeat = locationService.recordStationaryHeartbeat(101L, validRequest);
+        
+        // Then - the persisted position is kept with a fresh timestamp, nothing is written
+        assertTrue(heartbeat.isPresent());
+        assertEquals(persisted.getLocationId(), heartbeat.get().getLocationId());
+        assertTrue(heartbeat.get().getTimestamp().isAfter(persisted.getTimestamp()));
+        assertSame(heartbeat.get(), latestLocationRegistry.get(101L));
+        assertEquals(1, meterRegistry.get("location.ingest.suppressed").counter().count());
+        verifyNoInteractions(locationRepository, writeBehindBuffer);
+    }
+    
+    @Test
+    void testRecordStationaryHeartbeatSkippedWhenMoved() {
+        // When - the filter finds no stationary anchor
+        Optional<LocationFix> heartbeat = locationService.recordStationaryHeartbeat(101L, validRequest);
+        
+        // Then
+        assertTrue(heartbeat.isEmpty());
+        assertNull(latestLocationRegistry.get(101L));
+    }
+    
+    @Test
+    void testEnqueueLocationBufferFull() {
+        // Given
         Long technicianId = 101L;
-        TechnicianLocation recentLocation = TechnicianLocation.builder()
-                .id(1L)
-                .technicianId(technicianId)
+        when(writeBehindBuffer.offer(any(TechnicianLocation.class))).thenReturn(false);
+        
+        // When / Then
+        assertThrows(IngestBufferFullException.class,
+                () -> locationService.enqueueLocation(technicianId, validRequest));
+        assertNull(latestLocationRegistry.get(technicianId));
+    }
+    
+    private BufferedLocationFix bufferedFix(LocalDateTime recordedAt) {
+        return BufferedLocationFix.builder()
                 .latitude(39.7817)
                 .longitude(-89.6501)
                 .accuracy(5.0)
-                .timestamp(LocalDateTime.now().minusSeconds(29))
+                .batteryLevel(85)
+                .recordedAt(recordedAt)
                 .build();
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    void testUpdateLocationsThinsFixesByDeviceTimestamp() {
+        // Given - fixes 10 seconds apart, sent out of order
+        Long technicianId = 101L;
+        LocalDateTime start = LocalDateTime.now().minusMinutes(10);
+        List<BufferedLocationFix> fixes = Arrays.asList(
+                bufferedFix(start.plusSeconds(40)),
+                bufferedFix(start),
+                bufferedFix(start.plusSeconds(10)),
+                bufferedFix(start.plusSeconds(30)),
+                bufferedFix(start.plusSeconds(70)));
+        when(locationRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
         
-        when(locationRepository.findFirstByTechnicianIdOrderByTimestampDesc(technicianId))
-                .thenReturn(Optional.of(recentLocation));
-        
-        // When / Then
-        IllegalStateException exception = assertThrows(IllegalStateException.class,
-                () -> locationService.updateLocation(technicianId, validRequest));
-        
-        assertTrue(exception.getMessage().contains("Rate limit exceeded"));
-        verify(locationRepository, never()).save(any(TechnicianLocation.class));
+        // When
+        LocationBatchResponse response = locationService.updateLocations(technicianId, fixes);
+        
+        // Then - only fixes at least 30 seconds apart are kept, in device-time order
+        ArgumentCaptor<List<TechnicianLocation>> captor = ArgumentCaptor.forClass(List.class);
+        verify(locationRepository).saveAll(captor.capture());
+        List<TechnicianLocation> saved = captor.getValue();
+        assertEquals(3, saved.size());
+        assertEquals(start, saved.get(0).getTimestamp());
+        assertEquals(start.plusSeconds(30), saved.get(1).getTimestamp());
+        assertEquals(start.plusSeconds(70), saved.get(2).getTimestamp());
+        
+        assertEquals(5, response.getReceived());
+        assertEquals(3, response.getAccepted());
+        assertEquals(2, response.getSkipped());
+        assertEquals(0, response.getRejected());
+        assertEquals(start.plusSeconds(70), response.getLatestTimestamp());
+        assertEquals(start.plusSeconds(70), latestLocationRegistry.get(technicianId).getTimestamp());
+        verify(currentLocationRepository).upsert(saved.get(2));
+        verify(recentFixBuffer, times(3)).onLocationFix(any(LocationFix.class));
+        verify(locationRepository, never()).findFirstByTechnicianIdOrderByTimestampDesc(any());
     }
     
     @Test
-    void testUpdateLocationWithoutBatteryLevel() {
-        // Given
+    @SuppressWarnings("unchecked")
+    void testUpdateLocationsSkipsFixesNearLatestKnownFix() {
+        // Given - the technician reported live 5 minutes ago
         Long technicianId = 101L;
-        LocationUpdateRequest requestWithoutBattery = LocationUpdateRequest.builder()
+        LocalDateTime lastLive = LocalDateTime.now().minusMinutes(5);
+        latestLocationRegistry.record(LocationFix.builder()
+                .locationId(1L)
+                .technicianId(technicianId)
                 .latitude(39.7817)
                 .longitude(-89.6501)
                 .accuracy(5.0)
-                .build();
+                .timestamp(lastLive)
+                .build());
+        when(locationRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
         
-        when(locationRepository.findFirstByTechnicianIdOrderByTimestampDesc(technicianId))
-                .thenReturn(Optional.empty());
-        when(locationRepository.save(any(TechnicianLocation.class)))
-                .thenReturn(savedLocation);
+        // When
+        LocationBatchResponse response = locationService.updateLocations(technicianId, Arrays.asList(
+                bufferedFix(lastLive.minusSeconds(60)),
+                bufferedFix(lastLive.plusSeconds(10)),
+                bufferedFix(lastLive.plusSeconds(45))));
+        
+        // Then
+        ArgumentCaptor<List<TechnicianLocation>> captor = ArgumentCaptor.forClass(List.class);
+        verify(locationRepository).saveAll(captor.capture());
+        assertEquals(2, captor.getValue().size());
+        assertEquals(1, response.getSkipped());
+        assertEquals(lastLive.plusSeconds(45), latestLocationRegistry.get(technicianId).getTimestamp());
+    }
+    
+    @Test
+    @SuppressWarnings("unchecked")
+    void testResentBatchIsAcceptedOnlyOnce() {
+        // Given - the first attempt was committed, but its response never reached the device
+        Long technicianId = 101L;
+        LocalDateTime start = LocalDateTime.now().minusMinutes(10);
+        List<BufferedLocationFix> fixes = List.of(
+                bufferedFix(start),
+                bufferedFix(start.plusSeconds(45)),
+                bufferedFix(start.plusSeconds(90)));
+        List<LocalDateTime> stored = new ArrayList<>();
+        when(locationRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<TechnicianLocation> saved = invocation.getArgument(0);
+            saved.forEach(location -> stored.add(location.getTimestamp()));
+            return saved;
+        });
+        when(locationRepository.findTimestamps(eq(technicianId), any(LocalDateTime.class), any(LocalDateTime.class)))
+                .thenAnswer(invocation -> List.copyOf(stored));
         
         // When
-        TechnicianLocation result = locationService.updateLocation(technicianId, requestWithoutBattery);
+        LocationBatchResponse first = locationService.updateLocations(technicianId, fixes);
+        LocationBatchResponse retry = locationService.updateLocations(technicianId, fixes);
         
         // Then
-        assertNotNull(result);
-        verify(locationRepository).save(any(TechnicianLocation.class));
+        assertEquals(3, first.getAccepted());
+        assertEquals(0, retry.getAccepted());
+        assertEquals(3, retry.getSkipped());
+        assertEquals(3, stored.size());
+    }
+    
+    @Test
+    void testUpdateLocationsRejectsFutureFixes() {
+        // Given - a device clock far ahead of the server
+        Long technicianId = 101L;
+        when(locationRepository.saveAll(anyList())).thenAnswer(invocation -> invocation.getArgument(0));
+        
+        // When
+        LocationBatchResponse response = locationService.updateLocations(technicianId,
+                List.of(bufferedFix(LocalDateTime.now().plusHours(1))));
+        
+        // Then
+        assertEquals(0, response.getAccepted());
+        assertEquals(1, response.getRejected());
+        assertNull(latestLocationRegistry.get(technicianId));
+        assertEquals(1, meterRegistry.get("location.ingest.fixes").tag("outcome", "rejected").counter().count());
+        assertEquals(0, meterRegistry.get("location.ingest.fixes").tag("outcome", "accepted").counter().count());
+        assertEquals(1, meterRegistry.get("location.ingest.latency").tag("mode", "batch").timer().count());
     }
     
     @Test
@@ -212,12 +455,28 @@ class LocationServiceTest {
                 .thenReturn(Optional.of(savedLocation));
         
         // When
-        Optional<TechnicianLocation> result = locationService.getLatestLocation(technicianId);
+        Optional<LocationFix> result = locationService.getLatestLocation(technicianId);
         
         // Then
         assertTrue(result.isPresent());
-        assertEquals(savedLocation.getId(), result.get().getId());
+        assertEquals(savedLocation.getId(), result.get().getLocationId());
         verify(locationRepository).findFirstByTechnicianIdOrderByTimestampDesc(technicianId);
+        assertNotNull(latestLocationRegistry.get(technicianId));
+    }
+    
+    @Test
+    void testGetLatestLocationServedFromRegistry() {
+        // Given - the technician's last fix is already known in memory
+        Long technicianId = 101L;
+        latestLocationRegistry.record(LocationFix.from(savedLocation));
+        
+        // When
+        Optional<LocationFix> result = locationService.getLatestLocation(technicianId);
+        
+        // Then - no database read is needed
+        assertTrue(result.isPresent());
+        assertEquals(savedLocation.getId(), result.get().getLocationId());
+        verify(locationRepository, never()).findFirstByTechnicianIdOrderByTimestampDesc(any());
     }
     
     @Test
@@ -228,7 +487,7 @@ class LocationServiceTest {
                 .thenReturn(Optional.empty());
         
         // When
-        Optional<TechnicianLocation> result = locationService.getLatestLocation(technicianId);
+        Optional<LocationFix> result = locationService.getLatestLocation(technicianId);
         
         // Then
         assertFalse(result.isPresent());
@@ -241,10 +500,6 @@ class LocationServiceTest {
         Long technicianId1 = 101L;
         Long technicianId2 = 102L;
         
-        when(locationRepository.findFirstByTechnicianIdOrderByTimestampDesc(technicianId1))
-                .thenReturn(Optional.empty());
-        when(locationRepository.findFirstByTechnicianIdOrderByTimestampDesc(technicianId2))
-                .thenReturn(Optional.empty());
         when(locationRepository.save(any(TechnicianLocation.class)))
                 .thenReturn(savedLocation);
         
@@ -264,8 +519,6 @@ class LocationServiceTest {
         Long technicianId = 101L;
         LocalDateTime beforeUpdate = LocalDateTime.now().minusSeconds(1);
         
-        when(locationRepository.findFirstByTechnicianIdOrderByTimestampDesc(technicianId))
-                .thenReturn(Optional.empty());
         when(locationRepository.save(any(TechnicianLocation.class)))
                 .thenReturn(savedLocation);
         
@@ -283,8 +536,7 @@ class LocationServiceTest {
     
     @Test
     void testUpdateLocationWithVariousCoordinates() {
-        // Given - test various valid coordinate combinations
-        Long technicianId = 101L;
+        // Given - test various valid coordinate combinations (one technician each, to stay under the rate limit)
         
         // Test case 1: North Pole
         LocationUpdateRequest northPole = LocationUpdateRequest.builder()
@@ -307,15 +559,13 @@ class LocationServiceTest {
                 .accuracy(10.0)
                 .build();
         
-        when(locationRepository.findFirstByTechnicianIdOrderByTimestampDesc(technicianId))
-                .thenReturn(Optional.empty());
         when(locationRepository.save(any(TechnicianLocation.class)))
                 .thenReturn(savedLocation);
         
         // When / Then - all should succeed
-        assertDoesNotThrow(() -> locationService.updateLocation(technicianId, northPole));
-        assertDoesNotThrow(() -> locationService.updateLocation(technicianId, southPole));
-        assertDoesNotThrow(() -> locationService.updateLocation(technicianId, dateLine));
+        assertDoesNotThrow(() -> locationService.updateLocation(101L, northPole));
+        assertDoesNotThrow(() -> locationService.updateLocation(102L, southPole));
+        assertDoesNotThrow(() -> locationService.updateLocation(103L, dateLine));
     }
     
     @Test
@@ -375,6 +625,27 @@ class LocationServiceTest {
         verify(locationRepository).findRecentLocations(any(LocalDateTime.class));
     }
     
+    @Test
+    void testBuildActiveLocationsSnapshotEncodesBodyOnce() throws Exception {
+        // Given
+        when(locationRepository.findRecentLocations(any(LocalDateTime.class)))
+                .thenReturn(List.of(savedLocation));
+        
+        // When
+        ActiveLocationsSnapshot snapshot = locationService.buildActiveLocationsSnapshot();
+        
+        // Then
+        assertEquals(1, snapshot.getLocations().size());
+        TechnicianLocationDTO[] decoded = objectMapper.readValue(snapshot.getIdentityBody(),
+                TechnicianLocationDTO[].class);
+        assertEquals(snapshot.getLocations(), List.of(decoded));
+        assertArrayEquals(snapshot.getIdentityBody(),
+                new GZIPInputStream(new ByteArrayInputStream(snapshot.getGzipBody())).readAllBytes());
+        assertNotEquals(snapshot.getIdentityETag(), snapshot.getGzipETag());
+        assertEquals(snapshot.getIdentityETag(),
+                ActiveLocationsSnapshot.encode(snapshot.getLocations(), objectMapper).getIdentityETag());
+    }
+    
     @Test
     void testGetAllActiveTechnicianLocationsEmptyList() {
         // Given
@@ -479,4 +750,62 @@ class LocationServiceTest {
         assertEquals("busy", result.get(0).getStatus());
         assertEquals("available", result.get(1).getStatus());
     }
+    
+    @Test
+    void testGetAllActiveTechnicianLocationsLooksUpNamesInOneBatch() {
+        // Given
+        LocalDateTime now = LocalDateTime.now();
+        List<TechnicianLocation> locations = List.of(
+                TechnicianLocation.builder().id(1L).technicianId(101L).latitude(39.7817).longitude(-89.6501)
+                        .accuracy(5.0).timestamp(now).build(),
+                TechnicianLocation.builder().id(2L).technicianId(102L).latitude(39.7845).longitude(-89.6302)
+                        .accuracy(5.0).timestamp(now).build());
+        when(locationRepository.findRecentLocations(any(LocalDateTime.class))).thenReturn(locations);
+        when(technicianProfileCache.getNames(anyCollection()))
+                .thenReturn(Map.of(101L, "Alice Smith", 102L, "Bob Jones"));
+        
+        // When
+        List<TechnicianLocationDTO> result = locationService.getAllActiveTechnicianLocations();
+        
+        // Then
+        assertEquals("Alice Smith", result.get(0).getName());
+        assertEquals("Bob Jones", result.get(1).getName());
+        verify(technicianProfileCache, times(1)).getNames(anyCollection());
+    }
+    
+    @Test
+    void testConvertToDTOUsesTrackedPresenceStatus() {
+        // Given - the tracker already moved the technician to busy
+        TechnicianLocation location = TechnicianLocation.builder()
+                .id(1L).technicianId(101L)
+                .latitude(39.7817).longitude(-89.6501)
+                .accuracy(5.0).timestamp(LocalDateTime.now().minusMinutes(4))
+                .batteryLevel(85).build();
+        when(locationRepository.findRecentLocations(any(LocalDateTime.class))).thenReturn(List.of(location));
+        when(presenceTracker.find(101L)).thenReturn(Optional.of(PresenceStatus.BUSY));
+        
+        // When
+        List<TechnicianLocationDTO> result = locationService.getAllActiveTechnicianLocations();
+        
+        // Then
+        assertEquals("busy", result.get(0).getStatus());
+    }
+    
+    @Test
+    void testGetLocationChangesSinceDelegatesToFleetVersionTracker() {
+        // Given
+        LocationDeltaResponse delta = LocationDeltaResponse.builder()
+                .version(1042L)
+                .changed(List.of())
+                .removed(List.of())
+                .build();
+        when(fleetVersionTracker.getChangesSince(1040L)).thenReturn(delta);
+        
+        // When
+        LocationDeltaResponse result = locationService.getLocationChangesSince(1040L);
+        
+        // Then
+        assertSame(delta, result);
+        verifyNoInteractions(locationRepository);
+    }
 }
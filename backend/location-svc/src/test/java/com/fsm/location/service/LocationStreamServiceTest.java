@@ -0,0 +1,167 @@
+package com.fsm.location.service;
+
+import com.fsm.location.api.dto.TechnicianLocationDTO;
+import com.fsm.location.domain.model.LocationFix;
+import com.fsm.location.infrastructure.config.LocationStreamProperties;
+import com.fsm.location.infrastructure.config.PresenceProperties;
+import com.fsm.location.infrastructure.config.TechnicianProfileProperties;
+import com.fsm.location.service.exception.TooManySubscribersException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.TaskScheduler;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Unit tests for LocationStreamService.
+ */
+class LocationStreamServiceTest {
+    
+    private final LocationStreamProperties properties = new LocationStreamProperties();
+    private final LatestLocationRegistry latestLocationRegistry = new LatestLocationRegistry();
+    private final PresenceTracker presenceTracker =
+            new PresenceTracker(new PresenceProperties(), latestLocationRegistry, new SimpleMeterRegistry());
+    private final LocationStreamService streamService =
+            new LocationStreamService(properties, latestLocationRegistry, presenceTracker,
+                    new TechnicianProfileCache(technicianIds -> Map.of(), new TechnicianProfileProperties(),
+                            mock(TaskScheduler.class), new SimpleMeterRegistry()),
+                    new SimpleMeterRegistry());
+    
+    @AfterEach
+    void tearDown() {
+        streamService.stop();
+    }
+    
+    private TechnicianLocationDTO update(long technicianId, LocalDateTime timestamp) {
+        return TechnicianLocationDTO.builder()
+                .technicianId(technicianId)
+                .timestamp(timestamp)
+                .build();
+    }
+    
+    @Test
+    void testSubscriberConflatesUpdatesPerTechnician() {
+        LocationStreamService.Subscriber subscriber = new LocationStreamService.Subscriber(new SseEmitter());
+        LocalDateTime now = LocalDateTime.now();
+        
+        assertTrue(subscriber.offer(update(101L, now.minusSeconds(60))));
+        assertFalse(subscriber.offer(update(101L, now)));
+        assertFalse(subscriber.offer(update(101L, now.minusSeconds(30))));
+        assertFalse(subscriber.offer(update(102L, now)));
+        
+        assertEquals(2, subscriber.pending.size());
+        assertEquals(now, subscriber.pending.get(101L).getTimestamp());
+    }
+    
+    @Test
+    void testSubscribeRejectedAboveMaxSubscribers() {
+        properties.setMaxSubscribers(1);
+        streamService.start();
+        
+        streamService.subscribe();
+        
+        assertEquals(1, streamService.getSubscriberCount());
+        assertThrows(TooManySubscribersException.class, streamService::subscribe);
+    }
+    
+    @Test
+    void testStopClosesSubscriptions() {
+        streamService.start();
+        streamService.subscribe();
+        
+        streamService.stop();
+        
+        assertEquals(0, streamService.getSubscriberCount());
+        assertFalse(streamService.isRunning());
+    }
+    
+    @Test
+    void testConcurrentSubscribesNeverExceedMaxSubscribers() throws Exception {
+        properties.setMaxSubscribers(5);
+        streamService.start();
+        ExecutorService callers = Executors.newFixedThreadPool(8);
+        CountDownLatch go = new CountDownLatch(1);
+        List<Future<Boolean>> results = new ArrayList<>();
+        
+        try {
+            for (int i = 0; i < 40; i++) {
+                results.add(callers.submit(() -> {
+                    go.await();
+                    try {
+                        streamService.subscribe();
+                        return true;
+                    } catch (TooManySubscribersException e) {
+                        return false;
+                    }
+                }));
+            }
+            go.countDown();
+            int accepted = 0;
+            for (Future<Boolean> result : results) {
+                accepted += result.get(10, TimeUnit.SECONDS) ? 1 : 0;
+            }
+            
+            assertEquals(5, accepted);
+            assertEquals(5, streamService.getSubscriberCount());
+        } finally {
+            callers.shutdownNow();
+        }
+    }
+    
+    @Test
+    void testBlockedSubscriberIsDisconnectedAfterSendTimeout() throws Exception {
+        properties.setMaxSubscribers(1);
+        properties.setFlushInterval(Duration.ofMillis(10));
+        properties.setSendTimeout(Duration.ofMillis(100));
+        streamService.start();
+        CountDownLatch unblock = new CountDownLatch(1);
+        AtomicInteger sends = new AtomicInteger();
+        SseEmitter blocked = new SseEmitter() {
+            @Override
+            public void send(SseEventBuilder builder) throws IOException {
+                // The snapshot goes through, then the client stops reading
+                if (sends.incrementAndGet() > 1) {
+                    try {
+                        unblock.await();
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                    }
+                }
+            }
+        };
+        
+        try {
+            streamService.subscribe(blocked);
+            streamService.onLocationFix(LocationFix.builder()
+                    .technicianId(101L)
+                    .timestamp(LocalDateTime.now())
+                    .build());
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+            while (streamService.getSubscriberCount() > 0 && System.nanoTime() < deadline) {
+                Thread.sleep(10);
+            }
+            
+            assertEquals(0, streamService.getSubscriberCount());
+            assertEquals(2, sends.get());
+            assertNotNull(streamService.subscribe());
+        } finally {
+            unblock.countDown();
+        }
+    }
+}
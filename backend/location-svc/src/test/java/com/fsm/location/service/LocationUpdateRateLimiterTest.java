@@ -0,0 +1,122 @@
+package com.fsm.location.service;
+
+import com.fsm.location.infrastructure.config.RateLimitProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for LocationUpdateRateLimiter.
+ */
+class LocationUpdateRateLimiterTest {
+    
+    private static final long SECOND = 1_000_000_000L;
+    
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicLong clock = new AtomicLong(Long.MAX_VALUE - 45 * SECOND);
+    
+    private LocationUpdateRateLimiter limiter(int burst, Duration refillInterval) {
+        RateLimitProperties properties = new RateLimitProperties();
+        properties.setBurst(burst);
+        properties.setRefillInterval(refillInterval);
+        return new LocationUpdateRateLimiter(properties, meterRegistry, clock::get);
+    }
+    
+    @Test
+    void testDefaultsAllowOneUpdatePerInterval() {
+        LocationUpdateRateLimiter limiter = limiter(1, Duration.ofSeconds(30));
+        
+        assertEquals(0, limiter.tryAcquire(101L));
+        clock.addAndGet(10 * SECOND);
+        assertEquals(20 * SECOND, limiter.tryAcquire(101L));
+        clock.addAndGet(20 * SECOND);
+        assertEquals(0, limiter.tryAcquire(101L));
+        assertEquals(1.0, meterRegistry.counter("location.ingest.rate_limited").count());
+    }
+    
+    @Test
+    void testTechniciansHaveSeparateBuckets() {
+        LocationUpdateRateLimiter limiter = limiter(1, Duration.ofSeconds(30));
+        
+        assertEquals(0, limiter.tryAcquire(101L));
+        assertEquals(0, limiter.tryAcquire(102L));
+        assertTrue(limiter.tryAcquire(101L) > 0);
+    }
+    
+    @Test
+    void testBurstThenRefill() {
+        LocationUpdateRateLimiter limiter = limiter(3, Duration.ofSeconds(10));
+        
+        assertEquals(0, limiter.tryAcquire(101L));
+        assertEquals(0, limiter.tryAcquire(101L));
+        assertEquals(0, limiter.tryAcquire(101L));
+        assertEquals(10 * SECOND, limiter.tryAcquire(101L));
+        
+        // One token regained per interval
+        clock.addAndGet(10 * SECOND);
+        assertEquals(0, limiter.tryAcquire(101L));
+        assertTrue(limiter.tryAcquire(101L) > 0);
+        
+        // A long pause refills the bucket, but never beyond the burst size
+        clock.addAndGet(5 * 60 * SECOND);
+        for (int i = 0; i < 3; i++) {
+            assertEquals(0, limiter.tryAcquire(101L));
+        }
+        assertTrue(limiter.tryAcquire(101L) > 0);
+    }
+    
+    @Test
+    void testRejectedAttemptsDoNotConsumeTokens() {
+        LocationUpdateRateLimiter limiter = limiter(1, Duration.ofSeconds(30));
+        limiter.tryAcquire(101L);
+        
+        for (int i = 0; i < 5; i++) {
+            clock.addAndGet(SECOND);
+            limiter.tryAcquire(101L);
+        }
+        
+        clock.addAndGet(25 * SECOND);
+        assertEquals(0, limiter.tryAcquire(101L));
+    }
+    
+    @Test
+    void testConcurrentRequestsTakeOnlyAvailableTokens() throws InterruptedException {
+        LocationUpdateRateLimiter limiter = limiter(2, Duration.ofSeconds(30));
+        AtomicInteger granted = new AtomicInteger();
+        CountDownLatch start = new CountDownLatch(1);
+        Thread[] requests = new Thread[8];
+        for (int t = 0; t < requests.length; t++) {
+            requests[t] = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < 100; i++) {
+                    if (limiter.tryAcquire(101L) == 0) {
+                        granted.incrementAndGet();
+                    }
+                }
+            });
+            requests[t].start();
+        }
+        start.countDown();
+        for (Thread request : requests) {
+            request.join();
+        }
+        
+        assertEquals(2, granted.get());
+    }
+    
+    @Test
+    void testBurstMustBePositive() {
+        assertThrows(IllegalArgumentException.class, () -> limiter(0, Duration.ofSeconds(30)));
+    }
+}
@@ -0,0 +1,273 @@
+package com.fsm.location.service;
+
+import com.fsm.location.domain.model.LocationFix;
+import com.fsm.location.domain.model.TechnicianCurrentLocation;
+import com.fsm.location.domain.model.TechnicianLocation;
+import com.fsm.location.domain.repository.LocationRepository;
+import com.fsm.location.domain.repository.TechnicianCurrentLocationRepository;
+import com.fsm.location.infrastructure.config.WriteBehindProperties;
+import com.fsm.location.infrastructure.config.WriteBehindProperties.BackpressurePolicy;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for LocationWriteBehindBuffer.
+ */
+@ExtendWith(MockitoExtension.class)
+class LocationWriteBehindBufferTest {
+    
+    @Mock
+    private LocationRepository locationRepository;
+    
+    @Mock
+    private TechnicianCurrentLocationRepository currentLocationRepository;
+    
+    @Mock
+    private PlatformTransactionManager transactionManager;
+    
+    private final LatestLocationRegistry latestLocationRegistry = new LatestLocationRegistry();
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final List<TechnicianLocation> persisted = Collections.synchronizedList(new ArrayList<>());
+    
+    private WriteBehindProperties properties;
+    private LocationWriteBehindBuffer buffer;
+    
+    @BeforeEach
+    void setUp() {
+        properties = new WriteBehindProperties();
+        properties.setEnabled(true);
+        properties.setCapacity(3);
+        properties.setBatchSize(2);
+        properties.setFlushInterval(Duration.ofMillis(50));
+    }
+    
+    @AfterEach
+    void tearDown() {
+        if (buffer != null) {
+            buffer.stop();
+        }
+    }
+    
+    private void createBuffer() {
+        buffer = new LocationWriteBehindBuffer(properties, locationRepository, currentLocationRepository,
+                latestLocationRegistry,
+                transactionManager, meterRegistry);
+    }
+    
+    @SuppressWarnings("unchecked")
+    private void recordSaves() {
+        long[] ids = {0};
+        when(locationRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            List<TechnicianLocation> batch = new ArrayList<>(invocation.getArgument(0));
+            batch.forEach(location -> location.setId(++ids[0]));
+            persisted.addAll(batch);
+            return batch;
+        });
+    }
+    
+    private TechnicianLocation location(long technicianId) {
+        return TechnicianLocation.builder()
+                .technicianId(technicianId)
+                .latitude(39.7817)
+                .longitude(-89.6501)
+                .accuracy(5.0)
+                .timestamp(LocalDateTime.now())
+                .build();
+    }
+    
+    private void awaitFlushes(int persistedCount, int flushCount) throws InterruptedException {
+        long deadline = System.currentTimeMillis() + 5000;
+        // The flush timer and the registry are updated after saveAll returns, so wait for all three
+        while ((persisted.size() < persistedCount
+                || meterRegistry.get("location.ingest.flush.latency").timer().count() < flushCount
+                || latestLocationRegistry.values().stream().filter(fix -> fix.getLocationId() != null).count()
+                        < persistedCount)
+                && System.currentTimeMillis() < deadline) {
+            Thread.sleep(10);
+        }
+    }
+    
+    @Test
+    void testRejectPolicyRejectsWhenFull() {
+        properties.setBackpressure(BackpressurePolicy.REJECT);
+        createBuffer();
+        
+        assertTrue(buffer.offer(location(101L)));
+        assertTrue(buffer.offer(location(102L)));
+        assertTrue(buffer.offer(location(103L)));
+        assertFalse(buffer.offer(location(104L)));
+        
+        assertEquals(3, buffer.size());
+        assertEquals(3.0, meterRegistry.get("location.ingest.queue.depth").gauge().value());
+        assertEquals(1.0, meterRegistry.get("location.ingest.buffer.rejected").counter().count());
+    }
+    
+    @Test
+    void testBlockPolicyRejectsAfterTimeout() {
+        properties.setBackpressure(BackpressurePolicy.BLOCK);
+        properties.setOfferTimeout(Duration.ofMillis(20));
+        properties.setCapacity(1);
+        createBuffer();
+        
+        assertTrue(buffer.offer(location(101L)));
+        assertFalse(buffer.offer(location(102L)));
+    }
+    
+    @Test
+    void testDropOldestPolicyKeepsNewestUpdates() {
+        properties.setBackpressure(BackpressurePolicy.DROP_OLDEST);
+        createBuffer();
+        
+        for (long technicianId = 101L; technicianId <= 105L; technicianId++) {
+            assertTrue(buffer.offer(location(technicianId)));
+        }
+        
+        assertEquals(3, buffer.size());
+        assertEquals(2.0, meterRegistry.get("location.ingest.buffer.dropped").counter().count());
+    }
+    
+    @Test
+    void testWriterFlushesQueuedUpdatesInBatches() throws InterruptedException {
+        recordSaves();
+        createBuffer();
+        buffer.start();
+        
+        buffer.offer(location(101L));
+        buffer.offer(location(102L));
+        buffer.offer(location(103L));
+        awaitFlushes(3, 2);
+        
+        assertEquals(3, persisted.size());
+        verify(locationRepository, atLeast(2)).saveAll(anyList());
+        assertTrue(meterRegistry.get("location.ingest.flush.latency").timer().count() >= 2);
+        assertNotNull(latestLocationRegistry.get(103L).getLocationId());
+    }
+    
+    @Test
+    void testStopFlushesRemainingUpdates() {
+        recordSaves();
+        properties.setFlushInterval(Duration.ofSeconds(10));
+        properties.setBatchSize(100);
+        createBuffer();
+        buffer.start();
+        
+        buffer.offer(location(101L));
+        buffer.offer(location(102L));
+        buffer.stop();
+        
+        assertEquals(2, persisted.size());
+        assertEquals(0, buffer.size());
+        verify(currentLocationRepository).upsertLatest(anyList());
+        assertFalse(buffer.isRunning());
+    }
+    
+    @Test
+    void testFailedFlushIsCounted() {
+        when(locationRepository.saveAll(anyList())).thenThrow(new IllegalStateException("database down"));
+        createBuffer();
+        
+        buffer.flush(new ArrayList<>(List.of(location(101L), location(102L))));
+        
+        assertEquals(2.0, meterRegistry.get("location.ingest.flush.failed").counter().count());
+    }
+    
+    @Test
+    void testFailedFlushRestoresStoredCurrentLocations() {
+        when(locationRepository.saveAll(anyList())).thenThrow(new IllegalStateException("constraint violation"));
+        TechnicianLocation stored = location(101L);
+        stored.setId(1L);
+        stored.setTimestamp(LocalDateTime.now().minusMinutes(1));
+        when(currentLocationRepository.findAllById(Set.of(101L, 102L)))
+                .thenReturn(List.of(TechnicianCurrentLocation.from(stored)));
+        createBuffer();
+        TechnicianLocation first = location(101L);
+        TechnicianLocation second = location(102L);
+        latestLocationRegistry.record(LocationFix.from(first));
+        latestLocationRegistry.record(LocationFix.from(second));
+        
+        buffer.flush(new ArrayList<>(List.of(first, second)));
+        
+        assertEquals(LocationFix.from(stored), latestLocationRegistry.get(101L));
+        assertNull(latestLocationRegistry.get(102L));
+    }
+    
+    @Test
+    void testDroppedUpdatesAreTakenBackFromRegistry() throws InterruptedException {
+        recordSaves();
+        properties.setBackpressure(BackpressurePolicy.DROP_OLDEST);
+        properties.setCapacity(1);
+        createBuffer();
+        TechnicianLocation dropped = location(101L);
+        buffer.offer(dropped);
+        latestLocationRegistry.record(LocationFix.from(dropped));
+        buffer.offer(location(102L));
+        
+        buffer.start();
+        awaitFlushes(1, 1);
+        
+        assertNull(latestLocationRegistry.get(101L));
+        assertEquals(1, persisted.size());
+        assertEquals(102L, persisted.get(0).getTechnicianId());
+    }
+    
+    @Test
+    void testStopWaitsForWriterBeforeFlushingRemainingUpdates() {
+        AtomicInteger flushing = new AtomicInteger();
+        AtomicInteger overlaps = new AtomicInteger();
+        when(locationRepository.saveAll(anyList())).thenAnswer(invocation -> {
+            if (flushing.incrementAndGet() > 1) {
+                overlaps.incrementAndGet();
+            }
+            Thread.sleep(200);
+            flushing.decrementAndGet();
+            List<TechnicianLocation> batch = new ArrayList<>(invocation.getArgument(0));
+            persisted.addAll(batch);
+            return batch;
+        });
+        properties.setCapacity(10);
+        properties.setBatchSize(1);
+        properties.setFlushInterval(Duration.ofMillis(1));
+        properties.setShutdownTimeout(Duration.ofMillis(50));
+        createBuffer();
+        buffer.start();
+        
+        for (long technicianId = 101L; technicianId <= 105L; technicianId++) {
+            buffer.offer(location(technicianId));
+        }
+        buffer.stop();
+        
+        assertEquals(5, persisted.size());
+        assertEquals(0, overlaps.get());
+        assertEquals(0, buffer.size());
+    }
+    
+    @Test
+    void testDisabledBufferDoesNotStartWriter() {
+        properties.setEnabled(false);
+        createBuffer();
+        buffer.start();
+        
+        assertFalse(buffer.isEnabled());
+        assertFalse(buffer.isRunning());
+    }
+}
@@ -0,0 +1,157 @@
+package com.fsm.location.service;
+
+import com.fsm.location.api.dto.MapViewResponse;
+import com.fsm.location.api.dto.TechnicianClusterDTO;
+import com.fsm.location.api.dto.TechnicianLocationDTO;
+import com.fsm.location.domain.model.LocationFix;
+import com.fsm.location.domain.model.PresenceStatus;
+import com.fsm.location.infrastructure.config.MapViewProperties;
+import com.fsm.location.infrastructure.config.SpatialIndexProperties;
+import com.fsm.location.infrastructure.config.TechnicianProfileProperties;
+import com.fsm.location.service.exception.InvalidViewportException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for MapViewService.
+ */
+class MapViewServiceTest {
+    
+    private final TechnicianSpatialIndex spatialIndex = new TechnicianSpatialIndex(new SpatialIndexProperties(),
+            new LatestLocationRegistry());
+    private final MapViewProperties properties = new MapViewProperties();
+    private final LocationMetrics metrics = new LocationMetrics(new SimpleMeterRegistry());
+    private final TechnicianProfileCache profileCache = new TechnicianProfileCache(technicianIds -> Map.of(),
+            new TechnicianProfileProperties(), mock(TaskScheduler.class), new SimpleMeterRegistry());
+    private final PresenceTracker presenceTracker = mock(PresenceTracker.class);
+    private final MapViewService mapViewService =
+            new MapViewService(spatialIndex, properties, metrics, profileCache, presenceTracker);
+    
+    private void locate(long technicianId, double latitude, double longitude, LocalDateTime timestamp) {
+        spatialIndex.onLocationFix(LocationFix.builder()
+                .technicianId(technicianId)
+                .latitude(latitude)
+                .longitude(longitude)
+                .accuracy(5.0)
+                .timestamp(timestamp)
+                .build());
+    }
+    
+    private static int counted(MapViewResponse view) {
+        return view.getTechnicians().size()
+                + view.getClusters().stream().mapToInt(TechnicianClusterDTO::getCount).sum();
+    }
+    
+    @Test
+    void testHighZoomReturnsIndividualTechniciansInViewport() {
+        LocalDateTime now = LocalDateTime.now();
+        locate(102L, 39.7817, -89.6510, now);
+        locate(101L, 39.7845, -89.6302, now.minusMinutes(10));
+        locate(103L, 40.5000, -89.6501, now);              // outside the viewport
+        locate(104L, 39.7900, -89.6400, now.minusHours(1)); // stale
+        
+        MapViewResponse view = mapViewService.getMapView(-89.70, 39.70, -89.60, 39.90, 15);
+        
+        assertFalse(view.getClustered());
+        assertEquals(2, view.getTotal());
+        assertEquals(101L, view.getTechnicians().get(0).getTechnicianId());
+        assertEquals("busy", view.getTechnicians().get(0).getStatus());
+        assertEquals(102L, view.getTechnicians().get(1).getTechnicianId());
+        assertTrue(view.getClusters().isEmpty());
+    }
+    
+    @Test
+    void testLowZoomClustersNearbyTechnicians() {
+        LocalDateTime now = LocalDateTime.now();
+        locate(101L, 39.78, -89.65, now);
+        locate(102L, 39.80, -89.63, now.minusMinutes(10));
+        locate(103L, 41.88, -87.63, now);                  // Chicago, alone in its cell
+        
+        MapViewResponse view = mapViewService.getMapView(-92.0, 37.0, -86.0, 43.0, 6);
+        
+        assertTrue(view.getClustered());
+        assertEquals(3, view.getTotal());
+        assertEquals(1, view.getClusters().size());
+        TechnicianClusterDTO cluster = view.getClusters().get(0);
+        assertEquals(2, cluster.getCount());
+        assertEquals(1, cluster.getAvailableCount());
+        assertEquals(39.79, cluster.getLatitude(), 1e-9);
+        assertEquals(-89.64, cluster.getLongitude(), 1e-9);
+        assertEquals(1, view.getTechnicians().size());
+        assertEquals(103L, view.getTechnicians().get(0).getTechnicianId());
+    }
+    
+    @Test
+    void testStatusesFollowPresenceTracker() {
+        LocalDateTime now = LocalDateTime.now();
+        locate(101L, 39.78, -89.65, now);
+        locate(102L, 39.80, -89.63, now);
+        locate(103L, 39.7817, -89.6510, now);
+        when(presenceTracker.find(101L)).thenReturn(Optional.of(PresenceStatus.BUSY));
+        
+        MapViewResponse clustered = mapViewService.getMapView(-92.0, 37.0, -86.0, 43.0, 6);
+        MapViewResponse individual = mapViewService.getMapView(-89.70, 39.70, -89.60, 39.90, 15);
+        
+        assertEquals(2, clustered.getClusters().get(0).getAvailableCount());
+        assertEquals("busy", individual.getTechnicians().get(0).getStatus());
+        assertEquals("available", individual.getTechnicians().get(1).getStatus());
+    }
+    
+    @Test
+    void testResponseSizeIsBoundedWhateverTheFleetSize() {
+        LocalDateTime now = LocalDateTime.now();
+        Random random = new Random(42);
+        for (long technicianId = 1; technicianId <= 20_000; technicianId++) {
+            locate(technicianId, 30 + random.nextDouble() * 15, -120 + random.nextDouble() * 45, now);
+        }
+        
+        // A whole-world viewport at a high zoom is coarsened to at most maxCells cells
+        MapViewResponse world = mapViewService.getMapView(-180.0, -85.0, 180.0, 85.0, 10);
+        assertTrue(world.getClustered());
+        assertEquals(20_000, world.getTotal());
+        assertEquals(20_000, counted(world));
+        assertTrue(world.getTechnicians().size() + world.getClusters().size() <= properties.getMaxCells());
+        
+        // Too many technicians for an individual view are clustered as well
+        MapViewResponse dense = mapViewService.getMapView(-120.0, 30.0, -75.0, 45.0, 16);
+        assertTrue(dense.getClustered());
+        assertEquals(20_000, counted(dense));
+        assertTrue(dense.getTechnicians().size() + dense.getClusters().size() <= properties.getMaxCells());
+    }
+    
+    @Test
+    void testViewportAcrossAntimeridian() {
+        LocalDateTime now = LocalDateTime.now();
+        locate(101L, -17.5, 179.95, now);
+        locate(102L, -17.5, -179.95, now);
+        locate(103L, -17.5, 0.0, now);
+        
+        MapViewResponse view = mapViewService.getMapView(179.0, -18.0, -179.0, -17.0, 15);
+        
+        assertEquals(2, view.getTotal());
+        assertEquals(List.of(101L, 102L), view.getTechnicians().stream()
+                .map(TechnicianLocationDTO::getTechnicianId)
+                .toList());
+    }
+    
+    @Test
+    void testInvalidViewportRejected() {
+        assertThrows(InvalidViewportException.class,
+                () -> mapViewService.getMapView(-89.7, 39.9, -89.6, 39.7, 12));
+        assertThrows(InvalidViewportException.class,
+                () -> mapViewService.getMapView(-89.7, 39.7, -89.6, 91.0, 12));
+        assertThrows(InvalidViewportException.class,
+                () -> mapViewService.getMapView(-181.0, 39.7, -89.6, 39.9, 12));
+    }
+}
@@ -0,0 +1,170 @@
+package com.fsm.location.service;
+
+import com.fsm.location.domain.model.LocationFix;
+import com.fsm.location.domain.model.PresenceChange;
+import com.fsm.location.domain.model.PresenceStatus;
+import com.fsm.location.infrastructure.config.PresenceProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for PresenceTracker.
+ */
+class PresenceTrackerTest {
+    
+    private static final LocalDateTime T0 = LocalDateTime.of(2024, 1, 15, 8, 0);
+    private static final long MINUTE = 60_000L;
+    
+    private final AtomicLong clock = new AtomicLong(T0.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli());
+    private final LatestLocationRegistry registry = new LatestLocationRegistry();
+    private final List<PresenceChange> changes = new ArrayList<>();
+    
+    /**
+     * Creates a tracker with a small wheel, so that deadlines need several revolutions.
+     */
+    private PresenceTracker tracker() {
+        PresenceProperties properties = new PresenceProperties();
+        properties.setTickDuration(Duration.ofSeconds(1));
+        properties.setTicksPerWheel(8);
+        PresenceTracker tracker = new PresenceTracker(properties, registry, new SimpleMeterRegistry(), clock::get);
+        tracker.registerWithRegistry();
+        tracker.addListener(changes::add);
+        return tracker;
+    }
+    
+    private LocationFix fix(long technicianId, LocalDateTime timestamp) {
+        return LocationFix.builder()
+                .technicianId(technicianId)
+                .latitude(39.7817)
+                .longitude(-89.6501)
+                .accuracy(5.0)
+                .timestamp(timestamp)
+                .build();
+    }
+    
+    private void advanceBy(PresenceTracker tracker, long millis) {
+        tracker.advance(clock.addAndGet(millis));
+    }
+    
+    private List<PresenceStatus> transitions() {
+        return changes.stream().map(PresenceChange::getCurrent).toList();
+    }
+    
+    @Test
+    void testUnknownTechnicianIsOffline() {
+        PresenceTracker tracker = tracker();
+        
+        assertEquals(PresenceStatus.OFFLINE, tracker.getStatus(101L));
+        assertTrue(tracker.find(101L).isEmpty());
+    }
+    
+    @Test
+    void testFixAgesFromAvailableToBusyToOffline() {
+        PresenceTracker tracker = tracker();
+        registry.record(fix(101L, T0));
+        
+        assertEquals(PresenceStatus.AVAILABLE, tracker.getStatus(101L));
+        advanceBy(tracker, 5 * MINUTE - 1000);
+        assertEquals(PresenceStatus.AVAILABLE, tracker.getStatus(101L));
+        
+        advanceBy(tracker, 1000);
+        assertEquals(PresenceStatus.BUSY, tracker.getStatus(101L));
+        
+        advanceBy(tracker, 10 * MINUTE);
+        assertEquals(PresenceStatus.BUSY, tracker.getStatus(101L));
+        advanceBy(tracker, 1000);
+        
+        assertEquals(PresenceStatus.OFFLINE, tracker.getStatus(101L));
+        assertEquals(List.of(PresenceStatus.AVAILABLE, PresenceStatus.BUSY, PresenceStatus.OFFLINE), transitions());
+        PresenceChange offline = changes.get(2);
+        assertEquals(PresenceStatus.BUSY, offline.getPrevious());
+        assertEquals(T0, offline.getFix().getTimestamp());
+        assertEquals(1, tracker.count(PresenceStatus.OFFLINE));
+        assertEquals(0, tracker.count(PresenceStatus.AVAILABLE));
+    }
+    
+    @Test
+    void testNewerFixSupersedesPendingDeadline() {
+        PresenceTracker tracker = tracker();
+        registry.record(fix(101L, T0));
+        advanceBy(tracker, 4 * MINUTE);
+        
+        registry.record(fix(101L, T0.plusMinutes(4)));
+        advanceBy(tracker, 2 * MINUTE);
+        
+        assertEquals(PresenceStatus.AVAILABLE, tracker.getStatus(101L));
+        assertEquals(List.of(PresenceStatus.AVAILABLE), transitions());
+        
+        advanceBy(tracker, 3 * MINUTE);
+        assertEquals(List.of(PresenceStatus.AVAILABLE, PresenceStatus.BUSY), transitions());
+    }
+    
+    @Test
+    void testFixReturningFromOfflineIsPublished() {
+        PresenceTracker tracker = tracker();
+        registry.record(fix(101L, T0));
+        advanceBy(tracker, 20 * MINUTE);
+        
+        registry.record(fix(101L, T0.plusMinutes(20)));
+        
+        assertEquals(PresenceStatus.AVAILABLE, tracker.getStatus(101L));
+        PresenceChange back = changes.get(changes.size() - 1);
+        assertEquals(PresenceStatus.OFFLINE, back.getPrevious());
+        assertEquals(PresenceStatus.AVAILABLE, back.getCurrent());
+    }
+    
+    @Test
+    void testOldFixStartsAsBusy() {
+        PresenceTracker tracker = tracker();
+        
+        registry.record(fix(101L, T0.minusMinutes(10)));
+        advanceBy(tracker, 5 * MINUTE + 1000);
+        
+        assertEquals(List.of(PresenceStatus.BUSY, PresenceStatus.OFFLINE), transitions());
+    }
+    
+    @Test
+    void testRebuildResetsStatusesWithoutEvents() {
+        PresenceTracker tracker = tracker();
+        registry.record(fix(101L, T0));
+        changes.clear();
+        
+        registry.rebuild(List.of(fix(102L, T0.minusMinutes(7)), fix(103L, T0.minusMinutes(30))));
+        
+        assertTrue(changes.isEmpty());
+        assertTrue(tracker.find(101L).isEmpty());
+        assertEquals(PresenceStatus.BUSY, tracker.getStatus(102L));
+        assertEquals(PresenceStatus.OFFLINE, tracker.getStatus(103L));
+        assertEquals(0, tracker.count(PresenceStatus.AVAILABLE));
+        
+        advanceBy(tracker, 10 * MINUTE);
+        
+        assertEquals(List.of(PresenceStatus.OFFLINE), transitions());
+        assertEquals(102L, changes.get(0).getTechnicianId());
+    }
+    
+    @Test
+    void testManyTechniciansExpireInTheirOwnTicks() {
+        PresenceTracker tracker = tracker();
+        for (int i = 0; i < 100; i++) {
+            registry.record(fix(i, T0.plusSeconds(i)));
+        }
+        
+        advanceBy(tracker, 5 * MINUTE + 49_000);
+        
+        assertEquals(50, tracker.count(PresenceStatus.BUSY));
+        assertEquals(50, tracker.count(PresenceStatus.AVAILABLE));
+        assertEquals(100, tracker.countActive());
+        assertEquals(PresenceStatus.BUSY, tracker.getStatus(49L));
+        assertEquals(PresenceStatus.AVAILABLE, tracker.getStatus(50L));
+    }
+}
@@ -0,0 +1,191 @@
+package com.fsm.location.service;
+
+import com.fsm.location.api.dto.NearbyTechnicianDTO;
+import com.fsm.location.domain.model.LocationFix;
+import com.fsm.location.domain.model.NearbyTechnician;
+import com.fsm.location.domain.model.PresenceStatus;
+import com.fsm.location.domain.model.TechnicianLocation;
+import com.fsm.location.domain.model.TechnicianProfile;
+import com.fsm.location.domain.repository.LocationRepository;
+import com.fsm.location.infrastructure.config.SpatialIndexProperties;
+import com.fsm.location.infrastructure.config.SpatialIndexProperties.Backend;
+import com.fsm.location.infrastructure.config.TechnicianProfileProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.locationtech.jts.geom.Point;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for ProximityService.
+ */
+@ExtendWith(MockitoExtension.class)
+class ProximityServiceTest {
+    
+    @Mock
+    private TechnicianSpatialIndex spatialIndex;
+    
+    @Mock
+    private LocationRepository locationRepository;
+    
+    @Mock
+    private PresenceTracker presenceTracker;
+    
+    private SpatialIndexProperties properties;
+    private ProximityService proximityService;
+    
+    @BeforeEach
+    void setUp() {
+        properties = new SpatialIndexProperties();
+        TechnicianProfileCache profileCache = new TechnicianProfileCache(technicianIds -> Map.of(101L,
+                TechnicianProfile.builder().technicianId(101L).name("Alice Smith").build()),
+                new TechnicianProfileProperties(), mock(TaskScheduler.class), new SimpleMeterRegistry());
+        proximityService = new ProximityService(spatialIndex, locationRepository, properties, profileCache,
+                presenceTracker);
+    }
+    
+    @Test
+    void testFindNearbyTechniciansUsesSpatialIndex() {
+        // Given
+        LocationFix fix = LocationFix.builder()
+                .technicianId(101L)
+                .latitude(39.7817)
+                .longitude(-89.6510)
+                .accuracy(5.0)
+                .batteryLevel(85)
+                .timestamp(LocalDateTime.now())
+                .build();
+        when(spatialIndex.findWithinRadius(eq(39.7817), eq(-89.6501), eq(1000.0), any(LocalDateTime.class)))
+                .thenReturn(List.of(new NearbyTechnician(fix, 77.0)));
+        
+        // When
+        List<NearbyTechnicianDTO> result = proximityService.findNearbyTechnicians(39.7817, -89.6501, 1000);
+        
+        // Then
+        assertEquals(1, result.size());
+        assertEquals(101L, result.get(0).getTechnicianId());
+        assertEquals("Alice Smith", result.get(0).getName());
+        assertEquals("available", result.get(0).getStatus());
+        assertEquals(77.0, result.get(0).getDistanceMeters());
+        verifyNoInteractions(locationRepository);
+    }
+    
+    @Test
+    void testStatusFollowsPresenceTracker() {
+        // Given
+        LocationFix fix = LocationFix.builder()
+                .technicianId(101L)
+                .latitude(39.7817)
+                .longitude(-89.6510)
+                .accuracy(5.0)
+                .timestamp(LocalDateTime.now())
+                .build();
+        when(spatialIndex.findNearest(eq(39.7817), eq(-89.6501), eq(5), any(LocalDateTime.class)))
+                .thenReturn(List.of(new NearbyTechnician(fix, 77.0)));
+        when(presenceTracker.find(101L)).thenReturn(Optional.of(PresenceStatus.BUSY));
+        
+        // When
+        List<NearbyTechnicianDTO> result = proximityService.findNearestTechnicians(39.7817, -89.6501, 5);
+        
+        // Then
+        assertEquals("busy", result.get(0).getStatus());
+    }
+    
+    @Test
+    void testFindNearbyTechniciansUsesStaleThreshold() {
+        // Given
+        LocalDateTime before = LocalDateTime.now().minusMinutes(15);
+        
+        // When
+        proximityService.findNearbyTechnicians(39.7817, -89.6501, 1000);
+        
+        // Then
+        verify(spatialIndex).findWithinRadius(anyDouble(), anyDouble(), anyDouble(),
+                argThat(since -> !since.isBefore(before) && since.isBefore(before.plusSeconds(5))));
+    }
+    
+    @Test
+    void testFindNearbyTechniciansWithPostgisBackend() {
+        // Given
+        properties.setBackend(Backend.POSTGIS);
+        TechnicianLocation location = TechnicianLocation.builder()
+                .id(1L)
+                .technicianId(101L)
+                .latitude(39.7845)
+                .longitude(-89.6302)
+                .accuracy(5.0)
+                .timestamp(LocalDateTime.now().minusMinutes(10))
+                .build();
+        when(locationRepository.findActiveTechniciansWithinRadius(any(Point.class), eq(5000.0),
+                any(LocalDateTime.class)))
+                .thenReturn(List.of(location));
+        
+        // When
+        List<NearbyTechnicianDTO> result = proximityService.findNearbyTechnicians(39.7817, -89.6501, 5000);
+        
+        // Then
+        assertEquals(1, result.size());
+        assertEquals("busy", result.get(0).getStatus());
+        assertEquals(1740, result.get(0).getDistanceMeters(), 20);
+        verifyNoInteractions(spatialIndex);
+    }
+    
+    @Test
+    void testFindNearestTechniciansUsesSpatialIndex() {
+        // Given
+        LocationFix fix = LocationFix.builder()
+                .technicianId(101L)
+                .latitude(39.7817)
+                .longitude(-89.6510)
+                .accuracy(5.0)
+                .timestamp(LocalDateTime.now())
+                .build();
+        when(spatialIndex.findNearest(eq(39.7817), eq(-89.6501), eq(5), any(LocalDateTime.class)))
+                .thenReturn(List.of(new NearbyTechnician(fix, 77.0)));
+        
+        // When
+        List<NearbyTechnicianDTO> result = proximityService.findNearestTechnicians(39.7817, -89.6501, 5);
+        
+        // Then
+        assertEquals(1, result.size());
+        assertEquals(77.0, result.get(0).getDistanceMeters());
+        verifyNoInteractions(locationRepository);
+    }
+    
+    @Test
+    void testFindNearestTechniciansWithPostgisBackend() {
+        // Given
+        properties.setBackend(Backend.POSTGIS);
+        TechnicianLocation location = TechnicianLocation.builder()
+                .id(1L)
+                .technicianId(101L)
+                .latitude(39.7845)
+                .longitude(-89.6302)
+                .accuracy(5.0)
+                .timestamp(LocalDateTime.now())
+                .build();
+        when(locationRepository.findNearestActiveTechnicians(any(Point.class), any(LocalDateTime.class), eq(3)))
+                .thenReturn(List.of(location));
+        
+        // When
+        List<NearbyTechnicianDTO> result = proximityService.findNearestTechnicians(39.7817, -89.6501, 3);
+        
+        // Then
+        assertEquals(1, result.size());
+        assertEquals(101L, result.get(0).getTechnicianId());
+        assertEquals(1740, result.get(0).getDistanceMeters(), 20);
+        verifyNoInteractions(spatialIndex);
+    }
+}
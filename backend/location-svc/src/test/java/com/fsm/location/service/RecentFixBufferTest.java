@@ -0,0 +1,150 @@
+package com.fsm.location.service;
+
+import com.fsm.location.domain.model.LocationFix;
+import com.fsm.location.domain.model.Trail;
+import com.fsm.location.infrastructure.config.TrailProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for RecentFixBuffer.
+ */
+class RecentFixBufferTest {
+    
+    private static final double SPRINGFIELD_LAT = 39.7817;
+    private static final double SPRINGFIELD_LON = -89.6501;
+    private static final LocalDateTime START = LocalDateTime.of(2024, 1, 15, 8, 0);
+    
+    private final LatestLocationRegistry registry = new LatestLocationRegistry();
+    private final TrailProperties properties = new TrailProperties();
+    private final MeterRegistry meterRegistry = new SimpleMeterRegistry();
+    
+    private RecentFixBuffer buffer() {
+        RecentFixBuffer buffer = new RecentFixBuffer(properties, registry, meterRegistry);
+        buffer.registerWithRegistry();
+        return buffer;
+    }
+    
+    private LocationFix fix(Long locationId, int minute) {
+        return LocationFix.builder()
+                .locationId(locationId)
+                .technicianId(101L)
+                .latitude(SPRINGFIELD_LAT + minute * 0.001)
+                .longitude(SPRINGFIELD_LON)
+                .accuracy(10.0)
+                .batteryLevel(80)
+                .timestamp(START.plusMinutes(minute))
+                .build();
+    }
+    
+    @Test
+    void testTrailOfRecordedFixes() {
+        RecentFixBuffer buffer = buffer();
+        for (int minute = 0; minute < 5; minute++) {
+            registry.record(fix((long) minute + 1, minute));
+        }
+        
+        Trail trail = buffer.getTrail(101L, START.plusMinutes(1), START.plusMinutes(4));
+        
+        assertEquals(3, trail.size());
+        assertEquals(SPRINGFIELD_LAT + 0.001, trail.getLatitude(0), 1e-9);
+        assertEquals(START.plusMinutes(1), trail.getTimestamp(0));
+        assertEquals(START.plusMinutes(3), trail.getTimestamp(2));
+    }
+    
+    @Test
+    void testTrailStartingBeforeFirstFixIsNotHeld() {
+        RecentFixBuffer buffer = buffer();
+        registry.record(fix(1L, 10));
+        
+        assertNull(buffer.getTrail(101L, START, START.plusMinutes(30)));
+        assertNull(buffer.getTrail(102L, START.plusMinutes(10), START.plusMinutes(30)));
+        assertEquals(1, buffer.getTrail(101L, START.plusMinutes(10), START.plusMinutes(30)).size());
+    }
+    
+    @Test
+    void testOldestFixesAreOverwritten() {
+        properties.setRecentFixes(3);
+        RecentFixBuffer buffer = buffer();
+        for (int minute = 0; minute < 5; minute++) {
+            registry.record(fix((long) minute + 1, minute));
+        }
+        
+        assertNull(buffer.getTrail(101L, START.plusMinutes(1), START.plusMinutes(10)));
+        Trail trail = buffer.getTrail(101L, START.plusMinutes(2), START.plusMinutes(10));
+        assertEquals(3, trail.size());
+        assertEquals(START.plusMinutes(4), trail.getTimestamp(2));
+    }
+    
+    @Test
+    void testHeartbeatsAndPersistedCopiesAreNotAdded() {
+        RecentFixBuffer buffer = buffer();
+        LocationFix persisted = fix(1L, 0);
+        registry.record(persisted);
+        // A heartbeat keeps the location ID of its anchor
+        registry.record(persisted.toBuilder().timestamp(START.plusMinutes(1)).build());
+        // A write-behind fix, then its persisted copy
+        registry.record(fix(null, 2));
+        registry.record(fix(2L, 2));
+        registry.record(fix(2L, 2).toBuilder().timestamp(START.plusMinutes(3)).build());
+        
+        Trail trail = buffer.getTrail(101L, START, START.plusMinutes(10));
+        
+        assertEquals(2, trail.size());
+        assertEquals(START.plusMinutes(2), trail.getTimestamp(1));
+    }
+    
+    @Test
+    void testOutOfOrderFixNarrowsTheHeldRange() {
+        RecentFixBuffer buffer = buffer();
+        registry.record(fix(1L, 0));
+        registry.record(fix(2L, 10));
+        
+        // A backfilled offline fix between the two
+        buffer.onLocationFix(fix(3L, 5));
+        
+        assertNull(buffer.getTrail(101L, START, START.plusMinutes(20)));
+        assertEquals(1, buffer.getTrail(101L, START.plusMinutes(6), START.plusMinutes(20)).size());
+    }
+    
+    @Test
+    void testRebuildStartsOver() {
+        RecentFixBuffer buffer = buffer();
+        registry.record(fix(1L, 0));
+        
+        registry.rebuild(List.of(fix(2L, 1)));
+        
+        assertNull(buffer.getTrail(101L, START, START.plusMinutes(10)));
+    }
+    
+    @Test
+    void testMemoryIsBoundedAndReported() {
+        properties.setRecentFixes(100);
+        RecentFixBuffer buffer = buffer();
+        for (int minute = 0; minute < 500; minute++) {
+            registry.record(fix((long) minute + 1, minute));
+        }
+        
+        assertEquals(100, buffer.getTrail(101L, START.plusMinutes(400), START.plusMinutes(500)).size());
+        assertEquals(buffer.bytesPerTechnician(), buffer.estimatedBytes());
+        assertTrue(buffer.bytesPerTechnician() < 100 * 30 + 256);
+        assertEquals(1.0, meterRegistry.get("location.trail.recent.technicians").gauge().value());
+        assertEquals(buffer.estimatedBytes(), meterRegistry.get("location.trail.recent.memory").gauge().value());
+    }
+    
+    @Test
+    void testDisabledBufferHoldsNothing() {
+        properties.setRecentFixes(0);
+        RecentFixBuffer buffer = buffer();
+        registry.record(fix(1L, 0));
+        
+        assertNull(buffer.getTrail(101L, START, START.plusMinutes(10)));
+        assertEquals(0, buffer.estimatedBytes());
+    }
+}
@@ -0,0 +1,113 @@
+package com.fsm.location.service;
+
+import com.fsm.location.domain.model.LocationFix;
+import com.fsm.location.infrastructure.config.RateLimitProperties;
+import com.fsm.location.infrastructure.config.ReportingIntervalProperties;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+/**
+ * Unit tests for ReportingIntervalAdvisor.
+ */
+class ReportingIntervalAdvisorTest {
+    
+    private static final double SPRINGFIELD_LAT = 39.7817;
+    private static final double SPRINGFIELD_LON = -89.6501;
+    
+    /**
+     * Roughly 111 meters of latitude
+     */
+    private static final double DEGREES_111M = 0.001;
+    
+    private final LatestLocationRegistry registry = new LatestLocationRegistry();
+    private final GeofenceEngine geofenceEngine = mock(GeofenceEngine.class);
+    private final ReportingIntervalProperties properties = new ReportingIntervalProperties();
+    private final RateLimitProperties rateLimitProperties = new RateLimitProperties();
+    private final LocalDateTime now = LocalDateTime.now();
+    
+    private ReportingIntervalAdvisor advisor() {
+        return new ReportingIntervalAdvisor(properties, rateLimitProperties, registry, geofenceEngine);
+    }
+    
+    private void previousFix(double latitude, LocalDateTime timestamp) {
+        registry.record(LocationFix.builder()
+                .locationId(1L)
+                .technicianId(101L)
+                .latitude(latitude)
+                .longitude(SPRINGFIELD_LON)
+                .accuracy(5.0)
+                .timestamp(timestamp)
+                .build());
+    }
+    
+    @Test
+    void testIdleTechnicianReportsLeastOften() {
+        previousFix(SPRINGFIELD_LAT, now.minusSeconds(60));
+        
+        // ~11 m in a minute
+        Duration interval = advisor().recommend(101L, SPRINGFIELD_LAT + DEGREES_111M / 10, SPRINGFIELD_LON, 80, now);
+        
+        assertEquals(Duration.ofMinutes(2), interval);
+    }
+    
+    @Test
+    void testMovingTechnicianAwayFromJobs() {
+        previousFix(SPRINGFIELD_LAT, now.minusSeconds(60));
+        
+        // ~555 m in a minute
+        Duration interval = advisor().recommend(101L, SPRINGFIELD_LAT + DEGREES_111M * 5, SPRINGFIELD_LON, 80, now);
+        
+        assertEquals(Duration.ofSeconds(60), interval);
+    }
+    
+    @Test
+    void testMovingTechnicianNearJobReportsMostOften() {
+        previousFix(SPRINGFIELD_LAT, now.minusSeconds(60));
+        when(geofenceEngine.isNearGeofence(anyDouble(), anyDouble(), anyDouble())).thenReturn(true);
+        
+        Duration interval = advisor().recommend(101L, SPRINGFIELD_LAT + DEGREES_111M * 5, SPRINGFIELD_LON, 80, now);
+        
+        assertEquals(Duration.ofSeconds(30), interval);
+    }
+    
+    @Test
+    void testUnknownSpeedCountsAsMoving() {
+        assertEquals(Duration.ofSeconds(60), advisor().recommend(101L, SPRINGFIELD_LAT, SPRINGFIELD_LON, null, now));
+        
+        previousFix(SPRINGFIELD_LAT, now.minusMinutes(30));
+        assertEquals(Duration.ofSeconds(60), advisor().recommend(101L, SPRINGFIELD_LAT, SPRINGFIELD_LON, null, now));
+    }
+    
+    @Test
+    void testLowBatteryStretchesIntervalUpToMaximum() {
+        properties.setMaxInterval(Duration.ofMinutes(3));
+        ReportingIntervalAdvisor advisor = advisor();
+        
+        assertEquals(Duration.ofSeconds(120), advisor.recommend(101L, SPRINGFIELD_LAT, SPRINGFIELD_LON, 15, now));
+        
+        previousFix(SPRINGFIELD_LAT, now.minusSeconds(60));
+        assertEquals(Duration.ofMinutes(3), advisor.recommend(101L, SPRINGFIELD_LAT, SPRINGFIELD_LON, 15, now));
+    }
+    
+    @Test
+    void testNeverBelowRateLimitRefillInterval() {
+        rateLimitProperties.setRefillInterval(Duration.ofSeconds(45));
+        when(geofenceEngine.isNearGeofence(anyDouble(), anyDouble(), anyDouble())).thenReturn(true);
+        
+        assertEquals(Duration.ofSeconds(45), advisor().recommend(101L, SPRINGFIELD_LAT, SPRINGFIELD_LON, 80, now));
+    }
+    
+    @Test
+    void testMaxIntervalMustKeepTechniciansAvailable() {
+        properties.setMaxInterval(Duration.ofMinutes(10));
+        
+        assertThrows(IllegalArgumentException.class, this::advisor);
+    }
+}
@@ -0,0 +1,120 @@
+package com.fsm.location.service;
+
+import com.fsm.location.domain.model.LocationFix;
+import com.fsm.location.infrastructure.config.StationaryFilterProperties;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for StationaryFixFilter.
+ */
+class StationaryFixFilterTest {
+    
+    private static final double SPRINGFIELD_LAT = 39.7817;
+    private static final double SPRINGFIELD_LON = -89.6501;
+    
+    private final LatestLocationRegistry registry = new LatestLocationRegistry();
+    private final StationaryFilterProperties properties = new StationaryFilterProperties();
+    private final LocalDateTime now = LocalDateTime.now();
+    
+    private StationaryFixFilter filter() {
+        StationaryFixFilter filter = new StationaryFixFilter(properties, registry);
+        filter.registerWithRegistry();
+        return filter;
+    }
+    
+    private LocationFix fix(Long locationId, double latitude, LocalDateTime timestamp) {
+        return LocationFix.builder()
+                .locationId(locationId)
+                .technicianId(101L)
+                .latitude(latitude)
+                .longitude(SPRINGFIELD_LON)
+                .accuracy(10.0)
+                .timestamp(timestamp)
+                .build();
+    }
+    
+    @Test
+    void testUpdateNearLastPersistedFixIsStationary() {
+        StationaryFixFilter filter = filter();
+        LocationFix persisted = fix(1L, SPRINGFIELD_LAT, now.minusMinutes(1));
+        registry.record(persisted);
+        
+        // ~11 m north of the persisted fix
+        assertEquals(persisted, filter.findStationaryAnchor(101L, SPRINGFIELD_LAT + 0.0001, SPRINGFIELD_LON, 12.0, now));
+    }
+    
+    @Test
+    void testMovedUpdateIsPersisted() {
+        StationaryFixFilter filter = filter();
+        registry.record(fix(1L, SPRINGFIELD_LAT, now.minusMinutes(1)));
+        
+        // ~33 m north of the persisted fix
+        assertNull(filter.findStationaryAnchor(101L, SPRINGFIELD_LAT + 0.0003, SPRINGFIELD_LON, 10.0, now));
+    }
+    
+    @Test
+    void testMuchMoreAccurateUpdateIsPersisted() {
+        properties.setAccuracyToleranceMeters(5.0);
+        StationaryFixFilter filter = filter();
+        registry.record(fix(1L, SPRINGFIELD_LAT, now.minusMinutes(1)));
+        
+        assertNull(filter.findStationaryAnchor(101L, SPRINGFIELD_LAT, SPRINGFIELD_LON, 2.0, now));
+        assertNotNull(filter.findStationaryAnchor(101L, SPRINGFIELD_LAT, SPRINGFIELD_LON, 5.0, now));
+    }
+    
+    @Test
+    void testKeepAliveIsPersistedOnceLastRowIsOld() {
+        StationaryFixFilter filter = filter();
+        registry.record(fix(1L, SPRINGFIELD_LAT, now.minusMinutes(5)));
+        
+        assertNull(filter.findStationaryAnchor(101L, SPRINGFIELD_LAT, SPRINGFIELD_LON, 10.0, now));
+    }
+    
+    @Test
+    void testHeartbeatsDoNotMoveTheAnchor() {
+        StationaryFixFilter filter = filter();
+        LocationFix persisted = fix(1L, SPRINGFIELD_LAT, now.minusMinutes(4));
+        registry.record(persisted);
+        
+        // A heartbeat keeps the location ID of its anchor; only its timestamp is newer
+        registry.record(persisted.toBuilder().timestamp(now.minusSeconds(30)).build());
+        // A not yet persisted write-behind fix is no anchor either
+        registry.record(fix(null, SPRINGFIELD_LAT + 0.00015, now.minusSeconds(10)));
+        
+        // Drift adds up against the persisted fix: ~28 m north
+        assertNull(filter.findStationaryAnchor(101L, SPRINGFIELD_LAT + 0.00025, SPRINGFIELD_LON, 10.0, now));
+        assertEquals(persisted, filter.findStationaryAnchor(101L, SPRINGFIELD_LAT, SPRINGFIELD_LON, 10.0, now));
+    }
+    
+    @Test
+    void testAnchorsAreRebuiltWithTheRegistry() {
+        StationaryFixFilter filter = filter();
+        registry.rebuild(List.of(fix(7L, SPRINGFIELD_LAT, now.minusMinutes(1))));
+        
+        assertEquals(7L, filter.findStationaryAnchor(101L, SPRINGFIELD_LAT, SPRINGFIELD_LON, 10.0, now)
+                .getLocationId());
+        assertNull(filter.findStationaryAnchor(102L, SPRINGFIELD_LAT, SPRINGFIELD_LON, 10.0, now));
+    }
+    
+    @Test
+    void testDisabledFilterNeverSuppresses() {
+        properties.setEnabled(false);
+        StationaryFixFilter filter = filter();
+        registry.record(fix(1L, SPRINGFIELD_LAT, now.minusMinutes(1)));
+        
+        assertNull(filter.findStationaryAnchor(101L, SPRINGFIELD_LAT, SPRINGFIELD_LON, 10.0, now));
+    }
+    
+    @Test
+    void testKeepAliveMustBeShorterThanStaleThreshold() {
+        properties.setKeepAliveInterval(Duration.ofMinutes(15));
+        
+        assertThrows(IllegalArgumentException.class, () -> new StationaryFixFilter(properties, registry));
+    }
+}
@@ -0,0 +1,198 @@
+package com.fsm.location.service;
+
+import com.fsm.location.domain.model.TechnicianProfile;
+import com.fsm.location.infrastructure.config.TechnicianProfileProperties;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.scheduling.TaskScheduler;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.mock;
+
+/**
+ * Unit tests for TechnicianProfileCache.
+ */
+class TechnicianProfileCacheTest {
+    
+    private final TechnicianProfileProperties properties = new TechnicianProfileProperties();
+    private final Map<Long, String> directoryNames = new HashMap<>(Map.of(101L, "Alice Smith", 102L, "Bob Jones"));
+    private final List<Set<Long>> lookups = new CopyOnWriteArrayList<>();
+    private volatile RuntimeException directoryFailure;
+    private volatile CountDownLatch directoryGate;
+    private volatile boolean directoryReturnsAll;
+    
+    private final TechnicianDirectory directory = new TechnicianDirectory() {
+        @Override
+        public Map<Long, TechnicianProfile> findProfiles(Set<Long> technicianIds) {
+            lookups.add(Set.copyOf(technicianIds));
+            awaitGate();
+            if (directoryFailure != null) {
+                throw directoryFailure;
+            }
+            Map<Long, TechnicianProfile> profiles = new HashMap<>();
+            directoryNames.forEach((id, name) -> profiles.put(id, TechnicianProfile.builder().technicianId(id).name(name).build()));
+            return profiles;
+        }
+        
+        @Override
+        public boolean returnsAllProfiles() {
+            return directoryReturnsAll;
+        }
+    };
+    
+    private TechnicianProfileCache cache() {
+        return new TechnicianProfileCache(directory, properties, mock(TaskScheduler.class), new SimpleMeterRegistry());
+    }
+    
+    private void awaitGate() {
+        CountDownLatch gate = directoryGate;
+        if (gate != null) {
+            try {
+                gate.await(5, TimeUnit.SECONDS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+    
+    @Test
+    void testMissingProfilesLoadedInOneBatchThenCached() {
+        TechnicianProfileCache cache = cache();
+        
+        Map<Long, String> names = cache.getNames(Set.of(101L, 102L));
+        Map<Long, String> again = cache.getNames(Set.of(101L, 102L));
+        
+        assertEquals(Map.of(101L, "Alice Smith", 102L, "Bob Jones"), names);
+        assertEquals(names, again);
+        assertEquals(List.of(Set.of(101L, 102L)), lookups);
+    }
+    
+    @Test
+    void testLookupsAreSplitIntoBatches() {
+        properties.setBatchSize(2);
+        TechnicianProfileCache cache = cache();
+        
+        cache.getNames(Set.of(101L, 102L, 103L, 104L, 105L));
+        
+        assertEquals(3, lookups.size());
+        assertTrue(lookups.stream().allMatch(batch -> batch.size() <= 2));
+    }
+    
+    @Test
+    void testUnknownTechnicianGetsPlaceholderAndIsNotLookedUpAgain() {
+        TechnicianProfileCache cache = cache();
+        
+        assertEquals("Technician 999", cache.getNames(Set.of(999L)).get(999L));
+        cache.getNames(Set.of(999L));
+        
+        assertEquals(1, lookups.size());
+    }
+    
+    @Test
+    void testExtraProfilesFromDirectoryAreCached() {
+        TechnicianProfileCache cache = cache();
+        
+        cache.getNames(Set.of(101L));
+        Map<Long, String> names = cache.getNames(Set.of(102L));
+        
+        // The directory answered with every user, so 102 was cached by the first lookup
+        assertEquals("Bob Jones", names.get(102L));
+        assertEquals(1, lookups.size());
+    }
+    
+    @Test
+    void testSlowDirectoryAnswersWithPlaceholdersWithinTimeout() throws InterruptedException {
+        properties.setLookupTimeout(Duration.ofMillis(20));
+        directoryGate = new CountDownLatch(1);
+        TechnicianProfileCache cache = cache();
+        
+        Map<Long, String> names = cache.getNames(Set.of(101L));
+        directoryGate.countDown();
+        
+        assertEquals("Technician 101", names.get(101L));
+        // The load completes in the background; a later call sees the real name
+        String name = null;
+        for (int attempt = 0; attempt < 100 && !"Alice Smith".equals(name); attempt++) {
+            Thread.sleep(10);
+            name = cache.getNames(Set.of(101L)).get(101L);
+        }
+        assertEquals("Alice Smith", name);
+        assertEquals(1, lookups.size());
+    }
+    
+    @Test
+    void testGetNameNeverWaitsForDirectory() throws InterruptedException {
+        directoryGate = new CountDownLatch(1);
+        TechnicianProfileCache cache = cache();
+        
+        assertEquals("Technician 101", cache.getName(101L));
+        directoryGate.countDown();
+        
+        String name = null;
+        for (int attempt = 0; attempt < 100 && !"Alice Smith".equals(name); attempt++) {
+            Thread.sleep(10);
+            name = cache.getName(101L);
+        }
+        assertEquals("Alice Smith", name);
+        assertEquals(1, lookups.size());
+    }
+    
+    @Test
+    void testSingleMissCachesEveryReturnedProfile() throws InterruptedException {
+        TechnicianProfileCache cache = cache();
+        
+        String name = cache.getName(101L);
+        for (int attempt = 0; attempt < 100 && !"Alice Smith".equals(name); attempt++) {
+            Thread.sleep(10);
+            name = cache.getName(101L);
+        }
+        
+        assertEquals("Alice Smith", name);
+        assertEquals("Bob Jones", cache.getName(102L));
+        assertEquals(1, lookups.size());
+    }
+    
+    @Test
+    void testDirectoryReturningAllProfilesIsCalledOncePerLookupAndRefresh() {
+        directoryReturnsAll = true;
+        properties.setBatchSize(2);
+        TechnicianProfileCache cache = cache();
+        
+        cache.getNames(Set.of(101L, 102L, 103L, 104L, 105L));
+        cache.refresh();
+        
+        assertEquals(2, lookups.size());
+        assertEquals(Set.of(101L, 102L, 103L, 104L, 105L), lookups.get(0));
+    }
+    
+    @Test
+    void testRefreshReloadsCachedProfiles() {
+        TechnicianProfileCache cache = cache();
+        cache.getNames(Set.of(101L));
+        
+        directoryNames.put(101L, "Alice Johnson");
+        cache.refresh();
+        
+        assertEquals("Alice Johnson", cache.getNames(Set.of(101L)).get(101L));
+    }
+    
+    @Test
+    void testFailedRefreshKeepsCachedNames() {
+        TechnicianProfileCache cache = cache();
+        cache.getNames(Set.of(101L));
+        
+        directoryFailure = new IllegalStateException("identity-svc unavailable");
+        cache.refresh();
+        
+        assertEquals("Alice Smith", cache.getNames(Set.of(101L)).get(101L));
+    }
+}
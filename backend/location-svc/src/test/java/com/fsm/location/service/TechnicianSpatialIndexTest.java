@@ -0,0 +1,221 @@
+package com.fsm.location.service;
+
+import com.fsm.location.domain.model.LocationFix;
+import com.fsm.location.domain.model.NearbyTechnician;
+import com.fsm.location.infrastructure.config.SpatialIndexProperties;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit tests for TechnicianSpatialIndex.
+ */
+class TechnicianSpatialIndexTest {
+    
+    private static final double SPRINGFIELD_LAT = 39.7817;
+    private static final double SPRINGFIELD_LON = -89.6501;
+    
+    private final TechnicianSpatialIndex index = new TechnicianSpatialIndex(new SpatialIndexProperties(),
+            new LatestLocationRegistry());
+    private final LocalDateTime since = LocalDateTime.now().minusMinutes(15);
+    
+    private LocationFix fix(long technicianId, double latitude, double longitude, LocalDateTime timestamp) {
+        return LocationFix.builder()
+                .technicianId(technicianId)
+                .latitude(latitude)
+                .longitude(longitude)
+                .accuracy(5.0)
+                .timestamp(timestamp)
+                .build();
+    }
+    
+    private List<Long> ids(List<NearbyTechnician> nearby) {
+        return nearby.stream()
+                .map(technician -> technician.getFix().getTechnicianId())
+                .collect(Collectors.toList());
+    }
+    
+    @Test
+    void testFindWithinRadiusReturnsClosestFirst() {
+        LocalDateTime now = LocalDateTime.now();
+        index.onLocationFix(fix(101L, 39.7845, -89.6302, now));   // ~1.7 km east
+        index.onLocationFix(fix(102L, 39.7817, -89.6510, now));   // ~80 m west
+        index.onLocationFix(fix(103L, 39.8025, -89.6489, now));   // ~2.3 km north
+        index.onLocationFix(fix(104L, 40.1000, -89.6501, now));   // ~35 km north
+        
+        List<NearbyTechnician> nearby = index.findWithinRadius(SPRINGFIELD_LAT, SPRINGFIELD_LON, 3000, since);
+        
+        assertEquals(List.of(102L, 101L, 103L), ids(nearby));
+        assertEquals(77, nearby.get(0).getDistanceMeters(), 5);
+    }
+    
+    @Test
+    void testFindWithinRadiusExcludesStaleFixes() {
+        LocalDateTime now = LocalDateTime.now();
+        index.onLocationFix(fix(101L, SPRINGFIELD_LAT, SPRINGFIELD_LON, now.minusMinutes(20)));
+        index.onLocationFix(fix(102L, SPRINGFIELD_LAT, SPRINGFIELD_LON, now));
+        
+        assertEquals(List.of(102L), ids(index.findWithinRadius(SPRINGFIELD_LAT, SPRINGFIELD_LON, 100, since)));
+    }
+    
+    @Test
+    void testTechnicianIsIndexedAtLatestPositionOnly() {
+        LocalDateTime now = LocalDateTime.now();
+        index.onLocationFix(fix(101L, SPRINGFIELD_LAT, SPRINGFIELD_LON, now.minusMinutes(1)));
+        index.onLocationFix(fix(101L, 40.1000, -89.6501, now));
+        
+        assertTrue(index.findWithinRadius(SPRINGFIELD_LAT, SPRINGFIELD_LON, 1000, since).isEmpty());
+        assertEquals(List.of(101L), ids(index.findWithinRadius(40.1000, -89.6501, 1000, since)));
+        assertEquals(1, index.size());
+    }
+    
+    @Test
+    void testOlderFixDoesNotMoveTechnician() {
+        LocalDateTime now = LocalDateTime.now();
+        index.onLocationFix(fix(101L, SPRINGFIELD_LAT, SPRINGFIELD_LON, now));
+        index.onLocationFix(fix(101L, 40.1000, -89.6501, now.minusMinutes(1)));
+        
+        assertEquals(List.of(101L), ids(index.findWithinRadius(SPRINGFIELD_LAT, SPRINGFIELD_LON, 1000, since)));
+    }
+    
+    @Test
+    void testFindWithinRadiusAcrossAntimeridian() {
+        LocalDateTime now = LocalDateTime.now();
+        index.onLocationFix(fix(101L, 0.0, 179.9995, now));
+        index.onLocationFix(fix(102L, 0.0, -179.9995, now));
+        
+        List<NearbyTechnician> nearby = index.findWithinRadius(0.0, 180.0, 500, since);
+        
+        assertEquals(2, nearby.size());
+    }
+    
+    @Test
+    void testLargeRadiusScansAllTechnicians() {
+        LocalDateTime now = LocalDateTime.now();
+        index.onLocationFix(fix(101L, SPRINGFIELD_LAT, SPRINGFIELD_LON, now));
+        index.onLocationFix(fix(102L, 41.8781, -87.6298, now));   // Chicago, ~300 km
+        
+        assertEquals(List.of(101L), ids(index.findWithinRadius(SPRINGFIELD_LAT, SPRINGFIELD_LON, 100_000, since)));
+        assertEquals(2, index.findWithinRadius(SPRINGFIELD_LAT, SPRINGFIELD_LON, 400_000, since).size());
+    }
+    
+    @Test
+    void testRegistryRebuildReplacesIndexContent() {
+        LocalDateTime now = LocalDateTime.now();
+        index.onLocationFix(fix(101L, SPRINGFIELD_LAT, SPRINGFIELD_LON, now));
+        
+        index.onRegistryRebuilt(List.of(fix(102L, SPRINGFIELD_LAT, SPRINGFIELD_LON, now)));
+        
+        assertEquals(List.of(102L), ids(index.findWithinRadius(SPRINGFIELD_LAT, SPRINGFIELD_LON, 100, since)));
+    }
+    
+    @Test
+    void testFindNearestReturnsKClosest() {
+        LocalDateTime now = LocalDateTime.now();
+        index.onLocationFix(fix(101L, 39.7845, -89.6302, now));   // ~1.7 km east
+        index.onLocationFix(fix(102L, 39.7817, -89.6510, now));   // ~80 m west
+        index.onLocationFix(fix(103L, 39.8025, -89.6489, now));   // ~2.3 km north
+        index.onLocationFix(fix(104L, 40.1000, -89.6501, now));   // ~35 km north
+        
+        List<NearbyTechnician> nearest = index.findNearest(SPRINGFIELD_LAT, SPRINGFIELD_LON, 2, since);
+        
+        assertEquals(List.of(102L, 101L), ids(nearest));
+    }
+    
+    @Test
+    void testFindNearestSkipsStaleFixesAndReturnsFewerThanK() {
+        LocalDateTime now = LocalDateTime.now();
+        index.onLocationFix(fix(101L, SPRINGFIELD_LAT, SPRINGFIELD_LON, now.minusMinutes(20)));
+        index.onLocationFix(fix(102L, 41.8781, -87.6298, now));   // Chicago, ~300 km
+        
+        assertEquals(List.of(102L), ids(index.findNearest(SPRINGFIELD_LAT, SPRINGFIELD_LON, 5, since)));
+    }
+    
+    @Test
+    void testFindNearestMatchesBruteForce() {
+        LocalDateTime now = LocalDateTime.now();
+        Random random = new Random(42);
+        for (long technicianId = 1; technicianId <= 2000; technicianId++) {
+            index.onLocationFix(fix(technicianId,
+                    SPRINGFIELD_LAT + (random.nextDouble() - 0.5),
+                    SPRINGFIELD_LON + (random.nextDouble() - 0.5),
+                    now));
+        }
+        
+        for (int i = 0; i < 20; i++) {
+            double latitude = SPRINGFIELD_LAT + (random.nextDouble() - 0.5);
+            double longitude = SPRINGFIELD_LON + (random.nextDouble() - 0.5);
+            List<Long> expected = index.findWithinRadius(latitude, longitude, 200_000, since).stream()
+                    .sorted(Comparator.comparingDouble(NearbyTechnician::getDistanceMeters))
+                    .limit(7)
+                    .map(technician -> technician.getFix().getTechnicianId())
+                    .collect(Collectors.toList());
+            
+            assertEquals(expected, ids(index.findNearest(latitude, longitude, 7, since)));
+        }
+    }
+    
+    private List<Long> idsWithin(double minLat, double minLon, double maxLat, double maxLon) {
+        List<Long> ids = new ArrayList<>();
+        index.forEachWithin(minLat, minLon, maxLat, maxLon, since, fix -> ids.add(fix.getTechnicianId()));
+        ids.sort(Comparator.naturalOrder());
+        return ids;
+    }
+    
+    @Test
+    void testForEachWithinVisitsTechniciansInsideBox() {
+        LocalDateTime now = LocalDateTime.now();
+        index.onLocationFix(fix(101L, 39.7845, -89.6302, now));
+        index.onLocationFix(fix(102L, 39.7817, -89.6510, now));
+        index.onLocationFix(fix(103L, 40.1000, -89.6501, now));             // north of the box
+        index.onLocationFix(fix(104L, 39.7900, -89.6400, now.minusHours(1))); // stale
+        
+        assertEquals(List.of(101L, 102L), idsWithin(39.70, -89.70, 39.90, -89.60));
+    }
+    
+    @Test
+    void testForEachWithinAcrossAntimeridian() {
+        LocalDateTime now = LocalDateTime.now();
+        index.onLocationFix(fix(101L, -17.5, 179.95, now));
+        index.onLocationFix(fix(102L, -17.5, -179.95, now));
+        index.onLocationFix(fix(103L, -17.5, 0.0, now));
+        
+        assertEquals(List.of(101L, 102L), idsWithin(-18.0, 179.0, -17.0, -179.0));
+        assertEquals(List.of(101L, 102L, 103L), idsWithin(-90.0, -180.0, 90.0, 180.0));
+    }
+    
+    @Test
+    void testForEachWithinMatchesBruteForce() {
+        LocalDateTime now = LocalDateTime.now();
+        Random random = new Random(7);
+        for (long technicianId = 1; technicianId <= 2000; technicianId++) {
+            index.onLocationFix(fix(technicianId,
+                    SPRINGFIELD_LAT + (random.nextDouble() - 0.5),
+                    SPRINGFIELD_LON + (random.nextDouble() - 0.5),
+                    now));
+        }
+        
+        for (int i = 0; i < 20; i++) {
+            double minLat = SPRINGFIELD_LAT + (random.nextDouble() - 0.5);
+            double minLon = SPRINGFIELD_LON + (random.nextDouble() - 0.5);
+            double maxLat = minLat + random.nextDouble() * 0.3;
+            double maxLon = minLon + random.nextDouble() * 0.3;
+            List<Long> expected = index.findWithinRadius(SPRINGFIELD_LAT, SPRINGFIELD_LON, 200_000, since).stream()
+                    .map(NearbyTechnician::getFix)
+                    .filter(fix -> fix.getLatitude() >= minLat && fix.getLatitude() <= maxLat
+                            && fix.getLongitude() >= minLon && fix.getLongitude() <= maxLon)
+                    .map(LocationFix::getTechnicianId)
+                    .sorted()
+                    .collect(Collectors.toList());
+            
+            assertEquals(expected, idsWithin(minLat, minLon, maxLat, maxLon));
+        }
+    }
+}
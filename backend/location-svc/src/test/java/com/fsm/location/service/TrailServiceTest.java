@@ -0,0 +1,133 @@
+package com.fsm.location.service;
+
+import com.fsm.location.api.dto.TrailResponse;
+import com.fsm.location.domain.model.LocationFix;
+import com.fsm.location.domain.model.TrailPoint;
+import com.fsm.location.domain.repository.LocationRepository;
+import com.fsm.location.infrastructure.config.TrailProperties;
+import com.fsm.location.service.exception.InvalidTrailRangeException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.argThat;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+/**
+ * Unit tests for TrailService.
+ */
+class TrailServiceTest {
+    
+    private static final LocalDateTime FROM = LocalDateTime.of(2024, 1, 15, 8, 0);
+    private static final LocalDateTime TO = FROM.plusHours(8);
+    
+    private LocationRepository locationRepository;
+    private PlatformTransactionManager transactionManager;
+    private LatestLocationRegistry registry;
+    private TrailProperties properties;
+    private TrailService trailService;
+    
+    @BeforeEach
+    void setUp() {
+        locationRepository = mock(LocationRepository.class);
+        transactionManager = mock(PlatformTransactionManager.class);
+        registry = new LatestLocationRegistry();
+        properties = new TrailProperties();
+        RecentFixBuffer recentFixBuffer = new RecentFixBuffer(properties, registry, new SimpleMeterRegistry());
+        recentFixBuffer.registerWithRegistry();
+        trailService = new TrailService(locationRepository, recentFixBuffer, properties, transactionManager);
+    }
+    
+    private void record(long locationId, double longitude, LocalDateTime timestamp) {
+        registry.record(LocationFix.builder()
+                .locationId(locationId)
+                .technicianId(101L)
+                .latitude(39.7800)
+                .longitude(longitude)
+                .accuracy(10.0)
+                .timestamp(timestamp)
+                .build());
+    }
+    
+    @Test
+    void testGetTrailStreamsAndSimplifies() {
+        AtomicBoolean closed = new AtomicBoolean();
+        when(locationRepository.streamTrail(101L, FROM, TO)).thenReturn(Stream.of(
+                new TrailPoint(39.7800, -89.6600, FROM.plusMinutes(1)),
+                new TrailPoint(39.7800, -89.6550, FROM.plusMinutes(2)),
+                new TrailPoint(39.7800, -89.6500, FROM.plusMinutes(3))
+        ).onClose(() -> closed.set(true)));
+        
+        TrailResponse trail = trailService.getTrail(101L, FROM, TO, 5.0);
+        
+        assertEquals(3, trail.getRecordedPoints());
+        assertEquals(2, trail.getPoints());
+        assertEquals(FROM.plusMinutes(1), trail.getStartTime());
+        assertArrayEquals(new int[] {0, 120}, trail.getTimeOffsets());
+        assertFalse(trail.getPolyline().isEmpty());
+        assertTrue(closed.get());
+        verify(transactionManager).getTransaction(argThat(definition -> definition.isReadOnly()));
+    }
+    
+    @Test
+    void testRecentTrailIsServedFromMemory() {
+        record(1L, -89.6600, FROM.plusMinutes(1));
+        record(2L, -89.6550, FROM.plusMinutes(2));
+        record(3L, -89.6500, FROM.plusMinutes(3));
+        
+        TrailResponse trail = trailService.getTrail(101L, FROM.plusMinutes(1), FROM.plusMinutes(30), 5.0);
+        
+        assertEquals(3, trail.getRecordedPoints());
+        assertEquals(2, trail.getPoints());
+        assertArrayEquals(new int[] {0, 120}, trail.getTimeOffsets());
+        verifyNoInteractions(locationRepository, transactionManager);
+    }
+    
+    @Test
+    void testTrailStartingBeforeBufferedFixesIsLoaded() {
+        record(1L, -89.6600, FROM.plusMinutes(1));
+        when(locationRepository.streamTrail(101L, FROM, TO)).thenReturn(Stream.empty());
+        
+        trailService.getTrail(101L, FROM, TO, 0);
+        
+        verify(locationRepository).streamTrail(101L, FROM, TO);
+    }
+    
+    @Test
+    void testGetTrailWithoutFixes() {
+        when(locationRepository.streamTrail(101L, FROM, TO)).thenReturn(Stream.empty());
+        
+        TrailResponse trail = trailService.getTrail(101L, FROM, TO, 0);
+        
+        assertEquals(0, trail.getPoints());
+        assertEquals("", trail.getPolyline());
+        assertNull(trail.getStartTime());
+    }
+    
+    @Test
+    void testGetTrailDefaultsToLastDay() {
+        when(locationRepository.streamTrail(eq(101L), any(), any())).thenReturn(Stream.empty());
+        
+        TrailResponse trail = trailService.getTrail(101L, null, null, 0);
+        
+        assertEquals(Duration.ofHours(24), Duration.between(trail.getFrom(), trail.getTo()));
+    }
+    
+    @Test
+    void testGetTrailRejectsInvalidRanges() {
+        assertThrows(InvalidTrailRangeException.class, () -> trailService.getTrail(101L, TO, FROM, 0));
+        assertThrows(InvalidTrailRangeException.class,
+                () -> trailService.getTrail(101L, FROM, FROM.plusDays(8), 0));
+        
+        verifyNoInteractions(locationRepository);
+    }
+}